@@ -2,14 +2,14 @@ package gov.df.seape.sistema.visitas;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootApplication
-@EnableJpaRepositories(basePackages = "gov.df.seape.sistema.visitas.repository")
 @EnableTransactionManagement
+@EnableScheduling
 @Slf4j  // Anotação do Lombok para geração de logger
 public class SistemaVisitasApplication {
 
@@ -0,0 +1,66 @@
+package gov.df.seape.sistema.visitas.busca;
+
+import gov.df.seape.sistema.visitas.model.Custodiado;
+import gov.df.seape.sistema.visitas.model.Pessoa;
+import gov.df.seape.sistema.visitas.model.Visitante;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Listener JPA que mantém os índices de busca em memória ({@link IndiceNomes},
+ * {@link IndiceSugestoes} e {@link IndiceBuscaUnificada}) atualizados a cada inclusão,
+ * alteração ou exclusão de pessoas, custodiados e visitantes.
+ *
+ * Instanciado pelo Hibernate por meio do contêiner de beans do Spring; os índices são
+ * obtidos de forma tardia porque podem não existir em contextos de teste parciais.
+ */
+public class IndiceBuscaListener {
+
+    private final ObjectProvider<IndiceNomes> indiceNomes;
+    private final ObjectProvider<IndiceSugestoes> indiceSugestoes;
+    private final ObjectProvider<IndiceBuscaUnificada> indiceBusca;
+
+    public IndiceBuscaListener(ObjectProvider<IndiceNomes> indiceNomes,
+                               ObjectProvider<IndiceSugestoes> indiceSugestoes,
+                               ObjectProvider<IndiceBuscaUnificada> indiceBusca) {
+        this.indiceNomes = indiceNomes;
+        this.indiceSugestoes = indiceSugestoes;
+        this.indiceBusca = indiceBusca;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void aposSalvar(Object entidade) {
+        if (entidade instanceof Pessoa pessoa) {
+            indiceNomes.ifAvailable(indice -> indice.indexarPessoa(pessoa.getId(), pessoa.getNome()));
+            indiceSugestoes.ifAvailable(indice -> indice.indexarPessoa(pessoa.getId(), pessoa.getNome(), pessoa.getCpf()));
+            indiceBusca.ifAvailable(indice -> indice.atualizarPessoa(pessoa.getId(), pessoa.getNome(), pessoa.getCpf()));
+        } else if (entidade instanceof Custodiado custodiado) {
+            indiceNomes.ifAvailable(indice -> indice.indexarVulgo(custodiado.getId(), custodiado.getVulgo()));
+            indiceSugestoes.ifAvailable(indice -> indice.indexarCustodiado(custodiado.getId(), custodiado.getNumeroProntuario()));
+            Pessoa pessoa = custodiado.getPessoa();
+            indiceBusca.ifAvailable(indice -> indice.indexarCustodiado(custodiado.getId(), pessoa.getId(),
+                    pessoa.getNome(), pessoa.getCpf(), custodiado.getVulgo(), custodiado.getNumeroProntuario()));
+        } else if (entidade instanceof Visitante visitante) {
+            Pessoa pessoa = visitante.getPessoa();
+            indiceBusca.ifAvailable(indice -> indice.indexarVisitante(visitante.getId(), pessoa.getId(),
+                    pessoa.getNome(), pessoa.getCpf()));
+        }
+    }
+
+    @PostRemove
+    public void aposExcluir(Object entidade) {
+        if (entidade instanceof Pessoa pessoa) {
+            indiceNomes.ifAvailable(indice -> indice.removerPessoa(pessoa.getId()));
+            indiceSugestoes.ifAvailable(indice -> indice.remover(IndiceSugestoes.Tipo.PESSOA, pessoa.getId()));
+        } else if (entidade instanceof Custodiado custodiado) {
+            indiceNomes.ifAvailable(indice -> indice.removerVulgo(custodiado.getId()));
+            indiceSugestoes.ifAvailable(indice -> indice.remover(IndiceSugestoes.Tipo.CUSTODIADO, custodiado.getId()));
+            indiceBusca.ifAvailable(indice -> indice.remover(IndiceBuscaUnificada.Tipo.CUSTODIADO, custodiado.getId()));
+        } else if (entidade instanceof Visitante visitante) {
+            indiceBusca.ifAvailable(indice -> indice.remover(IndiceBuscaUnificada.Tipo.VISITANTE, visitante.getId()));
+        }
+    }
+}
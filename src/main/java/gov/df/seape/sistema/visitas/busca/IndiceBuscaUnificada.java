@@ -0,0 +1,311 @@
+package gov.df.seape.sistema.visitas.busca;
+
+import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
+import gov.df.seape.sistema.visitas.repository.VisitanteRepository;
+import gov.df.seape.sistema.visitas.util.ExecucaoAposCommit;
+import gov.df.seape.sistema.visitas.util.NormalizadorTexto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória compartilhado pela busca unificada de custodiados e visitantes.
+ *
+ * Cada custodiado e cada visitante é um registro do índice, com os dados da pessoa
+ * associada (nome e CPF) e, no caso de custodiados, o vulgo e o número de prontuário.
+ * Os registros são localizados pelo {@link IndiceTrigramas} e classificados por tipo de
+ * correspondência: documento exato (CPF ou prontuário), prefixo (início de um campo ou
+ * de uma palavra do nome) e substring. A paginação é feita por cursor, sem contagem total:
+ * cada página mantém apenas os {@code tamanho + 1} primeiros registros após o cursor em um
+ * heap limitado, sem ordenar todas as ocorrências do termo.
+ *
+ * O índice é carregado na inicialização e mantido pelo {@link IndiceBuscaListener}.
+ */
+@Component
+@Slf4j
+public class IndiceBuscaUnificada {
+
+    /**
+     * Tipo do registro encontrado.
+     */
+    public enum Tipo { CUSTODIADO, VISITANTE }
+
+    /**
+     * Tipo de correspondência com o termo, na ordem de relevância.
+     */
+    public enum Correspondencia { EXATA, PREFIXO, SUBSTRING }
+
+    /**
+     * Registro encontrado na busca.
+     */
+    public record Resultado(Tipo tipo, Long id, String nome, String cpf,
+                            String numeroProntuario, String vulgo, Correspondencia correspondencia) {
+    }
+
+    /**
+     * Página de resultados e cursor da página seguinte (null na última página).
+     */
+    public record Pagina(List<Resultado> itens, String proximoCursor) {
+    }
+
+    private record Registro(Tipo tipo, long id, long pessoaId, String nome, String cpf,
+                            String vulgo, String numeroProntuario,
+                            String nomeNormalizado, String vulgoNormalizado, String prontuarioNormalizado) {
+    }
+
+    private record Ocorrencia(Registro registro, Correspondencia correspondencia) {
+    }
+
+    private static final Comparator<Ocorrencia> ORDEM = Comparator
+            .comparing(Ocorrencia::correspondencia)
+            .thenComparing(o -> o.registro().nomeNormalizado())
+            .thenComparing(o -> o.registro().tipo())
+            .thenComparingLong(o -> o.registro().id());
+
+    /** Separa os campos no texto indexado; não ocorre em termos normalizados. */
+    private static final char SEPARADOR_CAMPOS = '\u0001';
+    private static final Pattern DOCUMENTO = Pattern.compile("[\\d.\\-/ ]+");
+    private static final Pattern NAO_DIGITO = Pattern.compile("\\D");
+
+    private final CustodiadoRepository custodiadoRepository;
+    private final VisitanteRepository visitanteRepository;
+    private final int tamanhoLote;
+
+    private final IndiceTrigramas trigramas = new IndiceTrigramas();
+    private final Map<Long, Registro> registros = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> registrosPorPessoa = new ConcurrentHashMap<>();
+
+    public IndiceBuscaUnificada(CustodiadoRepository custodiadoRepository,
+                                VisitanteRepository visitanteRepository,
+                                @Value("${busca.indice.tamanho-lote:5000}") int tamanhoLote) {
+        this.custodiadoRepository = custodiadoRepository;
+        this.visitanteRepository = visitanteRepository;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Carrega o índice a partir do banco, em lotes ordenados por ID.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        long ultimoId = 0L;
+        List<Object[]> lote;
+        do {
+            lote = custodiadoRepository.findResumoBuscaAposId(ultimoId, PageRequest.of(0, tamanhoLote));
+            for (Object[] linha : lote) {
+                ultimoId = (Long) linha[0];
+                registrar(Tipo.CUSTODIADO, ultimoId, (Long) linha[1], (String) linha[2], (String) linha[3],
+                        (String) linha[4], (String) linha[5], false);
+            }
+        } while (lote.size() == tamanhoLote);
+
+        ultimoId = 0L;
+        do {
+            lote = visitanteRepository.findResumoBuscaAposId(ultimoId, PageRequest.of(0, tamanhoLote));
+            for (Object[] linha : lote) {
+                ultimoId = (Long) linha[0];
+                registrar(Tipo.VISITANTE, ultimoId, (Long) linha[1], (String) linha[2], (String) linha[3],
+                        null, null, false);
+            }
+        } while (lote.size() == tamanhoLote);
+
+        log.info("Índice de busca unificada carregado em {} ms com {} registros",
+                System.currentTimeMillis() - inicio, registros.size());
+    }
+
+    /**
+     * Busca custodiados e visitantes pelo termo, em ordem de relevância.
+     *
+     * @param termo Nome, vulgo, CPF ou número de prontuário (ou parte deles)
+     * @param cursor Cursor retornado na página anterior, ou null para a primeira página
+     * @param tamanho Quantidade máxima de itens na página
+     * @return Página de resultados
+     * @throws IllegalArgumentException se o termo for curto demais ou o cursor for inválido
+     */
+    public Pagina buscar(String termo, String cursor, int tamanho) {
+        String normalizado = normalizarTermo(termo);
+        if (!IndiceTrigramas.pesquisavel(normalizado)) {
+            throw new IllegalArgumentException(
+                    "O termo deve ter ao menos " + IndiceTrigramas.TAMANHO_GRAMA + " caracteres");
+        }
+        Ocorrencia posicao = cursor == null ? null : decodificarCursor(cursor);
+
+        // Heap com a pior das ocorrências mantidas no topo; o item excedente só indica
+        // que há página seguinte
+        int limite = tamanho + 1;
+        PriorityQueue<Ocorrencia> primeiras = new PriorityQueue<>(limite, ORDEM.reversed());
+        for (Long chave : trigramas.buscar(normalizado, Integer.MAX_VALUE)) {
+            Registro registro = registros.get(chave);
+            if (registro == null) {
+                continue;
+            }
+            Ocorrencia ocorrencia = new Ocorrencia(registro, classificar(registro, normalizado));
+            if (posicao != null && ORDEM.compare(ocorrencia, posicao) <= 0) {
+                continue;
+            }
+            if (primeiras.size() < limite) {
+                primeiras.add(ocorrencia);
+            } else if (ORDEM.compare(ocorrencia, primeiras.peek()) < 0) {
+                primeiras.poll();
+                primeiras.add(ocorrencia);
+            }
+        }
+        List<Ocorrencia> ocorrencias = new ArrayList<>(primeiras);
+        ocorrencias.sort(ORDEM);
+
+        List<Resultado> itens = new ArrayList<>(Math.min(tamanho, ocorrencias.size()));
+        for (Ocorrencia ocorrencia : ocorrencias.subList(0, Math.min(tamanho, ocorrencias.size()))) {
+            Registro r = ocorrencia.registro();
+            itens.add(new Resultado(r.tipo(), r.id(), r.nome(), r.cpf(), r.numeroProntuario(), r.vulgo(),
+                    ocorrencia.correspondencia()));
+        }
+        String proximoCursor = ocorrencias.size() > tamanho
+                ? codificarCursor(ocorrencias.get(tamanho - 1))
+                : null;
+        return new Pagina(itens, proximoCursor);
+    }
+
+    void indexarCustodiado(Long id, Long pessoaId, String nome, String cpf, String vulgo, String numeroProntuario) {
+        ExecucaoAposCommit.executar(() ->
+                registrar(Tipo.CUSTODIADO, id, pessoaId, nome, cpf, vulgo, numeroProntuario, true));
+    }
+
+    void indexarVisitante(Long id, Long pessoaId, String nome, String cpf) {
+        ExecucaoAposCommit.executar(() -> registrar(Tipo.VISITANTE, id, pessoaId, nome, cpf, null, null, true));
+    }
+
+    void atualizarPessoa(Long pessoaId, String nome, String cpf) {
+        ExecucaoAposCommit.executar(() -> {
+            for (Long chave : List.copyOf(registrosPorPessoa.getOrDefault(pessoaId, Set.of()))) {
+                Registro r = registros.get(chave);
+                if (r != null) {
+                    registrar(r.tipo(), r.id(), pessoaId, nome, cpf, r.vulgo(), r.numeroProntuario(), true);
+                }
+            }
+        });
+    }
+
+    void remover(Tipo tipo, Long id) {
+        ExecucaoAposCommit.executar(() -> removerRegistro(chave(tipo, id)));
+    }
+
+    private synchronized void registrar(Tipo tipo, Long id, Long pessoaId, String nome, String cpf,
+                                        String vulgo, String numeroProntuario, boolean sobrescrever) {
+        long chave = chave(tipo, id);
+        if (!sobrescrever && registros.containsKey(chave)) {
+            return;
+        }
+        removerRegistro(chave);
+
+        String cpfDigitos = cpf == null ? null : NAO_DIGITO.matcher(cpf).replaceAll("");
+        Registro registro = new Registro(tipo, id, pessoaId, nome, cpfDigitos, vulgo, numeroProntuario,
+                valorOuVazio(NormalizadorTexto.normalizar(nome)),
+                NormalizadorTexto.normalizar(vulgo),
+                NormalizadorTexto.normalizar(numeroProntuario));
+        registros.put(chave, registro);
+        registrosPorPessoa.computeIfAbsent(pessoaId, p -> ConcurrentHashMap.newKeySet()).add(chave);
+        trigramas.indexar(chave, textoIndexado(registro));
+    }
+
+    private synchronized void removerRegistro(long chave) {
+        Registro anterior = registros.remove(chave);
+        if (anterior == null) {
+            return;
+        }
+        trigramas.remover(chave);
+        Set<Long> daPessoa = registrosPorPessoa.get(anterior.pessoaId());
+        if (daPessoa != null) {
+            daPessoa.remove(chave);
+            if (daPessoa.isEmpty()) {
+                registrosPorPessoa.remove(anterior.pessoaId());
+            }
+        }
+    }
+
+    private static Correspondencia classificar(Registro r, String termo) {
+        if (termo.equals(r.cpf()) || termo.equals(r.prontuarioNormalizado())) {
+            return Correspondencia.EXATA;
+        }
+        if (r.nomeNormalizado().startsWith(termo)
+                || r.nomeNormalizado().contains(" " + termo)
+                || iniciaCom(r.vulgoNormalizado(), termo)
+                || iniciaCom(r.prontuarioNormalizado(), termo)
+                || iniciaCom(r.cpf(), termo)) {
+            return Correspondencia.PREFIXO;
+        }
+        return Correspondencia.SUBSTRING;
+    }
+
+    private static boolean iniciaCom(String campo, String termo) {
+        return campo != null && campo.startsWith(termo);
+    }
+
+    private static String textoIndexado(Registro r) {
+        StringBuilder texto = new StringBuilder(r.nomeNormalizado());
+        for (String campo : new String[] {r.vulgoNormalizado(), r.prontuarioNormalizado(), r.cpf()}) {
+            if (campo != null && !campo.isEmpty()) {
+                texto.append(SEPARADOR_CAMPOS).append(campo);
+            }
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Combina tipo e ID em uma única chave numérica para o índice de trigramas.
+     */
+    private static long chave(Tipo tipo, long id) {
+        return (id << 1) | tipo.ordinal();
+    }
+
+    private static String valorOuVazio(String valor) {
+        return valor == null ? "" : valor;
+    }
+
+    private static String normalizarTermo(String termo) {
+        if (termo == null) {
+            return "";
+        }
+        if (DOCUMENTO.matcher(termo).matches()) {
+            return NAO_DIGITO.matcher(termo).replaceAll("");
+        }
+        return NormalizadorTexto.normalizar(termo);
+    }
+
+    /**
+     * O cursor registra a posição do último item entregue na ordem de relevância:
+     * correspondência, nome normalizado, tipo e ID.
+     */
+    private static String codificarCursor(Ocorrencia ultima) {
+        Registro r = ultima.registro();
+        String posicao = ultima.correspondencia().name() + ";" + r.tipo().name() + ";" + r.id() + ";"
+                + r.nomeNormalizado();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicao.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Ocorrencia decodificarCursor(String cursor) {
+        try {
+            String posicao = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = posicao.split(";", 4);
+            Registro referencia = new Registro(Tipo.valueOf(partes[1]), Long.parseLong(partes[2]), 0L,
+                    null, null, null, null, partes[3], null, null);
+            return new Ocorrencia(referencia, Correspondencia.valueOf(partes[0]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de busca inválido", e);
+        }
+    }
+}
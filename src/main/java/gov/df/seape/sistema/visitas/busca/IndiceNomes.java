@@ -0,0 +1,145 @@
+package gov.df.seape.sistema.visitas.busca;
+
+import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
+import gov.df.seape.sistema.visitas.repository.PessoaRepository;
+import gov.df.seape.sistema.visitas.util.ExecucaoAposCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Índices em memória para a busca por substring nos nomes de pessoas e nos
+ * vulgos de custodiados, usados no lugar de {@code LIKE '%termo%'}.
+ *
+ * O índice é carregado na inicialização e mantido a cada escrita pelo
+ * {@link IndiceBuscaListener}. As consultas retornam os identificadores candidatos,
+ * e os repositórios reaplicam o filtro por nome restrito a esses identificadores,
+ * de modo que o resultado é sempre o mesmo da busca com LIKE.
+ *
+ * Quando o índice não pode responder (termo curto, carga ainda em andamento ou termo
+ * pouco seletivo, com mais de {@code maximoIds} ocorrências) é retornado
+ * {@link Optional#empty()} e o chamador deve usar a consulta com LIKE.
+ */
+@Component
+@Slf4j
+public class IndiceNomes {
+
+    private final PessoaRepository pessoaRepository;
+    private final CustodiadoRepository custodiadoRepository;
+    private final int maximoIds;
+    private final int maximoPostagensSemelhanca;
+    private final int tamanhoLote;
+
+    private final IndiceTrigramas nomesPessoas = new IndiceTrigramas();
+    private final IndiceTrigramas vulgosCustodiados = new IndiceTrigramas();
+    private volatile boolean carregado;
+
+    public IndiceNomes(PessoaRepository pessoaRepository,
+                       CustodiadoRepository custodiadoRepository,
+                       @Value("${busca.indice.maximo-ids:2000}") int maximoIds,
+                       @Value("${busca.indice.maximo-postagens-semelhanca:20000}") int maximoPostagensSemelhanca,
+                       @Value("${busca.indice.tamanho-lote:5000}") int tamanhoLote) {
+        this.pessoaRepository = pessoaRepository;
+        this.custodiadoRepository = custodiadoRepository;
+        this.maximoIds = maximoIds;
+        this.maximoPostagensSemelhanca = maximoPostagensSemelhanca;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Carrega os índices a partir do banco, em lotes ordenados por ID.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        carregarEmLotes(ultimoId -> pessoaRepository.findIdNomeCpfAposId(ultimoId, PageRequest.of(0, tamanhoLote)),
+                nomesPessoas);
+        carregarEmLotes(ultimoId -> custodiadoRepository.findIdVulgoProntuarioAposId(ultimoId, PageRequest.of(0, tamanhoLote)),
+                vulgosCustodiados);
+        carregado = true;
+        log.info("Índice de nomes carregado em {} ms: {} pessoas, {} vulgos",
+                System.currentTimeMillis() - inicio, nomesPessoas.tamanho(), vulgosCustodiados.tamanho());
+    }
+
+    /**
+     * Busca os IDs das pessoas cujo nome contém o termo.
+     *
+     * @param termo Termo pesquisado
+     * @return IDs candidatos, ou vazio se a consulta deve ser feita com LIKE
+     */
+    public Optional<List<Long>> buscarPessoas(String termo) {
+        return buscar(nomesPessoas, termo);
+    }
+
+    /**
+     * Busca os IDs dos custodiados cujo vulgo contém o termo.
+     *
+     * @param termo Termo pesquisado
+     * @return IDs candidatos, ou vazio se a consulta deve ser feita com LIKE
+     */
+    public Optional<List<Long>> buscarVulgos(String termo) {
+        return buscar(vulgosCustodiados, termo);
+    }
+
+    /**
+     * Busca os IDs das pessoas cujo nome tem mais trigramas em comum com o termo,
+     * tolerando erros de digitação. Usado para completar as sugestões de busca.
+     *
+     * @param termo Termo pesquisado
+     * @param limite Quantidade máxima de IDs
+     * @return IDs em ordem decrescente de semelhança, ou lista vazia se o índice não pode responder
+     */
+    public List<Long> buscarPessoasSemelhantes(String termo, int limite) {
+        if (!carregado || !IndiceTrigramas.pesquisavel(termo)) {
+            return List.of();
+        }
+        return nomesPessoas.buscarSemelhantes(termo, limite, maximoPostagensSemelhanca);
+    }
+
+    void indexarPessoa(Long id, String nome) {
+        ExecucaoAposCommit.executar(() -> nomesPessoas.indexar(id, nome));
+    }
+
+    void removerPessoa(Long id) {
+        ExecucaoAposCommit.executar(() -> nomesPessoas.remover(id));
+    }
+
+    void indexarVulgo(Long custodiadoId, String vulgo) {
+        ExecucaoAposCommit.executar(() -> vulgosCustodiados.indexar(custodiadoId, vulgo));
+    }
+
+    void removerVulgo(Long custodiadoId) {
+        ExecucaoAposCommit.executar(() -> vulgosCustodiados.remover(custodiadoId));
+    }
+
+    private Optional<List<Long>> buscar(IndiceTrigramas indice, String termo) {
+        if (!carregado || !IndiceTrigramas.pesquisavel(termo)) {
+            return Optional.empty();
+        }
+        List<Long> ids = indice.buscar(termo, maximoIds + 1);
+        if (ids.size() > maximoIds) {
+            log.debug("Termo '{}' pouco seletivo para o índice; usando consulta com LIKE", termo);
+            return Optional.empty();
+        }
+        return Optional.of(ids);
+    }
+
+    private void carregarEmLotes(Function<Long, List<Object[]>> consulta, IndiceTrigramas indice) {
+        long ultimoId = 0L;
+        List<Object[]> lote;
+        do {
+            lote = consulta.apply(ultimoId);
+            for (Object[] linha : lote) {
+                ultimoId = (Long) linha[0];
+                indice.indexarSeAusente(ultimoId, (String) linha[1]);
+            }
+        } while (lote.size() == tamanhoLote);
+    }
+}
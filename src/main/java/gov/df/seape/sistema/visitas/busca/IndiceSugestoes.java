@@ -0,0 +1,225 @@
+package gov.df.seape.sistema.visitas.busca;
+
+import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
+import gov.df.seape.sistema.visitas.repository.PessoaRepository;
+import gov.df.seape.sistema.visitas.util.ExecucaoAposCommit;
+import gov.df.seape.sistema.visitas.util.NormalizadorTexto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória para sugestões de busca enquanto o usuário digita.
+ *
+ * As chaves ficam em um mapa ordenado e cada consulta percorre apenas o intervalo de
+ * chaves que começam com o prefixo digitado. São indexados:
+ * <ul>
+ *   <li>o nome normalizado de cada pessoa, a partir do início de cada palavra
+ *       ("silva" encontra "João da Silva");</li>
+ *   <li>o CPF de cada pessoa, apenas com dígitos;</li>
+ *   <li>o número de prontuário de cada custodiado.</li>
+ * </ul>
+ * Quando os prefixos não preenchem o limite, as vagas restantes recebem as pessoas cujo
+ * nome tem mais trigramas em comum com o termo ({@link IndiceNomes#buscarPessoasSemelhantes}),
+ * o que cobre erros de digitação.
+ *
+ * O índice é carregado na inicialização e mantido pelo {@link IndiceBuscaListener}.
+ */
+@Component
+@Slf4j
+public class IndiceSugestoes {
+
+    /**
+     * Tipo do registro sugerido.
+     */
+    public enum Tipo { PESSOA, CUSTODIADO }
+
+    /**
+     * Sugestão retornada pelo índice.
+     *
+     * @param tipo Tipo do registro
+     * @param id ID do registro
+     * @param rotulo Texto exibido ao usuário
+     */
+    public record Sugestao(Tipo tipo, Long id, String rotulo) {
+    }
+
+    private static final char SEPARADOR = '\u0000';
+    private static final Pattern DOCUMENTO = Pattern.compile("[\\d.\\-/ ]+");
+    private static final Pattern NAO_DIGITO = Pattern.compile("\\D");
+
+    private final PessoaRepository pessoaRepository;
+    private final CustodiadoRepository custodiadoRepository;
+    private final IndiceNomes indiceNomes;
+    private final int tamanhoLote;
+
+    private final ConcurrentSkipListMap<String, Sugestao> entradas = new ConcurrentSkipListMap<>();
+    private final Map<String, List<String>> chavesPorRegistro = new ConcurrentHashMap<>();
+
+    public IndiceSugestoes(PessoaRepository pessoaRepository,
+                           CustodiadoRepository custodiadoRepository,
+                           IndiceNomes indiceNomes,
+                           @Value("${busca.indice.tamanho-lote:5000}") int tamanhoLote) {
+        this.pessoaRepository = pessoaRepository;
+        this.custodiadoRepository = custodiadoRepository;
+        this.indiceNomes = indiceNomes;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Carrega o índice a partir do banco, em lotes ordenados por ID.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        long ultimoId = 0L;
+        List<Object[]> lote;
+        do {
+            lote = pessoaRepository.findIdNomeCpfAposId(ultimoId, PageRequest.of(0, tamanhoLote));
+            for (Object[] linha : lote) {
+                ultimoId = (Long) linha[0];
+                registrarPessoa(ultimoId, (String) linha[1], (String) linha[2], false);
+            }
+        } while (lote.size() == tamanhoLote);
+
+        ultimoId = 0L;
+        do {
+            lote = custodiadoRepository.findIdVulgoProntuarioAposId(ultimoId, PageRequest.of(0, tamanhoLote));
+            for (Object[] linha : lote) {
+                ultimoId = (Long) linha[0];
+                registrarCustodiado(ultimoId, (String) linha[2], false);
+            }
+        } while (lote.size() == tamanhoLote);
+
+        log.info("Índice de sugestões carregado em {} ms com {} chaves",
+                System.currentTimeMillis() - inicio, entradas.size());
+    }
+
+    /**
+     * Retorna primeiro as sugestões cujas chaves começam com o termo e, se sobrarem vagas,
+     * as pessoas com nome semelhante. Um termo formado apenas por dígitos e pontuação de
+     * documento é comparado somente pelos dígitos, sem busca por semelhança.
+     *
+     * @param termo Texto digitado
+     * @param limite Quantidade máxima de sugestões
+     * @return Sugestões por prefixo, em ordem alfabética da chave, seguidas das semelhantes,
+     *         em ordem decrescente de trigramas em comum; sem repetição de registros
+     */
+    public List<Sugestao> sugerir(String termo, int limite) {
+        String prefixo = normalizarTermo(termo);
+        if (prefixo.isEmpty()) {
+            return List.of();
+        }
+        boolean documento = DOCUMENTO.matcher(termo).matches();
+
+        Map<String, Sugestao> encontradas = new LinkedHashMap<>();
+        for (Map.Entry<String, Sugestao> entrada : entradas.tailMap(prefixo).entrySet()) {
+            if (!entrada.getKey().startsWith(prefixo) || encontradas.size() >= limite) {
+                break;
+            }
+            Sugestao sugestao = entrada.getValue();
+            encontradas.putIfAbsent(sugestao.tipo() + ":" + sugestao.id(), sugestao);
+        }
+
+        if (!documento && encontradas.size() < limite) {
+            for (Long pessoaId : indiceNomes.buscarPessoasSemelhantes(prefixo, limite)) {
+                if (encontradas.size() >= limite) {
+                    break;
+                }
+                String registro = Tipo.PESSOA + ":" + pessoaId;
+                List<String> chaves = chavesPorRegistro.get(registro);
+                Sugestao sugestao = chaves == null ? null : entradas.get(chaves.get(0));
+                if (sugestao != null) {
+                    encontradas.putIfAbsent(registro, sugestao);
+                }
+            }
+        }
+        return new ArrayList<>(encontradas.values());
+    }
+
+    void indexarPessoa(Long id, String nome, String cpf) {
+        ExecucaoAposCommit.executar(() -> registrarPessoa(id, nome, cpf, true));
+    }
+
+    void indexarCustodiado(Long id, String numeroProntuario) {
+        ExecucaoAposCommit.executar(() -> registrarCustodiado(id, numeroProntuario, true));
+    }
+
+    void remover(Tipo tipo, Long id) {
+        ExecucaoAposCommit.executar(() -> substituir(tipo, id, List.of(), null, true));
+    }
+
+    private void registrarPessoa(Long id, String nome, String cpf, boolean sobrescrever) {
+        List<String> textos = new ArrayList<>();
+        String nomeNormalizado = NormalizadorTexto.normalizar(nome);
+        if (nomeNormalizado != null && !nomeNormalizado.isEmpty()) {
+            for (int i = 0; i < nomeNormalizado.length(); i++) {
+                if (i == 0 || nomeNormalizado.charAt(i - 1) == ' ') {
+                    textos.add(nomeNormalizado.substring(i));
+                }
+            }
+        }
+        if (cpf != null) {
+            textos.add(NAO_DIGITO.matcher(cpf).replaceAll(""));
+        }
+        substituir(Tipo.PESSOA, id, textos, new Sugestao(Tipo.PESSOA, id, nome), sobrescrever);
+    }
+
+    private void registrarCustodiado(Long id, String numeroProntuario, boolean sobrescrever) {
+        List<String> textos = new ArrayList<>();
+        if (numeroProntuario != null) {
+            textos.add(NormalizadorTexto.normalizar(numeroProntuario));
+        }
+        substituir(Tipo.CUSTODIADO, id, textos, new Sugestao(Tipo.CUSTODIADO, id, numeroProntuario), sobrescrever);
+    }
+
+    /**
+     * Troca as chaves de um registro. Na carga inicial ({@code sobrescrever = false})
+     * registros já indexados por uma escrita mais recente são preservados.
+     */
+    private synchronized void substituir(Tipo tipo, Long id, List<String> textos,
+                                         Sugestao sugestao, boolean sobrescrever) {
+        String registro = tipo + ":" + id;
+        if (!sobrescrever && chavesPorRegistro.containsKey(registro)) {
+            return;
+        }
+
+        List<String> anteriores = chavesPorRegistro.remove(registro);
+        if (anteriores != null) {
+            anteriores.forEach(entradas::remove);
+        }
+
+        List<String> chaves = new ArrayList<>(textos.size());
+        for (String texto : textos) {
+            if (!texto.isEmpty()) {
+                String chave = texto + SEPARADOR + registro;
+                entradas.put(chave, sugestao);
+                chaves.add(chave);
+            }
+        }
+        if (!chaves.isEmpty()) {
+            chavesPorRegistro.put(registro, chaves);
+        }
+    }
+
+    private static String normalizarTermo(String termo) {
+        if (termo == null) {
+            return "";
+        }
+        if (DOCUMENTO.matcher(termo).matches()) {
+            return NAO_DIGITO.matcher(termo).replaceAll("");
+        }
+        return NormalizadorTexto.normalizar(termo);
+    }
+}
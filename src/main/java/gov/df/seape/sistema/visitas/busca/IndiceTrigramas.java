@@ -0,0 +1,288 @@
+package gov.df.seape.sistema.visitas.busca;
+
+import gov.df.seape.sistema.visitas.util.NormalizadorTexto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas para busca por substring.
+ *
+ * Cada texto indexado é decomposto em todas as sequências de três caracteres, e cada
+ * trigrama mantém a lista ordenada dos identificadores que o contêm. Uma busca intersecta
+ * as listas dos trigramas do termo, começando pela menor, e confirma o resultado com
+ * {@link String#contains}, de modo que o resultado é exatamente o conjunto de textos que
+ * contêm o termo. Textos e termos são comparados na forma de {@link NormalizadorTexto}
+ * (sem acentos, em minúsculas e com espaços simplificados).
+ *
+ * Termos com menos de três caracteres não podem ser respondidos pelo índice
+ * (ver {@link #pesquisavel(String)}). Leituras são concorrentes entre si; escritas
+ * são exclusivas.
+ */
+public class IndiceTrigramas {
+
+    public static final int TAMANHO_GRAMA = 3;
+
+    private final Map<Long, String> textos = new HashMap<>();
+    private final Map<String, Postagens> postagens = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexa (ou reindexa) o texto associado a um identificador.
+     * Um texto nulo ou vazio remove o identificador do índice.
+     *
+     * @param id Identificador do registro
+     * @param texto Texto a ser indexado
+     */
+    public void indexar(long id, String texto) {
+        lock.writeLock().lock();
+        try {
+            removerSemBloqueio(id);
+            adicionarSemBloqueio(id, texto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa o texto apenas se o identificador ainda não estiver no índice.
+     * Usado na carga inicial para não sobrescrever alterações mais recentes.
+     *
+     * @param id Identificador do registro
+     * @param texto Texto a ser indexado
+     */
+    public void indexarSeAusente(long id, String texto) {
+        lock.writeLock().lock();
+        try {
+            if (!textos.containsKey(id)) {
+                adicionarSemBloqueio(id, texto);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um identificador do índice.
+     *
+     * @param id Identificador do registro
+     */
+    public void remover(long id) {
+        lock.writeLock().lock();
+        try {
+            removerSemBloqueio(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os identificadores cujo texto contém o termo.
+     *
+     * @param termo Termo pesquisado (deve ser {@link #pesquisavel(String) pesquisável})
+     * @param limite Quantidade máxima de identificadores retornados
+     * @return Identificadores encontrados, em ordem crescente
+     */
+    public List<Long> buscar(String termo, int limite) {
+        String normalizado = normalizar(termo);
+        Set<String> gramas = trigramas(normalizado);
+        if (gramas.isEmpty()) {
+            throw new IllegalArgumentException("Termo deve ter ao menos " + TAMANHO_GRAMA + " caracteres");
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postagens> listas = new ArrayList<>(gramas.size());
+            for (String grama : gramas) {
+                Postagens lista = postagens.get(grama);
+                if (lista == null) {
+                    return List.of();
+                }
+                listas.add(lista);
+            }
+            listas.sort(Comparator.comparingInt(Postagens::tamanho));
+
+            Postagens menor = listas.get(0);
+            List<Long> resultado = new ArrayList<>();
+            for (int i = 0; i < menor.tamanho && resultado.size() < limite; i++) {
+                long id = menor.ids[i];
+                if (contidoEmTodas(listas, id) && textos.get(id).contains(normalizado)) {
+                    resultado.add(id);
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os identificadores cujo texto compartilha mais trigramas com o termo, sem
+     * exigir que o contenha; tolera erros de digitação.
+     *
+     * Trigramas presentes em mais de {@code maximoPostagens} textos são ignorados, por
+     * serem pouco discriminantes e caros de percorrer. Só entram no resultado os textos
+     * que compartilham ao menos metade dos trigramas restantes do termo.
+     *
+     * @param termo Termo pesquisado (deve ser {@link #pesquisavel(String) pesquisável})
+     * @param limite Quantidade máxima de identificadores retornados
+     * @param maximoPostagens Tamanho máximo das listas de trigramas consideradas
+     * @return Identificadores em ordem decrescente de trigramas em comum e, no empate, crescente de ID
+     */
+    public List<Long> buscarSemelhantes(String termo, int limite, int maximoPostagens) {
+        Set<String> gramas = trigramas(normalizar(termo));
+        if (gramas.isEmpty()) {
+            throw new IllegalArgumentException("Termo deve ter ao menos " + TAMANHO_GRAMA + " caracteres");
+        }
+
+        Map<Long, Integer> comuns = new HashMap<>();
+        int considerados = 0;
+        lock.readLock().lock();
+        try {
+            for (String grama : gramas) {
+                Postagens lista = postagens.get(grama);
+                if (lista == null || lista.tamanho > maximoPostagens) {
+                    continue;
+                }
+                considerados++;
+                for (int i = 0; i < lista.tamanho; i++) {
+                    comuns.merge(lista.ids[i], 1, Integer::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int minimo = Math.max(1, (considerados + 1) / 2);
+        return comuns.entrySet().stream()
+                .filter(entrada -> entrada.getValue() >= minimo)
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limite)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * @return Quantidade de registros indexados
+     */
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return textos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica se o termo pode ser respondido pelo índice.
+     *
+     * @param termo Termo pesquisado
+     * @return true se o termo tem ao menos {@value #TAMANHO_GRAMA} caracteres
+     */
+    public static boolean pesquisavel(String termo) {
+        return termo != null && normalizar(termo).length() >= TAMANHO_GRAMA;
+    }
+
+    static String normalizar(String texto) {
+        return NormalizadorTexto.normalizar(texto);
+    }
+
+    private static boolean contidoEmTodas(List<Postagens> listas, long id) {
+        for (int i = 1; i < listas.size(); i++) {
+            if (!listas.get(i).contem(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void adicionarSemBloqueio(long id, String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return;
+        }
+        String normalizado = normalizar(texto);
+        textos.put(id, normalizado);
+        for (String grama : trigramas(normalizado)) {
+            postagens.computeIfAbsent(grama, g -> new Postagens()).adicionar(id);
+        }
+    }
+
+    private void removerSemBloqueio(long id) {
+        String anterior = textos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String grama : trigramas(anterior)) {
+            Postagens lista = postagens.get(grama);
+            if (lista != null && lista.remover(id) && lista.tamanho == 0) {
+                postagens.remove(grama);
+            }
+        }
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> gramas = new LinkedHashSet<>();
+        for (int i = 0; i + TAMANHO_GRAMA <= texto.length(); i++) {
+            gramas.add(texto.substring(i, i + TAMANHO_GRAMA));
+        }
+        return gramas;
+    }
+
+    /**
+     * Lista ordenada de identificadores em um vetor primitivo, evitando o custo
+     * de memória de coleções de objetos em índices com milhões de registros.
+     */
+    private static final class Postagens {
+
+        private long[] ids = new long[4];
+        private int tamanho;
+
+        int tamanho() {
+            return tamanho;
+        }
+
+        void adicionar(long id) {
+            if (tamanho > 0 && ids[tamanho - 1] >= id) {
+                int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+                if (posicao >= 0) {
+                    return;
+                }
+                inserir(-posicao - 1, id);
+                return;
+            }
+            inserir(tamanho, id);
+        }
+
+        boolean remover(long id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+
+        boolean contem(long id) {
+            return Arrays.binarySearch(ids, 0, tamanho, id) >= 0;
+        }
+
+        private void inserir(int posicao, long id) {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+    }
+}
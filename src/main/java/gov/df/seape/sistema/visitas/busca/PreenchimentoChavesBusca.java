@@ -0,0 +1,78 @@
+package gov.df.seape.sistema.visitas.busca;
+
+import gov.df.seape.sistema.visitas.util.CpfUtil;
+import gov.df.seape.sistema.visitas.util.FoneticaBR;
+import gov.df.seape.sistema.visitas.util.NormalizadorTexto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Preenche as chaves de busca das pessoas gravadas antes da criação das colunas
+ * nome_busca, chave_fonetica e cpf_numero, gravando também os CPFs formatados apenas
+ * com os dígitos. Novos registros recebem a chave em {@code Pessoa.atualizarChavesBusca()}.
+ *
+ * O processamento é feito em lotes ordenados por ID, cada um com uma consulta e um
+ * UPDATE em lote, para não manter bloqueios longos na tabela.
+ */
+@Component
+@Slf4j
+public class PreenchimentoChavesBusca {
+
+    private static final String SQL_PENDENTES =
+            "SELECT id, nome, cpf FROM pessoa "
+                    + "WHERE (nome_busca IS NULL OR chave_fonetica IS NULL OR cpf_numero IS NULL) AND id > ? "
+                    + "ORDER BY id LIMIT ?";
+    private static final String SQL_ATUALIZAR =
+            "UPDATE pessoa SET nome_busca = ?, chave_fonetica = ?, cpf = ?, cpf_numero = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoLote;
+
+    public PreenchimentoChavesBusca(
+            JdbcTemplate jdbcTemplate,
+            @Value("${busca.chaves.tamanho-lote:1000}") int tamanhoLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Calcula as chaves de busca pendentes, lote a lote.
+     *
+     * @return Quantidade de pessoas atualizadas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int preencher() {
+        long ultimoId = 0L;
+        int total = 0;
+        List<Map<String, Object>> lote;
+        do {
+            lote = jdbcTemplate.queryForList(SQL_PENDENTES, ultimoId, tamanhoLote);
+            List<Object[]> parametros = new ArrayList<>(lote.size());
+            for (Map<String, Object> linha : lote) {
+                ultimoId = ((Number) linha.get("id")).longValue();
+                String nome = (String) linha.get("nome");
+                String cpf = (String) linha.get("cpf");
+                String cpfNormalizado = CpfUtil.normalizar(cpf);
+                parametros.add(new Object[] {NormalizadorTexto.normalizar(nome), FoneticaBR.codificar(nome),
+                        cpfNormalizado != null ? cpfNormalizado : cpf, CpfUtil.paraNumero(cpf), ultimoId});
+            }
+            if (!parametros.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_ATUALIZAR, parametros);
+                total += parametros.size();
+            }
+        } while (lote.size() == tamanhoLote);
+
+        if (total > 0) {
+            log.info("Chaves de busca preenchidas para {} pessoas", total);
+        }
+        return total;
+    }
+}
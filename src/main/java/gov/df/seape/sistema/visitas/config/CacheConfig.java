@@ -0,0 +1,49 @@
+package gov.df.seape.sistema.visitas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuração dos caches em memória de cadastros que raramente mudam
+ * (status, unidades penais, perfis e funcionalidades).
+ *
+ * Cada cache é limitado pela especificação do Caffeine em {@code cache.cadastros.especificacao}
+ * e publica métricas de acertos, falhas e remoções ({@code cache.gets}, {@code cache.evictions}).
+ * As remoções feitas pelos serviços só são aplicadas após o commit da transação, para que uma
+ * leitura concorrente não volte a guardar o valor anterior.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String STATUS = "status";
+    public static final String UNIDADES_PENAIS = "unidadesPenais";
+    public static final String PERFIS = "perfis";
+    public static final String FUNCIONALIDADES = "funcionalidades";
+
+    @Bean
+    public CacheManager cacheManager(
+            MeterRegistry meterRegistry,
+            @Value("${cache.cadastros.especificacao:maximumSize=500,expireAfterWrite=12h,recordStats}") String especificacao) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCacheSpecification(especificacao);
+        caffeine.setAllowNullValues(false);
+        caffeine.setCacheNames(List.of(STATUS, UNIDADES_PENAIS, PERFIS, FUNCIONALIDADES));
+
+        for (String nome : caffeine.getCacheNames()) {
+            CaffeineCache cache = (CaffeineCache) caffeine.getCache(nome);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), nome);
+        }
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
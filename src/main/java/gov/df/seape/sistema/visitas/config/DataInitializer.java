@@ -47,22 +47,24 @@ public class DataInitializer {
         );
         unidadePenalRepository.saveAll(unidadesList);
 
-        Pessoa pessoaCustodiado1 = createPessoa("João da Silva", "111.222.333-44", LocalDate.of(1985, 5, 15));
+        Pessoa pessoaCustodiado1 = createPessoa("João da Silva", "11122233344", LocalDate.of(1985, 5, 15));
         pessoaRepository.save(pessoaCustodiado1);
         Custodiado custodiado1 = createCustodiado(pessoaCustodiado1, "C12345", "Careca", unidadesList.get(0));
         custodiadoRepository.save(custodiado1);
+        unidadePenalRepository.ocuparVagas(unidadesList.get(0).getId(), 1);
 
-        Pessoa pessoaCustodiado2 = createPessoa("Pedro Oliveira", "222.333.444-55", LocalDate.of(1990, 8, 22));
+        Pessoa pessoaCustodiado2 = createPessoa("Pedro Oliveira", "22233344455", LocalDate.of(1990, 8, 22));
         pessoaRepository.save(pessoaCustodiado2);
         Custodiado custodiado2 = createCustodiado(pessoaCustodiado2, "C67890", "Magrão", unidadesList.get(1));
         custodiadoRepository.save(custodiado2);
+        unidadePenalRepository.ocuparVagas(unidadesList.get(1).getId(), 1);
 
-        Pessoa pessoaVisitante1 = createPessoa("Maria Santos", "333.444.555-66", LocalDate.of(1988, 3, 10));
+        Pessoa pessoaVisitante1 = createPessoa("Maria Santos", "33344455566", LocalDate.of(1988, 3, 10));
         pessoaRepository.save(pessoaVisitante1);
         Visitante visitante1 = createVisitante(pessoaVisitante1, "senha123");
         visitanteRepository.save(visitante1);
 
-        Pessoa pessoaVisitante2 = createPessoa("Ana Souza", "444.555.666-77", LocalDate.of(1992, 7, 25));
+        Pessoa pessoaVisitante2 = createPessoa("Ana Souza", "44455566677", LocalDate.of(1992, 7, 25));
         pessoaRepository.save(pessoaVisitante2);
         Visitante visitante2 = createVisitante(pessoaVisitante2, "senha456");
         visitanteRepository.save(visitante2);
@@ -96,7 +98,10 @@ public class DataInitializer {
                 createFuncionalidade("AGENDAMENTO_VISITA_CANCELAR", "api.agendamentos.cancel"),
                 createFuncionalidade("CUSTODIADO_GERENCIAR", "api.custodiados.*"),
                 createFuncionalidade("VISITANTE_GERENCIAR", "api.visitantes.*"),
-                createFuncionalidade("USUARIO_GERENCIAR", "api.usuarios.*")
+                createFuncionalidade("USUARIO_GERENCIAR", "api.usuarios.*"),
+                createFuncionalidade("BUSCA_CONSULTAR", "api.busca.read"),
+                createFuncionalidade("PESSOA_DUPLICIDADE_CONSULTAR", "api.pessoas.duplicidades.read"),
+                createFuncionalidade("UNIDADE_PENAL_BLOQUEAR", "api.unidades-penais.bloqueio")
         );
         funcionalidadeRepository.saveAll(funcionalidades);
 
@@ -107,27 +112,30 @@ public class DataInitializer {
 
         List<Funcionalidade> userFuncionalidades = Arrays.asList(
                 funcionalidades.get(0),
-                funcionalidades.get(2)
+                funcionalidades.get(1),
+                funcionalidades.get(2),
+                funcionalidades.get(3),
+                funcionalidades.get(7)
         );
         for (Funcionalidade func : userFuncionalidades) {
             VincPerfilFuncionalidade vinculo = createVinculo(perfis.get(1), func);
             vincPerfilFuncionalidadeRepository.save(vinculo);
         }
 
-        Pessoa pessoaAdmin = createPessoa("Administrador Sistema", "555.666.777-88", LocalDate.of(1980, 1, 1));
+        Pessoa pessoaAdmin = createPessoa("Administrador Sistema", "55566677788", LocalDate.of(1980, 1, 1));
         pessoaRepository.save(pessoaAdmin);
         Usuario usuarioAdmin = createUsuario(
                 pessoaAdmin,
-                "admin",
+                "admin@seape.df.gov.br",
                 "{bcrypt}$2a$12$8iJ2o6B.y4K4SsyJPSXo/.Nz/uGkXmQrZJHYJBBKh9jn3tXxaaPt.",
                 perfis.get(0));
         usuarioRepository.save(usuarioAdmin);
 
-        Pessoa pessoaUser = createPessoa("Usuário Padrão", "666.777.888-99", LocalDate.of(1990, 5, 5));
+        Pessoa pessoaUser = createPessoa("Usuário Padrão", "66677788899", LocalDate.of(1990, 5, 5));
         pessoaRepository.save(pessoaUser);
         Usuario usuarioNormal = createUsuario(
                 pessoaUser,
-                "user",
+                "user@seape.df.gov.br",
                 "{bcrypt}$2a$12$rWWQ/f.QLNR7OXkDKqcS4.z9BI1W1LD1JqS5vA8UpRlN2sVv3OOY.",
                 perfis.get(1));
         usuarioRepository.save(usuarioNormal);
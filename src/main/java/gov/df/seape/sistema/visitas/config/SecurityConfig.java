@@ -1,35 +1,67 @@
 package gov.df.seape.sistema.visitas.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import gov.df.seape.sistema.visitas.security.CalibradorCustoBCrypt;
+import gov.df.seape.sistema.visitas.security.CodificadorSenhaLimitado;
+import gov.df.seape.sistema.visitas.security.GerenciadorChavesAssinatura;
+import gov.df.seape.sistema.visitas.security.JwtDecoderComCache;
+import gov.df.seape.sistema.visitas.security.ListaRevogacaoTokens;
+import gov.df.seape.sistema.visitas.security.PermissoesJwtConverter;
+import gov.df.seape.sistema.visitas.security.RegisteredClientRepositoryComCache;
+import gov.df.seape.sistema.visitas.security.ValidadorTokenRevogado;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
-import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.JdbcRegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
 import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
 import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 @Slf4j
 public class SecurityConfig {
 
@@ -40,6 +72,7 @@ public class SecurityConfig {
 
     private static final String SCOPE_READ = "api.read";
     private static final String SCOPE_WRITE = "api.write";
+    private static final String ALGORITMO_SENHA = "bcrypt";
 
     @Bean
     @Order(1)
@@ -78,16 +111,72 @@ public class SecurityConfig {
                     "/oauth2/**"
             ))
             .headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()))
-            .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
+            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
             .formLogin(Customizer.withDefaults());
         
         return http.build();
     }
+
+    /**
+     * Conjunto de chaves publicado em /oauth2/jwks e usado na verificação dos tokens:
+     * inclui a chave ativa e as anteriores ainda válidas.
+     */
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(GerenciadorChavesAssinatura gerenciadorChaves) {
+        return (selector, context) -> selector.select(gerenciadorChaves.getChaves());
+    }
+
+    /**
+     * Codificador usado pelo servidor de autorização: assina sempre com a chave ativa.
+     */
+    @Bean
+    public JwtEncoder jwtEncoder(GerenciadorChavesAssinatura gerenciadorChaves) {
+        return new NimbusJwtEncoder((selector, context) ->
+                selector.select(new JWKSet(gerenciadorChaves.getChaveAtiva())));
+    }
+
+    /**
+     * Decodificador do servidor de recursos ligado diretamente ao {@link JWKSource} local,
+     * sem buscar as chaves via HTTP no próprio processo. Tokens revogados são rejeitados
+     * a cada requisição, mesmo quando já verificados anteriormente.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+                                 ListaRevogacaoTokens listaRevogacao,
+                                 @Value("${seguranca.jwt.cache.maximo-entradas:10000}") int maximoEntradas) {
+        DefaultJWTProcessor<SecurityContext> processador = new DefaultJWTProcessor<>();
+        processador.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // As claims são validadas pelos validadores do Spring Security
+        processador.setJWTClaimsSetVerifier((claims, context) -> { });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processador);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER_URL));
+        return new JwtDecoderComCache(decoder, maximoEntradas, new ValidadorTokenRevogado(listaRevogacao));
+    }
+
     @Bean
-    public RegisteredClientRepository registeredClientRepository() {
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(new PermissoesJwtConverter());
+        return converter;
+    }
+
+    /**
+     * Clientes registrados persistidos no banco (esquema em schema-oauth2.sql),
+     * com cache de leitura. O cliente padrão da API é cadastrado se ainda não existir.
+     */
+    @Bean
+    public RegisteredClientRepository registeredClientRepository(JdbcTemplate jdbcTemplate,
+                                                                 PasswordEncoder passwordEncoder) {
+        RegisteredClientRepository repository =
+                new RegisteredClientRepositoryComCache(new JdbcRegisteredClientRepository(jdbcTemplate));
+        if (repository.findByClientId(CLIENT_ID) != null) {
+            return repository;
+        }
+
         RegisteredClient client = RegisteredClient.withId(UUID.randomUUID().toString())
             .clientId(CLIENT_ID)
-            .clientSecret(passwordEncoder().encode(CLIENT_SECRET))
+            .clientSecret(passwordEncoder.encode(CLIENT_SECRET))
             .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
             .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
             .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
@@ -104,29 +193,75 @@ public class SecurityConfig {
                 .build())
             .build();
 
-        return new InMemoryRegisteredClientRepository(client);
+        repository.save(client);
+        log.info("Cliente OAuth2 padrão registrado: {}", CLIENT_ID);
+        return repository;
+    }
+
+    /**
+     * Autorizações e tokens emitidos, persistidos no banco e indexados pelos valores de token.
+     * As autorizações expiradas são removidas por LimpezaAutorizacoesExpiradas.
+     */
+    @Bean
+    public OAuth2AuthorizationService authorizationService(JdbcTemplate jdbcTemplate,
+                                                           RegisteredClientRepository registeredClientRepository) {
+        return new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository);
     }
 
     @Bean
-    public UserDetailsService userDetailsService() {
+    public OAuth2AuthorizationConsentService authorizationConsentService(JdbcTemplate jdbcTemplate,
+                                                                         RegisteredClientRepository registeredClientRepository) {
+        return new JdbcOAuth2AuthorizationConsentService(jdbcTemplate, registeredClientRepository);
+    }
+
+    /**
+     * Usuários em memória. Por implementar UserDetailsPasswordService, o gerenciador recebe
+     * o novo hash quando o login detecta algoritmo ou custo desatualizado (rehash no login).
+     */
+    @Bean
+    public InMemoryUserDetailsManager userDetailsService(PasswordEncoder passwordEncoder) {
         UserDetails adminUser = User.builder()
-            .username("admin")
-            .password(passwordEncoder().encode("admin"))
+            .username("admin@seape.df.gov.br")
+            .password(passwordEncoder.encode("admin"))
             .roles("ADMIN")
             .build();
 
         UserDetails user = User.builder()
-            .username("user")
-            .password(passwordEncoder().encode("user"))
+            .username("user@seape.df.gov.br")
+            .password(passwordEncoder.encode("user"))
             .roles("USER")
             .build();
 
         return new InMemoryUserDetailsManager(adminUser, user);
     }
 
+    /**
+     * Codificador de senhas com BCrypt, com o custo calibrado na inicialização para o
+     * tempo alvo neste servidor. Os hashes são prefixados com o algoritmo ({bcrypt});
+     * hashes sem prefixo (legados) são verificados como BCrypt e, assim como os de
+     * custo inferior ao atual ou de outro algoritmo, marcados para atualização.
+     * Todo hash é executado no pool limitado de CodificadorSenhaLimitado.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${seguranca.senha.tempo-alvo:PT0.25S}") Duration tempoAlvo,
+            @Value("${seguranca.senha.custo-minimo:10}") int custoMinimo,
+            @Value("${seguranca.senha.custo-maximo:14}") int custoMaximo,
+            @Value("${seguranca.senha.threads:0}") int threads,
+            @Value("${seguranca.senha.capacidade-fila:100}") int capacidadeFila,
+            @Value("${seguranca.senha.tempo-maximo-espera:PT5S}") Duration tempoMaximoEspera) {
+        BCryptPasswordEncoder bcrypt =
+                new BCryptPasswordEncoder(CalibradorCustoBCrypt.calibrar(tempoAlvo, custoMinimo, custoMaximo));
+
+        Map<String, PasswordEncoder> codificadores = new HashMap<>();
+        codificadores.put(ALGORITMO_SENHA, bcrypt);
+        codificadores.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(ALGORITMO_SENHA, codificadores);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int totalThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new CodificadorSenhaLimitado(delegating, totalThreads, capacidadeFila, tempoMaximoEspera, meterRegistry);
     }
 
     @Bean
@@ -4,7 +4,10 @@ import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaRequestDTO;
 import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaResponseDTO;
 import gov.df.seape.sistema.visitas.dto.FiltroAgendamentoDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
+import gov.df.seape.sistema.visitas.dto.SerieAgendamentoRequestDTO;
+import gov.df.seape.sistema.visitas.dto.SerieAgendamentoResponseDTO;
 import gov.df.seape.sistema.visitas.service.AgendamentoVisitaService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -13,7 +16,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -28,6 +33,7 @@ import java.util.List;
 public class AgendamentoVisitaController {
 
     private final AgendamentoVisitaService agendamentoVisitaService;
+    private final RegistroVersoes registroVersoes;
 
     /**
      * Cria um novo agendamento de visita.
@@ -36,12 +42,27 @@ public class AgendamentoVisitaController {
      * @return O agendamento criado com status 201 (Created)
      */
     @PostMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.create')")
     @Operation(summary = "Criar agendamento", description = "Cria um novo agendamento de visita")
     public ResponseEntity<AgendamentoVisitaResponseDTO> criarAgendamento(@Valid @RequestBody AgendamentoVisitaRequestDTO requestDTO) {
         AgendamentoVisitaResponseDTO responseDTO = agendamentoVisitaService.criarAgendamento(requestDTO);
         return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
     }
 
+    /**
+     * Cria uma série semanal de agendamentos.
+     * 
+     * @param requestDTO Dados da série
+     * @return O resultado de cada ocorrência
+     */
+    @PostMapping("/serie")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.create')")
+    @Operation(summary = "Criar série de agendamentos", description = "Cria agendamentos semanais recorrentes e informa o resultado de cada ocorrência")
+    public ResponseEntity<SerieAgendamentoResponseDTO> criarSerie(@Valid @RequestBody SerieAgendamentoRequestDTO requestDTO) {
+        SerieAgendamentoResponseDTO responseDTO = agendamentoVisitaService.criarSerie(requestDTO);
+        return ResponseEntity.ok(responseDTO);
+    }
+
     /**
      * Atualiza um agendamento existente.
      * 
@@ -50,6 +71,7 @@ public class AgendamentoVisitaController {
      * @return O agendamento atualizado
      */
     @PutMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.update')")
     @Operation(summary = "Atualizar agendamento", description = "Atualiza um agendamento existente")
     public ResponseEntity<AgendamentoVisitaResponseDTO> atualizarAgendamento(
             @PathVariable Long id, 
@@ -65,6 +87,7 @@ public class AgendamentoVisitaController {
      * @return Página de agendamentos
      */
     @GetMapping("/paginado")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.read')")
     @Operation(summary = "Listar agendamentos paginados", description = "Lista todos os agendamentos com paginação")
     public ResponseEntity<PageResponseDTO<AgendamentoVisitaResponseDTO>> listarAgendamentosPaginados(Pageable pageable) {
         PageResponseDTO<AgendamentoVisitaResponseDTO> pageResponseDTO = agendamentoVisitaService.listarAgendamentosPaginados(pageable);
@@ -77,6 +100,7 @@ public class AgendamentoVisitaController {
      * @return Lista de todos os agendamentos
      */
     @GetMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.read')")
     @Operation(summary = "Listar agendamentos", description = "Lista todos os agendamentos")
     public ResponseEntity<List<AgendamentoVisitaResponseDTO>> listarAgendamentos() {
         List<AgendamentoVisitaResponseDTO> agendamentos = agendamentoVisitaService.listarAgendamentos();
@@ -90,6 +114,7 @@ public class AgendamentoVisitaController {
      * @return O agendamento encontrado
      */
     @GetMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.read')")
     @Operation(summary = "Buscar agendamento por ID", description = "Retorna um agendamento específico pelo ID")
     public ResponseEntity<AgendamentoVisitaResponseDTO> buscarAgendamentoPorId(@PathVariable Long id) {
         AgendamentoVisitaResponseDTO responseDTO = agendamentoVisitaService.buscarAgendamentoPorId(id);
@@ -104,6 +129,7 @@ public class AgendamentoVisitaController {
      * @return Página de agendamentos que atendem aos critérios
      */
     @PostMapping("/filtro")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.read')")
     @Operation(summary = "Filtrar agendamentos", description = "Filtra agendamentos com base em critérios específicos")
     public ResponseEntity<PageResponseDTO<AgendamentoVisitaResponseDTO>> filtrarAgendamentos(
             @Valid @RequestBody FiltroAgendamentoDTO filtro, 
@@ -115,17 +141,27 @@ public class AgendamentoVisitaController {
     /**
      * Busca agendamentos por data.
      * 
+     * Responde 304 (Not Modified) quando a ETag informada em If-None-Match ainda é a atual.
+     * 
      * @param data Data para filtrar agendamentos
      * @param pageable Configurações de paginação
+     * @param request Requisição, usada para conferir a ETag
      * @return Página de agendamentos na data especificada
      */
     @GetMapping("/data/{data}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.read')")
     @Operation(summary = "Buscar por data", description = "Busca agendamentos por data")
     public ResponseEntity<PageResponseDTO<AgendamentoVisitaResponseDTO>> buscarAgendamentosPorData(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data, 
-            Pageable pageable) {
+            Pageable pageable,
+            WebRequest request) {
+        String etag = registroVersoes.etag(RegistroVersoes.agendamentosDoDia(data),
+                RegistroVersoes.PESSOAS, RegistroVersoes.CADASTROS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         PageResponseDTO<AgendamentoVisitaResponseDTO> pageResponseDTO = agendamentoVisitaService.buscarAgendamentosPorData(data, pageable);
-        return ResponseEntity.ok(pageResponseDTO);
+        return ResponseEntity.ok().eTag(etag).body(pageResponseDTO);
     }
 
     /**
@@ -136,6 +172,7 @@ public class AgendamentoVisitaController {
      * @return Página de agendamentos do custodiado
      */
     @GetMapping("/custodiado/{custodiadoId}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.read')")
     @Operation(summary = "Buscar por custodiado", description = "Busca agendamentos de um custodiado")
     public ResponseEntity<PageResponseDTO<AgendamentoVisitaResponseDTO>> buscarAgendamentosPorCustodiado(
             @PathVariable Long custodiadoId, 
@@ -152,6 +189,7 @@ public class AgendamentoVisitaController {
      * @return Página de agendamentos do visitante
      */
     @GetMapping("/visitante/{visitanteId}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.read')")
     @Operation(summary = "Buscar por visitante", description = "Busca agendamentos de um visitante")
     public ResponseEntity<PageResponseDTO<AgendamentoVisitaResponseDTO>> buscarAgendamentosPorVisitante(
             @PathVariable Long visitanteId, 
@@ -167,6 +205,7 @@ public class AgendamentoVisitaController {
      * @return Status 204 (No Content)
      */
     @DeleteMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.cancel')")
     @Operation(summary = "Cancelar agendamento", description = "Cancela um agendamento existente")
     public ResponseEntity<Void> cancelarAgendamento(@PathVariable Long id) {
         agendamentoVisitaService.cancelarAgendamento(id);
@@ -0,0 +1,62 @@
+package gov.df.seape.sistema.visitas.controller;
+
+import gov.df.seape.sistema.visitas.dto.ResultadoBuscaDTO;
+import gov.df.seape.sistema.visitas.dto.SugestaoDTO;
+import gov.df.seape.sistema.visitas.service.BuscaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para a busca unificada usada na recepção.
+ */
+@RestController
+@RequestMapping("/api/busca")
+@RequiredArgsConstructor
+@Tag(name = "Busca", description = "Endpoints para busca unificada de pessoas e custodiados")
+public class BuscaController {
+
+    private final BuscaService buscaService;
+
+    /**
+     * Busca custodiados e visitantes em uma única consulta, com paginação por cursor.
+     *
+     * @param q Nome, vulgo, CPF ou número de prontuário (ao menos três caracteres)
+     * @param cursor Cursor retornado na página anterior (opcional)
+     * @param tamanho Quantidade máxima de itens na página
+     * @return Página de resultados em ordem de relevância
+     */
+    @GetMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.busca.read')")
+    @Operation(summary = "Busca unificada",
+               description = "Busca custodiados e visitantes por nome, vulgo, CPF ou prontuário, "
+                       + "com CPF/prontuário exato primeiro, depois prefixo e substring")
+    public ResponseEntity<ResultadoBuscaDTO> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        return ResponseEntity.ok(buscaService.buscar(q, cursor, tamanho));
+    }
+
+    /**
+     * Retorna sugestões enquanto o usuário digita.
+     *
+     * @param q Texto digitado (nome, CPF ou número de prontuário)
+     * @param limite Quantidade máxima de sugestões
+     * @return Lista de sugestões com tipo, ID e rótulo
+     */
+    @GetMapping("/sugestoes")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.busca.read')")
+    @Operation(summary = "Sugestões de busca",
+               description = "Sugere pessoas e custodiados pelo início do nome, CPF ou prontuário")
+    public ResponseEntity<List<SugestaoDTO>> sugerir(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(buscaService.sugerir(q, limite));
+    }
+}
@@ -3,7 +3,10 @@ package gov.df.seape.sistema.visitas.controller;
 import gov.df.seape.sistema.visitas.dto.CustodiadoRequestDTO;
 import gov.df.seape.sistema.visitas.dto.CustodiadoResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
+import gov.df.seape.sistema.visitas.dto.TransferenciaCustodiadosRequestDTO;
+import gov.df.seape.sistema.visitas.dto.TransferenciaCustodiadosResponseDTO;
 import gov.df.seape.sistema.visitas.service.CustodiadoService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -11,7 +14,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,6 +30,7 @@ import java.util.List;
 public class CustodiadoController {
 
     private final CustodiadoService custodiadoService;
+    private final RegistroVersoes registroVersoes;
 
     /**
      * Cria um novo custodiado.
@@ -33,6 +39,7 @@ public class CustodiadoController {
      * @return O custodiado criado com status 201 (Created)
      */
     @PostMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.create')")
     @Operation(summary = "Criar custodiado", description = "Cria um novo custodiado")
     public ResponseEntity<CustodiadoResponseDTO> criarCustodiado(@Valid @RequestBody CustodiadoRequestDTO requestDTO) {
         CustodiadoResponseDTO responseDTO = custodiadoService.criarCustodiado(requestDTO);
@@ -47,6 +54,7 @@ public class CustodiadoController {
      * @return O custodiado atualizado
      */
     @PutMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.update')")
     @Operation(summary = "Atualizar custodiado", description = "Atualiza um custodiado existente")
     public ResponseEntity<CustodiadoResponseDTO> atualizarCustodiado(
             @PathVariable Long id, 
@@ -55,6 +63,36 @@ public class CustodiadoController {
         return ResponseEntity.ok(responseDTO);
     }
 
+    /**
+     * Transfere um lote de custodiados para outra unidade penal.
+     * Se a unidade de destino não comportar todo o lote, nenhum custodiado é transferido.
+     * 
+     * @param requestDTO Unidade de destino e IDs dos custodiados
+     * @return Os custodiados transferidos e a quantidade de agendamentos cancelados
+     */
+    @PostMapping("/transferencias")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.transfer')")
+    @Operation(summary = "Transferir custodiados", description = "Transfere um lote de custodiados para outra unidade penal, respeitando a capacidade e as regras de visita do destino")
+    public ResponseEntity<TransferenciaCustodiadosResponseDTO> transferirCustodiados(
+            @Valid @RequestBody TransferenciaCustodiadosRequestDTO requestDTO) {
+        TransferenciaCustodiadosResponseDTO resultado = custodiadoService.transferirCustodiados(requestDTO);
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * Exclui um custodiado sem histórico de visitas.
+     * 
+     * @param id ID do custodiado a ser excluído
+     * @return Resposta vazia com status 204 (No Content)
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.delete')")
+    @Operation(summary = "Excluir custodiado", description = "Exclui um custodiado sem agendamentos nem solicitações de visita e libera a vaga na unidade penal")
+    public ResponseEntity<Void> excluirCustodiado(@PathVariable Long id) {
+        custodiadoService.excluirCustodiado(id);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Lista todos os custodiados com paginação.
      * 
@@ -62,6 +100,7 @@ public class CustodiadoController {
      * @return Página de custodiados
      */
     @GetMapping("/paginado")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.read')")
     @Operation(summary = "Listar custodiados paginados", description = "Lista todos os custodiados com paginação")
     public ResponseEntity<PageResponseDTO<CustodiadoResponseDTO>> listarCustodiadosPaginados(Pageable pageable) {
         PageResponseDTO<CustodiadoResponseDTO> pageResponseDTO = custodiadoService.listarCustodiadosPaginados(pageable);
@@ -74,6 +113,7 @@ public class CustodiadoController {
      * @return Lista de todos os custodiados
      */
     @GetMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.read')")
     @Operation(summary = "Listar custodiados", description = "Lista todos os custodiados")
     public ResponseEntity<List<CustodiadoResponseDTO>> listarCustodiados() {
         List<CustodiadoResponseDTO> custodiados = custodiadoService.listarCustodiados();
@@ -87,6 +127,7 @@ public class CustodiadoController {
      * @return O custodiado encontrado
      */
     @GetMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.read')")
     @Operation(summary = "Buscar custodiado por ID", description = "Retorna um custodiado específico pelo ID")
     public ResponseEntity<CustodiadoResponseDTO> buscarCustodiadoPorId(@PathVariable Long id) {
         CustodiadoResponseDTO responseDTO = custodiadoService.buscarCustodiadoPorId(id);
@@ -100,6 +141,7 @@ public class CustodiadoController {
      * @return O custodiado encontrado
      */
     @GetMapping("/prontuario/{numeroProntuario}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.read')")
     @Operation(summary = "Buscar por prontuário", description = "Busca um custodiado pelo número de prontuário")
     public ResponseEntity<CustodiadoResponseDTO> buscarPorNumeroProntuario(@PathVariable String numeroProntuario) {
         CustodiadoResponseDTO responseDTO = custodiadoService.buscarPorNumeroProntuario(numeroProntuario);
@@ -114,6 +156,7 @@ public class CustodiadoController {
      * @return Página de custodiados que contêm o nome especificado
      */
     @GetMapping("/nome")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.read')")
     @Operation(summary = "Buscar por nome", description = "Busca custodiados pelo nome")
     public ResponseEntity<PageResponseDTO<CustodiadoResponseDTO>> buscarPorNome(
             @RequestParam String nome, 
@@ -125,17 +168,27 @@ public class CustodiadoController {
     /**
      * Busca custodiados por unidade penal.
      * 
+     * Responde 304 (Not Modified) quando a ETag informada em If-None-Match ainda é a atual.
+     * 
      * @param unidadePenalId ID da unidade penal
      * @param pageable Configurações de paginação
+     * @param request Requisição, usada para conferir a ETag
      * @return Página de custodiados da unidade penal
      */
     @GetMapping("/unidade/{unidadePenalId}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.read')")
     @Operation(summary = "Buscar por unidade penal", description = "Busca custodiados por unidade penal")
     public ResponseEntity<PageResponseDTO<CustodiadoResponseDTO>> buscarPorUnidadePenal(
             @PathVariable Long unidadePenalId, 
-            Pageable pageable) {
+            Pageable pageable,
+            WebRequest request) {
+        String etag = registroVersoes.etag(RegistroVersoes.custodiadosDaUnidade(unidadePenalId),
+                RegistroVersoes.PESSOAS, RegistroVersoes.CADASTROS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         PageResponseDTO<CustodiadoResponseDTO> pageResponseDTO = custodiadoService.buscarPorUnidadePenal(unidadePenalId, pageable);
-        return ResponseEntity.ok(pageResponseDTO);
+        return ResponseEntity.ok().eTag(etag).body(pageResponseDTO);
     }
 
     /**
@@ -146,6 +199,7 @@ public class CustodiadoController {
      * @return Página de custodiados que contêm o vulgo especificado
      */
     @GetMapping("/vulgo")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.custodiados.read')")
     @Operation(summary = "Buscar por vulgo", description = "Busca custodiados pelo vulgo (apelido)")
     public ResponseEntity<PageResponseDTO<CustodiadoResponseDTO>> buscarPorVulgo(
             @RequestParam String vulgo, 
@@ -27,7 +27,6 @@ public class DiagnosticoController {
         response.put("api-docs", "/v3/api-docs");
         return response;
     }
-}
 
     @GetMapping("/api-info")
     @Operation(
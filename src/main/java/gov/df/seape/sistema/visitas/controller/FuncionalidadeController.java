@@ -4,6 +4,7 @@ import gov.df.seape.sistema.visitas.dto.FuncionalidadeRequestDTO;
 import gov.df.seape.sistema.visitas.dto.FuncionalidadeResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.service.FuncionalidadeService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -12,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,6 +27,7 @@ import java.util.List;
 public class FuncionalidadeController {
 
     private final FuncionalidadeService funcionalidadeService;
+    private final RegistroVersoes registroVersoes;
 
     /**
      * Cria uma nova funcionalidade.
@@ -70,14 +73,20 @@ public class FuncionalidadeController {
 
     /**
      * Lista todas as funcionalidades.
+     * Responde 304 (Not Modified) quando a ETag informada em If-None-Match ainda é a atual.
      * 
+     * @param request Requisição, usada para conferir a ETag
      * @return Lista de todas as funcionalidades
      */
     @GetMapping
     @Operation(summary = "Listar funcionalidades", description = "Lista todas as funcionalidades")
-    public ResponseEntity<List<FuncionalidadeResponseDTO>> listarFuncionalidades() {
+    public ResponseEntity<List<FuncionalidadeResponseDTO>> listarFuncionalidades(WebRequest request) {
+        String etag = registroVersoes.etag(RegistroVersoes.CADASTROS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<FuncionalidadeResponseDTO> funcionalidades = funcionalidadeService.listarFuncionalidades();
-        return ResponseEntity.ok(funcionalidades);
+        return ResponseEntity.ok().eTag(etag).body(funcionalidades);
     }
 
     /**
@@ -5,6 +5,7 @@ import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PerfilRequestDTO;
 import gov.df.seape.sistema.visitas.dto.PerfilResponseDTO;
 import gov.df.seape.sistema.visitas.service.PerfilService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -13,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,6 +29,7 @@ import java.util.List;
 public class PerfilController {
 
     private final PerfilService perfilService;
+    private final RegistroVersoes registroVersoes;
 
     /**
      * Cria um novo perfil.
@@ -72,14 +75,20 @@ public class PerfilController {
 
     /**
      * Lista todos os perfis.
+     * Responde 304 (Not Modified) quando a ETag informada em If-None-Match ainda é a atual.
      * 
+     * @param request Requisição, usada para conferir a ETag
      * @return Lista de todos os perfis
      */
     @GetMapping
     @Operation(summary = "Listar perfis", description = "Lista todos os perfis")
-    public ResponseEntity<List<PerfilResponseDTO>> listarPerfis() {
+    public ResponseEntity<List<PerfilResponseDTO>> listarPerfis(WebRequest request) {
+        String etag = registroVersoes.etag(RegistroVersoes.CADASTROS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<PerfilResponseDTO> perfis = perfilService.listarPerfis();
-        return ResponseEntity.ok(perfis);
+        return ResponseEntity.ok().eTag(etag).body(perfis);
     }
 
     /**
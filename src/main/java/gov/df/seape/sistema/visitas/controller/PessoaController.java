@@ -3,6 +3,8 @@ package gov.df.seape.sistema.visitas.controller;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PessoaRequestDTO;
 import gov.df.seape.sistema.visitas.dto.PessoaResponseDTO;
+import gov.df.seape.sistema.visitas.dto.RelatorioDuplicidadeDTO;
+import gov.df.seape.sistema.visitas.service.DeduplicacaoPessoaService;
 import gov.df.seape.sistema.visitas.service.PessoaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,6 +28,7 @@ import java.util.List;
 public class PessoaController {
 
     private final PessoaService pessoaService;
+    private final DeduplicacaoPessoaService deduplicacaoPessoaService;
 
     @PostMapping
     @Operation(summary = "Criar pessoa", description = "Cria uma nova pessoa")
@@ -82,6 +86,15 @@ public class PessoaController {
         return ResponseEntity.ok(pageResponseDTO);
     }
 
+    @GetMapping("/duplicidades")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.pessoas.duplicidades.read')")
+    @Operation(summary = "Relatório de duplicidades",
+               description = "Lista pares de pessoas com mesma data de nascimento e nomes foneticamente "
+                       + "semelhantes, candidatos a mesclagem")
+    public ResponseEntity<RelatorioDuplicidadeDTO> gerarRelatorioDuplicidades() {
+        return ResponseEntity.ok(deduplicacaoPessoaService.gerarRelatorio());
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Excluir pessoa", description = "Exclui uma pessoa existente")
     public ResponseEntity<Void> excluirPessoa(@PathVariable Long id) {
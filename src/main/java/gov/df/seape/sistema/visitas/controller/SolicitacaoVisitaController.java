@@ -0,0 +1,52 @@
+package gov.df.seape.sistema.visitas.controller;
+
+import gov.df.seape.sistema.visitas.dto.SolicitacaoVisitaRequestDTO;
+import gov.df.seape.sistema.visitas.dto.SolicitacaoVisitaResponseDTO;
+import gov.df.seape.sistema.visitas.service.SolicitacaoVisitaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST para as solicitações de visita das unidades com alocação por sorteio.
+ */
+@RestController
+@RequestMapping("/api/solicitacoes-visita")
+@RequiredArgsConstructor
+@Tag(name = "Solicitações de Visita", description = "Endpoints para solicitações de visita alocadas por sorteio")
+public class SolicitacaoVisitaController {
+
+    private final SolicitacaoVisitaService solicitacaoVisitaService;
+
+    /**
+     * Registra uma solicitação de visita, atendida ou recusada no sorteio do dia.
+     *
+     * @param requestDTO Dados da solicitação
+     * @return A solicitação registrada com status 201 (Created)
+     */
+    @PostMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.create')")
+    @Operation(summary = "Solicitar visita", description = "Registra uma solicitação de visita para o sorteio do dia")
+    public ResponseEntity<SolicitacaoVisitaResponseDTO> criarSolicitacao(@Valid @RequestBody SolicitacaoVisitaRequestDTO requestDTO) {
+        SolicitacaoVisitaResponseDTO responseDTO = solicitacaoVisitaService.criarSolicitacao(requestDTO);
+        return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
+    }
+
+    /**
+     * Busca uma solicitação de visita pelo ID.
+     *
+     * @param id ID da solicitação
+     * @return A solicitação, com a situação atual
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.read')")
+    @Operation(summary = "Buscar solicitação por ID", description = "Retorna a solicitação e o resultado do sorteio")
+    public ResponseEntity<SolicitacaoVisitaResponseDTO> buscarSolicitacaoPorId(@PathVariable Long id) {
+        return ResponseEntity.ok(solicitacaoVisitaService.buscarSolicitacaoPorId(id));
+    }
+}
@@ -4,6 +4,7 @@ import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.StatusRequestDTO;
 import gov.df.seape.sistema.visitas.dto.StatusResponseDTO;
 import gov.df.seape.sistema.visitas.service.StatusService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -12,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,6 +27,7 @@ import java.util.List;
 public class StatusController {
 
     private final StatusService statusService;
+    private final RegistroVersoes registroVersoes;
 
     /**
      * Cria um novo status.
@@ -71,14 +74,20 @@ public class StatusController {
 
     /**
      * Lista todos os status.
+     * Responde 304 (Not Modified) quando a ETag informada em If-None-Match ainda é a atual.
      * 
+     * @param request Requisição, usada para conferir a ETag
      * @return Lista de todos os status
      */
     @GetMapping
     @Operation(summary = "Listar status", description = "Lista todos os status de agendamento")
-    public ResponseEntity<List<StatusResponseDTO>> listarTodosStatus() {
+    public ResponseEntity<List<StatusResponseDTO>> listarTodosStatus(WebRequest request) {
+        String etag = registroVersoes.etag(RegistroVersoes.CADASTROS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<StatusResponseDTO> statusList = statusService.listarTodosStatus();
-        return ResponseEntity.ok(statusList);
+        return ResponseEntity.ok().eTag(etag).body(statusList);
     }
 
     /**
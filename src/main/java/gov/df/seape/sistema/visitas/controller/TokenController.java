@@ -0,0 +1,56 @@
+package gov.df.seape.sistema.visitas.controller;
+
+import gov.df.seape.sistema.visitas.dto.RevogacaoTokenRequestDTO;
+import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
+import gov.df.seape.sistema.visitas.service.RevogacaoTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST para encerramento de sessão e revogação de tokens de acesso.
+ */
+@RestController
+@RequestMapping("/api/tokens")
+@RequiredArgsConstructor
+@Tag(name = "Tokens", description = "Endpoints para logout e revogação de tokens de acesso")
+public class TokenController {
+
+    private final RevogacaoTokenService revogacaoTokenService;
+
+    /**
+     * Revoga o token de acesso utilizado na própria requisição (logout).
+     *
+     * @param authentication Autenticação corrente
+     * @return Resposta vazia com status 204 (No Content)
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revoga o token de acesso utilizado na requisição")
+    public ResponseEntity<Void> logout(Authentication authentication) {
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) {
+            throw new OperacaoInvalidaException("Logout disponível apenas para autenticação por token.");
+        }
+        revogacaoTokenService.revogarToken(jwtAuthentication.getToken().getTokenValue());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revoga um token de acesso qualquer (revogação administrativa).
+     *
+     * @param requestDTO Token a ser revogado
+     * @return Resposta vazia com status 204 (No Content)
+     */
+    @PostMapping("/revogacao")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.usuarios.revoke')")
+    @Operation(summary = "Revogar token", description = "Revoga um token de acesso antes da sua expiração")
+    public ResponseEntity<Void> revogarToken(@Valid @RequestBody RevogacaoTokenRequestDTO requestDTO) {
+        revogacaoTokenService.revogarToken(requestDTO.getToken());
+        return ResponseEntity.noContent().build();
+    }
+}
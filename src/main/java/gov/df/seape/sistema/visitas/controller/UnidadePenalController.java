@@ -1,9 +1,12 @@
 package gov.df.seape.sistema.visitas.controller;
 
+import gov.df.seape.sistema.visitas.dto.BloqueioUnidadeRequestDTO;
+import gov.df.seape.sistema.visitas.dto.BloqueioUnidadeResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.UnidadePenalRequestDTO;
 import gov.df.seape.sistema.visitas.dto.UnidadePenalResponseDTO;
 import gov.df.seape.sistema.visitas.service.UnidadePenalService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -11,7 +14,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,6 +30,7 @@ import java.util.List;
 public class UnidadePenalController {
 
     private final UnidadePenalService unidadePenalService;
+    private final RegistroVersoes registroVersoes;
 
     /**
      * Cria uma nova unidade penal.
@@ -55,6 +61,23 @@ public class UnidadePenalController {
         return ResponseEntity.ok(responseDTO);
     }
 
+    /**
+     * Bloqueia a unidade penal para visitas pelos próximos dias.
+     * 
+     * @param id ID da unidade penal
+     * @param requestDTO Motivo e duração do bloqueio
+     * @return O bloqueio registrado com status 201 (Created)
+     */
+    @PostMapping("/{id}/bloqueio")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.unidades-penais.bloqueio')")
+    @Operation(summary = "Bloquear unidade penal", description = "Bloqueia a unidade para visitas e cancela os agendamentos do período")
+    public ResponseEntity<BloqueioUnidadeResponseDTO> bloquearUnidadePenal(
+            @PathVariable Long id,
+            @Valid @RequestBody BloqueioUnidadeRequestDTO requestDTO) {
+        BloqueioUnidadeResponseDTO responseDTO = unidadePenalService.bloquearUnidadePenal(id, requestDTO);
+        return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
+    }
+
     /**
      * Lista todas as unidades penais com paginação.
      * 
@@ -70,14 +93,20 @@ public class UnidadePenalController {
 
     /**
      * Lista todas as unidades penais.
+     * Responde 304 (Not Modified) quando a ETag informada em If-None-Match ainda é a atual.
      * 
+     * @param request Requisição, usada para conferir a ETag
      * @return Lista de todas as unidades penais
      */
     @GetMapping
     @Operation(summary = "Listar unidades penais", description = "Lista todas as unidades penais")
-    public ResponseEntity<List<UnidadePenalResponseDTO>> listarUnidadesPenais() {
+    public ResponseEntity<List<UnidadePenalResponseDTO>> listarUnidadesPenais(WebRequest request) {
+        String etag = registroVersoes.etag(RegistroVersoes.CADASTROS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<UnidadePenalResponseDTO> unidadesPenais = unidadePenalService.listarUnidadesPenais();
-        return ResponseEntity.ok(unidadesPenais);
+        return ResponseEntity.ok().eTag(etag).body(unidadesPenais);
     }
 
     /**
@@ -11,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -33,6 +34,7 @@ public class UsuarioController {
      * @return O usuário criado com status 201 (Created)
      */
     @PostMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.usuarios.create')")
     @Operation(summary = "Criar usuário", description = "Cria um novo usuário do sistema")
     public ResponseEntity<UsuarioResponseDTO> criarUsuario(@Valid @RequestBody UsuarioRequestDTO requestDTO) {
         UsuarioResponseDTO responseDTO = usuarioService.criarUsuario(requestDTO);
@@ -47,6 +49,7 @@ public class UsuarioController {
      * @return O usuário atualizado
      */
     @PutMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.usuarios.update')")
     @Operation(summary = "Atualizar usuário", description = "Atualiza um usuário existente")
     public ResponseEntity<UsuarioResponseDTO> atualizarUsuario(
             @PathVariable Long id, 
@@ -62,6 +65,7 @@ public class UsuarioController {
      * @return Página de usuários
      */
     @GetMapping("/paginado")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.usuarios.read')")
     @Operation(summary = "Listar usuários paginados", description = "Lista todos os usuários com paginação")
     public ResponseEntity<PageResponseDTO<UsuarioResponseDTO>> listarUsuariosPaginados(Pageable pageable) {
         PageResponseDTO<UsuarioResponseDTO> pageResponseDTO = usuarioService.listarUsuariosPaginados(pageable);
@@ -74,6 +78,7 @@ public class UsuarioController {
      * @return Lista de todos os usuários
      */
     @GetMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.usuarios.read')")
     @Operation(summary = "Listar usuários", description = "Lista todos os usuários")
     public ResponseEntity<List<UsuarioResponseDTO>> listarUsuarios() {
         List<UsuarioResponseDTO> usuarios = usuarioService.listarUsuarios();
@@ -87,6 +92,7 @@ public class UsuarioController {
      * @return O usuário encontrado
      */
     @GetMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.usuarios.read')")
     @Operation(summary = "Buscar usuário por ID", description = "Retorna um usuário específico pelo ID")
     public ResponseEntity<UsuarioResponseDTO> buscarUsuarioPorId(@PathVariable Long id) {
         UsuarioResponseDTO responseDTO = usuarioService.buscarUsuarioPorId(id);
@@ -100,6 +106,7 @@ public class UsuarioController {
      * @return O usuário encontrado
      */
     @GetMapping("/email/{email}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.usuarios.read')")
     @Operation(summary = "Buscar por email", description = "Busca um usuário pelo email")
     public ResponseEntity<UsuarioResponseDTO> buscarPorEmail(@PathVariable String email) {
         UsuarioResponseDTO responseDTO = usuarioService.buscarPorEmail(email);
@@ -114,6 +121,7 @@ public class UsuarioController {
      * @return Página de usuários que contêm o nome especificado
      */
     @GetMapping("/nome")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.usuarios.read')")
     @Operation(summary = "Buscar por nome", description = "Busca usuários pelo nome")
     public ResponseEntity<PageResponseDTO<UsuarioResponseDTO>> buscarPorNome(
             @RequestParam String nome, 
@@ -130,6 +138,7 @@ public class UsuarioController {
      * @return Página de usuários com o perfil especificado
      */
     @GetMapping("/perfil/{perfilId}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.usuarios.read')")
     @Operation(summary = "Buscar por perfil", description = "Busca usuários por perfil")
     public ResponseEntity<PageResponseDTO<UsuarioResponseDTO>> buscarPorPerfil(
             @PathVariable Long perfilId, 
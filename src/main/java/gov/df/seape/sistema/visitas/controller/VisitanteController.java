@@ -11,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -33,6 +34,7 @@ public class VisitanteController {
      * @return O visitante criado com status 201 (Created)
      */
     @PostMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.visitantes.create')")
     @Operation(summary = "Criar visitante", description = "Cria um novo visitante")
     public ResponseEntity<VisitanteResponseDTO> criarVisitante(@Valid @RequestBody VisitanteRequestDTO requestDTO) {
         VisitanteResponseDTO responseDTO = visitanteService.criarVisitante(requestDTO);
@@ -47,6 +49,7 @@ public class VisitanteController {
      * @return O visitante atualizado
      */
     @PutMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.visitantes.update')")
     @Operation(summary = "Atualizar visitante", description = "Atualiza um visitante existente")
     public ResponseEntity<VisitanteResponseDTO> atualizarVisitante(
             @PathVariable Long id, 
@@ -62,6 +65,7 @@ public class VisitanteController {
      * @return Página de visitantes
      */
     @GetMapping("/paginado")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.visitantes.read')")
     @Operation(summary = "Listar visitantes paginados", description = "Lista todos os visitantes com paginação")
     public ResponseEntity<PageResponseDTO<VisitanteResponseDTO>> listarVisitantesPaginados(Pageable pageable) {
         PageResponseDTO<VisitanteResponseDTO> pageResponseDTO = visitanteService.listarVisitantesPaginados(pageable);
@@ -74,6 +78,7 @@ public class VisitanteController {
      * @return Lista de todos os visitantes
      */
     @GetMapping
+    @PreAuthorize("@permissoes.possui(authentication, 'api.visitantes.read')")
     @Operation(summary = "Listar visitantes", description = "Lista todos os visitantes")
     public ResponseEntity<List<VisitanteResponseDTO>> listarVisitantes() {
         List<VisitanteResponseDTO> visitantes = visitanteService.listarVisitantes();
@@ -87,6 +92,7 @@ public class VisitanteController {
      * @return O visitante encontrado
      */
     @GetMapping("/{id}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.visitantes.read')")
     @Operation(summary = "Buscar visitante por ID", description = "Retorna um visitante específico pelo ID")
     public ResponseEntity<VisitanteResponseDTO> buscarVisitantePorId(@PathVariable Long id) {
         VisitanteResponseDTO responseDTO = visitanteService.buscarVisitantePorId(id);
@@ -100,6 +106,7 @@ public class VisitanteController {
      * @return O visitante encontrado
      */
     @GetMapping("/cpf/{cpf}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.visitantes.read')")
     @Operation(summary = "Buscar por CPF", description = "Busca um visitante pelo CPF")
     public ResponseEntity<VisitanteResponseDTO> buscarPorCpf(@PathVariable String cpf) {
         VisitanteResponseDTO responseDTO = visitanteService.buscarPorCpf(cpf);
@@ -114,6 +121,7 @@ public class VisitanteController {
      * @return Página de visitantes que contêm o nome especificado
      */
     @GetMapping("/nome")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.visitantes.read')")
     @Operation(summary = "Buscar por nome", description = "Busca visitantes pelo nome")
     public ResponseEntity<PageResponseDTO<VisitanteResponseDTO>> buscarPorNome(
             @RequestParam String nome, 
@@ -130,6 +138,7 @@ public class VisitanteController {
      * @return Página de visitantes que visitam o custodiado especificado
      */
     @GetMapping("/custodiado/{custodiadoId}")
+    @PreAuthorize("@permissoes.possui(authentication, 'api.visitantes.read')")
     @Operation(summary = "Buscar por custodiado", description = "Busca visitantes que visitam um determinado custodiado")
     public ResponseEntity<PageResponseDTO<VisitanteResponseDTO>> buscarVisitantesPorCustodiado(
             @PathVariable Long custodiadoId, 
@@ -1,8 +1,6 @@
 package gov.df.seape.sistema.visitas.dto;
 
-import gov.df.seape.sistema.visitas.model.AgendamentoVisita;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -26,24 +24,5 @@ public class AgendamentoVisitaResponseDTO {
     private LocalDateTime dataCriacao;
     private LocalDateTime dataAtualizacao;
     private String observacoes;
-    
-    public AgendamentoVisitaResponseDTO(AgendamentoVisita agendamento) {
-        this.id = agendamento.getId();
-        this.custodiadoId = agendamento.getCustodiado().getId();
-        this.nomeCustodiado = agendamento.getCustodiado().getPessoa().getNome();
-        this.numeroProntuarioCustodiado = agendamento.getCustodiado().getNumeroProntuario();
-        this.visitanteId = agendamento.getVisitante().getId();
-        this.nomeVisitante = agendamento.getVisitante().getPessoa().getNome();
-        this.cpfVisitante = agendamento.getVisitante().getPessoa().getCpf();
-        this.dataHoraAgendamento = agendamento.getDataHoraAgendamento();
-        this.dataHoraFormatada = agendamento.getDataHoraAgendamento()
-            .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-        this.statusId = agendamento.getStatus().getId();
-        this.descricaoStatus = agendamento.getStatus().getDescricao();
-        this.unidadePenalId = agendamento.getCustodiado().getUnidadePenal().getId();
-        this.nomeUnidadePenal = agendamento.getCustodiado().getUnidadePenal().getNome();
-        this.dataCriacao = agendamento.getDataCriacao();
-        this.dataAtualizacao = agendamento.getDataAtualizacao();
-        this.observacoes = agendamento.getObservacoes();
-    }
+    private String motivoCancelamento;
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bloqueio de uma unidade penal para visitas a partir do momento atual.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BloqueioUnidadeRequestDTO {
+
+    @NotBlank(message = "O motivo do bloqueio é obrigatório")
+    @Size(max = 255, message = "O motivo deve ter no máximo 255 caracteres")
+    private String motivo;
+
+    @NotNull(message = "A quantidade de dias é obrigatória")
+    @Min(value = 1, message = "O bloqueio deve durar ao menos 1 dia")
+    @Max(value = 90, message = "O bloqueio pode durar no máximo 90 dias")
+    private Integer dias;
+}
@@ -0,0 +1,20 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BloqueioUnidadeResponseDTO {
+
+    private Long id;
+    private Long unidadePenalId;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    private String motivo;
+    private int agendamentosCancelados;
+}
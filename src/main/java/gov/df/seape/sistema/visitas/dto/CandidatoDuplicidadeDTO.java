@@ -0,0 +1,29 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO de par de pessoas candidatas a mesclagem por provável duplicidade de cadastro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidatoDuplicidadeDTO {
+
+    private Long pessoaId;
+    private String nome;
+    private String cpf;
+    private Long outraPessoaId;
+    private String outroNome;
+    private String outroCpf;
+    private LocalDate dataNascimento;
+
+    /**
+     * Similaridade entre os nomes, de 0 a 1.
+     */
+    private double similaridade;
+}
@@ -1,6 +1,5 @@
 package gov.df.seape.sistema.visitas.dto;
 
-import gov.df.seape.sistema.visitas.model.Custodiado;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -14,20 +13,4 @@ public class CustodiadoResponseDTO extends PessoaResponseDTO {
     private String vulgo;
     private Long unidadePenalId;
     private String nomeUnidadePenal;
-    
-    public CustodiadoResponseDTO(Custodiado custodiado) {
-        super(
-            custodiado.getPessoa().getId(),
-            custodiado.getPessoa().getNome(),
-            custodiado.getPessoa().getCpf(),
-            custodiado.getPessoa().getDataNascimento(),
-            null
-        );
-        calcularIdade();
-        
-        this.numeroProntuario = custodiado.getNumeroProntuario();
-        this.vulgo = custodiado.getVulgo();
-        this.unidadePenalId = custodiado.getUnidadePenal().getId();
-        this.nomeUnidadePenal = custodiado.getUnidadePenal().getNome();
-    }
 }
\ No newline at end of file
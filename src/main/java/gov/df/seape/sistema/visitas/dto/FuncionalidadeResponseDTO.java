@@ -1,6 +1,5 @@
 package gov.df.seape.sistema.visitas.dto;
 
-import gov.df.seape.sistema.visitas.model.Funcionalidade;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,12 +12,4 @@ public class FuncionalidadeResponseDTO {
     private Long id;
     private String descricao;
     private String authority;
-    
-    public FuncionalidadeResponseDTO(Funcionalidade funcionalidade) {
-        if (funcionalidade != null) {
-            this.id = funcionalidade.getId();
-            this.descricao = funcionalidade.getDescricao();
-            this.authority = funcionalidade.getAuthority();
-        }
-    }
 }
\ No newline at end of file
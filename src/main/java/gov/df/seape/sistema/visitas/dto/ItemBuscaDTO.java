@@ -0,0 +1,29 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de item encontrado na busca unificada de custodiados e visitantes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBuscaDTO {
+
+    /**
+     * Tipo do registro (CUSTODIADO ou VISITANTE).
+     */
+    private String tipo;
+    private Long id;
+    private String nome;
+    private String cpf;
+    private String numeroProntuario;
+    private String vulgo;
+
+    /**
+     * Tipo de correspondência com o termo (EXATA, PREFIXO ou SUBSTRING).
+     */
+    private String correspondencia;
+}
@@ -0,0 +1,21 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de uma ocorrência da série: o agendamento criado ou o motivo da recusa.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcorrenciaSerieDTO {
+
+    private LocalDateTime dataHoraAgendamento;
+    private boolean criado;
+    private Long agendamentoId;
+    private String motivoRecusa;
+}
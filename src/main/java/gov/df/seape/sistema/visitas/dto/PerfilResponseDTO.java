@@ -1,6 +1,5 @@
 package gov.df.seape.sistema.visitas.dto;
 
-import gov.df.seape.sistema.visitas.model.Perfil;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,13 +15,6 @@ public class PerfilResponseDTO {
     private String descricao;
     private List<FuncionalidadeResponseDTO> funcionalidades = new ArrayList<>();
     
-    public PerfilResponseDTO(Perfil perfil) {
-        if (perfil != null) {
-            this.id = perfil.getId();
-            this.descricao = perfil.getDescricao();
-        }
-    }
-    
     public PerfilResponseDTO(Long id, String descricao) {
         this.id = id;
         this.descricao = descricao;
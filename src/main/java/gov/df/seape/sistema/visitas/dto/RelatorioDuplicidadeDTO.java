@@ -0,0 +1,36 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO do relatório de pessoas possivelmente cadastradas em duplicidade.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioDuplicidadeDTO {
+
+    private LocalDateTime geradoEm;
+    private long pessoasAnalisadas;
+
+    /**
+     * Quantidade de grupos (mesma chave fonética e data de nascimento) com mais de uma pessoa.
+     */
+    private int blocos;
+
+    /**
+     * Grupos não comparados por excederem o tamanho máximo configurado.
+     */
+    private int blocosIgnorados;
+    private long comparacoes;
+
+    /**
+     * Pares candidatos a mesclagem, do mais para o menos similar.
+     */
+    private List<CandidatoDuplicidadeDTO> candidatos;
+}
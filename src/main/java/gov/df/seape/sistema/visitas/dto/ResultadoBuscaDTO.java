@@ -0,0 +1,23 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de página da busca unificada, paginada por cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoBuscaDTO {
+
+    private List<ItemBuscaDTO> itens;
+
+    /**
+     * Cursor para a próxima página; null quando não há mais resultados.
+     */
+    private String proximoCursor;
+}
@@ -0,0 +1,18 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para solicitação de revogação administrativa de um token de acesso.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevogacaoTokenRequestDTO {
+
+    @NotBlank(message = "O token é obrigatório")
+    private String token;
+}
@@ -0,0 +1,38 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Série semanal de agendamentos do mesmo visitante para o mesmo custodiado, no mesmo
+ * dia da semana e horário da primeira visita.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerieAgendamentoRequestDTO {
+
+    @NotNull(message = "ID do custodiado é obrigatório")
+    private Long custodiadoId;
+
+    @NotNull(message = "ID do visitante é obrigatório")
+    private Long visitanteId;
+
+    @NotNull(message = "Data e hora da primeira visita são obrigatórias")
+    @FutureOrPresent(message = "A primeira visita deve ser presente ou futura")
+    private LocalDateTime dataHoraPrimeiraVisita;
+
+    @NotNull(message = "A quantidade de ocorrências é obrigatória")
+    @Min(value = 1, message = "A série deve ter ao menos 1 ocorrência")
+    @Max(value = 52, message = "A série pode ter no máximo 52 ocorrências")
+    private Integer ocorrencias;
+
+    private String observacoes;
+}
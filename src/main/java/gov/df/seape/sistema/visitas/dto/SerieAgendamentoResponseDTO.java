@@ -0,0 +1,17 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerieAgendamentoResponseDTO {
+
+    private int totalCriados;
+    private int totalRecusados;
+    private List<OcorrenciaSerieDTO> ocorrencias;
+}
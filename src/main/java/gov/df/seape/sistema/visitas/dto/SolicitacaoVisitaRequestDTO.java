@@ -0,0 +1,29 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitacaoVisitaRequestDTO {
+
+    @NotNull(message = "ID do custodiado é obrigatório")
+    private Long custodiadoId;
+
+    @NotNull(message = "ID do visitante é obrigatório")
+    private Long visitanteId;
+
+    @NotNull(message = "Data e hora da visita são obrigatórias")
+    @Future(message = "A data da visita deve ser futura")
+    private LocalDateTime dataHoraSolicitada;
+
+    @Size(max = 500, message = "Observações devem ter no máximo 500 caracteres")
+    private String observacoes;
+}
@@ -0,0 +1,24 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import gov.df.seape.sistema.visitas.model.SituacaoSolicitacao;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitacaoVisitaResponseDTO {
+
+    private Long id;
+    private Long custodiadoId;
+    private Long visitanteId;
+    private LocalDateTime dataHoraSolicitada;
+    private SituacaoSolicitacao situacao;
+    private String motivoRecusa;
+    private Long sementeSorteio;
+    private String observacoes;
+    private LocalDateTime dataCriacao;
+}
@@ -1,6 +1,5 @@
 package gov.df.seape.sistema.visitas.dto;
 
-import gov.df.seape.sistema.visitas.model.Status;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,11 +11,4 @@ public class StatusResponseDTO {
     
     private Long id;
     private String descricao;
-    
-    public StatusResponseDTO(Status status) {
-        if (status != null) {
-            this.id = status.getId();
-            this.descricao = status.getDescricao();
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de sugestão retornada durante a digitação na busca.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugestaoDTO {
+
+    /**
+     * Tipo do registro sugerido (PESSOA ou CUSTODIADO).
+     */
+    private String tipo;
+    private Long id;
+    private String rotulo;
+}
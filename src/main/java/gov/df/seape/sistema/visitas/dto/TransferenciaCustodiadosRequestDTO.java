@@ -0,0 +1,26 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Transferência em lote de custodiados para uma unidade penal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferenciaCustodiadosRequestDTO {
+
+    @NotNull(message = "A unidade penal de destino é obrigatória")
+    private Long unidadePenalDestinoId;
+
+    @NotEmpty(message = "Informe ao menos um custodiado")
+    @Size(max = 1000, message = "É possível transferir no máximo 1000 custodiados por vez")
+    private List<@NotNull Long> custodiadoIds;
+}
@@ -0,0 +1,21 @@
+package gov.df.seape.sistema.visitas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado da transferência em lote de custodiados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferenciaCustodiadosResponseDTO {
+
+    private List<CustodiadoResponseDTO> custodiados;
+
+    /** Agendamentos futuros cancelados por não respeitarem as regras de visita do destino. */
+    private int agendamentosCancelados;
+}
@@ -1,11 +1,20 @@
 package gov.df.seape.sistema.visitas.dto;
 
+import gov.df.seape.sistema.visitas.model.ModoAlocacao;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Set;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,4 +26,25 @@ public class UnidadePenalRequestDTO {
     
     @Size(max = 45, message = "Descrição deve ter no máximo 45 caracteres")
     private String descricao;
+
+    @PositiveOrZero(message = "A capacidade não pode ser negativa")
+    private Integer capacidade;
+
+    private Set<DayOfWeek> diasVisita;
+    private LocalTime horarioInicioVisita;
+    private LocalTime horarioFimVisita;
+
+    // Opcional: sem valor, a unidade atende por ordem de chegada
+    private ModoAlocacao modoAlocacao;
+
+    @Positive(message = "A quantidade de salas de visita deve ser positiva")
+    private Integer salasVisita;
+
+    // Opcional: sem valor, cada visita ocupa a sala por 60 minutos
+    @Min(value = 15, message = "A duração da visita deve ser de no mínimo 15 minutos")
+    @Max(value = 480, message = "A duração da visita deve ser de no máximo 480 minutos")
+    private Integer duracaoVisitaMinutos;
+
+    @Positive(message = "A cota mensal de visitas por visitante deve ser positiva")
+    private Integer cotaMensalVisitante;
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package gov.df.seape.sistema.visitas.dto;
 
-import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.model.ModoAlocacao;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Set;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,15 +17,13 @@ public class UnidadePenalResponseDTO {
     private Long id;
     private String nome;
     private String descricao;
+    private Integer capacidade;
     private Integer totalCustodiados;
-
-    public UnidadePenalResponseDTO(UnidadePenal unidadePenal) {
-        if (unidadePenal != null) {
-            this.id = unidadePenal.getId();
-            this.nome = unidadePenal.getNome();
-            this.descricao = unidadePenal.getDescricao();
-            this.totalCustodiados = unidadePenal.getCustodiados() != null ? 
-                                    unidadePenal.getCustodiados().size() : 0;
-        }
-    }
+    private Set<DayOfWeek> diasVisita;
+    private LocalTime horarioInicioVisita;
+    private LocalTime horarioFimVisita;
+    private ModoAlocacao modoAlocacao;
+    private Integer salasVisita;
+    private Integer duracaoVisitaMinutos;
+    private Integer cotaMensalVisitante;
 }
\ No newline at end of file
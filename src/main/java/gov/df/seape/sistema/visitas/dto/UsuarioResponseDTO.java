@@ -1,6 +1,5 @@
 package gov.df.seape.sistema.visitas.dto;
 
-import gov.df.seape.sistema.visitas.model.Usuario;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,21 +16,4 @@ public class UsuarioResponseDTO {
     private String descricaoPerfil;
     private PessoaResponseDTO pessoa;
     private LocalDateTime ultimoAcesso;
-    
-    public UsuarioResponseDTO(Usuario usuario) {
-        this.id = usuario.getId();
-        this.email = usuario.getEmail();
-        this.perfilId = usuario.getPerfil().getId();
-        this.descricaoPerfil = usuario.getPerfil().getDescricao();
-        
-        PessoaResponseDTO pessoaDTO = new PessoaResponseDTO(
-            usuario.getPessoa().getId(),
-            usuario.getPessoa().getNome(),
-            usuario.getPessoa().getCpf(),
-            usuario.getPessoa().getDataNascimento(),
-            null
-        );
-        pessoaDTO.calcularIdade();
-        this.pessoa = pessoaDTO;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package gov.df.seape.sistema.visitas.evento;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado uma única vez por bloqueio de unidade penal, com o total de agendamentos
+ * cancelados, em vez de um evento por agendamento.
+ *
+ * @param bloqueioId ID do bloqueio registrado
+ * @param unidadePenalId ID da unidade bloqueada
+ * @param inicio Início do bloqueio
+ * @param fim Fim do bloqueio
+ * @param motivo Motivo informado
+ * @param agendamentosCancelados Quantidade de agendamentos cancelados
+ */
+public record UnidadeBloqueadaEvento(
+        Long bloqueioId,
+        Long unidadePenalId,
+        LocalDateTime inicio,
+        LocalDateTime fim,
+        String motivo,
+        int agendamentosCancelados) {
+}
@@ -106,6 +106,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Trata recusas por sobrecarga de recursos limitados.
+     * 
+     * Retorna uma resposta 503 indicando que a operação pode ser repetida.
+     */
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<ErrorResponse> handleServicoSobrecarregado(ServicoSobrecarregadoException ex) {
+        log.warn("Serviço sobrecarregado: {}", ex.getMessage());
+        
+        ErrorResponse response = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Trata exceções de validação de argumentos.
      * 
@@ -0,0 +1,34 @@
+package gov.df.seape.sistema.visitas.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando um recurso limitado do sistema está saturado e a
+ * solicitação é recusada para preservar o atendimento das demais.
+ *
+ * Mapeada para o código HTTP 503 (Service Unavailable); o cliente pode
+ * repetir a operação após alguns instantes.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+    /**
+     * Construtor padrão com mensagem de erro.
+     *
+     * @param mensagem Descrição do recurso saturado
+     */
+    public ServicoSobrecarregadoException(String mensagem) {
+        super(mensagem);
+    }
+
+    /**
+     * Construtor que permite incluir a causa original do erro.
+     *
+     * @param mensagem Descrição do recurso saturado
+     * @param causa Exceção original que motivou esta exceção
+     */
+    public ServicoSobrecarregadoException(String mensagem, Throwable causa) {
+        super(mensagem, causa);
+    }
+}
@@ -0,0 +1,26 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaResponseDTO;
+import gov.df.seape.sistema.visitas.model.AgendamentoVisita;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapeamento de agendamentos de visita para DTOs de resposta.
+ */
+@Mapper(config = MapeamentoConfig.class)
+public interface AgendamentoVisitaMapper extends MapeamentoComum {
+
+    @Mapping(target = "custodiadoId", source = "custodiado.id")
+    @Mapping(target = "nomeCustodiado", source = "custodiado.pessoa.nome")
+    @Mapping(target = "numeroProntuarioCustodiado", source = "custodiado.numeroProntuario")
+    @Mapping(target = "visitanteId", source = "visitante.id")
+    @Mapping(target = "nomeVisitante", source = "visitante.pessoa.nome")
+    @Mapping(target = "cpfVisitante", source = "visitante.pessoa.cpf")
+    @Mapping(target = "dataHoraFormatada", source = "dataHoraAgendamento", qualifiedByName = "dataHoraFormatada")
+    @Mapping(target = "statusId", source = "status.id")
+    @Mapping(target = "descricaoStatus", source = "status.descricao")
+    @Mapping(target = "unidadePenalId", source = "custodiado.unidadePenal.id")
+    @Mapping(target = "nomeUnidadePenal", source = "custodiado.unidadePenal.nome")
+    AgendamentoVisitaResponseDTO paraDTO(AgendamentoVisita agendamento);
+}
@@ -0,0 +1,23 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.CustodiadoResponseDTO;
+import gov.df.seape.sistema.visitas.model.Custodiado;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapeamento de custodiados para DTOs de resposta. Os dados pessoais (e o ID)
+ * exibidos são os da pessoa vinculada.
+ */
+@Mapper(config = MapeamentoConfig.class)
+public interface CustodiadoMapper extends MapeamentoComum {
+
+    @Mapping(target = "id", source = "pessoa.id")
+    @Mapping(target = "nome", source = "pessoa.nome")
+    @Mapping(target = "cpf", source = "pessoa.cpf")
+    @Mapping(target = "dataNascimento", source = "pessoa.dataNascimento")
+    @Mapping(target = "idade", source = "pessoa.dataNascimento", qualifiedByName = "idade")
+    @Mapping(target = "unidadePenalId", source = "unidadePenal.id")
+    @Mapping(target = "nomeUnidadePenal", source = "unidadePenal.nome")
+    CustodiadoResponseDTO paraDTO(Custodiado custodiado);
+}
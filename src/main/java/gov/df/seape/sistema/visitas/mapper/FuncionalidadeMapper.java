@@ -0,0 +1,14 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.FuncionalidadeResponseDTO;
+import gov.df.seape.sistema.visitas.model.Funcionalidade;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapeamento de funcionalidades para DTOs de resposta.
+ */
+@Mapper(config = MapeamentoConfig.class)
+public interface FuncionalidadeMapper {
+
+    FuncionalidadeResponseDTO paraDTO(Funcionalidade funcionalidade);
+}
@@ -0,0 +1,31 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.util.FormatosData;
+import org.mapstruct.Named;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+
+/**
+ * Conversões de valores reutilizadas pelos mapeadores, referenciadas por nome
+ * em {@code @Mapping(qualifiedByName = ...)}.
+ */
+public interface MapeamentoComum {
+
+    /**
+     * Formata a data e hora com o formato compartilhado {@link FormatosData#DATA_HORA}.
+     */
+    @Named("dataHoraFormatada")
+    default String formatarDataHora(LocalDateTime dataHora) {
+        return dataHora != null ? FormatosData.DATA_HORA.format(dataHora) : null;
+    }
+
+    /**
+     * Calcula a idade em anos completos na data atual.
+     */
+    @Named("idade")
+    default Integer calcularIdade(LocalDate dataNascimento) {
+        return dataNascimento != null ? Period.between(dataNascimento, LocalDate.now()).getYears() : null;
+    }
+}
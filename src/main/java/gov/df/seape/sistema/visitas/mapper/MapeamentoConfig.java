@@ -0,0 +1,11 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Configuração comum dos mapeadores gerados pelo MapStruct: todos são beans do Spring.
+ */
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface MapeamentoConfig {
+}
@@ -0,0 +1,17 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.PerfilResponseDTO;
+import gov.df.seape.sistema.visitas.model.Perfil;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapeamento de perfis para DTOs de resposta. As funcionalidades não são
+ * carregadas aqui; há endpoints próprios para consultá-las por perfil.
+ */
+@Mapper(config = MapeamentoConfig.class)
+public interface PerfilMapper {
+
+    @Mapping(target = "funcionalidades", ignore = true)
+    PerfilResponseDTO paraDTO(Perfil perfil);
+}
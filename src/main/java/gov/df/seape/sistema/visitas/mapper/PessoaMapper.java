@@ -0,0 +1,16 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.PessoaResponseDTO;
+import gov.df.seape.sistema.visitas.model.Pessoa;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapeamento de pessoas para DTOs de resposta.
+ */
+@Mapper(config = MapeamentoConfig.class)
+public interface PessoaMapper extends MapeamentoComum {
+
+    @Mapping(target = "idade", source = "dataNascimento", qualifiedByName = "idade")
+    PessoaResponseDTO paraDTO(Pessoa pessoa);
+}
@@ -0,0 +1,17 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.SolicitacaoVisitaResponseDTO;
+import gov.df.seape.sistema.visitas.model.SolicitacaoVisita;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapeamento de solicitações de visita para DTOs de resposta.
+ */
+@Mapper(config = MapeamentoConfig.class)
+public interface SolicitacaoVisitaMapper {
+
+    @Mapping(target = "custodiadoId", source = "custodiado.id")
+    @Mapping(target = "visitanteId", source = "visitante.id")
+    SolicitacaoVisitaResponseDTO paraDTO(SolicitacaoVisita solicitacao);
+}
@@ -0,0 +1,14 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.StatusResponseDTO;
+import gov.df.seape.sistema.visitas.model.Status;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapeamento de status para DTOs de resposta.
+ */
+@Mapper(config = MapeamentoConfig.class)
+public interface StatusMapper {
+
+    StatusResponseDTO paraDTO(Status status);
+}
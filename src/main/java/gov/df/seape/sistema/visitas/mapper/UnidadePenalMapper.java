@@ -0,0 +1,16 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.UnidadePenalResponseDTO;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapeamento de unidades penais para DTOs de resposta.
+ */
+@Mapper(config = MapeamentoConfig.class)
+public interface UnidadePenalMapper {
+
+    @Mapping(target = "totalCustodiados", source = "ocupacao")
+    UnidadePenalResponseDTO paraDTO(UnidadePenal unidadePenal);
+}
@@ -0,0 +1,17 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.UsuarioResponseDTO;
+import gov.df.seape.sistema.visitas.model.Usuario;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapeamento de usuários para DTOs de resposta.
+ */
+@Mapper(config = MapeamentoConfig.class, uses = PessoaMapper.class)
+public interface UsuarioMapper {
+
+    @Mapping(target = "perfilId", source = "perfil.id")
+    @Mapping(target = "descricaoPerfil", source = "perfil.descricao")
+    UsuarioResponseDTO paraDTO(Usuario usuario);
+}
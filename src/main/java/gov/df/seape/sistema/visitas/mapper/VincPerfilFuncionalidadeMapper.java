@@ -0,0 +1,14 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.VincPerfilFuncionalidadeResponseDTO;
+import gov.df.seape.sistema.visitas.model.VincPerfilFuncionalidade;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapeamento de vínculos entre perfil e funcionalidade para DTOs de resposta.
+ */
+@Mapper(config = MapeamentoConfig.class, uses = {PerfilMapper.class, FuncionalidadeMapper.class})
+public interface VincPerfilFuncionalidadeMapper {
+
+    VincPerfilFuncionalidadeResponseDTO paraDTO(VincPerfilFuncionalidade vinculo);
+}
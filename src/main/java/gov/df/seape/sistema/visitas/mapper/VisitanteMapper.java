@@ -0,0 +1,31 @@
+package gov.df.seape.sistema.visitas.mapper;
+
+import gov.df.seape.sistema.visitas.dto.VisitanteResponseDTO;
+import gov.df.seape.sistema.visitas.model.Visitante;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+/**
+ * Mapeamento de visitantes para DTOs de resposta. Os dados pessoais (e o ID)
+ * exibidos são os da pessoa vinculada; a senha online nunca é exposta, apenas
+ * se está ativa.
+ */
+@Mapper(config = MapeamentoConfig.class)
+public interface VisitanteMapper extends MapeamentoComum {
+
+    @Mapping(target = "id", source = "pessoa.id")
+    @Mapping(target = "nome", source = "pessoa.nome")
+    @Mapping(target = "cpf", source = "pessoa.cpf")
+    @Mapping(target = "dataNascimento", source = "pessoa.dataNascimento")
+    @Mapping(target = "idade", source = "pessoa.dataNascimento", qualifiedByName = "idade")
+    @Mapping(target = "visitanteId", source = "id")
+    @Mapping(target = "grauParentesco", ignore = true)
+    @Mapping(target = "senhaOnlineAtiva", source = "senhaOnline", qualifiedByName = "senhaAtiva")
+    VisitanteResponseDTO paraDTO(Visitante visitante);
+
+    @Named("senhaAtiva")
+    default Boolean senhaAtiva(String senhaOnline) {
+        return senhaOnline != null && !senhaOnline.isEmpty();
+    }
+}
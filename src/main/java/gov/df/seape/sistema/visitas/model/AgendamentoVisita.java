@@ -66,6 +66,10 @@ public class AgendamentoVisita {
     @Column(name = "observacoes", length = 500)
     private String observacoes;
 
+    @Size(max = 255, message = "O motivo do cancelamento deve ter no máximo 255 caracteres")
+    @Column(name = "motivo_cancelamento", length = 255)
+    private String motivoCancelamento;
+
     @PrePersist
     protected void onCreate() {
         dataCriacao = LocalDateTime.now();
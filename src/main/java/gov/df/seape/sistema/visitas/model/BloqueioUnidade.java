@@ -0,0 +1,58 @@
+package gov.df.seape.sistema.visitas.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Período em que uma unidade penal fica fechada para visitas, por exemplo durante
+ * um procedimento de segurança.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(
+    name = "bloqueio_unidade",
+    indexes = @Index(name = "idx_bloqueio_unidade_fim", columnList = "unidade_penal_id, fim")
+)
+public class BloqueioUnidade {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull(message = "A unidade penal é obrigatória")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "unidade_penal_id", nullable = false)
+    private UnidadePenal unidadePenal;
+
+    @NotNull(message = "O início do bloqueio é obrigatório")
+    @Column(name = "inicio", nullable = false)
+    private LocalDateTime inicio;
+
+    @NotNull(message = "O fim do bloqueio é obrigatório")
+    @Column(name = "fim", nullable = false)
+    private LocalDateTime fim;
+
+    @NotBlank(message = "O motivo do bloqueio é obrigatório")
+    @Size(max = 255, message = "O motivo deve ter no máximo 255 caracteres")
+    @Column(name = "motivo", length = 255, nullable = false)
+    private String motivo;
+
+    @Column(name = "data_criacao", nullable = false, updatable = false)
+    private LocalDateTime dataCriacao;
+
+    @PrePersist
+    protected void onCreate() {
+        dataCriacao = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,46 @@
+package gov.df.seape.sistema.visitas.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contador das visitas não canceladas de um visitante aos custodiados de uma unidade
+ * penal em um mês, usado para aplicar {@link UnidadePenal#getCotaMensalVisitante()}.
+ *
+ * Mantido apenas para unidades com cota definida e alterado somente por atualizações
+ * condicionais em {@link gov.df.seape.sistema.visitas.repository.CotaVisitanteMensalRepository}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(
+    name = "cota_visitante_mensal",
+    uniqueConstraints = @UniqueConstraint(name = "uk_cota_visitante_mensal",
+            columnNames = {"visitante_id", "unidade_penal_id", "mes"})
+)
+public class CotaVisitanteMensal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "visitante_id", nullable = false)
+    private Visitante visitante;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "unidade_penal_id", nullable = false)
+    private UnidadePenal unidadePenal;
+
+    /** Mês no formato AAAAMM. */
+    @Column(name = "mes", nullable = false)
+    private int mes;
+
+    @Column(name = "visitas", nullable = false)
+    private int visitas;
+}
@@ -1,5 +1,6 @@
 package gov.df.seape.sistema.visitas.model;
 
+import gov.df.seape.sistema.visitas.busca.IndiceBuscaListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -20,6 +21,7 @@ import lombok.ToString;
 @AllArgsConstructor
 @Entity
 @Table(name = "custodiado")
+@EntityListeners(IndiceBuscaListener.class)
 public class Custodiado {
     
     /**
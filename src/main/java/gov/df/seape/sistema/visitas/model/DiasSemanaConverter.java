@@ -0,0 +1,42 @@
+package gov.df.seape.sistema.visitas.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Grava um conjunto de dias da semana como máscara de bits (segunda-feira no bit 0),
+ * em uma única coluna inteira.
+ */
+@Converter
+public class DiasSemanaConverter implements AttributeConverter<Set<DayOfWeek>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<DayOfWeek> dias) {
+        if (dias == null || dias.isEmpty()) {
+            return null;
+        }
+        int mascara = 0;
+        for (DayOfWeek dia : dias) {
+            mascara |= 1 << (dia.getValue() - 1);
+        }
+        return mascara;
+    }
+
+    @Override
+    public Set<DayOfWeek> convertToEntityAttribute(Integer mascara) {
+        if (mascara == null) {
+            return null;
+        }
+        Set<DayOfWeek> dias = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            if ((mascara & (1 << (dia.getValue() - 1))) != 0) {
+                dias.add(dia);
+            }
+        }
+        return dias;
+    }
+}
@@ -0,0 +1,16 @@
+package gov.df.seape.sistema.visitas.model;
+
+/**
+ * Forma como uma unidade penal distribui as vagas de visita.
+ */
+public enum ModoAlocacao {
+
+    /** Agendamento direto, atendido por ordem de chegada. */
+    ORDEM_CHEGADA,
+
+    /**
+     * Solicitações recebidas até o fechamento da janela do dia e distribuídas de uma
+     * vez, em ordem sorteada.
+     */
+    SORTEIO
+}
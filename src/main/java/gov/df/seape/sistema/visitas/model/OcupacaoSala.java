@@ -0,0 +1,44 @@
+package gov.df.seape.sistema.visitas.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contador de visitas que ocupam as salas de uma unidade penal em uma faixa de
+ * horário (ver {@link gov.df.seape.sistema.visitas.util.ArvoreOcupacao}).
+ *
+ * Mantido apenas para unidades com quantidade de salas definida e alterado somente
+ * por atualizações condicionais em
+ * {@link gov.df.seape.sistema.visitas.repository.OcupacaoSalaRepository}, que garantem
+ * a capacidade mesmo com agendamentos concorrentes.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(
+    name = "ocupacao_sala",
+    uniqueConstraints = @UniqueConstraint(name = "uk_ocupacao_sala_faixa", columnNames = {"unidade_penal_id", "inicio_faixa"})
+)
+public class OcupacaoSala {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "unidade_penal_id", nullable = false)
+    private UnidadePenal unidadePenal;
+
+    @Column(name = "inicio_faixa", nullable = false)
+    private LocalDateTime inicioFaixa;
+
+    @Column(name = "ocupadas", nullable = false)
+    private int ocupadas;
+}
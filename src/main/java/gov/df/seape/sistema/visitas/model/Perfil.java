@@ -2,6 +2,8 @@ package gov.df.seape.sistema.visitas.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 
 import java.util.ArrayList;
@@ -13,6 +15,8 @@ import java.util.List;
  * Define os diferentes níveis de acesso e permissões.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
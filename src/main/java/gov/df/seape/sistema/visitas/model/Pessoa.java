@@ -1,5 +1,9 @@
 package gov.df.seape.sistema.visitas.model;
 
+import gov.df.seape.sistema.visitas.busca.IndiceBuscaListener;
+import gov.df.seape.sistema.visitas.util.CpfUtil;
+import gov.df.seape.sistema.visitas.util.FoneticaBR;
+import gov.df.seape.sistema.visitas.util.NormalizadorTexto;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
@@ -21,6 +25,11 @@ import java.time.Period;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_pessoa_nome_busca", columnList = "nome_busca"),
+        @Index(name = "idx_pessoa_chave_fonetica", columnList = "chave_fonetica, data_nascimento")
+})
+@EntityListeners(IndiceBuscaListener.class)
 public class Pessoa {
     
     @Id
@@ -32,16 +41,59 @@ public class Pessoa {
     @NotBlank(message = "O nome é obrigatório")
     @Column(name = "nome", length = 45, nullable = false)
     private String nome;
+
+    /**
+     * Nome normalizado para busca (sem acentos, em minúsculas e com espaços simplificados).
+     * Calculado automaticamente a cada gravação.
+     *
+     * O índice idx_pessoa_nome_busca atende apenas comparações exatas e por prefixo. As buscas
+     * por parte do nome ({@code LIKE '%termo%'}) não o utilizam: são resolvidas pelo índice de
+     * trigramas em memória, que entrega ao banco a lista de IDs candidatos, e só percorrem a
+     * tabela quando esse índice não pode responder (ainda não carregado, termo com menos de
+     * três caracteres ou pouco seletivo).
+     */
+    @Column(name = "nome_busca", length = 45)
+    private String nomeBusca;
+
+    /**
+     * Chave fonética do nome (ver {@link FoneticaBR}), usada para agrupar
+     * possíveis cadastros duplicados. Calculada automaticamente a cada gravação.
+     */
+    @Column(name = "chave_fonetica", length = 45)
+    private String chaveFonetica;
     
     @NotBlank(message = "O CPF é obrigatório")
     @Pattern(regexp = "\\d{11}", message = "CPF deve conter 11 dígitos numéricos")
     @Column(name = "cpf", length = 45, nullable = false, unique = true)
     private String cpf;
+
+    /**
+     * CPF como número, chave indexada usada nas consultas por CPF.
+     * Calculado automaticamente a cada gravação.
+     */
+    @Column(name = "cpf_numero", unique = true)
+    private Long cpfNumero;
     
     @Past(message = "A data de nascimento deve ser no passado")
     @Column(name = "data_nascimento", nullable = false)
     private LocalDate dataNascimento;
 
+    /**
+     * Atualiza as chaves de busca derivadas do nome e do CPF antes de cada gravação.
+     * CPFs formatados são gravados apenas com os dígitos.
+     */
+    @PrePersist
+    @PreUpdate
+    public void atualizarChavesBusca() {
+        String cpfNormalizado = CpfUtil.normalizar(this.cpf);
+        if (cpfNormalizado != null) {
+            this.cpf = cpfNormalizado;
+        }
+        this.cpfNumero = CpfUtil.paraNumero(this.cpf);
+        this.nomeBusca = NormalizadorTexto.normalizar(this.nome);
+        this.chaveFonetica = FoneticaBR.codificar(this.nome);
+    }
+
     /**
      * Calcula e retorna a idade baseada na data de nascimento.
      * 
@@ -60,33 +112,7 @@ public class Pessoa {
      * @return true se o CPF for válido, false caso contrário.
      */
     public boolean validarCPF() {
-        if (cpf == null || !cpf.matches("\\d{11}")) {
-            return false;
-        }
-        // Verifica se todos os dígitos são iguais (ex.: "11111111111")
-        if (cpf.chars().distinct().count() == 1) {
-            return false;
-        }
-        try {
-            int soma = 0;
-            for (int i = 0; i < 9; i++) {
-                soma += Character.getNumericValue(cpf.charAt(i)) * (10 - i);
-            }
-            int resto = 11 - (soma % 11);
-            int digito1 = resto >= 10 ? 0 : resto;
-
-            soma = 0;
-            for (int i = 0; i < 10; i++) {
-                soma += Character.getNumericValue(cpf.charAt(i)) * (11 - i);
-            }
-            resto = 11 - (soma % 11);
-            int digito2 = resto >= 10 ? 0 : resto;
-
-            return digito1 == Character.getNumericValue(cpf.charAt(9)) &&
-                   digito2 == Character.getNumericValue(cpf.charAt(10));
-        } catch (Exception e) {
-            return false;
-        }
+        return CpfUtil.valido(cpf);
     }
     
     /**
@@ -0,0 +1,10 @@
+package gov.df.seape.sistema.visitas.model;
+
+/**
+ * Situação de uma solicitação de visita em unidade com alocação por sorteio.
+ */
+public enum SituacaoSolicitacao {
+    PENDENTE,
+    ATENDIDA,
+    RECUSADA
+}
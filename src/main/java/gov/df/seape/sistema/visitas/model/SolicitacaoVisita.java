@@ -0,0 +1,70 @@
+package gov.df.seape.sistema.visitas.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pedido de visita em unidade penal com alocação por sorteio. Fica pendente até o
+ * fechamento da janela do dia, quando é atendido (vira agendamento) ou recusado.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(
+    name = "solicitacao_visita",
+    indexes = @Index(name = "idx_solicitacao_situacao_data", columnList = "situacao, data_hora_solicitada")
+)
+public class SolicitacaoVisita {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull(message = "O custodiado é obrigatório")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "custodiado_id", nullable = false)
+    private Custodiado custodiado;
+
+    @NotNull(message = "O visitante é obrigatório")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "visitante_id", nullable = false)
+    private Visitante visitante;
+
+    @NotNull(message = "A data e hora solicitadas são obrigatórias")
+    @Column(name = "data_hora_solicitada", nullable = false)
+    private LocalDateTime dataHoraSolicitada;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "situacao", length = 20, nullable = false)
+    private SituacaoSolicitacao situacao = SituacaoSolicitacao.PENDENTE;
+
+    @Size(max = 500, message = "Observações devem ter no máximo 500 caracteres")
+    @Column(name = "observacoes", length = 500)
+    private String observacoes;
+
+    @Size(max = 255)
+    @Column(name = "motivo_recusa", length = 255)
+    private String motivoRecusa;
+
+    /** Semente do embaralhamento que decidiu a solicitação, para reproduzir o sorteio do dia. */
+    @Column(name = "semente_sorteio")
+    private Long sementeSorteio;
+
+    @Column(name = "data_criacao", nullable = false, updatable = false)
+    private LocalDateTime dataCriacao;
+
+    @PrePersist
+    protected void onCreate() {
+        dataCriacao = LocalDateTime.now();
+    }
+}
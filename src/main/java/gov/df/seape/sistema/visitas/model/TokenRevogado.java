@@ -0,0 +1,48 @@
+package gov.df.seape.sistema.visitas.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa um token JWT revogado antes da sua expiração.
+ * Mantém apenas o identificador do token (claim jti) e a data em que ele expiraria,
+ * garantindo que a lista de revogação sobreviva a reinícios da aplicação.
+ * Registros vencidos são removidos periodicamente.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "token_revogado", indexes = {
+    @Index(name = "idx_token_revogado_expiracao", columnList = "expira_em")
+})
+public class TokenRevogado {
+
+    /**
+     * Identificador único do token (claim jti).
+     */
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "jti", length = 100)
+    private String jti;
+
+    /**
+     * Data em que o token expira. Após essa data o registro pode ser descartado.
+     */
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    /**
+     * Data em que o token foi revogado.
+     */
+    @Column(name = "data_revogacao", nullable = false)
+    private LocalDateTime dataRevogacao;
+}
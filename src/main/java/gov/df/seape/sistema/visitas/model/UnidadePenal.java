@@ -3,14 +3,23 @@ package gov.df.seape.sistema.visitas.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.*;
 
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Entidade que representa unidades prisionais no sistema.
  * Gerencia informações das instituições onde custodiados estão alocados.
+ *
+ * Não participa do cache de segundo nível: a ocupação é alterada por UPDATEs em lote
+ * (ver {@code UnidadePenalRepository#ocuparVagas}) a cada inclusão ou transferência de
+ * custodiado, e cada um deles descartaria a região inteira da entidade.
  */
 @Getter
 @Setter
@@ -43,31 +52,53 @@ public class UnidadePenal {
 
     @Column(name = "capacidade")
     private Integer capacidade;
-    
-    @OneToMany(mappedBy = "unidadePenal", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
-    private List<Custodiado> custodiados = new ArrayList<>();
 
     /**
-     * Adiciona um custodiado à unidade penal.
-     * Verifica se a capacidade não foi excedida e se já não existe um custodiado
-     * com o mesmo número de prontuário.
-     * 
-     * @param custodiado Custodiado a ser adicionado
+     * Quantidade de custodiados alocados na unidade. Mantida por atualizações
+     * condicionais no banco a cada inclusão, transferência ou exclusão, para que a lotação
+     * seja consultada sem carregar a coleção de custodiados, e reconciliada com a contagem
+     * de custodiados na inicialização ({@code VagasUnidades}). Fica fora do UPDATE da
+     * entidade para que a edição dos dados da unidade não sobrescreva o contador.
      */
-    public void adicionarCustodiado(Custodiado custodiado) {
-        // Verifica duplicidade pelo número do prontuário
-        boolean existe = custodiados.stream()
-                .anyMatch(c -> c.getNumeroProntuario().equals(custodiado.getNumeroProntuario()));
-        if (existe) {
-            throw new IllegalStateException("Custodiado com este número de prontuário já está associado à unidade penal.");
-        }
-        if (custodiados.size() < capacidade) {
-            custodiados.add(custodiado);
-            custodiado.setUnidadePenal(this);
-        } else {
-            throw new IllegalStateException("Capacidade máxima da unidade penal excedida");
-        }
-    }
+    @ColumnDefault("0")
+    @Column(name = "ocupacao", nullable = false, updatable = false)
+    private int ocupacao;
+
+    /**
+     * Regras de visita próprias da unidade, aplicadas dentro da janela geral do sistema
+     * ({@link gov.df.seape.sistema.visitas.util.HorarioVisitaUtil}). Campos nulos não
+     * restringem: sem dias informados vale qualquer dia, sem horário vale o dia todo.
+     */
+    @Convert(converter = DiasSemanaConverter.class)
+    @Column(name = "dias_visita")
+    private Set<DayOfWeek> diasVisita;
+
+    @Column(name = "horario_inicio_visita")
+    private LocalTime horarioInicioVisita;
+
+    @Column(name = "horario_fim_visita")
+    private LocalTime horarioFimVisita;
+
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'ORDEM_CHEGADA'")
+    @Column(name = "modo_alocacao", length = 20, nullable = false)
+    private ModoAlocacao modoAlocacao = ModoAlocacao.ORDEM_CHEGADA;
+
+    /** Visitas simultâneas que as salas comportam em cada horário; nulo não limita. */
+    @Column(name = "salas_visita")
+    private Integer salasVisita;
+
+    /** Tempo em que cada visita ocupa uma sala, a partir do horário agendado. */
+    @ColumnDefault("60")
+    @Column(name = "duracao_visita_minutos", nullable = false)
+    private int duracaoVisitaMinutos = 60;
+
+    /** Visitas que cada visitante pode fazer por mês aos custodiados da unidade; nulo não limita. */
+    @Column(name = "cota_mensal_visitante")
+    private Integer cotaMensalVisitante;
+    
+    @OneToMany(mappedBy = "unidadePenal", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    private List<Custodiado> custodiados = new ArrayList<>();
 
     /**
      * Calcula o número atual de custodiados na unidade.
@@ -75,7 +106,7 @@ public class UnidadePenal {
      * @return Número de custodiados
      */
     public int getTotalCustodiados() {
-        return custodiados.size();
+        return ocupacao;
     }
 
     /**
@@ -84,6 +115,30 @@ public class UnidadePenal {
      * @return true se estiver lotada, false caso contrário
      */
     public boolean estaLotada() {
-        return capacidade != null && custodiados.size() >= capacidade;
+        return capacidade != null && ocupacao >= capacidade;
+    }
+
+    /**
+     * Verifica se a unidade tem alguma regra de visita própria.
+     *
+     * @return true se dias ou horários estiverem restritos
+     */
+    public boolean possuiRegrasVisita() {
+        return (diasVisita != null && !diasVisita.isEmpty())
+            || horarioInicioVisita != null
+            || horarioFimVisita != null;
+    }
+
+    /**
+     * Verifica se a unidade recebe visitas no dia e horário informados.
+     *
+     * @param dataHora Data e hora da visita
+     * @return true se a visita respeita as regras da unidade
+     */
+    public boolean permiteVisitaEm(LocalDateTime dataHora) {
+        LocalTime horario = dataHora.toLocalTime();
+        return (diasVisita == null || diasVisita.isEmpty() || diasVisita.contains(dataHora.getDayOfWeek()))
+            && (horarioInicioVisita == null || !horario.isBefore(horarioInicioVisita))
+            && (horarioFimVisita == null || !horario.isAfter(horarioFimVisita));
     }
 }
@@ -1,5 +1,6 @@
 package gov.df.seape.sistema.visitas.model;
 
+import gov.df.seape.sistema.visitas.busca.IndiceBuscaListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -16,6 +17,7 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(IndiceBuscaListener.class)
 public class Visitante {
     
     @Id
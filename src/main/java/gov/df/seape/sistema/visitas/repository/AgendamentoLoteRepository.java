@@ -0,0 +1,54 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gravação de agendamentos em lote via JDBC.
+ *
+ * O Hibernate não agrupa INSERTs de entidades com ID gerado por IDENTITY, então os
+ * fluxos que criam muitos agendamentos de uma vez (séries e sorteios) gravam aqui,
+ * em um único lote na transação corrente.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AgendamentoLoteRepository {
+
+    private static final String SQL_INSERIR_AGENDAMENTO =
+            "INSERT INTO agendamento_visita " +
+            "(custodiado_id, visitante_id, data_hora_agendamento, status_id, observacoes, data_criacao) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Agendamento a ser gravado.
+     */
+    public record NovoAgendamento(Long custodiadoId, Long visitanteId, LocalDateTime dataHora, String observacoes) {
+    }
+
+    /**
+     * Grava os agendamentos em um único lote.
+     *
+     * @param agendamentos Agendamentos a gravar
+     * @param statusId ID do status inicial
+     */
+    public void inserir(List<NovoAgendamento> agendamentos, Long statusId) {
+        if (agendamentos.isEmpty()) {
+            return;
+        }
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> parametros = new ArrayList<>(agendamentos.size());
+        for (NovoAgendamento agendamento : agendamentos) {
+            parametros.add(new Object[] {agendamento.custodiadoId(), agendamento.visitanteId(),
+                    Timestamp.valueOf(agendamento.dataHora()), statusId, agendamento.observacoes(), agora});
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERIR_AGENDAMENTO, parametros);
+    }
+}
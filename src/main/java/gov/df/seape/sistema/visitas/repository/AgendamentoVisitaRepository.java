@@ -7,12 +7,16 @@ import gov.df.seape.sistema.visitas.model.Visitante;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,6 +25,18 @@ import java.util.List;
  */
 @Repository
 public interface AgendamentoVisitaRepository extends JpaRepository<AgendamentoVisita, Long> {
+
+    /**
+     * Agendamentos ativos e futuros dos custodiados informados que caem fora dos dias
+     * ou da faixa de horário de uma unidade penal. O dia da semana segue a numeração do
+     * HQL, de 1 (domingo) a 7 (sábado).
+     */
+    String FORA_DAS_REGRAS_DA_UNIDADE = "a.custodiado.id IN :custodiadoIds " +
+           "AND a.status.id IN :statusAtivosIds " +
+           "AND a.dataHoraAgendamento > :agora " +
+           "AND (extract(day of week from a.dataHoraAgendamento) NOT IN :diasPermitidos " +
+           "OR extract(time from a.dataHoraAgendamento) < :horarioInicio " +
+           "OR extract(time from a.dataHoraAgendamento) > :horarioFim)";
     
     /**
      * Lista todos os agendamentos de um determinado custodiado.
@@ -48,6 +64,14 @@ public interface AgendamentoVisitaRepository extends JpaRepository<AgendamentoVi
      * @return Página de agendamentos do custodiado especificado
      */
     Page<AgendamentoVisita> findByCustodiadoId(Long custodiadoId, Pageable pageable);
+
+    /**
+     * Verifica se o custodiado tem algum agendamento, em qualquer status.
+     *
+     * @param custodiadoId O ID do custodiado
+     * @return true se houver ao menos um agendamento
+     */
+    boolean existsByCustodiadoId(Long custodiadoId);
     
     /**
      * Lista todos os agendamentos de um determinado visitante.
@@ -290,4 +314,178 @@ List<AgendamentoVisita> findByVisitanteIdAndDataHoraAgendamentoBetween(
         LocalDateTime inicio, 
         LocalDateTime fim);
 
+    /**
+     * Lista os dias dos agendamentos que {@link #cancelarForaDasRegrasDaUnidade} vai cancelar.
+     *
+     * @param custodiadoIds IDs dos custodiados
+     * @param statusAtivosIds IDs dos status que ainda podem ser cancelados
+     * @param agora Instante a partir do qual os agendamentos são verificados
+     * @param diasPermitidos Dias da semana permitidos, de 1 (domingo) a 7 (sábado)
+     * @param horarioInicio Primeiro horário permitido
+     * @param horarioFim Último horário permitido
+     * @return Dias distintos dos agendamentos fora das regras
+     */
+    @Query("SELECT DISTINCT extract(date from a.dataHoraAgendamento) FROM AgendamentoVisita a " +
+           "WHERE " + FORA_DAS_REGRAS_DA_UNIDADE)
+    List<LocalDate> findDiasForaDasRegrasDaUnidade(
+            @Param("custodiadoIds") Collection<Long> custodiadoIds,
+            @Param("statusAtivosIds") Collection<Long> statusAtivosIds,
+            @Param("agora") LocalDateTime agora,
+            @Param("diasPermitidos") Collection<Integer> diasPermitidos,
+            @Param("horarioInicio") LocalTime horarioInicio,
+            @Param("horarioFim") LocalTime horarioFim);
+
+    /**
+     * Cancela, em um único UPDATE, os agendamentos ativos e futuros dos custodiados
+     * que não respeitam as regras de visita de uma unidade penal.
+     *
+     * @param statusCancelado Status de cancelamento
+     * @param motivo Motivo gravado nos agendamentos cancelados
+     * @param custodiadoIds IDs dos custodiados
+     * @param statusAtivosIds IDs dos status que ainda podem ser cancelados
+     * @param agora Instante a partir do qual os agendamentos são verificados
+     * @param diasPermitidos Dias da semana permitidos, de 1 (domingo) a 7 (sábado)
+     * @param horarioInicio Primeiro horário permitido
+     * @param horarioFim Último horário permitido
+     * @return Quantidade de agendamentos cancelados
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AgendamentoVisita a SET a.status = :statusCancelado, a.motivoCancelamento = :motivo, " +
+           "a.dataAtualizacao = :agora WHERE " + FORA_DAS_REGRAS_DA_UNIDADE)
+    int cancelarForaDasRegrasDaUnidade(
+            @Param("statusCancelado") Status statusCancelado,
+            @Param("motivo") String motivo,
+            @Param("custodiadoIds") Collection<Long> custodiadoIds,
+            @Param("statusAtivosIds") Collection<Long> statusAtivosIds,
+            @Param("agora") LocalDateTime agora,
+            @Param("diasPermitidos") Collection<Integer> diasPermitidos,
+            @Param("horarioInicio") LocalTime horarioInicio,
+            @Param("horarioFim") LocalTime horarioFim);
+
+    /**
+     * Cancela, em um único UPDATE, os agendamentos ativos dos custodiados de uma unidade
+     * penal dentro do período de bloqueio, gravando o motivo em todos.
+     *
+     * @param statusCancelado Status de cancelamento
+     * @param motivo Motivo do bloqueio
+     * @param unidadePenalId ID da unidade bloqueada
+     * @param statusAtivosIds IDs dos status que ainda podem ser cancelados
+     * @param inicio Início do bloqueio
+     * @param fim Fim do bloqueio
+     * @param agora Data da atualização
+     * @return Quantidade de agendamentos cancelados
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AgendamentoVisita a SET a.status = :statusCancelado, a.motivoCancelamento = :motivo, " +
+           "a.dataAtualizacao = :agora " +
+           "WHERE a.custodiado.id IN (SELECT c.id FROM Custodiado c WHERE c.unidadePenal.id = :unidadePenalId) " +
+           "AND a.status.id IN :statusAtivosIds " +
+           "AND a.dataHoraAgendamento BETWEEN :inicio AND :fim")
+    int cancelarPorBloqueio(
+            @Param("statusCancelado") Status statusCancelado,
+            @Param("motivo") String motivo,
+            @Param("unidadePenalId") Long unidadePenalId,
+            @Param("statusAtivosIds") Collection<Long> statusAtivosIds,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim,
+            @Param("agora") LocalDateTime agora);
+
+    /**
+     * Lista data, hora e status dos agendamentos de um custodiado no período, sem
+     * carregar as entidades. Usada para validar uma série inteira com uma só consulta.
+     *
+     * @param custodiadoId ID do custodiado
+     * @param inicio Início do período
+     * @param fim Fim do período
+     * @return Linhas com data e hora e ID do status
+     */
+    @Query("SELECT a.dataHoraAgendamento, a.status.id FROM AgendamentoVisita a " +
+           "WHERE a.custodiado.id = :custodiadoId AND a.dataHoraAgendamento BETWEEN :inicio AND :fim")
+    List<Object[]> findDataHoraEStatusDoCustodiadoNoPeriodo(
+            @Param("custodiadoId") Long custodiadoId,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim);
+
+    /**
+     * Lista as datas e horas dos agendamentos de um visitante no período.
+     *
+     * @param visitanteId ID do visitante
+     * @param inicio Início do período
+     * @param fim Fim do período
+     * @return Datas e horas dos agendamentos
+     */
+    @Query("SELECT a.dataHoraAgendamento FROM AgendamentoVisita a " +
+           "WHERE a.visitante.id = :visitanteId AND a.dataHoraAgendamento BETWEEN :inicio AND :fim")
+    List<LocalDateTime> findDataHoraDoVisitanteNoPeriodo(
+            @Param("visitanteId") Long visitanteId,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim);
+
+    /**
+     * Recupera os IDs dos agendamentos de uma série gravada em lote.
+     *
+     * @param custodiadoId ID do custodiado
+     * @param visitanteId ID do visitante
+     * @param statusId ID do status gravado
+     * @param datasHoras Datas e horas das ocorrências gravadas
+     * @return Linhas com ID e data e hora
+     */
+    @Query("SELECT a.id, a.dataHoraAgendamento FROM AgendamentoVisita a " +
+           "WHERE a.custodiado.id = :custodiadoId AND a.visitante.id = :visitanteId " +
+           "AND a.status.id = :statusId AND a.dataHoraAgendamento IN :datasHoras")
+    List<Object[]> findIdsDaSerie(
+            @Param("custodiadoId") Long custodiadoId,
+            @Param("visitanteId") Long visitanteId,
+            @Param("statusId") Long statusId,
+            @Param("datasHoras") Collection<LocalDateTime> datasHoras);
+
+    /**
+     * Lista custodiado, data, hora e status dos agendamentos dos custodiados de uma
+     * unidade penal no período, sem carregar as entidades.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param inicio Início do período
+     * @param fim Fim do período
+     * @return Linhas com ID do custodiado, data e hora e ID do status
+     */
+    @Query("SELECT a.custodiado.id, a.dataHoraAgendamento, a.status.id FROM AgendamentoVisita a " +
+           "WHERE a.custodiado.unidadePenal.id = :unidadePenalId AND a.dataHoraAgendamento BETWEEN :inicio AND :fim")
+    List<Object[]> findDataHoraEStatusDaUnidadeNoPeriodo(
+            @Param("unidadePenalId") Long unidadePenalId,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim);
+
+    /**
+     * Data e hora dos agendamentos não cancelados da unidade a partir de um instante,
+     * usados para recalcular a ocupação das salas de visita.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param statusCanceladoId ID do status CANCELADO
+     * @param inicio Início do período
+     * @return Data e hora de cada agendamento
+     */
+    @Query("SELECT a.dataHoraAgendamento FROM AgendamentoVisita a " +
+           "WHERE a.custodiado.unidadePenal.id = :unidadePenalId AND a.status.id <> :statusCanceladoId " +
+           "AND a.dataHoraAgendamento >= :inicio")
+    List<LocalDateTime> findDataHoraAtivosDaUnidadeAPartirDe(
+            @Param("unidadePenalId") Long unidadePenalId,
+            @Param("statusCanceladoId") Long statusCanceladoId,
+            @Param("inicio") LocalDateTime inicio);
+
+    /**
+     * Lista visitante, data e hora dos agendamentos de vários visitantes no período.
+     *
+     * @param visitanteIds IDs dos visitantes
+     * @param inicio Início do período
+     * @param fim Fim do período
+     * @return Linhas com ID do visitante e data e hora
+     */
+    @Query("SELECT a.visitante.id, a.dataHoraAgendamento FROM AgendamentoVisita a " +
+           "WHERE a.visitante.id IN :visitanteIds AND a.dataHoraAgendamento BETWEEN :inicio AND :fim")
+    List<Object[]> findDataHoraDosVisitantesNoPeriodo(
+            @Param("visitanteIds") Collection<Long> visitanteIds,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import gov.df.seape.sistema.visitas.model.BloqueioUnidade;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório para a entidade BloqueioUnidade.
+ */
+@Repository
+public interface BloqueioUnidadeRepository extends JpaRepository<BloqueioUnidade, Long> {
+
+    /**
+     * Lista os bloqueios ainda não encerrados, para a carga do calendário em memória.
+     *
+     * @param agora Instante atual
+     * @return Linhas com ID da unidade penal, início e fim do bloqueio
+     */
+    @Query("SELECT b.unidadePenal.id, b.inicio, b.fim FROM BloqueioUnidade b WHERE b.fim > :agora")
+    List<Object[]> findJanelasVigentes(@Param("agora") LocalDateTime agora);
+
+    /**
+     * Lista os bloqueios de uma unidade que alcançam o período informado.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param de Início do período
+     * @param ate Fim do período
+     * @return Linhas com início e fim do bloqueio
+     */
+    @Query("SELECT b.inicio, b.fim FROM BloqueioUnidade b " +
+           "WHERE b.unidadePenal.id = :unidadePenalId AND b.fim >= :de AND b.inicio <= :ate")
+    List<Object[]> findJanelasDaUnidadeNoPeriodo(@Param("unidadePenalId") Long unidadePenalId,
+                                                 @Param("de") LocalDateTime de,
+                                                 @Param("ate") LocalDateTime ate);
+}
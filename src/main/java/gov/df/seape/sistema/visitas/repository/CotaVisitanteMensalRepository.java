@@ -0,0 +1,164 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores mensais de visitas por visitante e unidade penal
+ * ({@code cota_visitante_mensal}), alterados via JDBC com atualizações condicionais
+ * na transação corrente. Cada operação de agendamento toca uma única linha, pela
+ * chave única (visitante, unidade, mês).
+ */
+@Repository
+@RequiredArgsConstructor
+public class CotaVisitanteMensalRepository {
+
+    private static final String SQL_CRIAR =
+            "MERGE INTO cota_visitante_mensal c " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INTEGER))) AS n (visitante_id, unidade_penal_id, mes) " +
+            "ON c.visitante_id = n.visitante_id AND c.unidade_penal_id = n.unidade_penal_id AND c.mes = n.mes " +
+            "WHEN NOT MATCHED THEN INSERT (visitante_id, unidade_penal_id, mes, visitas) " +
+            "VALUES (n.visitante_id, n.unidade_penal_id, n.mes, 0)";
+
+    private static final String SQL_CONSUMIR =
+            "UPDATE cota_visitante_mensal SET visitas = visitas + 1 " +
+            "WHERE visitante_id = ? AND unidade_penal_id = ? AND mes = ? AND visitas < ?";
+
+    private static final String SQL_DEVOLVER =
+            "UPDATE cota_visitante_mensal SET visitas = visitas - 1 " +
+            "WHERE visitante_id = ? AND unidade_penal_id = ? AND mes = ? AND visitas > 0";
+
+    private static final String SQL_SOMAR =
+            "UPDATE cota_visitante_mensal SET visitas = visitas + ? " +
+            "WHERE visitante_id = ? AND unidade_penal_id = ? AND mes = ?";
+
+    private static final String SQL_BUSCAR_VISITAS =
+            "SELECT visitante_id, visitas FROM cota_visitante_mensal " +
+            "WHERE unidade_penal_id = ? AND mes = ? AND visitante_id IN (%s)";
+
+    private static final String SQL_EXCLUIR_A_PARTIR_DE =
+            "DELETE FROM cota_visitante_mensal WHERE unidade_penal_id = ? AND mes >= ?";
+
+    private static final String SQL_RECALCULAR =
+            "INSERT INTO cota_visitante_mensal (visitante_id, unidade_penal_id, mes, visitas) " +
+            "SELECT a.visitante_id, c.unidade_penal_id, " +
+            "EXTRACT(YEAR FROM a.data_hora_agendamento) * 100 + EXTRACT(MONTH FROM a.data_hora_agendamento), COUNT(*) " +
+            "FROM agendamento_visita a JOIN custodiado c ON c.id = a.custodiado_id " +
+            "WHERE c.unidade_penal_id = ? AND a.status_id <> ? AND a.data_hora_agendamento >= ? " +
+            "GROUP BY a.visitante_id, c.unidade_penal_id, " +
+            "EXTRACT(YEAR FROM a.data_hora_agendamento) * 100 + EXTRACT(MONTH FROM a.data_hora_agendamento)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Consome uma visita da cota do mês, se ainda houver.
+     *
+     * O caso comum é um único UPDATE condicional; a linha do mês só é criada quando
+     * ele não encontra o que atualizar.
+     *
+     * @param visitanteId ID do visitante
+     * @param unidadePenalId ID da unidade penal
+     * @param mes Mês no formato AAAAMM
+     * @param cota Visitas permitidas no mês
+     * @return true se a visita foi contada; false se a cota está esgotada
+     */
+    public boolean consumir(Long visitanteId, Long unidadePenalId, int mes, int cota) {
+        if (jdbcTemplate.update(SQL_CONSUMIR, visitanteId, unidadePenalId, mes, cota) == 1) {
+            return true;
+        }
+        // Sem linha do mês ou cota esgotada: a criação não altera uma linha existente
+        jdbcTemplate.update(SQL_CRIAR, visitanteId, unidadePenalId, mes);
+        return jdbcTemplate.update(SQL_CONSUMIR, visitanteId, unidadePenalId, mes, cota) == 1;
+    }
+
+    /**
+     * Devolve à cota do mês uma visita cancelada.
+     *
+     * @param visitanteId ID do visitante
+     * @param unidadePenalId ID da unidade penal
+     * @param mes Mês no formato AAAAMM
+     */
+    public void devolver(Long visitanteId, Long unidadePenalId, int mes) {
+        jdbcTemplate.update(SQL_DEVOLVER, visitanteId, unidadePenalId, mes);
+    }
+
+    /**
+     * Visitas já contadas no mês para um grupo de visitantes.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param mes Mês no formato AAAAMM
+     * @param visitanteIds IDs dos visitantes
+     * @return Visitas por ID do visitante; visitantes sem visitas no mês não aparecem
+     */
+    public Map<Long, Integer> buscarVisitas(Long unidadePenalId, int mes, Collection<Long> visitanteIds) {
+        Map<Long, Integer> visitas = new HashMap<>();
+        if (visitanteIds.isEmpty()) {
+            return visitas;
+        }
+        List<Object> parametros = new ArrayList<>(visitanteIds.size() + 2);
+        parametros.add(unidadePenalId);
+        parametros.add(mes);
+        parametros.addAll(visitanteIds);
+        String sql = String.format(SQL_BUSCAR_VISITAS, String.join(", ", Collections.nCopies(visitanteIds.size(), "?")));
+        jdbcTemplate.query(sql, rs -> {
+            visitas.put(rs.getLong(1), rs.getInt(2));
+        }, parametros.toArray());
+        return visitas;
+    }
+
+    /**
+     * Soma visitas às cotas do mês em lote, sem verificação; usado por quem já
+     * conferiu as cotas com {@link #buscarVisitas}.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param mes Mês no formato AAAAMM
+     * @param visitasPorVisitante Visitas a somar por ID do visitante
+     */
+    public void somar(Long unidadePenalId, int mes, Map<Long, Integer> visitasPorVisitante) {
+        if (visitasPorVisitante.isEmpty()) {
+            return;
+        }
+        List<Object[]> criacoes = new ArrayList<>(visitasPorVisitante.size());
+        List<Object[]> somas = new ArrayList<>(visitasPorVisitante.size());
+        visitasPorVisitante.forEach((visitanteId, visitas) -> {
+            criacoes.add(new Object[] {visitanteId, unidadePenalId, mes});
+            somas.add(new Object[] {visitas, visitanteId, unidadePenalId, mes});
+        });
+        jdbcTemplate.batchUpdate(SQL_CRIAR, criacoes);
+        jdbcTemplate.batchUpdate(SQL_SOMAR, somas);
+    }
+
+    /**
+     * Recalcula as cotas da unidade a partir de um mês, com base nos agendamentos não
+     * cancelados.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param mesInicial Primeiro mês recalculado, no formato AAAAMM
+     * @param inicio Início do primeiro mês
+     * @param statusCanceladoId ID do status CANCELADO
+     */
+    public void recalcular(Long unidadePenalId, int mesInicial, LocalDateTime inicio, Long statusCanceladoId) {
+        jdbcTemplate.update(SQL_EXCLUIR_A_PARTIR_DE, unidadePenalId, mesInicial);
+        jdbcTemplate.update(SQL_RECALCULAR, unidadePenalId, statusCanceladoId, Timestamp.valueOf(inicio));
+    }
+
+    /**
+     * Remove as cotas da unidade a partir de um mês, quando ela deixa de limitar visitas.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param mesInicial Primeiro mês removido, no formato AAAAMM
+     */
+    public void excluir(Long unidadePenalId, int mesInicial) {
+        jdbcTemplate.update(SQL_EXCLUIR_A_PARTIR_DE, unidadePenalId, mesInicial);
+    }
+}
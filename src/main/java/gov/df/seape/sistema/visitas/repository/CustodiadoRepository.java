@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,15 @@ public interface CustodiadoRepository extends JpaRepository<Custodiado, Long> {
      * @return O custodiado encontrado, ou vazio se não existir
      */
     Optional<Custodiado> findByNumeroProntuario(String numeroProntuario);
+
+    /**
+     * Busca custodiados pelos IDs, já com a pessoa e a unidade penal carregadas.
+     *
+     * @param ids IDs dos custodiados
+     * @return Custodiados encontrados
+     */
+    @Query("SELECT c FROM Custodiado c JOIN FETCH c.pessoa JOIN FETCH c.unidadePenal WHERE c.id IN :ids")
+    List<Custodiado> findAllComPessoaEUnidadeByIdIn(@Param("ids") Collection<Long> ids);
     
     /**
      * Verifica se existe custodiado com o número de prontuário informado.
@@ -135,20 +145,20 @@ public interface CustodiadoRepository extends JpaRepository<Custodiado, Long> {
      * Busca custodiados pelo nome, ignorando maiúsculas e minúsculas.
      * Os resultados são ordenados pelo nome da pessoa.
      *
-     * @param nome Nome ou parte do nome do custodiado a ser buscado
+     * @param nome Nome ou parte do nome do custodiado a ser buscado, normalizado por NormalizadorTexto
      * @return Lista de custodiados que possuem o nome ou parte dele
      */
-    @Query("SELECT c FROM Custodiado c WHERE LOWER(c.pessoa.nome) LIKE LOWER(CONCAT('%', :nome, '%')) ORDER BY c.pessoa.nome ASC")
+    @Query("SELECT c FROM Custodiado c WHERE c.pessoa.nomeBusca LIKE CONCAT('%', :nome, '%') ORDER BY c.pessoa.nome ASC")
     List<Custodiado> findByNomeContainingIgnoreCase(@Param("nome") String nome);
     
     /**
      * Busca custodiados pelo nome com suporte a paginação.
      * 
-     * @param nome Nome ou parte do nome do custodiado
+     * @param nome Nome ou parte do nome do custodiado, normalizado por NormalizadorTexto
      * @param pageable Objeto com informações de paginação
      * @return Página de custodiados que possuem o nome ou parte dele
      */
-    @Query("SELECT c FROM Custodiado c WHERE LOWER(c.pessoa.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
+    @Query("SELECT c FROM Custodiado c WHERE c.pessoa.nomeBusca LIKE CONCAT('%', :nome, '%')")
     Page<Custodiado> findByNomeContainingIgnoreCase(@Param("nome") String nome, Pageable pageable);
     
     /**
@@ -159,7 +169,7 @@ public interface CustodiadoRepository extends JpaRepository<Custodiado, Long> {
      * 
      * Especialmente útil para telas de pesquisa avançada no sistema.
      * 
-     * @param nome Nome ou parte do nome (opcional)
+     * @param nome Nome ou parte do nome (opcional), normalizado por NormalizadorTexto
      * @param vulgo Vulgo ou parte do vulgo (opcional)
      * @param numeroProntuario Número do prontuário ou parte dele (opcional)
      * @param unidadePenalId ID da unidade penal (opcional)
@@ -167,7 +177,7 @@ public interface CustodiadoRepository extends JpaRepository<Custodiado, Long> {
      * @return Página de custodiados que atendem a todos os critérios fornecidos
      */
     @Query("SELECT c FROM Custodiado c WHERE " +
-           "(:nome IS NULL OR LOWER(c.pessoa.nome) LIKE LOWER(CONCAT('%', :nome, '%'))) AND " +
+           "(:nome IS NULL OR c.pessoa.nomeBusca LIKE CONCAT('%', :nome, '%')) AND " +
            "(:vulgo IS NULL OR LOWER(c.vulgo) LIKE LOWER(CONCAT('%', :vulgo, '%'))) AND " +
            "(:numeroProntuario IS NULL OR LOWER(c.numeroProntuario) LIKE LOWER(CONCAT('%', :numeroProntuario, '%'))) AND " +
            "(:unidadePenalId IS NULL OR c.unidadePenal.id = :unidadePenalId)")
@@ -195,4 +205,56 @@ public interface CustodiadoRepository extends JpaRepository<Custodiado, Long> {
     @Query("SELECT c.id, c.pessoa.nome, COUNT(a) FROM Custodiado c LEFT JOIN AgendamentoVisita a ON a.custodiado.id = c.id " +
            "AND a.status.descricao <> 'CANCELADO' GROUP BY c.id, c.pessoa.nome ORDER BY COUNT(a) DESC")
     List<Object[]> countAgendamentosByCustodiado();
+
+    /**
+     * Busca, entre as pessoas candidatas do índice de nomes, os custodiados cujo nome contenha o termo.
+     *
+     * @param pessoaIds IDs de pessoas candidatas retornados pelo índice
+     * @param nome Termo de busca para o nome, normalizado por NormalizadorTexto
+     * @param pageable Objeto com informações de paginação
+     * @return Página de custodiados que contêm o termo no nome
+     */
+    @Query("SELECT c FROM Custodiado c WHERE c.pessoa.id IN :pessoaIds " +
+           "AND c.pessoa.nomeBusca LIKE CONCAT('%', :nome, '%')")
+    Page<Custodiado> findByPessoaIdInAndNomeContaining(
+            @Param("pessoaIds") Collection<Long> pessoaIds,
+            @Param("nome") String nome,
+            Pageable pageable);
+
+    /**
+     * Busca, entre os IDs candidatos do índice de vulgos, os custodiados cujo vulgo contenha o termo.
+     *
+     * @param ids IDs candidatos retornados pelo índice
+     * @param vulgo Termo de busca para o vulgo
+     * @param pageable Objeto com informações de paginação
+     * @return Página de custodiados que contêm o termo no vulgo
+     */
+    @Query("SELECT c FROM Custodiado c WHERE c.id IN :ids AND LOWER(c.vulgo) LIKE LOWER(CONCAT('%', :vulgo, '%'))")
+    Page<Custodiado> findByIdInAndVulgoContaining(
+            @Param("ids") Collection<Long> ids,
+            @Param("vulgo") String vulgo,
+            Pageable pageable);
+
+    /**
+     * Lista ID, vulgo e número de prontuário dos custodiados com ID maior que o informado,
+     * em ordem de ID. Utilizado na carga dos índices de busca em lotes.
+     *
+     * @param ultimoId Último ID já carregado
+     * @param pageable Tamanho do lote
+     * @return Linhas [id, vulgo, numeroProntuario]
+     */
+    @Query("SELECT c.id, c.vulgo, c.numeroProntuario FROM Custodiado c WHERE c.id > :ultimoId ORDER BY c.id")
+    List<Object[]> findIdVulgoProntuarioAposId(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    /**
+     * Lista os dados de busca dos custodiados com ID maior que o informado, em ordem de ID.
+     * Utilizado na carga do índice de busca unificada em lotes.
+     *
+     * @param ultimoId Último ID já carregado
+     * @param pageable Tamanho do lote
+     * @return Linhas [id, pessoaId, nome, cpf, vulgo, numeroProntuario]
+     */
+    @Query("SELECT c.id, p.id, p.nome, p.cpf, c.vulgo, c.numeroProntuario FROM Custodiado c JOIN c.pessoa p " +
+           "WHERE c.id > :ultimoId ORDER BY c.id")
+    List<Object[]> findResumoBuscaAposId(@Param("ultimoId") Long ultimoId, Pageable pageable);
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package gov.df.seape.sistema.visitas.repository;
 
 import gov.df.seape.sistema.visitas.model.Funcionalidade;
 import gov.df.seape.sistema.visitas.model.Perfil;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
@@ -29,6 +32,7 @@ public interface FuncionalidadeRepository extends JpaRepository<Funcionalidade,
      * @return Funcionalidade encontrada ou Optional vazio
      */
     @Query("SELECT f FROM Funcionalidade f WHERE LOWER(f.descricao) = LOWER(:descricao)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Funcionalidade> findByDescricaoIgnoreCase(@Param("descricao") String descricao);
     
     /**
@@ -38,6 +42,7 @@ public interface FuncionalidadeRepository extends JpaRepository<Funcionalidade,
      * @return Funcionalidade encontrada ou Optional vazio
      */
     @Query("SELECT f FROM Funcionalidade f WHERE LOWER(f.authority) = LOWER(:authority)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Funcionalidade> findByAuthorityIgnoreCase(@Param("authority") String authority);
     
     /**
@@ -46,6 +51,7 @@ public interface FuncionalidadeRepository extends JpaRepository<Funcionalidade,
      * @return Lista de funcionalidades ordenadas
      */
     @Query("SELECT f FROM Funcionalidade f ORDER BY f.descricao ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Funcionalidade> findAllOrderByDescricao();
     
     /**
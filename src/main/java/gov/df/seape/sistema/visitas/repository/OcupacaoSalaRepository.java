@@ -0,0 +1,111 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores de ocupação das salas de visita ({@code ocupacao_sala}), alterados via
+ * JDBC com atualizações condicionais na transação corrente.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OcupacaoSalaRepository {
+
+    private static final String SQL_CRIAR_FAIXA =
+            "MERGE INTO ocupacao_sala o " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS TIMESTAMP))) AS f (unidade_penal_id, inicio_faixa) " +
+            "ON o.unidade_penal_id = f.unidade_penal_id AND o.inicio_faixa = f.inicio_faixa " +
+            "WHEN NOT MATCHED THEN INSERT (unidade_penal_id, inicio_faixa, ocupadas) " +
+            "VALUES (f.unidade_penal_id, f.inicio_faixa, 0)";
+
+    private static final String SQL_TRAVAR_FAIXAS =
+            "SELECT ocupadas FROM ocupacao_sala " +
+            "WHERE unidade_penal_id = ? AND inicio_faixa BETWEEN ? AND ? " +
+            "ORDER BY inicio_faixa FOR UPDATE";
+
+    private static final String SQL_OCUPAR =
+            "UPDATE ocupacao_sala SET ocupadas = ocupadas + 1 " +
+            "WHERE unidade_penal_id = ? AND inicio_faixa BETWEEN ? AND ? AND ocupadas < ?";
+
+    private static final String SQL_LIBERAR =
+            "UPDATE ocupacao_sala SET ocupadas = ocupadas - 1 " +
+            "WHERE unidade_penal_id = ? AND inicio_faixa BETWEEN ? AND ? AND ocupadas > 0";
+
+    private static final String SQL_EXCLUIR_A_PARTIR_DE =
+            "DELETE FROM ocupacao_sala WHERE unidade_penal_id = ? AND inicio_faixa >= ?";
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO ocupacao_sala (unidade_penal_id, inicio_faixa, ocupadas) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ocupa uma sala em todas as faixas do período, se todas tiverem vaga.
+     *
+     * As faixas são criadas se ainda não existirem e travadas em ordem antes da
+     * verificação, de modo que agendamentos concorrentes no mesmo período esperam um
+     * pelo outro; o incremento só alcança faixas abaixo da capacidade.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param faixas Início de cada faixa do período, em ordem
+     * @param capacidade Quantidade de salas da unidade
+     * @return true se a sala foi ocupada; false se alguma faixa estava cheia
+     */
+    public boolean ocupar(Long unidadePenalId, List<LocalDateTime> faixas, int capacidade) {
+        if (faixas.isEmpty()) {
+            return true;
+        }
+        List<Object[]> parametros = new ArrayList<>(faixas.size());
+        for (LocalDateTime faixa : faixas) {
+            parametros.add(new Object[] {unidadePenalId, Timestamp.valueOf(faixa)});
+        }
+        jdbcTemplate.batchUpdate(SQL_CRIAR_FAIXA, parametros);
+
+        Timestamp de = Timestamp.valueOf(faixas.get(0));
+        Timestamp ate = Timestamp.valueOf(faixas.get(faixas.size() - 1));
+        List<Integer> ocupadas = jdbcTemplate.queryForList(SQL_TRAVAR_FAIXAS, Integer.class, unidadePenalId, de, ate);
+        if (ocupadas.stream().anyMatch(o -> o >= capacidade)) {
+            return false;
+        }
+        return jdbcTemplate.update(SQL_OCUPAR, unidadePenalId, de, ate, capacidade) == faixas.size();
+    }
+
+    /**
+     * Libera uma sala nas faixas do período.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param faixas Início de cada faixa do período, em ordem
+     */
+    public void liberar(Long unidadePenalId, List<LocalDateTime> faixas) {
+        if (faixas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(SQL_LIBERAR, unidadePenalId,
+                Timestamp.valueOf(faixas.get(0)), Timestamp.valueOf(faixas.get(faixas.size() - 1)));
+    }
+
+    /**
+     * Substitui os contadores da unidade a partir de um instante pelos informados.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param aPartirDe Início do período recalculado
+     * @param ocupacao Visitas por início de faixa
+     */
+    public void substituir(Long unidadePenalId, LocalDateTime aPartirDe, Map<LocalDateTime, Integer> ocupacao) {
+        jdbcTemplate.update(SQL_EXCLUIR_A_PARTIR_DE, unidadePenalId, Timestamp.valueOf(aPartirDe));
+        if (ocupacao.isEmpty()) {
+            return;
+        }
+        List<Object[]> parametros = new ArrayList<>(ocupacao.size());
+        ocupacao.forEach((faixa, ocupadas) ->
+                parametros.add(new Object[] {unidadePenalId, Timestamp.valueOf(faixa), ocupadas}));
+        jdbcTemplate.batchUpdate(SQL_INSERIR, parametros);
+    }
+}
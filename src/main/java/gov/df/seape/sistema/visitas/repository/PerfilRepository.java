@@ -2,10 +2,13 @@ package gov.df.seape.sistema.visitas.repository;
 
 import gov.df.seape.sistema.visitas.model.Perfil;
 import gov.df.seape.sistema.visitas.model.Funcionalidade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
@@ -28,6 +31,7 @@ public interface PerfilRepository extends JpaRepository<Perfil, Long> {
      * @return O perfil encontrado, ou vazio se não existir
      */
     @Query("SELECT p FROM Perfil p WHERE LOWER(p.descricao) = LOWER(:descricao)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Perfil> findByDescricaoIgnoreCase(@Param("descricao") String descricao);
 
     /**
@@ -36,6 +40,7 @@ public interface PerfilRepository extends JpaRepository<Perfil, Long> {
      * @return Lista de todos os perfis disponíveis no sistema, ordenados por descrição
      */
     @Query("SELECT p FROM Perfil p ORDER BY p.descricao ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Perfil> findAllOrderByDescricao();
     
     /**
@@ -1,6 +1,7 @@
 package gov.df.seape.sistema.visitas.repository;
 
 import gov.df.seape.sistema.visitas.model.Pessoa;
+import gov.df.seape.sistema.visitas.util.CpfUtil;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,39 +23,64 @@ public interface PessoaRepository extends JpaRepository<Pessoa, Long> {
     
     /**
      * Verifica se existe uma pessoa com o CPF fornecido.
+     * A consulta usa a chave numérica do CPF.
      * 
-     * @param cpf O CPF a ser verificado
+     * @param cpf O CPF a ser verificado, com ou sem formatação
      * @return true se existir uma pessoa com o CPF informado, false caso contrário
      */
-    boolean existsByCpf(String cpf);
+    default boolean existsByCpf(String cpf) {
+        Long numero = CpfUtil.paraNumero(cpf);
+        return numero != null && existsByCpfNumero(numero);
+    }
     
     /**
      * Busca uma pessoa pelo CPF.
+     * A consulta usa a chave numérica do CPF.
      * 
-     * @param cpf O CPF a ser buscado
+     * @param cpf O CPF a ser buscado, com ou sem formatação
      * @return A pessoa encontrada, ou vazia se não existir
      */
-    Optional<Pessoa> findByCpf(String cpf);
+    default Optional<Pessoa> findByCpf(String cpf) {
+        Long numero = CpfUtil.paraNumero(cpf);
+        return numero == null ? Optional.empty() : findByCpfNumero(numero);
+    }
+
+    /**
+     * Verifica se existe uma pessoa com a chave numérica de CPF fornecida.
+     *
+     * @param cpfNumero CPF como número (ver CpfUtil)
+     * @return true se existir uma pessoa com o CPF informado, false caso contrário
+     */
+    boolean existsByCpfNumero(Long cpfNumero);
+
+    /**
+     * Busca uma pessoa pela chave numérica do CPF.
+     *
+     * @param cpfNumero CPF como número (ver CpfUtil)
+     * @return A pessoa encontrada, ou vazia se não existir
+     */
+    Optional<Pessoa> findByCpfNumero(Long cpfNumero);
     
     /**
      * Busca pessoas pelo nome, ignorando maiúsculas e minúsculas.
      * Útil para campos de pesquisa onde o usuário digita parte do nome.
+     * Percorre a tabela; usada apenas quando o índice de nomes em memória não pode responder.
      * 
-     * @param nome Parte do nome a ser buscada
+     * @param nome Parte do nome a ser buscada, normalizada por NormalizadorTexto
      * @return Lista de pessoas que contêm o nome especificado
      */
-    @Query("SELECT p FROM Pessoa p WHERE LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
+    @Query("SELECT p FROM Pessoa p WHERE p.nomeBusca LIKE CONCAT('%', :nome, '%')")
     List<Pessoa> findByNomeContainingIgnoreCase(@Param("nome") String nome);
     
     /**
      * Busca pessoas pelo nome com suporte a paginação.
      * Útil para exibir resultados em páginas quando há muitos registros.
      * 
-     * @param nome Parte do nome a ser buscada
+     * @param nome Parte do nome a ser buscada, normalizada por NormalizadorTexto
      * @param pageable Configuração de paginação (página, tamanho, ordenação)
      * @return Página de pessoas que contêm o nome especificado
      */
-    @Query("SELECT p FROM Pessoa p WHERE LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
+    @Query("SELECT p FROM Pessoa p WHERE p.nomeBusca LIKE CONCAT('%', :nome, '%')")
     Page<Pessoa> findByNomeContainingIgnoreCase(@Param("nome") String nome, Pageable pageable);
     
     /**
@@ -89,4 +116,30 @@ public interface PessoaRepository extends JpaRepository<Pessoa, Long> {
     @Query("SELECT FUNCTION('MONTH', p.dataNascimento) as mes, COUNT(p) as quantidade FROM Pessoa p " +
            "GROUP BY FUNCTION('MONTH', p.dataNascimento) ORDER BY mes")
     List<Object[]> contarPessoasPorMesNascimento();
+
+    /**
+     * Busca, entre os IDs candidatos do índice de nomes, as pessoas cujo nome contenha o termo.
+     * O filtro por nome é reaplicado para que o resultado seja idêntico ao da busca com LIKE.
+     *
+     * @param ids IDs candidatos retornados pelo índice
+     * @param nome Termo de busca para o nome, normalizado por NormalizadorTexto
+     * @param pageable Objeto com informações de paginação
+     * @return Página de pessoas que contêm o termo no nome
+     */
+    @Query("SELECT p FROM Pessoa p WHERE p.id IN :ids AND p.nomeBusca LIKE CONCAT('%', :nome, '%')")
+    Page<Pessoa> findByIdInAndNomeContaining(
+            @Param("ids") Collection<Long> ids,
+            @Param("nome") String nome,
+            Pageable pageable);
+
+    /**
+     * Lista ID, nome e CPF das pessoas com ID maior que o informado, em ordem de ID.
+     * Utilizado na carga dos índices de busca em lotes.
+     *
+     * @param ultimoId Último ID já carregado
+     * @param pageable Tamanho do lote
+     * @return Linhas [id, nome, cpf]
+     */
+    @Query("SELECT p.id, p.nome, p.cpf FROM Pessoa p WHERE p.id > :ultimoId ORDER BY p.id")
+    List<Object[]> findIdNomeCpfAposId(@Param("ultimoId") Long ultimoId, Pageable pageable);
 }
\ No newline at end of file
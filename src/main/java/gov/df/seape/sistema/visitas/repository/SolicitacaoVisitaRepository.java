@@ -0,0 +1,97 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import gov.df.seape.sistema.visitas.model.SituacaoSolicitacao;
+import gov.df.seape.sistema.visitas.model.SolicitacaoVisita;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório para a entidade SolicitacaoVisita.
+ */
+@Repository
+public interface SolicitacaoVisitaRepository extends JpaRepository<SolicitacaoVisita, Long> {
+
+    /**
+     * Verifica se já existe solicitação na mesma situação para o mesmo custodiado,
+     * visitante e horário.
+     *
+     * @param custodiadoId ID do custodiado
+     * @param visitanteId ID do visitante
+     * @param dataHoraSolicitada Data e hora solicitadas
+     * @param situacao Situação da solicitação
+     * @return true se existir
+     */
+    boolean existsByCustodiadoIdAndVisitanteIdAndDataHoraSolicitadaAndSituacao(
+            Long custodiadoId, Long visitanteId, LocalDateTime dataHoraSolicitada, SituacaoSolicitacao situacao);
+
+    /**
+     * Verifica se o custodiado tem alguma solicitação de visita, em qualquer situação.
+     *
+     * @param custodiadoId ID do custodiado
+     * @return true se existir
+     */
+    boolean existsByCustodiadoId(Long custodiadoId);
+
+    /**
+     * Lista as combinações de unidade penal e dia com solicitações na situação
+     * informada antes do limite.
+     *
+     * @param situacao Situação das solicitações
+     * @param limite Data e hora limite (exclusiva)
+     * @return Linhas com ID da unidade penal e dia
+     */
+    @Query("SELECT DISTINCT c.unidadePenal.id, extract(date from s.dataHoraSolicitada) " +
+           "FROM SolicitacaoVisita s JOIN s.custodiado c " +
+           "WHERE s.situacao = :situacao AND s.dataHoraSolicitada < :limite")
+    List<Object[]> findDiasComSolicitacoes(
+            @Param("situacao") SituacaoSolicitacao situacao,
+            @Param("limite") LocalDateTime limite);
+
+    /**
+     * Lista as solicitações de um dia para os custodiados de uma unidade penal, sem
+     * carregar as entidades.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param situacao Situação das solicitações
+     * @param inicio Início do dia
+     * @param fim Fim do dia
+     * @return Linhas com ID, ID do custodiado, ID do visitante, data e hora e observações
+     */
+    @Query("SELECT s.id, s.custodiado.id, s.visitante.id, s.dataHoraSolicitada, s.observacoes " +
+           "FROM SolicitacaoVisita s " +
+           "WHERE s.custodiado.unidadePenal.id = :unidadePenalId AND s.situacao = :situacao " +
+           "AND s.dataHoraSolicitada BETWEEN :inicio AND :fim " +
+           "ORDER BY s.id")
+    List<Object[]> findDoDiaPorUnidade(
+            @Param("unidadePenalId") Long unidadePenalId,
+            @Param("situacao") SituacaoSolicitacao situacao,
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim);
+
+    /**
+     * Atualiza a situação de um grupo de solicitações em um único UPDATE.
+     *
+     * @param ids IDs das solicitações
+     * @param situacao Nova situação
+     * @param motivoRecusa Motivo da recusa, ou null
+     * @param sementeSorteio Semente do sorteio que decidiu as solicitações
+     * @return Quantidade de solicitações atualizadas
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SolicitacaoVisita s SET s.situacao = :situacao, s.motivoRecusa = :motivoRecusa, " +
+           "s.sementeSorteio = :sementeSorteio WHERE s.id IN :ids")
+    int atualizarSituacao(
+            @Param("ids") Collection<Long> ids,
+            @Param("situacao") SituacaoSolicitacao situacao,
+            @Param("motivoRecusa") String motivoRecusa,
+            @Param("sementeSorteio") Long sementeSorteio);
+}
@@ -1,10 +1,13 @@
 package gov.df.seape.sistema.visitas.repository;
 
 import gov.df.seape.sistema.visitas.model.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
@@ -26,6 +29,7 @@ public interface StatusRepository extends JpaRepository<Status, Long> {
      * @return Optional contendo o status correspondente
      */
     @Query("SELECT s FROM Status s WHERE LOWER(s.descricao) = LOWER(:descricao)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Status> findByDescricaoIgnoreCase(@Param("descricao") String descricao);
 
     /**
@@ -35,6 +39,7 @@ public interface StatusRepository extends JpaRepository<Status, Long> {
      */
     @Query("SELECT s FROM Status s ORDER BY s.descricao ASC")
     @NonNull
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Status> findAllOrderByDescricao();
     
     /**
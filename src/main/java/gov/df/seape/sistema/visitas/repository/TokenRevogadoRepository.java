@@ -0,0 +1,40 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import gov.df.seape.sistema.visitas.model.TokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório para a entidade TokenRevogado.
+ * Fornece acesso à lista persistente de tokens revogados.
+ */
+@Repository
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+
+    /**
+     * Lista os tokens revogados que ainda não expiraram.
+     * Utilizado para reconstruir a lista de revogação em memória na inicialização.
+     *
+     * @param agora Data de referência
+     * @return Lista de tokens revogados ainda válidos
+     */
+    List<TokenRevogado> findByExpiraEmAfter(LocalDateTime agora);
+
+    /**
+     * Remove os registros de tokens que já expiraram.
+     *
+     * @param agora Data de referência
+     * @return O número de registros removidos
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevogado t WHERE t.expiraEm <= :agora")
+    int removerExpirados(@Param("agora") LocalDateTime agora);
+}
@@ -3,10 +3,14 @@ package gov.df.seape.sistema.visitas.repository;
 import gov.df.seape.sistema.visitas.model.UnidadePenal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -44,6 +48,18 @@ public interface UnidadePenalRepository extends JpaRepository<UnidadePenal, Long
      */
     @Query("SELECT u FROM UnidadePenal u ORDER BY u.nome ASC")
     List<UnidadePenal> findAllOrderByNome();
+
+    /**
+     * Busca a unidade penal travando a linha (SELECT ... FOR UPDATE) até o fim da transação.
+     * O bloqueio da unidade e os agendamentos nela obtêm esta trava antes de gravar, de modo
+     * que um não corre em paralelo com o outro.
+     *
+     * @param id ID da unidade penal
+     * @return A unidade penal travada, ou vazia se não existir
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM UnidadePenal u WHERE u.id = :id")
+    Optional<UnidadePenal> findByIdComTrava(@Param("id") Long id);
     
     /**
      * Busca unidades penais cujo nome contenha o termo especificado, com suporte a paginação.
@@ -82,4 +98,61 @@ public interface UnidadePenalRepository extends JpaRepository<UnidadePenal, Long
      */
     @Query("SELECT u FROM UnidadePenal u WHERE NOT EXISTS (SELECT 1 FROM Custodiado c WHERE c.unidadePenal = u)")
     List<UnidadePenal> findUnidadesSemCustodiados();
+
+    /**
+     * Ocupa vagas na unidade penal, somente se houver capacidade para todas.
+     * A verificação e o incremento são feitos no mesmo UPDATE, de modo que inclusões
+     * concorrentes não ultrapassam a capacidade. A linha da unidade fica travada até o
+     * commit da transação que chamou o método; por isso os serviços movem as vagas por
+     * meio de {@link gov.df.seape.sistema.visitas.util.VagasUnidades}, em transação própria.
+     *
+     * @param id ID da unidade penal
+     * @param quantidade Quantidade de vagas
+     * @return 1 se as vagas foram ocupadas, 0 se não houver capacidade ou a unidade não existir
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UnidadePenal u SET u.ocupacao = u.ocupacao + :quantidade " +
+           "WHERE u.id = :id AND (u.capacidade IS NULL OR u.ocupacao + :quantidade <= u.capacidade)")
+    int ocuparVagas(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    /**
+     * Libera vagas na unidade penal.
+     *
+     * @param id ID da unidade penal
+     * @param quantidade Quantidade de vagas
+     * @return 1 se as vagas foram liberadas, 0 se a unidade não existir ou tiver ocupação menor
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UnidadePenal u SET u.ocupacao = u.ocupacao - :quantidade " +
+           "WHERE u.id = :id AND u.ocupacao >= :quantidade")
+    int liberarVagas(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    /**
+     * Devolve vagas liberadas por uma operação desfeita. Ao contrário de
+     * {@link #ocuparVagas(Long, int)}, não verifica a capacidade: os custodiados
+     * continuam na unidade, e o contador deve voltar a contá-los.
+     *
+     * @param id ID da unidade penal
+     * @param quantidade Quantidade de vagas
+     * @return 1 se as vagas foram devolvidas, 0 se a unidade não existir
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UnidadePenal u SET u.ocupacao = u.ocupacao + :quantidade WHERE u.id = :id")
+    int restaurarVagas(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    /**
+     * Recalcula a ocupação das unidades penais a partir da contagem de custodiados,
+     * corrigindo apenas as unidades em que o contador diverge.
+     *
+     * @return Quantidade de unidades corrigidas
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UnidadePenal u SET u.ocupacao = " +
+           "(SELECT COUNT(c) FROM Custodiado c WHERE c.unidadePenal.id = u.id) " +
+           "WHERE u.ocupacao <> (SELECT COUNT(c) FROM Custodiado c WHERE c.unidadePenal.id = u.id)")
+    int reconciliarOcupacao();
 }
\ No newline at end of file
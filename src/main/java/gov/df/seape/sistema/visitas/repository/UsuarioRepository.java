@@ -5,11 +5,14 @@ import gov.df.seape.sistema.visitas.model.Usuario;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -38,6 +41,16 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      * @return true se existir um usuário com o email informado, false caso contrário
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Busca apenas o ID do perfil de um usuário pelo email.
+     * Evita carregar as entidades Usuario e Perfil na avaliação de permissões.
+     *
+     * @param email O email do usuário
+     * @return O ID do perfil do usuário, ou vazio se o usuário não existir
+     */
+    @Query("SELECT u.perfil.id FROM Usuario u WHERE u.email = :email")
+    Optional<Long> findPerfilIdByEmail(@Param("email") String email);
     
     /**
      * Busca usuários pelo perfil associado.
@@ -89,34 +102,34 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      * Busca usuários cujo nome da pessoa contenha o termo especificado.
      * Útil para campos de pesquisa em interfaces administrativas.
      * 
-     * @param nome Termo de busca para o nome da pessoa
+     * @param nome Termo de busca para o nome da pessoa, normalizado por NormalizadorTexto
      * @return Lista de usuários que contêm o termo no nome da pessoa
      */
-    @Query("SELECT u FROM Usuario u JOIN u.pessoa p WHERE LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%')) ORDER BY p.nome ASC")
+    @Query("SELECT u FROM Usuario u JOIN u.pessoa p WHERE p.nomeBusca LIKE CONCAT('%', :nome, '%') ORDER BY p.nome ASC")
     List<Usuario> findByNomeContainingIgnoreCase(@Param("nome") String nome);
     
     /**
      * Busca usuários cujo nome da pessoa contenha o termo especificado, com suporte a paginação.
      * 
-     * @param nome Termo de busca para o nome da pessoa
+     * @param nome Termo de busca para o nome da pessoa, normalizado por NormalizadorTexto
      * @param pageable Objeto com informações de paginação
      * @return Página de usuários que contêm o termo no nome da pessoa
      */
-    @Query("SELECT u FROM Usuario u JOIN u.pessoa p WHERE LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
+    @Query("SELECT u FROM Usuario u JOIN u.pessoa p WHERE p.nomeBusca LIKE CONCAT('%', :nome, '%')")
     Page<Usuario> findByNomeContainingIgnoreCase(@Param("nome") String nome, Pageable pageable);
     
     /**
      * Busca avançada de usuários por múltiplos critérios combinados.
      * Os parâmetros são opcionais - quando null, não são aplicados como filtro.
      * 
-     * @param nome Nome ou parte do nome da pessoa (opcional)
+     * @param nome Nome ou parte do nome da pessoa (opcional), normalizado por NormalizadorTexto
      * @param email Email ou parte do email (opcional)
      * @param perfilId ID do perfil (opcional)
      * @param pageable Objeto com informações de paginação
      * @return Página de usuários que atendem a todos os critérios fornecidos
      */
     @Query("SELECT DISTINCT u FROM Usuario u JOIN u.pessoa p WHERE " +
-           "(:nome IS NULL OR LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%'))) AND " +
+           "(:nome IS NULL OR p.nomeBusca LIKE CONCAT('%', :nome, '%')) AND " +
            "(:email IS NULL OR LOWER(u.email) LIKE LOWER(CONCAT('%', :email, '%'))) AND " +
            "(:perfilId IS NULL OR u.perfil.id = :perfilId)")
     Page<Usuario> buscarPorMultiplosCriterios(
@@ -207,14 +220,32 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     
     /**
      * Atualiza a data de último acesso de um usuário.
-     * Útil para registrar atividades e controlar sessões.
+     * Útil para registrar atividades e controlar sessões. O registro a cada
+     * autenticação é feito em lote por UltimoAcessoService.
      * 
      * @param usuarioId ID do usuário
      * @param ultimoAcesso Nova data de último acesso
      * @return Número de registros atualizados (deve ser 1 se o usuário existir)
      */
+    @Modifying
+    @Transactional
     @Query("UPDATE Usuario u SET u.ultimoAcesso = :ultimoAcesso WHERE u.id = :usuarioId")
     int atualizarUltimoAcesso(
             @Param("usuarioId") Long usuarioId,
             @Param("ultimoAcesso") LocalDateTime ultimoAcesso);
+
+    /**
+     * Busca, entre as pessoas candidatas do índice de nomes, os usuários cujo nome contenha o termo.
+     *
+     * @param pessoaIds IDs de pessoas candidatas retornados pelo índice
+     * @param nome Termo de busca para o nome, normalizado por NormalizadorTexto
+     * @param pageable Objeto com informações de paginação
+     * @return Página de usuários que contêm o termo no nome
+     */
+    @Query("SELECT u FROM Usuario u JOIN u.pessoa p WHERE p.id IN :pessoaIds " +
+           "AND p.nomeBusca LIKE CONCAT('%', :nome, '%')")
+    Page<Usuario> findByPessoaIdInAndNomeContaining(
+            @Param("pessoaIds") Collection<Long> pessoaIds,
+            @Param("nome") String nome,
+            Pageable pageable);
 }
\ No newline at end of file
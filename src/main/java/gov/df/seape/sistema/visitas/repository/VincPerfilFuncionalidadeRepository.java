@@ -44,6 +44,16 @@ public interface VincPerfilFuncionalidadeRepository extends JpaRepository<VincPe
     @Query("SELECT v FROM VincPerfilFuncionalidade v WHERE v.perfil.id = :perfilId ORDER BY v.funcionalidade.descricao ASC")
     List<VincPerfilFuncionalidade> findByPerfilId(@Param("perfilId") Long perfilId);
     
+    /**
+     * Lista apenas as authorities das funcionalidades vinculadas a um perfil.
+     * Utilizado na compilação das permissões do perfil.
+     *
+     * @param perfilId O ID do perfil
+     * @return Lista de authorities do perfil
+     */
+    @Query("SELECT v.funcionalidade.authority FROM VincPerfilFuncionalidade v WHERE v.perfil.id = :perfilId")
+    List<String> findAuthoritiesByPerfilId(@Param("perfilId") Long perfilId);
+
     /**
      * Lista todos os vínculos para um determinado perfil com suporte a paginação.
      * 
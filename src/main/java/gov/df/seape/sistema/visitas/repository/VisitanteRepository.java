@@ -2,6 +2,7 @@ package gov.df.seape.sistema.visitas.repository;
 
 import gov.df.seape.sistema.visitas.model.Pessoa;
 import gov.df.seape.sistema.visitas.model.Visitante;
+import gov.df.seape.sistema.visitas.util.CpfUtil;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,20 +44,33 @@ public interface VisitanteRepository extends JpaRepository<Visitante, Long> {
      * Busca um visitante pelo CPF da pessoa associada.
      * Método importante para validações e consultas rápidas por documento.
      * 
-     * @param cpf O CPF exato a ser buscado
+     * A consulta usa a chave numérica do CPF.
+     * 
+     * @param cpf O CPF a ser buscado, com ou sem formatação
      * @return O visitante encontrado, ou vazio se não existir
      */
-    @Query("SELECT v FROM Visitante v WHERE v.pessoa.cpf = :cpf")
-    Optional<Visitante> findByCpf(@Param("cpf") String cpf);
+    default Optional<Visitante> findByCpf(String cpf) {
+        Long numero = CpfUtil.paraNumero(cpf);
+        return numero == null ? Optional.empty() : findByCpfNumero(numero);
+    }
+
+    /**
+     * Busca um visitante pela chave numérica do CPF da pessoa associada.
+     *
+     * @param cpfNumero CPF como número (ver CpfUtil)
+     * @return O visitante encontrado, ou vazio se não existir
+     */
+    @Query("SELECT v FROM Visitante v WHERE v.pessoa.cpfNumero = :cpfNumero")
+    Optional<Visitante> findByCpfNumero(@Param("cpfNumero") Long cpfNumero);
 
     /**
      * Busca visitantes pelo nome da pessoa associada, ignorando maiúsculas e minúsculas.
      * Os resultados são ordenados pelo nome da pessoa.
      *
-     * @param nome Nome ou parte do nome do visitante a ser buscado
+     * @param nome Nome ou parte do nome do visitante a ser buscado, normalizado por NormalizadorTexto
      * @return Lista de visitantes que possuem o nome ou parte dele
      */
-    @Query("SELECT v FROM Visitante v WHERE LOWER(v.pessoa.nome) LIKE LOWER(CONCAT('%', :nome, '%')) ORDER BY v.pessoa.nome ASC")
+    @Query("SELECT v FROM Visitante v WHERE v.pessoa.nomeBusca LIKE CONCAT('%', :nome, '%') ORDER BY v.pessoa.nome ASC")
     List<Visitante> findByNomeContainingIgnoreCase(@Param("nome") String nome);
     
     /**
@@ -63,11 +78,11 @@ public interface VisitanteRepository extends JpaRepository<Visitante, Long> {
      * Esta versão paginada é útil para interfaces que precisam mostrar resultados
      * em blocos gerenciáveis, melhorando o desempenho e a experiência do usuário.
      *
-     * @param nome Nome ou parte do nome do visitante
+     * @param nome Nome ou parte do nome do visitante, normalizado por NormalizadorTexto
      * @param pageable Objeto com informações de paginação (página, tamanho, ordenação)
      * @return Página de visitantes que possuem o nome ou parte dele
      */
-    @Query("SELECT v FROM Visitante v WHERE LOWER(v.pessoa.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
+    @Query("SELECT v FROM Visitante v WHERE v.pessoa.nomeBusca LIKE CONCAT('%', :nome, '%')")
     Page<Visitante> findByNomeContainingIgnoreCase(@Param("nome") String nome, Pageable pageable);
     
     /**
@@ -86,14 +101,14 @@ public interface VisitanteRepository extends JpaRepository<Visitante, Long> {
      * 
      * Ideal para telas de pesquisa com múltiplos campos de filtro.
      * 
-     * @param nome Nome ou parte do nome da pessoa (opcional)
+     * @param nome Nome ou parte do nome da pessoa (opcional), normalizado por NormalizadorTexto
      * @param cpf CPF exato da pessoa (opcional)
      * @param dataNascimento Data de nascimento exata da pessoa (opcional)
      * @param pageable Objeto com informações de paginação
      * @return Página de visitantes que atendem a todos os critérios fornecidos
      */
     @Query("SELECT v FROM Visitante v WHERE " +
-           "(:nome IS NULL OR LOWER(v.pessoa.nome) LIKE LOWER(CONCAT('%', :nome, '%'))) AND " +
+           "(:nome IS NULL OR v.pessoa.nomeBusca LIKE CONCAT('%', :nome, '%')) AND " +
            "(:cpf IS NULL OR v.pessoa.cpf = :cpf) AND " +
            "(:dataNascimento IS NULL OR v.pessoa.dataNascimento = :dataNascimento)")
     Page<Visitante> buscarPorMultiplosCriterios(
@@ -141,4 +156,31 @@ public interface VisitanteRepository extends JpaRepository<Visitante, Long> {
             @Param("visitanteId") Long visitanteId,
             @Param("inicio") LocalDateTime inicio,
             @Param("fim") LocalDateTime fim);
+
+    /**
+     * Busca, entre as pessoas candidatas do índice de nomes, os visitantes cujo nome contenha o termo.
+     *
+     * @param pessoaIds IDs de pessoas candidatas retornados pelo índice
+     * @param nome Termo de busca para o nome, normalizado por NormalizadorTexto
+     * @param pageable Objeto com informações de paginação
+     * @return Página de visitantes que contêm o termo no nome
+     */
+    @Query("SELECT v FROM Visitante v WHERE v.pessoa.id IN :pessoaIds " +
+           "AND v.pessoa.nomeBusca LIKE CONCAT('%', :nome, '%')")
+    Page<Visitante> findByPessoaIdInAndNomeContaining(
+            @Param("pessoaIds") Collection<Long> pessoaIds,
+            @Param("nome") String nome,
+            Pageable pageable);
+
+    /**
+     * Lista os dados de busca dos visitantes com ID maior que o informado, em ordem de ID.
+     * Utilizado na carga do índice de busca unificada em lotes.
+     *
+     * @param ultimoId Último ID já carregado
+     * @param pageable Tamanho do lote
+     * @return Linhas [id, pessoaId, nome, cpf]
+     */
+    @Query("SELECT v.id, p.id, p.nome, p.cpf FROM Visitante v JOIN v.pessoa p " +
+           "WHERE v.id > :ultimoId ORDER BY v.id")
+    List<Object[]> findResumoBuscaAposId(@Param("ultimoId") Long ultimoId, Pageable pageable);
 }
\ No newline at end of file
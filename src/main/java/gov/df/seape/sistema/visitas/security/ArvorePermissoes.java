@@ -0,0 +1,113 @@
+package gov.df.seape.sistema.visitas.security;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Representação compilada das authorities de um perfil, organizada como uma
+ * árvore de segmentos (trie) separados por ponto.
+ *
+ * Suporta curingas no formato utilizado pelas funcionalidades do sistema:
+ * - "*" como último segmento abrange um ou mais segmentos restantes
+ *   (ex.: "api.custodiados.*" concede "api.custodiados.read");
+ * - "*" em posição intermediária abrange exatamente um segmento
+ *   (ex.: "api.*.read" concede "api.visitantes.read").
+ *
+ * O custo de uma verificação depende apenas da quantidade de segmentos da
+ * authority consultada, e não da quantidade de authorities do perfil.
+ * Os resultados são memorizados, pois o conjunto de authorities exigidas
+ * pelos endpoints é pequeno e fixo.
+ *
+ * Instâncias são imutáveis após a compilação e seguras para uso concorrente.
+ */
+public final class ArvorePermissoes {
+
+    private static final String CURINGA = "*";
+    private static final String SEPARADOR = "\\.";
+
+    private final No raiz;
+    private final Map<String, Boolean> resultados = new ConcurrentHashMap<>();
+
+    private ArvorePermissoes(No raiz) {
+        this.raiz = raiz;
+    }
+
+    /**
+     * Compila um conjunto de authorities em uma árvore de permissões.
+     *
+     * @param authorities Authorities concedidas (podem conter curingas)
+     * @return Árvore de permissões compilada
+     */
+    public static ArvorePermissoes compilar(Collection<String> authorities) {
+        No raiz = new No();
+        for (String authority : authorities) {
+            if (authority == null || authority.isBlank()) {
+                continue;
+            }
+            No atual = raiz;
+            for (String segmento : segmentar(authority)) {
+                atual = CURINGA.equals(segmento) ? atual.obterCuringa() : atual.obterFilho(segmento);
+            }
+            atual.terminal = true;
+        }
+        return new ArvorePermissoes(raiz);
+    }
+
+    /**
+     * Verifica se a authority informada é concedida pela árvore.
+     *
+     * @param authority Authority exigida (sem curingas)
+     * @return true se alguma authority compilada conceder a informada
+     */
+    public boolean permite(String authority) {
+        if (authority == null || authority.isBlank()) {
+            return false;
+        }
+        return resultados.computeIfAbsent(authority, a -> corresponde(raiz, segmentar(a), 0));
+    }
+
+    private static String[] segmentar(String authority) {
+        return authority.trim().toLowerCase(Locale.ROOT).split(SEPARADOR);
+    }
+
+    private static boolean corresponde(No no, String[] segmentos, int indice) {
+        if (indice == segmentos.length) {
+            return no.terminal;
+        }
+
+        No literal = no.filhos.get(segmentos[indice]);
+        if (literal != null && corresponde(literal, segmentos, indice + 1)) {
+            return true;
+        }
+
+        No curinga = no.curinga;
+        if (curinga == null) {
+            return false;
+        }
+        // Curinga final abrange todos os segmentos restantes
+        return curinga.terminal || corresponde(curinga, segmentos, indice + 1);
+    }
+
+    /**
+     * Nó da árvore de segmentos.
+     */
+    private static final class No {
+        private final Map<String, No> filhos = new HashMap<>();
+        private No curinga;
+        private boolean terminal;
+
+        private No obterFilho(String segmento) {
+            return filhos.computeIfAbsent(segmento, s -> new No());
+        }
+
+        private No obterCuringa() {
+            if (curinga == null) {
+                curinga = new No();
+            }
+            return curinga;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package gov.df.seape.sistema.visitas.security;
+
+import gov.df.seape.sistema.visitas.repository.UsuarioRepository;
+import gov.df.seape.sistema.visitas.repository.VincPerfilFuncionalidadeRepository;
+import gov.df.seape.sistema.visitas.util.ExecucaoAposCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Avaliador de permissões baseado nas funcionalidades vinculadas ao perfil do usuário.
+ *
+ * Utilizado nas anotações de segurança dos controladores, por exemplo:
+ * {@code @PreAuthorize("@permissoes.possui(authentication, 'api.agendamentos.read')")}
+ *
+ * As authorities de cada perfil são compiladas uma única vez em uma {@link ArvorePermissoes}
+ * e mantidas em memória até que os vínculos do perfil sejam alterados.
+ *
+ * Para tokens JWT emitidos pelo servidor de autorização, as authorities são lidas
+ * das claims do próprio token (ver {@link PermissoesTokenCustomizer}), sem acesso
+ * ao banco de dados.
+ *
+ * Autenticações sem usuário cadastrado, como tokens client_credentials ou tokens
+ * apenas com escopos, são avaliadas pelos escopos {@code SCOPE_} que carregam,
+ * traduzidos em authorities por {@link #AUTHORITIES_POR_ESCOPO}.
+ */
+@Component("permissoes")
+@RequiredArgsConstructor
+@Slf4j
+public class AvaliadorPermissoes {
+
+    private static final ArvorePermissoes SEM_PERMISSOES = ArvorePermissoes.compilar(List.of());
+    private static final int MAXIMO_CODIGOS_EM_CACHE = 256;
+    private static final String PREFIXO_ESCOPO = "SCOPE_";
+
+    /**
+     * Authorities concedidas por escopo OAuth2, listadas recurso a recurso. A administração
+     * de usuários e tokens e o bloqueio de unidades penais ficam de fora: só o perfil de um
+     * usuário cadastrado os concede.
+     */
+    static final Map<String, List<String>> AUTHORITIES_POR_ESCOPO = Map.of(
+            "api.read", List.of(
+                    "api.agendamentos.read",
+                    "api.busca.read",
+                    "api.custodiados.read",
+                    "api.visitantes.read",
+                    "api.pessoas.duplicidades.read"),
+            "api.write", List.of(
+                    "api.agendamentos.create", "api.agendamentos.update", "api.agendamentos.cancel",
+                    "api.custodiados.create", "api.custodiados.update", "api.custodiados.transfer",
+                    "api.visitantes.create", "api.visitantes.update"));
+
+    private final UsuarioRepository usuarioRepository;
+    private final VincPerfilFuncionalidadeRepository vincPerfilFuncionalidadeRepository;
+
+    private final Map<Long, ArvorePermissoes> arvoresPorPerfil = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Long>> perfilPorUsuario = new ConcurrentHashMap<>();
+    private final Map<String, ArvorePermissoes> arvoresPorCodigo = new ConcurrentHashMap<>();
+    private final Map<String, ArvorePermissoes> arvoresPorEscopos = new ConcurrentHashMap<>();
+
+    /**
+     * Verifica se o usuário autenticado possui a authority informada.
+     *
+     * @param authentication Autenticação corrente
+     * @param authority Authority exigida pelo endpoint
+     * @return true se o perfil do usuário conceder a authority
+     */
+    public boolean possui(Authentication authentication, String authority) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        boolean permitido = arvoreDaAutenticacao(authentication).permite(authority);
+        if (!permitido) {
+            log.debug("Acesso negado para {} à authority {}", authentication.getName(), authority);
+        }
+        return permitido;
+    }
+
+    /**
+     * Obtém a árvore compilada de um perfil, compilando-a na primeira consulta.
+     *
+     * @param perfilId ID do perfil
+     * @return Árvore de permissões do perfil
+     */
+    public ArvorePermissoes arvoreDoPerfil(Long perfilId) {
+        return arvoresPorPerfil.computeIfAbsent(perfilId, id -> {
+            log.info("Compilando permissões do perfil ID: {}", id);
+            return ArvorePermissoes.compilar(vincPerfilFuncionalidadeRepository.findAuthoritiesByPerfilId(id));
+        });
+    }
+
+    /**
+     * Descarta a árvore compilada de um perfil após a confirmação da transação corrente.
+     *
+     * @param perfilId ID do perfil alterado
+     */
+    public void invalidarPerfil(Long perfilId) {
+        ExecucaoAposCommit.executar(() -> arvoresPorPerfil.remove(perfilId));
+    }
+
+    /**
+     * Descarta o perfil associado a um usuário após a confirmação da transação corrente.
+     *
+     * @param email Email (login) do usuário alterado
+     */
+    public void invalidarUsuario(String email) {
+        ExecucaoAposCommit.executar(() -> perfilPorUsuario.remove(email));
+    }
+
+    /**
+     * Descarta todas as permissões compiladas, por exemplo quando uma authority é renomeada.
+     */
+    public void invalidarTudo() {
+        ExecucaoAposCommit.executar(() -> {
+            arvoresPorPerfil.clear();
+            perfilPorUsuario.clear();
+        });
+    }
+
+    private ArvorePermissoes arvoreDaAutenticacao(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            Jwt jwt = jwtAuthentication.getToken();
+            String codigo = jwt.getClaimAsString(CodificadorPermissoes.CLAIM_PERMISSOES);
+            if (codigo != null) {
+                return arvoreDoCodigo(codigo);
+            }
+            Object perfilId = jwt.getClaim(CodificadorPermissoes.CLAIM_PERFIL);
+            if (perfilId instanceof Number numero) {
+                return arvoreDoPerfil(numero.longValue());
+            }
+        }
+        Optional<Long> perfilId = perfilPorUsuario.computeIfAbsent(
+                authentication.getName(), usuarioRepository::findPerfilIdByEmail);
+        if (perfilId.isPresent()) {
+            return arvoreDoPerfil(perfilId.get());
+        }
+        return arvoreDosEscopos(authentication.getAuthorities());
+    }
+
+    private ArvorePermissoes arvoreDoCodigo(String codigo) {
+        ArvorePermissoes arvore = arvoresPorCodigo.get(codigo);
+        if (arvore == null) {
+            // Códigos distintos correspondem a perfis distintos; o limite apenas protege contra tokens atípicos
+            if (arvoresPorCodigo.size() >= MAXIMO_CODIGOS_EM_CACHE) {
+                arvoresPorCodigo.clear();
+            }
+            arvore = arvoresPorCodigo.computeIfAbsent(codigo,
+                    c -> ArvorePermissoes.compilar(CodificadorPermissoes.decodificar(c)));
+        }
+        return arvore;
+    }
+
+    private ArvorePermissoes arvoreDosEscopos(Collection<? extends GrantedAuthority> authorities) {
+        TreeSet<String> escopos = new TreeSet<>();
+        for (GrantedAuthority authority : authorities) {
+            String nome = authority.getAuthority();
+            if (nome != null && nome.startsWith(PREFIXO_ESCOPO)) {
+                escopos.add(nome.substring(PREFIXO_ESCOPO.length()));
+            }
+        }
+        if (escopos.isEmpty()) {
+            return SEM_PERMISSOES;
+        }
+        // Poucas combinações de escopos são possíveis; a árvore de cada uma é mantida sem invalidação
+        return arvoresPorEscopos.computeIfAbsent(String.join(" ", escopos), chave -> {
+            List<String> concedidas = new ArrayList<>();
+            for (String escopo : escopos) {
+                concedidas.addAll(AUTHORITIES_POR_ESCOPO.getOrDefault(escopo, List.of()));
+            }
+            return ArvorePermissoes.compilar(concedidas);
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package gov.df.seape.sistema.visitas.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Escolhe o fator de custo do BCrypt de acordo com o desempenho do servidor.
+ *
+ * O tempo de um hash é medido no custo mínimo e extrapolado, já que cada
+ * incremento de custo dobra o trabalho. Assim a calibração não executa hashes
+ * no custo máximo durante a inicialização.
+ */
+@Slf4j
+public final class CalibradorCustoBCrypt {
+
+    private static final String SENHA_AMOSTRA = "calibracao-custo-bcrypt";
+    private static final int AMOSTRAS = 3;
+
+    private CalibradorCustoBCrypt() {
+    }
+
+    /**
+     * Calcula o maior custo cujo tempo estimado de hash não ultrapassa o alvo.
+     *
+     * @param tempoAlvo Tempo desejado para um hash
+     * @param custoMinimo Custo mínimo aceito (limite de segurança)
+     * @param custoMaximo Custo máximo aceito (limite de latência)
+     * @return Custo escolhido, entre o mínimo e o máximo
+     */
+    public static int calibrar(Duration tempoAlvo, int custoMinimo, int custoMaximo) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(custoMinimo);
+        encoder.encode(SENHA_AMOSTRA);
+
+        long menorTempo = Long.MAX_VALUE;
+        for (int i = 0; i < AMOSTRAS; i++) {
+            long inicio = System.nanoTime();
+            encoder.encode(SENHA_AMOSTRA);
+            menorTempo = Math.min(menorTempo, System.nanoTime() - inicio);
+        }
+
+        int custo = custoMinimo;
+        long estimado = menorTempo;
+        while (custo < custoMaximo && estimado * 2 <= tempoAlvo.toNanos()) {
+            estimado *= 2;
+            custo++;
+        }
+
+        log.info("Custo do BCrypt calibrado em {} (hash estimado em {} ms; alvo {} ms)",
+                custo, estimado / 1_000_000, tempoAlvo.toMillis());
+        return custo;
+    }
+}
@@ -0,0 +1,98 @@
+package gov.df.seape.sistema.visitas.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Codificação compacta das authorities de um perfil para transporte em tokens JWT.
+ *
+ * As authorities são agrupadas pelo prefixo comum (tudo antes do último segmento),
+ * evitando repetir o mesmo prefixo a cada ação. Exemplo:
+ * {@code api.agendamentos.create}, {@code api.agendamentos.read} e {@code api.custodiados.*}
+ * são codificadas como {@code api.agendamentos:create,read;api.custodiados:*}.
+ *
+ * Para manter o tamanho do token limitado, a codificação é descartada quando
+ * ultrapassa {@link #TAMANHO_MAXIMO} caracteres; nesse caso o token transporta
+ * apenas o ID do perfil (claim {@link #CLAIM_PERFIL}).
+ */
+public final class CodificadorPermissoes {
+
+    /** Claim com as authorities codificadas. */
+    public static final String CLAIM_PERMISSOES = "perm";
+
+    /** Claim com o ID do perfil do usuário. */
+    public static final String CLAIM_PERFIL = "perfil";
+
+    /** Tamanho máximo, em caracteres, da claim de authorities. */
+    public static final int TAMANHO_MAXIMO = 1024;
+
+    private static final char SEPARADOR_GRUPO = ';';
+    private static final char SEPARADOR_PREFIXO = ':';
+    private static final char SEPARADOR_ACAO = ',';
+
+    private CodificadorPermissoes() {
+    }
+
+    /**
+     * Codifica as authorities no formato compacto.
+     *
+     * @param authorities Authorities do perfil
+     * @return Texto codificado, ou vazio se ultrapassar o tamanho máximo
+     */
+    public static Optional<String> codificar(Collection<String> authorities) {
+        Map<String, TreeSet<String>> grupos = new TreeMap<>();
+        for (String authority : authorities) {
+            if (authority == null || authority.isBlank()) {
+                continue;
+            }
+            String normalizada = authority.trim().toLowerCase(Locale.ROOT);
+            int ultimoPonto = normalizada.lastIndexOf('.');
+            String prefixo = ultimoPonto < 0 ? "" : normalizada.substring(0, ultimoPonto);
+            String acao = normalizada.substring(ultimoPonto + 1);
+            grupos.computeIfAbsent(prefixo, p -> new TreeSet<>()).add(acao);
+        }
+
+        StringBuilder codigo = new StringBuilder();
+        for (Map.Entry<String, TreeSet<String>> grupo : grupos.entrySet()) {
+            if (codigo.length() > 0) {
+                codigo.append(SEPARADOR_GRUPO);
+            }
+            codigo.append(grupo.getKey()).append(SEPARADOR_PREFIXO)
+                    .append(String.join(String.valueOf(SEPARADOR_ACAO), grupo.getValue()));
+            if (codigo.length() > TAMANHO_MAXIMO) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(codigo.toString());
+    }
+
+    /**
+     * Decodifica o formato compacto de volta para a lista de authorities.
+     *
+     * @param codigo Texto codificado
+     * @return Lista de authorities
+     */
+    public static List<String> decodificar(String codigo) {
+        List<String> authorities = new ArrayList<>();
+        if (codigo == null || codigo.isBlank()) {
+            return authorities;
+        }
+        for (String grupo : codigo.split(String.valueOf(SEPARADOR_GRUPO))) {
+            int separador = grupo.indexOf(SEPARADOR_PREFIXO);
+            if (separador < 0) {
+                continue;
+            }
+            String prefixo = grupo.substring(0, separador);
+            for (String acao : grupo.substring(separador + 1).split(String.valueOf(SEPARADOR_ACAO))) {
+                authorities.add(prefixo.isEmpty() ? acao : prefixo + "." + acao);
+            }
+        }
+        return authorities;
+    }
+}
@@ -0,0 +1,130 @@
+package gov.df.seape.sistema.visitas.security;
+
+import gov.df.seape.sistema.visitas.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordEncoder} que executa os hashes de senha em um pool de threads dedicado
+ * e limitado, em vez das threads de atendimento HTTP.
+ *
+ * Quando a fila do pool está cheia, ou quando o hash não é concluído dentro do tempo
+ * máximo de espera, a operação é recusada com {@link ServicoSobrecarregadoException}
+ * (HTTP 503). Dessa forma um pico de autenticações não esgota as threads do servidor.
+ *
+ * Métricas publicadas: profundidade da fila, threads ativas, recusas e tempo dos hashes.
+ */
+@Slf4j
+public class CodificadorSenhaLimitado implements PasswordEncoder, DisposableBean {
+
+    private static final String MSG_SOBRECARREGADO =
+            "Serviço de autenticação temporariamente sobrecarregado. Tente novamente em instantes";
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final Duration tempoMaximoEspera;
+    private final Counter recusas;
+    private final Timer tempoCodificacao;
+    private final Timer tempoVerificacao;
+
+    public CodificadorSenhaLimitado(PasswordEncoder delegado, int threads, int capacidadeFila,
+                                    Duration tempoMaximoEspera, MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        this.tempoMaximoEspera = tempoMaximoEspera;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "hash-senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("seguranca.senha.fila", executor, e -> e.getQueue().size())
+                .description("Hashes de senha aguardando execução")
+                .register(meterRegistry);
+        Gauge.builder("seguranca.senha.ativos", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes de senha em execução")
+                .register(meterRegistry);
+        this.recusas = Counter.builder("seguranca.senha.recusas")
+                .description("Hashes de senha recusados por sobrecarga")
+                .register(meterRegistry);
+        this.tempoCodificacao = Timer.builder("seguranca.senha.hash")
+                .tag("operacao", "codificar")
+                .register(meterRegistry);
+        this.tempoVerificacao = Timer.builder("seguranca.senha.hash")
+                .tag("operacao", "verificar")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(() -> tempoCodificacao.recordCallable(() -> delegado.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(() -> tempoVerificacao.recordCallable(() -> delegado.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Indica se o hash armazenado usa algoritmo ou custo desatualizado. A verificação
+     * apenas inspeciona o prefixo do hash e por isso não passa pelo pool.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T executar(Callable<T> operacao) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(operacao);
+        } catch (RejectedExecutionException e) {
+            recusas.increment();
+            log.warn("Hash de senha recusado: fila cheia ({} pendentes)", executor.getQueue().size());
+            throw new ServicoSobrecarregadoException(MSG_SOBRECARREGADO, e);
+        }
+
+        try {
+            return futuro.get(tempoMaximoEspera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            recusas.increment();
+            log.warn("Hash de senha não concluído em {} ms", tempoMaximoEspera.toMillis());
+            throw new ServicoSobrecarregadoException(MSG_SOBRECARREGADO, e);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServicoSobrecarregadoException(MSG_SOBRECARREGADO, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Falha ao processar hash de senha", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,164 @@
+package gov.df.seape.sistema.visitas.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Gerencia as chaves RSA utilizadas na assinatura dos tokens JWT.
+ *
+ * As chaves são mantidas em um arquivo local (conjunto JWK em formato JSON, incluindo
+ * as partes privadas), de modo que os tokens emitidos continuam válidos após reinícios
+ * da aplicação. Na ausência do arquivo, uma nova chave é gerada e persistida.
+ *
+ * A primeira chave do conjunto é a chave ativa, usada para assinar novos tokens; as
+ * demais são chaves anteriores, mantidas apenas para validar tokens já emitidos
+ * durante a rotação. O instante da última geração de chave é registrado como membro
+ * adicional do conjunto ({@value #MEMBRO_ROTACIONADO_EM}), já que os metadados da própria
+ * chave não o comportam.
+ */
+@Component
+@Slf4j
+public class GerenciadorChavesAssinatura {
+
+    private static final int TAMANHO_CHAVE = 2048;
+    static final String MEMBRO_ROTACIONADO_EM = "rotacionadoEm";
+
+    private final Path arquivo;
+    private final int maximoChavesAnteriores;
+    private volatile JWKSet chaves;
+
+    public GerenciadorChavesAssinatura(
+            @Value("${seguranca.jwt.chaves.arquivo:./data/jwks.json}") String arquivo,
+            @Value("${seguranca.jwt.chaves.maximo-anteriores:2}") int maximoChavesAnteriores) {
+        this.arquivo = Path.of(arquivo);
+        this.maximoChavesAnteriores = maximoChavesAnteriores;
+        this.chaves = carregarOuGerar();
+    }
+
+    /**
+     * Retorna a chave ativa (com parte privada), usada para assinar novos tokens.
+     *
+     * @return Chave de assinatura ativa
+     */
+    public JWK getChaveAtiva() {
+        return chaves.getKeys().get(0);
+    }
+
+    /**
+     * Retorna todas as chaves válidas para verificação de assinatura.
+     *
+     * @return Conjunto de chaves, ativa e anteriores
+     */
+    public JWKSet getChaves() {
+        return chaves;
+    }
+
+    /**
+     * Retorna o instante em que a chave ativa foi gerada, quando registrado no arquivo.
+     *
+     * @return Instante da última rotação, ou {@code null} para arquivos anteriores ao registro
+     */
+    public Instant getRotacionadoEm() {
+        Object valor = chaves.getAdditionalMembers().get(MEMBRO_ROTACIONADO_EM);
+        return valor != null ? Instant.parse(valor.toString()) : null;
+    }
+
+    /**
+     * Gera uma nova chave ativa, mantendo as anteriores para validação dos tokens já emitidos.
+     * Executado automaticamente quando a propriedade {@code seguranca.jwt.chaves.rotacao-cron} é definida.
+     */
+    @Scheduled(cron = "${seguranca.jwt.chaves.rotacao-cron:-}")
+    public synchronized void rotacionar() {
+        List<JWK> novasChaves = new ArrayList<>();
+        novasChaves.add(gerarChave());
+        List<JWK> atuais = chaves.getKeys();
+        novasChaves.addAll(atuais.subList(0, Math.min(atuais.size(), maximoChavesAnteriores)));
+
+        JWKSet novoConjunto = novoConjunto(novasChaves);
+        salvar(novoConjunto);
+        chaves = novoConjunto;
+        log.info("Chave de assinatura rotacionada. Nova chave ativa: {}", getChaveAtiva().getKeyID());
+    }
+
+    private JWKSet carregarOuGerar() {
+        if (Files.exists(arquivo)) {
+            try {
+                JWKSet conjunto = JWKSet.load(arquivo.toFile());
+                if (!conjunto.getKeys().isEmpty()) {
+                    log.info("Chaves de assinatura carregadas de {}. Chave ativa: {}",
+                            arquivo, conjunto.getKeys().get(0).getKeyID());
+                    return conjunto;
+                }
+            } catch (IOException | ParseException e) {
+                throw new IllegalStateException("Não foi possível ler as chaves de assinatura em " + arquivo, e);
+            }
+        }
+
+        JWKSet conjunto = novoConjunto(List.of(gerarChave()));
+        salvar(conjunto);
+        log.info("Nova chave de assinatura gerada em {}", arquivo);
+        return conjunto;
+    }
+
+    private JWK gerarChave() {
+        try {
+            return new RSAKeyGenerator(TAMANHO_CHAVE)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.RS256)
+                    .keyID(UUID.randomUUID().toString())
+                    .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Não foi possível gerar a chave de assinatura", e);
+        }
+    }
+
+    private JWKSet novoConjunto(List<JWK> chavesDoConjunto) {
+        return new JWKSet(chavesDoConjunto, Map.of(MEMBRO_ROTACIONADO_EM, Instant.now().toString()));
+    }
+
+    private void salvar(JWKSet conjunto) {
+        try {
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            Path temporario = Files.createTempFile(diretorio, "jwks", ".tmp");
+            restringirPermissoes(temporario);
+            // toString(false) inclui as partes privadas das chaves
+            Files.writeString(temporario, conjunto.toString(false), StandardCharsets.UTF_8);
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível gravar as chaves de assinatura em " + arquivo, e);
+        }
+    }
+
+    private void restringirPermissoes(Path caminho) throws IOException {
+        try {
+            Files.setPosixFilePermissions(caminho, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            log.debug("Sistema de arquivos não suporta permissões POSIX: {}", caminho);
+        }
+    }
+}
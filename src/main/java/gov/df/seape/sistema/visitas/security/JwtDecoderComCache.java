@@ -0,0 +1,100 @@
+package gov.df.seape.sistema.visitas.security;
+
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link JwtDecoder} que mantém em memória os tokens já verificados, evitando repetir
+ * a verificação de assinatura para o mesmo bearer token em requisições sucessivas.
+ *
+ * As entradas são indexadas pelo hash SHA-256 do token (o token em si não é mantido como
+ * chave) e expiram junto com o token. O cache é limitado a {@code maximoEntradas}.
+ *
+ * O {@code validadorPorRequisicao} é aplicado a todo token retornado, inclusive aos
+ * obtidos do cache, e deve conter apenas verificações baratas que podem mudar durante
+ * a vida do token (por exemplo, a revogação).
+ */
+public class JwtDecoderComCache implements JwtDecoder {
+
+    private final JwtDecoder delegado;
+    private final int maximoEntradas;
+    private final OAuth2TokenValidator<Jwt> validadorPorRequisicao;
+    private final Map<String, Jwt> tokensVerificados = new ConcurrentHashMap<>();
+
+    public JwtDecoderComCache(JwtDecoder delegado, int maximoEntradas,
+                              OAuth2TokenValidator<Jwt> validadorPorRequisicao) {
+        this.delegado = delegado;
+        this.maximoEntradas = maximoEntradas;
+        this.validadorPorRequisicao = validadorPorRequisicao;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String chave = hash(token);
+        Jwt jwt = tokensVerificados.get(chave);
+        if (jwt != null) {
+            if (!expirado(jwt, Instant.now())) {
+                return validar(jwt);
+            }
+            tokensVerificados.remove(chave);
+        }
+
+        jwt = delegado.decode(token);
+        armazenar(chave, jwt);
+        return validar(jwt);
+    }
+
+    /**
+     * Remove do cache um token previamente verificado.
+     *
+     * @param token Token a ser descartado
+     */
+    public void descartar(String token) {
+        tokensVerificados.remove(hash(token));
+    }
+
+    private Jwt validar(Jwt jwt) {
+        OAuth2TokenValidatorResult resultado = validadorPorRequisicao.validate(jwt);
+        if (resultado.hasErrors()) {
+            String descricao = resultado.getErrors().iterator().next().getDescription();
+            throw new JwtValidationException(descricao, resultado.getErrors());
+        }
+        return jwt;
+    }
+
+    private void armazenar(String chave, Jwt jwt) {
+        if (tokensVerificados.size() >= maximoEntradas) {
+            Instant agora = Instant.now();
+            tokensVerificados.values().removeIf(j -> expirado(j, agora));
+            if (tokensVerificados.size() >= maximoEntradas) {
+                tokensVerificados.clear();
+            }
+        }
+        tokensVerificados.put(chave, jwt);
+    }
+
+    private static boolean expirado(Jwt jwt, Instant agora) {
+        return jwt.getExpiresAt() == null || !jwt.getExpiresAt().isAfter(agora);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo SHA-256 indisponível", e);
+        }
+    }
+}
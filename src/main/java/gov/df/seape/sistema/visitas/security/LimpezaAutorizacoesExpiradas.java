@@ -0,0 +1,64 @@
+package gov.df.seape.sistema.visitas.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Remove periodicamente as autorizações OAuth2 cujos tokens já expiraram.
+ *
+ * Uma autorização é considerada expirada quando todos os seus tokens (código,
+ * access token, refresh token e ID token) estão vencidos. A remoção é feita em
+ * lotes limitados para não manter bloqueios longos na tabela.
+ */
+@Component
+@Slf4j
+public class LimpezaAutorizacoesExpiradas {
+
+    private static final String SQL_REMOVER_EXPIRADAS =
+            "DELETE FROM oauth2_authorization WHERE id IN (" +
+            "SELECT id FROM oauth2_authorization " +
+            "WHERE (access_token_expires_at IS NOT NULL OR authorization_code_expires_at IS NOT NULL) " +
+            "AND (access_token_expires_at IS NULL OR access_token_expires_at < ?) " +
+            "AND (refresh_token_expires_at IS NULL OR refresh_token_expires_at < ?) " +
+            "AND (authorization_code_expires_at IS NULL OR authorization_code_expires_at < ?) " +
+            "AND (oidc_id_token_expires_at IS NULL OR oidc_id_token_expires_at < ?) " +
+            "LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoLote;
+
+    public LimpezaAutorizacoesExpiradas(
+            JdbcTemplate jdbcTemplate,
+            @Value("${seguranca.oauth2.limpeza.tamanho-lote:500}") int tamanhoLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Executa a remoção das autorizações expiradas, lote a lote.
+     *
+     * @return Quantidade de autorizações removidas
+     */
+    @Scheduled(fixedDelayString = "${seguranca.oauth2.limpeza.intervalo:PT10M}",
+               initialDelayString = "${seguranca.oauth2.limpeza.intervalo:PT10M}")
+    public int removerExpiradas() {
+        Timestamp agora = Timestamp.from(Instant.now());
+        int total = 0;
+        int removidas;
+        do {
+            removidas = jdbcTemplate.update(SQL_REMOVER_EXPIRADAS, agora, agora, agora, agora, tamanhoLote);
+            total += removidas;
+        } while (removidas == tamanhoLote);
+
+        if (total > 0) {
+            log.info("Autorizações OAuth2 expiradas removidas: {}", total);
+        }
+        return total;
+    }
+}
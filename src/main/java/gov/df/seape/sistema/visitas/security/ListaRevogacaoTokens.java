@@ -0,0 +1,100 @@
+package gov.df.seape.sistema.visitas.security;
+
+import gov.df.seape.sistema.visitas.model.TokenRevogado;
+import gov.df.seape.sistema.visitas.repository.TokenRevogadoRepository;
+import gov.df.seape.sistema.visitas.util.ExecucaoAposCommit;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de tokens JWT revogados antes da expiração (logout ou revogação administrativa).
+ *
+ * A consulta é feita em memória, em tempo constante, a cada requisição autenticada.
+ * Cada entrada vale apenas até a expiração do próprio token, de modo que o consumo de
+ * memória acompanha a quantidade de tokens revogados ainda válidos. A tabela
+ * token_revogado garante que a lista sobreviva a reinícios da aplicação.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ListaRevogacaoTokens {
+
+    private final TokenRevogadoRepository tokenRevogadoRepository;
+    private final Map<String, Instant> revogados = new ConcurrentHashMap<>();
+
+    /**
+     * Reconstrói a lista em memória a partir dos registros ainda válidos.
+     */
+    @PostConstruct
+    public void carregar() {
+        LocalDateTime agora = LocalDateTime.now();
+        for (TokenRevogado token : tokenRevogadoRepository.findByExpiraEmAfter(agora)) {
+            revogados.put(token.getJti(), token.getExpiraEm().atZone(ZoneId.systemDefault()).toInstant());
+        }
+        log.info("Lista de revogação carregada com {} tokens", revogados.size());
+    }
+
+    /**
+     * Verifica se o token com o identificador informado foi revogado.
+     *
+     * @param jti Identificador do token
+     * @return true se o token foi revogado e ainda não expirou
+     */
+    public boolean estaRevogado(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Instant expiracao = revogados.get(jti);
+        if (expiracao == null) {
+            return false;
+        }
+        if (expiracao.isAfter(Instant.now())) {
+            return true;
+        }
+        revogados.remove(jti, expiracao);
+        return false;
+    }
+
+    /**
+     * Revoga um token até a sua expiração. Deve ser chamado dentro de uma transação;
+     * a lista em memória só passa a recusar o token depois do commit do registro.
+     *
+     * @param jti Identificador do token
+     * @param expiracao Momento em que o token expira
+     */
+    public void revogar(String jti, Instant expiracao) {
+        if (!expiracao.isAfter(Instant.now())) {
+            return;
+        }
+        tokenRevogadoRepository.save(new TokenRevogado(
+                jti,
+                LocalDateTime.ofInstant(expiracao, ZoneId.systemDefault()),
+                LocalDateTime.now()));
+        ExecucaoAposCommit.executar(() -> {
+            revogados.put(jti, expiracao);
+            log.info("Token revogado. jti: {}", jti);
+        });
+    }
+
+    /**
+     * Remove da memória e da tabela os tokens que já expiraram.
+     */
+    @Scheduled(fixedDelayString = "${seguranca.revogacao.limpeza.intervalo:PT5M}")
+    public void removerExpirados() {
+        Instant agora = Instant.now();
+        revogados.values().removeIf(expiracao -> !expiracao.isAfter(agora));
+        int removidos = tokenRevogadoRepository.removerExpirados(LocalDateTime.ofInstant(agora, ZoneId.systemDefault()));
+        if (removidos > 0) {
+            log.info("Tokens revogados expirados removidos: {}", removidos);
+        }
+    }
+}
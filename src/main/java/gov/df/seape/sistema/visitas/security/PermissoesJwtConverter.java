@@ -0,0 +1,33 @@
+package gov.df.seape.sistema.visitas.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Converte as claims de um JWT em authorities, combinando os escopos
+ * (prefixo {@code SCOPE_}) com as authorities de perfil codificadas na
+ * claim {@link CodificadorPermissoes#CLAIM_PERMISSOES}.
+ *
+ * A conversão utiliza apenas o conteúdo do token, sem acesso ao banco de dados.
+ */
+public class PermissoesJwtConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private final JwtGrantedAuthoritiesConverter escoposConverter = new JwtGrantedAuthoritiesConverter();
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        List<GrantedAuthority> authorities = new ArrayList<>(escoposConverter.convert(jwt));
+        String codigo = jwt.getClaimAsString(CodificadorPermissoes.CLAIM_PERMISSOES);
+        for (String authority : CodificadorPermissoes.decodificar(codigo)) {
+            authorities.add(new SimpleGrantedAuthority(authority));
+        }
+        return authorities;
+    }
+}
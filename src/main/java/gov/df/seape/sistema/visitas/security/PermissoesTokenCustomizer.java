@@ -0,0 +1,55 @@
+package gov.df.seape.sistema.visitas.security;
+
+import gov.df.seape.sistema.visitas.repository.UsuarioRepository;
+import gov.df.seape.sistema.visitas.repository.VincPerfilFuncionalidadeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Personaliza os access tokens emitidos pelo servidor de autorização, incluindo
+ * o identificador do token (jti, usado na revogação), o perfil do usuário e suas
+ * authorities em formato compacto.
+ *
+ * Dessa forma o servidor de recursos resolve as permissões a partir do próprio
+ * token, sem consultar o banco de dados a cada requisição. Alterações de perfil
+ * passam a valer a partir do próximo token emitido.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PermissoesTokenCustomizer implements OAuth2TokenCustomizer<JwtEncodingContext> {
+
+    private final UsuarioRepository usuarioRepository;
+    private final VincPerfilFuncionalidadeRepository vincPerfilFuncionalidadeRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void customize(JwtEncodingContext context) {
+        if (!OAuth2TokenType.ACCESS_TOKEN.equals(context.getTokenType())) {
+            return;
+        }
+        context.getClaims().id(UUID.randomUUID().toString());
+
+        if (AuthorizationGrantType.CLIENT_CREDENTIALS.equals(context.getAuthorizationGrantType())) {
+            return;
+        }
+
+        String login = context.getPrincipal().getName();
+        usuarioRepository.findPerfilIdByEmail(login).ifPresent(perfilId -> {
+            context.getClaims().claim(CodificadorPermissoes.CLAIM_PERFIL, perfilId);
+            CodificadorPermissoes.codificar(vincPerfilFuncionalidadeRepository.findAuthoritiesByPerfilId(perfilId))
+                    .ifPresentOrElse(
+                            codigo -> context.getClaims().claim(CodificadorPermissoes.CLAIM_PERMISSOES, codigo),
+                            () -> log.warn("Authorities do perfil ID {} excedem o tamanho máximo do token; "
+                                    + "apenas o perfil será incluído", perfilId));
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package gov.df.seape.sistema.visitas.security;
+
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache de leitura (read-through) para os clientes OAuth2 registrados.
+ *
+ * Os clientes são consultados em toda emissão, renovação e introspecção de token,
+ * mas raramente alterados; o cache evita uma consulta ao banco por requisição.
+ * Apenas clientes encontrados são mantidos, de modo que um cadastro novo é
+ * visível imediatamente.
+ */
+public class RegisteredClientRepositoryComCache implements RegisteredClientRepository {
+
+    private final RegisteredClientRepository delegado;
+    private final Map<String, RegisteredClient> porId = new ConcurrentHashMap<>();
+    private final Map<String, RegisteredClient> porClientId = new ConcurrentHashMap<>();
+
+    public RegisteredClientRepositoryComCache(RegisteredClientRepository delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public void save(RegisteredClient registeredClient) {
+        delegado.save(registeredClient);
+        RegisteredClient anterior = porId.remove(registeredClient.getId());
+        if (anterior != null) {
+            porClientId.remove(anterior.getClientId());
+        }
+        porClientId.remove(registeredClient.getClientId());
+    }
+
+    @Override
+    public RegisteredClient findById(String id) {
+        RegisteredClient cliente = porId.get(id);
+        if (cliente == null) {
+            cliente = delegado.findById(id);
+            armazenar(cliente);
+        }
+        return cliente;
+    }
+
+    @Override
+    public RegisteredClient findByClientId(String clientId) {
+        RegisteredClient cliente = porClientId.get(clientId);
+        if (cliente == null) {
+            cliente = delegado.findByClientId(clientId);
+            armazenar(cliente);
+        }
+        return cliente;
+    }
+
+    private void armazenar(RegisteredClient cliente) {
+        if (cliente != null) {
+            porId.put(cliente.getId(), cliente);
+            porClientId.put(cliente.getClientId(), cliente);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package gov.df.seape.sistema.visitas.security;
+
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Rejeita tokens cujo identificador (jti) consta na {@link ListaRevogacaoTokens}.
+ */
+public class ValidadorTokenRevogado implements OAuth2TokenValidator<Jwt> {
+
+    private static final OAuth2Error TOKEN_REVOGADO =
+            new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "Token revogado", null);
+
+    private final ListaRevogacaoTokens listaRevogacao;
+
+    public ValidadorTokenRevogado(ListaRevogacaoTokens listaRevogacao) {
+        this.listaRevogacao = listaRevogacao;
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        return listaRevogacao.estaRevogado(jwt.getId())
+                ? OAuth2TokenValidatorResult.failure(TOKEN_REVOGADO)
+                : OAuth2TokenValidatorResult.success();
+    }
+}
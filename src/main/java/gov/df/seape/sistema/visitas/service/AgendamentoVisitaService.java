@@ -4,6 +4,8 @@ import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaRequestDTO;
 import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaResponseDTO;
 import gov.df.seape.sistema.visitas.dto.FiltroAgendamentoDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
+import gov.df.seape.sistema.visitas.dto.SerieAgendamentoRequestDTO;
+import gov.df.seape.sistema.visitas.dto.SerieAgendamentoResponseDTO;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
@@ -21,6 +23,16 @@ public interface AgendamentoVisitaService {
      * @return O agendamento criado, com ID gerado
      */
     AgendamentoVisitaResponseDTO criarAgendamento(AgendamentoVisitaRequestDTO requestDTO);
+
+    /**
+     * Criar uma série semanal de agendamentos. Cada ocorrência passa pelas mesmas
+     * regras do agendamento individual; as válidas são criadas e as demais voltam
+     * com o motivo da recusa.
+     * 
+     * @param requestDTO Dados da série
+     * @return O resultado de cada ocorrência
+     */
+    SerieAgendamentoResponseDTO criarSerie(SerieAgendamentoRequestDTO requestDTO);
     
     /**
      * Atualizar um agendamento existente.
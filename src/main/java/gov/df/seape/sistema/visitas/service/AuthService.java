@@ -5,6 +5,8 @@ import gov.df.seape.sistema.visitas.dto.LoginResponseDTO;
 
 /**
  * Interface de serviço para operações relacionadas à autenticação.
+ *
+ * O logout é feito pela revogação do token de acesso ({@link RevogacaoTokenService}).
  */
 public interface AuthService {
     
@@ -23,11 +25,4 @@ public interface AuthService {
      * @return Resposta contendo o novo token JWT
      */
     LoginResponseDTO refreshToken(String refreshToken);
-    
-    /**
-     * Invalida o token de um usuário (logout).
-     * 
-     * @param token Token a ser invalidado
-     */
-    void logout(String token);
 }
\ No newline at end of file
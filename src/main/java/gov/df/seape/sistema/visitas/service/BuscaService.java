@@ -0,0 +1,32 @@
+package gov.df.seape.sistema.visitas.service;
+
+import gov.df.seape.sistema.visitas.dto.ResultadoBuscaDTO;
+import gov.df.seape.sistema.visitas.dto.SugestaoDTO;
+
+import java.util.List;
+
+/**
+ * Interface de serviço para a busca unificada de pessoas e custodiados.
+ */
+public interface BuscaService {
+
+    /**
+     * Retorna sugestões para o texto digitado, a partir de nomes, CPFs e prontuários.
+     *
+     * @param termo Texto digitado
+     * @param limite Quantidade máxima de sugestões
+     * @return Lista de sugestões
+     */
+    List<SugestaoDTO> sugerir(String termo, int limite);
+
+    /**
+     * Busca custodiados e visitantes por nome, vulgo, CPF ou prontuário, em ordem de
+     * relevância: documento exato, prefixo e substring.
+     *
+     * @param termo Termo pesquisado (ao menos três caracteres)
+     * @param cursor Cursor da página anterior, ou null para a primeira página
+     * @param tamanho Quantidade máxima de itens na página
+     * @return Página de resultados com o cursor da próxima página
+     */
+    ResultadoBuscaDTO buscar(String termo, String cursor, int tamanho);
+}
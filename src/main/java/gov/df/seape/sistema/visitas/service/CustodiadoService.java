@@ -3,6 +3,8 @@ package gov.df.seape.sistema.visitas.service;
 import gov.df.seape.sistema.visitas.dto.CustodiadoRequestDTO;
 import gov.df.seape.sistema.visitas.dto.CustodiadoResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
+import gov.df.seape.sistema.visitas.dto.TransferenciaCustodiadosRequestDTO;
+import gov.df.seape.sistema.visitas.dto.TransferenciaCustodiadosResponseDTO;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -28,6 +30,25 @@ public interface CustodiadoService {
      * @return O custodiado atualizado
      */
     CustodiadoResponseDTO atualizarCustodiado(Long id, CustodiadoRequestDTO requestDTO);
+
+    /**
+     * Transfere um lote de custodiados para outra unidade penal.
+     * A transferência é tudo ou nada: se a unidade de destino não tiver capacidade
+     * para todo o lote, nenhum custodiado é transferido. Os agendamentos futuros que não
+     * respeitam as regras de visita do destino são cancelados.
+     *
+     * @param requestDTO Unidade de destino e IDs dos custodiados
+     * @return Os custodiados transferidos e a quantidade de agendamentos cancelados
+     */
+    TransferenciaCustodiadosResponseDTO transferirCustodiados(TransferenciaCustodiadosRequestDTO requestDTO);
+
+    /**
+     * Exclui um custodiado sem agendamentos nem solicitações de visita, liberando a
+     * vaga ocupada na unidade penal.
+     *
+     * @param id ID do custodiado a ser excluído
+     */
+    void excluirCustodiado(Long id);
     
     /**
      * Buscar todos os custodiados com paginação.
@@ -0,0 +1,17 @@
+package gov.df.seape.sistema.visitas.service;
+
+import gov.df.seape.sistema.visitas.dto.RelatorioDuplicidadeDTO;
+
+/**
+ * Interface de serviço para identificação de pessoas cadastradas em duplicidade.
+ */
+public interface DeduplicacaoPessoaService {
+
+    /**
+     * Gera o relatório de pares de pessoas candidatas a mesclagem.
+     * São comparadas apenas pessoas com a mesma chave fonética e a mesma data de nascimento.
+     *
+     * @return Relatório com os pares cujo nome atinge a similaridade mínima configurada
+     */
+    RelatorioDuplicidadeDTO gerarRelatorio();
+}
@@ -0,0 +1,15 @@
+package gov.df.seape.sistema.visitas.service;
+
+/**
+ * Interface de serviço para revogação de tokens de acesso.
+ */
+public interface RevogacaoTokenService {
+
+    /**
+     * Revoga um token de acesso até a sua expiração, removendo também a
+     * autorização OAuth2 associada (e, com ela, o refresh token).
+     *
+     * @param token Token de acesso (JWT) a ser revogado
+     */
+    void revogarToken(String token);
+}
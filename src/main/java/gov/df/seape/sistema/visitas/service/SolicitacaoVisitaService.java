@@ -0,0 +1,34 @@
+package gov.df.seape.sistema.visitas.service;
+
+import gov.df.seape.sistema.visitas.dto.SolicitacaoVisitaRequestDTO;
+import gov.df.seape.sistema.visitas.dto.SolicitacaoVisitaResponseDTO;
+
+/**
+ * Interface de serviço para as solicitações de visita das unidades penais com
+ * alocação por sorteio.
+ */
+public interface SolicitacaoVisitaService {
+
+    /**
+     * Registrar uma solicitação de visita, que fica pendente até o sorteio do dia.
+     *
+     * @param requestDTO Dados da solicitação
+     * @return A solicitação registrada
+     */
+    SolicitacaoVisitaResponseDTO criarSolicitacao(SolicitacaoVisitaRequestDTO requestDTO);
+
+    /**
+     * Buscar uma solicitação pelo ID.
+     *
+     * @param id ID da solicitação
+     * @return A solicitação, com a situação atual
+     */
+    SolicitacaoVisitaResponseDTO buscarSolicitacaoPorId(Long id);
+
+    /**
+     * Sortear as vagas de todos os dias cuja janela de solicitações já foi encerrada.
+     *
+     * @return Quantidade de agendamentos criados
+     */
+    int alocarPendentes();
+}
@@ -0,0 +1,25 @@
+package gov.df.seape.sistema.visitas.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface de serviço para o registro do último acesso dos usuários.
+ */
+public interface UltimoAcessoService {
+
+    /**
+     * Registra um acesso do usuário. O registro é mantido em memória e gravado
+     * no banco na próxima descarga, junto com os demais acessos pendentes.
+     *
+     * @param email Email (login) do usuário
+     * @param dataAcesso Data e hora do acesso
+     */
+    void registrarAcesso(String email, LocalDateTime dataAcesso);
+
+    /**
+     * Grava no banco, em um único lote, os acessos pendentes.
+     *
+     * @return Quantidade de usuários com acesso pendente gravado
+     */
+    int descarregar();
+}
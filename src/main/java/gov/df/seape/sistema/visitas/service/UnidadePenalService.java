@@ -1,5 +1,7 @@
 package gov.df.seape.sistema.visitas.service;
 
+import gov.df.seape.sistema.visitas.dto.BloqueioUnidadeRequestDTO;
+import gov.df.seape.sistema.visitas.dto.BloqueioUnidadeResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.UnidadePenalRequestDTO;
 import gov.df.seape.sistema.visitas.dto.UnidadePenalResponseDTO;
@@ -28,6 +30,16 @@ public interface UnidadePenalService {
      * @return A unidade penal atualizada
      */
     UnidadePenalResponseDTO atualizarUnidadePenal(Long id, UnidadePenalRequestDTO requestDTO);
+
+    /**
+     * Bloquear a unidade penal para visitas pelos próximos dias, cancelando de uma vez
+     * os agendamentos ativos do período.
+     *
+     * @param id ID da unidade penal
+     * @param requestDTO Motivo e duração do bloqueio
+     * @return O bloqueio registrado e a quantidade de agendamentos cancelados
+     */
+    BloqueioUnidadeResponseDTO bloquearUnidadePenal(Long id, BloqueioUnidadeRequestDTO requestDTO);
     
     /**
      * Buscar todas as unidades penais com paginação.
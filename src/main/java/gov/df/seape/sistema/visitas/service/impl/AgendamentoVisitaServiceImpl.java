@@ -3,21 +3,32 @@ package gov.df.seape.sistema.visitas.service.impl;
 import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaRequestDTO;
 import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaResponseDTO;
 import gov.df.seape.sistema.visitas.dto.FiltroAgendamentoDTO;
+import gov.df.seape.sistema.visitas.dto.OcorrenciaSerieDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
+import gov.df.seape.sistema.visitas.dto.SerieAgendamentoRequestDTO;
+import gov.df.seape.sistema.visitas.dto.SerieAgendamentoResponseDTO;
 import gov.df.seape.sistema.visitas.exception.AgendamentoConflitanteException;
 import gov.df.seape.sistema.visitas.exception.HorarioNaoPermitidoException;
 import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.AgendamentoVisitaMapper;
 import gov.df.seape.sistema.visitas.model.AgendamentoVisita;
 import gov.df.seape.sistema.visitas.model.Custodiado;
+import gov.df.seape.sistema.visitas.model.ModoAlocacao;
 import gov.df.seape.sistema.visitas.model.Status;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
 import gov.df.seape.sistema.visitas.model.Visitante;
+import gov.df.seape.sistema.visitas.repository.AgendamentoLoteRepository;
 import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
 import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
 import gov.df.seape.sistema.visitas.repository.StatusRepository;
 import gov.df.seape.sistema.visitas.repository.VisitanteRepository;
 import gov.df.seape.sistema.visitas.service.AgendamentoVisitaService;
+import gov.df.seape.sistema.visitas.util.CalendarioBloqueios;
+import gov.df.seape.sistema.visitas.util.CotasVisitantes;
 import gov.df.seape.sistema.visitas.util.HorarioVisitaUtil;
+import gov.df.seape.sistema.visitas.util.OcupacaoSalas;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -27,7 +38,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementação do serviço de agendamentos de visitas.
@@ -44,6 +59,12 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
 
     // Agora usamos esse bean injetado (sem métodos estáticos)
     private final HorarioVisitaUtil horarioVisitaUtil;
+    private final CalendarioBloqueios calendarioBloqueios;
+    private final RegistroVersoes registroVersoes;
+    private final AgendamentoVisitaMapper agendamentoVisitaMapper;
+    private final AgendamentoLoteRepository agendamentoLoteRepository;
+    private final OcupacaoSalas ocupacaoSalas;
+    private final CotasVisitantes cotasVisitantes;
 
     // Constantes para mensagens de erro
     private static final String MSG_CUSTODIADO_NAO_ENCONTRADO = "Custodiado não encontrado com ID: ";
@@ -53,6 +74,8 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
     private static final String MSG_CONFLITO_CUSTODIADO = "Já existe um agendamento para este custodiado próximo a este horário.";
     private static final String MSG_CONFLITO_VISITANTE = "O visitante já possui outro agendamento próximo a este horário.";
     private static final String MSG_HORARIO_NAO_PERMITIDO = "Horário não permitido para visitas. As visitas são permitidas apenas quartas e quintas, das 9h às 15h.";
+    private static final String MSG_HORARIO_NAO_PERMITIDO_UNIDADE = "Horário não permitido para visitas na unidade penal %s.";
+    private static final String MSG_UNIDADE_BLOQUEADA = "A unidade penal %s está bloqueada para visitas nesta data.";
     private static final String MSG_AGENDAMENTO_CANCELADO = "Agendamento já está cancelado.";
     private static final String MSG_AGENDAMENTO_REALIZADO = "Não é possível cancelar um agendamento já realizado.";
 
@@ -77,6 +100,9 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         Custodiado custodiado = custodiadoRepository.findById(requestDTO.getCustodiadoId())
                 .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_CUSTODIADO_NAO_ENCONTRADO + requestDTO.getCustodiadoId()));
 
+        verificarAgendamentoDireto(custodiado);
+        verificarRegrasUnidade(custodiado, requestDTO.getDataHoraAgendamento());
+
         Visitante visitante = visitanteRepository.findById(requestDTO.getVisitanteId())
                 .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_VISITANTE_NAO_ENCONTRADO + requestDTO.getVisitanteId()));
 
@@ -118,6 +144,10 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
             throw new AgendamentoConflitanteException(MSG_CONFLITO_VISITANTE);
         }
 
+        confirmarDesbloqueio(custodiado.getUnidadePenal(), requestDTO.getDataHoraAgendamento());
+        ocupacaoSalas.ocupar(custodiado.getUnidadePenal(), requestDTO.getDataHoraAgendamento());
+        cotasVisitantes.consumir(visitante.getId(), custodiado.getUnidadePenal(), requestDTO.getDataHoraAgendamento());
+
         // Criar e salvar o agendamento
         AgendamentoVisita agendamento = new AgendamentoVisita();
         agendamento.setCustodiado(custodiado);
@@ -127,9 +157,161 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         agendamento.setObservacoes(requestDTO.getObservacoes());
 
         agendamento = agendamentoRepository.save(agendamento);
+        registroVersoes.registrarAlteracao(
+                RegistroVersoes.agendamentosDoDia(requestDTO.getDataHoraAgendamento().toLocalDate()));
         log.info("Agendamento de visita criado com sucesso. ID: {}", agendamento.getId());
 
-        return new AgendamentoVisitaResponseDTO(agendamento);
+        return agendamentoVisitaMapper.paraDTO(agendamento);
+    }
+
+    @Override
+    @Transactional
+    public SerieAgendamentoResponseDTO criarSerie(SerieAgendamentoRequestDTO requestDTO) {
+        log.info("Iniciando criação de série com {} agendamentos semanais", requestDTO.getOcorrencias());
+
+        Custodiado custodiado = custodiadoRepository.findById(requestDTO.getCustodiadoId())
+                .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_CUSTODIADO_NAO_ENCONTRADO + requestDTO.getCustodiadoId()));
+        verificarAgendamentoDireto(custodiado);
+
+        Visitante visitante = visitanteRepository.findById(requestDTO.getVisitanteId())
+                .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_VISITANTE_NAO_ENCONTRADO + requestDTO.getVisitanteId()));
+
+        Status statusAgendado = statusRepository.findByDescricaoIgnoreCase(STATUS_AGENDADO)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Status AGENDADO não encontrado"));
+        Long statusCanceladoId = getStatusCanceladoId();
+
+        List<LocalDateTime> datasHoras = new ArrayList<>();
+        for (int i = 0; i < requestDTO.getOcorrencias(); i++) {
+            datasHoras.add(requestDTO.getDataHoraPrimeiraVisita().plusWeeks(i));
+        }
+
+        // Uma consulta por custodiado e outra por visitante cobrem a série inteira,
+        // com a margem de uma hora usada na verificação de conflitos
+        LocalDateTime inicio = datasHoras.get(0).toLocalDate().atStartOfDay().minusHours(1);
+        LocalDateTime fim = datasHoras.get(datasHoras.size() - 1).toLocalDate().atTime(23, 59, 59).plusHours(1);
+
+        Map<LocalDate, Integer> visitasPorDia = new HashMap<>();
+        List<LocalDateTime> ativosCustodiado = new ArrayList<>();
+        for (Object[] linha : agendamentoRepository.findDataHoraEStatusDoCustodiadoNoPeriodo(custodiado.getId(), inicio, fim)) {
+            LocalDateTime dataHora = (LocalDateTime) linha[0];
+            visitasPorDia.merge(dataHora.toLocalDate(), 1, Integer::sum);
+            if (!statusCanceladoId.equals(linha[1])) {
+                ativosCustodiado.add(dataHora);
+            }
+        }
+        List<LocalDateTime> agendamentosVisitante = new ArrayList<>(
+                agendamentoRepository.findDataHoraDoVisitanteNoPeriodo(visitante.getId(), inicio, fim));
+
+        Set<LocalDateTime> bloqueadas = calendarioBloqueios.confirmarBloqueios(
+                custodiado.getUnidadePenal().getId(), datasHoras);
+
+        // As mesmas regras do agendamento individual, aplicadas em memória a cada ocorrência;
+        // as ocorrências aceitas passam a contar para as seguintes
+        List<OcorrenciaSerieDTO> ocorrencias = new ArrayList<>();
+        List<LocalDateTime> validas = new ArrayList<>();
+        for (LocalDateTime dataHora : datasHoras) {
+            String recusa = recusaDaOcorrencia(custodiado.getUnidadePenal(), dataHora,
+                    visitasPorDia, ativosCustodiado, agendamentosVisitante);
+            if (recusa == null && bloqueadas.contains(dataHora)) {
+                recusa = String.format(MSG_UNIDADE_BLOQUEADA, custodiado.getUnidadePenal().getNome());
+            }
+            if (recusa == null) {
+                recusa = reservarOcorrencia(custodiado.getUnidadePenal(), visitante.getId(), dataHora);
+            }
+            if (recusa == null) {
+                validas.add(dataHora);
+                visitasPorDia.merge(dataHora.toLocalDate(), 1, Integer::sum);
+                ativosCustodiado.add(dataHora);
+                agendamentosVisitante.add(dataHora);
+            }
+            ocorrencias.add(new OcorrenciaSerieDTO(dataHora, recusa == null, null, recusa));
+        }
+
+        if (!validas.isEmpty()) {
+            Map<LocalDateTime, Long> ids = inserirSerie(custodiado, visitante, statusAgendado, validas, requestDTO.getObservacoes());
+            ocorrencias.stream()
+                    .filter(OcorrenciaSerieDTO::isCriado)
+                    .forEach(o -> o.setAgendamentoId(ids.get(o.getDataHoraAgendamento())));
+            registroVersoes.registrarAlteracao(validas.stream()
+                    .map(dataHora -> RegistroVersoes.agendamentosDoDia(dataHora.toLocalDate()))
+                    .toArray(String[]::new));
+        }
+
+        log.info("Série criada: {} agendamentos criados, {} recusados",
+                validas.size(), datasHoras.size() - validas.size());
+        return new SerieAgendamentoResponseDTO(validas.size(), datasHoras.size() - validas.size(), ocorrencias);
+    }
+
+    /**
+     * Grava as ocorrências válidas da série em um único lote JDBC e recupera os IDs
+     * gerados com uma consulta.
+     *
+     * @return ID de cada agendamento, por data e hora
+     */
+    private Map<LocalDateTime, Long> inserirSerie(Custodiado custodiado, Visitante visitante, Status status,
+                                                  List<LocalDateTime> datasHoras, String observacoes) {
+        agendamentoLoteRepository.inserir(datasHoras.stream()
+                .map(dataHora -> new AgendamentoLoteRepository.NovoAgendamento(
+                        custodiado.getId(), visitante.getId(), dataHora, observacoes))
+                .toList(), status.getId());
+
+        Map<LocalDateTime, Long> ids = new HashMap<>();
+        for (Object[] linha : agendamentoRepository.findIdsDaSerie(
+                custodiado.getId(), visitante.getId(), status.getId(), datasHoras)) {
+            ids.put((LocalDateTime) linha[1], (Long) linha[0]);
+        }
+        return ids;
+    }
+
+    /**
+     * Aplica a uma ocorrência da série as regras do agendamento individual.
+     *
+     * @return Motivo da recusa, ou null se a ocorrência é válida
+     */
+    private String recusaDaOcorrencia(UnidadePenal unidadePenal, LocalDateTime dataHora,
+                                      Map<LocalDate, Integer> visitasPorDia,
+                                      List<LocalDateTime> ativosCustodiado,
+                                      List<LocalDateTime> agendamentosVisitante) {
+        if (!horarioVisitaUtil.isHorarioPermitido(dataHora)) {
+            return MSG_HORARIO_NAO_PERMITIDO;
+        }
+        String recusaUnidade = recusaPelaUnidade(unidadePenal, dataHora);
+        if (recusaUnidade != null) {
+            return recusaUnidade;
+        }
+        if (visitasPorDia.getOrDefault(dataHora.toLocalDate(), 0) >= 2) {
+            return MSG_LIMITE_VISITANTES;
+        }
+        if (existeAgendamentoProximo(ativosCustodiado, dataHora)) {
+            return MSG_CONFLITO_CUSTODIADO;
+        }
+        if (existeAgendamentoProximo(agendamentosVisitante, dataHora)) {
+            return MSG_CONFLITO_VISITANTE;
+        }
+        return null;
+    }
+
+    /**
+     * Conta a ocorrência na cota do visitante e ocupa a sala, devolvendo a cota se não
+     * houver sala.
+     *
+     * @return Motivo da recusa, ou null se a ocorrência foi reservada
+     */
+    private String reservarOcorrencia(UnidadePenal unidadePenal, Long visitanteId, LocalDateTime dataHora) {
+        if (!cotasVisitantes.tentarConsumir(visitanteId, unidadePenal, dataHora)) {
+            return CotasVisitantes.mensagemCotaEsgotada(unidadePenal);
+        }
+        if (!ocupacaoSalas.tentarOcupar(unidadePenal, dataHora)) {
+            cotasVisitantes.devolver(visitanteId, unidadePenal, dataHora);
+            return OcupacaoSalas.MSG_SALAS_OCUPADAS;
+        }
+        return null;
+    }
+
+    private boolean existeAgendamentoProximo(List<LocalDateTime> agendamentos, LocalDateTime dataHora) {
+        LocalDateTime inicio = dataHora.minusHours(1);
+        LocalDateTime fim = dataHora.plusHours(1);
+        return agendamentos.stream().anyMatch(a -> !a.isBefore(inicio) && !a.isAfter(fim));
     }
 
     @Override
@@ -160,6 +342,8 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
             custodiado = custodiadoRepository.findById(requestDTO.getCustodiadoId())
                 .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_CUSTODIADO_NAO_ENCONTRADO + requestDTO.getCustodiadoId()));
         }
+        verificarAgendamentoDireto(custodiado);
+        verificarRegrasUnidade(custodiado, requestDTO.getDataHoraAgendamento());
 
         Visitante visitante = agendamento.getVisitante();
         if (alterouVisitante) {
@@ -173,6 +357,11 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         // Verificar conflitos de horário se necessário
         verificarConflitosHorario(custodiado, visitante, requestDTO, alterouCustodiado, alterouVisitante, alterouDataHora, id);
 
+        UnidadePenal unidadeAnterior = agendamento.getCustodiado().getUnidadePenal();
+        Long visitanteAnteriorId = agendamento.getVisitante().getId();
+        LocalDateTime dataHoraAnterior = agendamento.getDataHoraAgendamento();
+        LocalDate diaAnterior = dataHoraAnterior.toLocalDate();
+
         // Atualizar o agendamento
         agendamento.setCustodiado(custodiado);
         agendamento.setVisitante(visitante);
@@ -190,10 +379,26 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
             agendamento.setStatus(novoStatus);
         }
 
+        if (agendamento.getStatus().getDescricao().equalsIgnoreCase(STATUS_CANCELADO)) {
+            ocupacaoSalas.liberar(unidadeAnterior, dataHoraAnterior);
+            cotasVisitantes.devolver(visitanteAnteriorId, unidadeAnterior, dataHoraAnterior);
+        } else {
+            if (alterouCustodiado || alterouDataHora) {
+                confirmarDesbloqueio(custodiado.getUnidadePenal(), requestDTO.getDataHoraAgendamento());
+                ocupacaoSalas.realocar(unidadeAnterior, dataHoraAnterior,
+                        custodiado.getUnidadePenal(), requestDTO.getDataHoraAgendamento());
+            }
+            cotasVisitantes.transferir(visitanteAnteriorId, unidadeAnterior, dataHoraAnterior,
+                    visitante.getId(), custodiado.getUnidadePenal(), requestDTO.getDataHoraAgendamento());
+        }
+
         agendamento = agendamentoRepository.save(agendamento);
+        registroVersoes.registrarAlteracao(
+                RegistroVersoes.agendamentosDoDia(diaAnterior),
+                RegistroVersoes.agendamentosDoDia(requestDTO.getDataHoraAgendamento().toLocalDate()));
         log.info("Agendamento de visita atualizado com sucesso. ID: {}", agendamento.getId());
 
-        return new AgendamentoVisitaResponseDTO(agendamento);
+        return agendamentoVisitaMapper.paraDTO(agendamento);
     }
 
     private AgendamentoVisita buscarAgendamento(Long id) {
@@ -201,6 +406,53 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
             .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_AGENDAMENTO_NAO_ENCONTRADO + id));
     }
 
+    /**
+     * Nas unidades com alocação por sorteio as vagas só são distribuídas pelas
+     * solicitações de visita, nunca por ordem de chegada.
+     */
+    private void verificarAgendamentoDireto(Custodiado custodiado) {
+        UnidadePenal unidadePenal = custodiado.getUnidadePenal();
+        if (unidadePenal.getModoAlocacao() == ModoAlocacao.SORTEIO) {
+            throw new OperacaoInvalidaException("A unidade penal " + unidadePenal.getNome()
+                    + " distribui as visitas por sorteio. Registre uma solicitação de visita.");
+        }
+    }
+
+    private void verificarRegrasUnidade(Custodiado custodiado, LocalDateTime dataHora) {
+        UnidadePenal unidadePenal = custodiado.getUnidadePenal();
+        String recusa = recusaPelaUnidade(unidadePenal, dataHora);
+        if (recusa != null) {
+            log.warn("Agendamento recusado pela unidade penal ID {}: {}", unidadePenal.getId(), recusa);
+            throw new HorarioNaoPermitidoException(recusa);
+        }
+    }
+
+    /**
+     * Verifica as regras de visita e os bloqueios da unidade penal.
+     *
+     * @return Motivo da recusa, ou null se a visita é permitida
+     */
+    private String recusaPelaUnidade(UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        if (!unidadePenal.permiteVisitaEm(dataHora)) {
+            return String.format(MSG_HORARIO_NAO_PERMITIDO_UNIDADE, unidadePenal.getNome());
+        }
+        if (calendarioBloqueios.estaBloqueada(unidadePenal.getId(), dataHora)) {
+            return String.format(MSG_UNIDADE_BLOQUEADA, unidadePenal.getNome());
+        }
+        return null;
+    }
+
+    /**
+     * Repete no banco a verificação de bloqueio, travando a unidade até o commit, para que
+     * um bloqueio gravado em paralelo não deixe o agendamento de fora do cancelamento.
+     */
+    private void confirmarDesbloqueio(UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        if (!calendarioBloqueios.confirmarBloqueios(unidadePenal.getId(), List.of(dataHora)).isEmpty()) {
+            log.warn("Agendamento recusado: unidade penal ID {} bloqueada em {}", unidadePenal.getId(), dataHora);
+            throw new HorarioNaoPermitidoException(String.format(MSG_UNIDADE_BLOQUEADA, unidadePenal.getNome()));
+        }
+    }
+
     private void verificarStatusCancelado(AgendamentoVisita agendamento, Long id) {
         if (agendamento.getStatus().getDescricao().equalsIgnoreCase(STATUS_CANCELADO)) {
             log.warn("Tentativa de atualizar agendamento cancelado. ID: {}", id);
@@ -273,7 +525,7 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         log.info("Listando agendamentos com paginação");
         Page<AgendamentoVisita> pagina = agendamentoRepository.findAll(pageable);
         
-        Page<AgendamentoVisitaResponseDTO> paginaDTO = pagina.map(AgendamentoVisitaResponseDTO::new);
+        Page<AgendamentoVisitaResponseDTO> paginaDTO = pagina.map(agendamentoVisitaMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -284,7 +536,7 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         List<AgendamentoVisita> agendamentos = agendamentoRepository.findAll();
         
         return agendamentos.stream()
-            .map(AgendamentoVisitaResponseDTO::new)
+            .map(agendamentoVisitaMapper::paraDTO)
             .toList();
     }
 
@@ -295,7 +547,7 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         AgendamentoVisita agendamento = agendamentoRepository.findById(id)
             .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_AGENDAMENTO_NAO_ENCONTRADO + id));
         
-        return new AgendamentoVisitaResponseDTO(agendamento);
+        return agendamentoVisitaMapper.paraDTO(agendamento);
     }
 
     @Override
@@ -330,7 +582,7 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
             pageable
         );
         
-        Page<AgendamentoVisitaResponseDTO> paginaDTO = pagina.map(AgendamentoVisitaResponseDTO::new);
+        Page<AgendamentoVisitaResponseDTO> paginaDTO = pagina.map(agendamentoVisitaMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -340,7 +592,7 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         log.info("Buscando agendamentos por data: {}", data);
         Page<AgendamentoVisita> pagina = agendamentoRepository.findByData(data, pageable);
         
-        Page<AgendamentoVisitaResponseDTO> paginaDTO = pagina.map(AgendamentoVisitaResponseDTO::new);
+        Page<AgendamentoVisitaResponseDTO> paginaDTO = pagina.map(agendamentoVisitaMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -356,7 +608,7 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         
         return new PageResponseDTO<>(
             agendamentoRepository.findByCustodiadoId(custodiadoId, pageable)
-                .map(AgendamentoVisitaResponseDTO::new)
+                .map(agendamentoVisitaMapper::paraDTO)
         );
     }
 
@@ -372,7 +624,7 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         
         return new PageResponseDTO<>(
             agendamentoRepository.findByVisitanteId(visitanteId, pageable)
-                .map(AgendamentoVisitaResponseDTO::new)
+                .map(agendamentoVisitaMapper::paraDTO)
         );
     }
 
@@ -405,6 +657,11 @@ public class AgendamentoVisitaServiceImpl implements AgendamentoVisitaService {
         // Atualizar status do agendamento
         agendamento.setStatus(statusCancelado);
         agendamentoRepository.save(agendamento);
+        ocupacaoSalas.liberar(agendamento.getCustodiado().getUnidadePenal(), agendamento.getDataHoraAgendamento());
+        cotasVisitantes.devolver(agendamento.getVisitante().getId(),
+                agendamento.getCustodiado().getUnidadePenal(), agendamento.getDataHoraAgendamento());
+        registroVersoes.registrarAlteracao(
+                RegistroVersoes.agendamentosDoDia(agendamento.getDataHoraAgendamento().toLocalDate()));
         
         log.info(String.format("Agendamento cancelado com sucesso. ID: %d", id));
     }
@@ -0,0 +1,62 @@
+package gov.df.seape.sistema.visitas.service.impl;
+
+import gov.df.seape.sistema.visitas.busca.IndiceBuscaUnificada;
+import gov.df.seape.sistema.visitas.busca.IndiceSugestoes;
+import gov.df.seape.sistema.visitas.dto.ItemBuscaDTO;
+import gov.df.seape.sistema.visitas.dto.ResultadoBuscaDTO;
+import gov.df.seape.sistema.visitas.dto.SugestaoDTO;
+import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
+import gov.df.seape.sistema.visitas.service.BuscaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementação da busca unificada, servida pelos índices em memória.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuscaServiceImpl implements BuscaService {
+
+    private static final int LIMITE_MAXIMO_SUGESTOES = 50;
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
+    private final IndiceSugestoes indiceSugestoes;
+    private final IndiceBuscaUnificada indiceBuscaUnificada;
+
+    @Override
+    public List<SugestaoDTO> sugerir(String termo, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_SUGESTOES) {
+            throw new OperacaoInvalidaException(
+                    "O limite de sugestões deve estar entre 1 e " + LIMITE_MAXIMO_SUGESTOES);
+        }
+        return indiceSugestoes.sugerir(termo, limite).stream()
+                .map(s -> new SugestaoDTO(s.tipo().name(), s.id(), s.rotulo()))
+                .toList();
+    }
+
+    @Override
+    public ResultadoBuscaDTO buscar(String termo, String cursor, int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new OperacaoInvalidaException(
+                    "O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+        log.debug("Busca unificada: termo '{}', cursor {}", termo, cursor);
+
+        IndiceBuscaUnificada.Pagina pagina;
+        try {
+            pagina = indiceBuscaUnificada.buscar(termo, cursor, tamanho);
+        } catch (IllegalArgumentException e) {
+            throw new OperacaoInvalidaException(e.getMessage(), e);
+        }
+
+        List<ItemBuscaDTO> itens = pagina.itens().stream()
+                .map(r -> new ItemBuscaDTO(r.tipo().name(), r.id(), r.nome(), r.cpf(),
+                        r.numeroProntuario(), r.vulgo(), r.correspondencia().name()))
+                .toList();
+        return new ResultadoBuscaDTO(itens, pagina.proximoCursor());
+    }
+}
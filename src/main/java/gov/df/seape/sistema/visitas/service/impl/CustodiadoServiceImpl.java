@@ -1,24 +1,54 @@
 package gov.df.seape.sistema.visitas.service.impl;
 
+import gov.df.seape.sistema.visitas.busca.IndiceNomes;
+import gov.df.seape.sistema.visitas.config.CacheConfig;
 import gov.df.seape.sistema.visitas.dto.CustodiadoRequestDTO;
 import gov.df.seape.sistema.visitas.dto.CustodiadoResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
+import gov.df.seape.sistema.visitas.dto.TransferenciaCustodiadosRequestDTO;
+import gov.df.seape.sistema.visitas.dto.TransferenciaCustodiadosResponseDTO;
 import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.CustodiadoMapper;
 import gov.df.seape.sistema.visitas.model.Custodiado;
 import gov.df.seape.sistema.visitas.model.Pessoa;
+import gov.df.seape.sistema.visitas.model.Status;
 import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
 import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
 import gov.df.seape.sistema.visitas.repository.PessoaRepository;
+import gov.df.seape.sistema.visitas.repository.SolicitacaoVisitaRepository;
+import gov.df.seape.sistema.visitas.repository.StatusRepository;
 import gov.df.seape.sistema.visitas.repository.UnidadePenalRepository;
 import gov.df.seape.sistema.visitas.service.CustodiadoService;
+import gov.df.seape.sistema.visitas.util.CotasVisitantes;
+import gov.df.seape.sistema.visitas.util.NormalizadorTexto;
+import gov.df.seape.sistema.visitas.util.OcupacaoSalas;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
+import gov.df.seape.sistema.visitas.util.VagasUnidades;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
@@ -28,11 +58,25 @@ public class CustodiadoServiceImpl implements CustodiadoService {
     private final CustodiadoRepository custodiadoRepository;
     private final PessoaRepository pessoaRepository;
     private final UnidadePenalRepository unidadePenalRepository;
+    private final AgendamentoVisitaRepository agendamentoRepository;
+    private final SolicitacaoVisitaRepository solicitacaoVisitaRepository;
+    private final StatusRepository statusRepository;
+    private final IndiceNomes indiceNomes;
+    private final RegistroVersoes registroVersoes;
+    private final OcupacaoSalas ocupacaoSalas;
+    private final CotasVisitantes cotasVisitantes;
+    private final VagasUnidades vagasUnidades;
+    private final CustodiadoMapper custodiadoMapper;
 
     private static final String UNIDADE_PENAL_NOT_FOUND = "Unidade Penal não encontrada com ID: ";
+    private static final String STATUS_AGENDADO = "AGENDADO";
+    private static final String STATUS_CONFIRMADO = "CONFIRMADO";
+    private static final String STATUS_CANCELADO = "CANCELADO";
+    private static final String MOTIVO_FORA_DAS_REGRAS = "Fora das regras de visita da unidade penal de destino";
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.UNIDADES_PENAIS, allEntries = true)
     public CustodiadoResponseDTO criarCustodiado(CustodiadoRequestDTO requestDTO) {
         log.info("Criando novo custodiado com prontuário: {}", requestDTO.getNumeroProntuario());
 
@@ -48,6 +92,7 @@ public class CustodiadoServiceImpl implements CustodiadoService {
 
         UnidadePenal unidadePenal = unidadePenalRepository.findById(requestDTO.getUnidadePenalId())
                 .orElseThrow(() -> new RecursoNaoEncontradoException(UNIDADE_PENAL_NOT_FOUND + requestDTO.getUnidadePenalId()));
+        vagasUnidades.ocupar(unidadePenal, 1);
 
         Pessoa pessoa = new Pessoa();
         pessoa.setNome(requestDTO.getNome());
@@ -61,13 +106,17 @@ public class CustodiadoServiceImpl implements CustodiadoService {
         custodiado.setVulgo(requestDTO.getVulgo());
         custodiado.setUnidadePenal(unidadePenal);
         custodiado = custodiadoRepository.save(custodiado);
+        // A listagem de unidades penais traz o total de custodiados
+        registroVersoes.registrarAlteracao(
+                RegistroVersoes.custodiadosDaUnidade(unidadePenal.getId()), RegistroVersoes.CADASTROS);
 
         log.info("Custodiado criado com sucesso. ID: {}", custodiado.getId());
-        return new CustodiadoResponseDTO(custodiado);
+        return custodiadoMapper.paraDTO(custodiado);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.UNIDADES_PENAIS, allEntries = true)
     public CustodiadoResponseDTO atualizarCustodiado(Long id, CustodiadoRequestDTO requestDTO) {
         log.info("Atualizando custodiado com ID: {}", id);
 
@@ -99,14 +148,119 @@ public class CustodiadoServiceImpl implements CustodiadoService {
         pessoa.setDataNascimento(requestDTO.getDataNascimento());
         pessoaRepository.save(pessoa);
 
+        UnidadePenal unidadeAnterior = custodiadoExistente.getUnidadePenal();
+        Long unidadeAnteriorId = unidadeAnterior.getId();
+        boolean mudouDeUnidade = !unidadeAnteriorId.equals(unidadePenal.getId());
+        if (mudouDeUnidade) {
+            vagasUnidades.transferir(Map.of(unidadeAnteriorId, 1), unidadePenal, 1);
+        }
         custodiadoExistente.setNumeroProntuario(requestDTO.getNumeroProntuario());
         custodiadoExistente.setVulgo(requestDTO.getVulgo());
         custodiadoExistente.setUnidadePenal(unidadePenal);
 
         Custodiado custodiadoAtualizado = custodiadoRepository.save(custodiadoExistente);
+        if (mudouDeUnidade) {
+            cancelarAgendamentosForaDasRegras(List.of(id), unidadePenal);
+
+            // Os agendamentos mantidos passam a ocupar as salas e a contar nas cotas do destino
+            LocalDate hoje = LocalDate.now();
+            ocupacaoSalas.recalcular(unidadeAnterior, hoje);
+            cotasVisitantes.recalcular(unidadeAnterior, hoje);
+            ocupacaoSalas.recalcular(unidadePenal, hoje);
+            cotasVisitantes.recalcular(unidadePenal, hoje);
+        }
+        registroVersoes.registrarAlteracao(
+                RegistroVersoes.custodiadosDaUnidade(unidadeAnteriorId),
+                RegistroVersoes.custodiadosDaUnidade(unidadePenal.getId()),
+                RegistroVersoes.CADASTROS, RegistroVersoes.PESSOAS);
 
         log.info("Custodiado atualizado com sucesso. ID: {}", custodiadoAtualizado.getId());
-        return new CustodiadoResponseDTO(custodiadoAtualizado);
+        return custodiadoMapper.paraDTO(custodiadoAtualizado);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.UNIDADES_PENAIS, allEntries = true)
+    public TransferenciaCustodiadosResponseDTO transferirCustodiados(TransferenciaCustodiadosRequestDTO requestDTO) {
+        Set<Long> ids = new LinkedHashSet<>(requestDTO.getCustodiadoIds());
+        log.info("Transferindo {} custodiados para a unidade penal {}", ids.size(), requestDTO.getUnidadePenalDestinoId());
+
+        UnidadePenal destino = unidadePenalRepository.findById(requestDTO.getUnidadePenalDestinoId())
+                .orElseThrow(() -> new RecursoNaoEncontradoException(UNIDADE_PENAL_NOT_FOUND + requestDTO.getUnidadePenalDestinoId()));
+
+        List<Custodiado> custodiados = custodiadoRepository.findAllComPessoaEUnidadeByIdIn(ids);
+        if (custodiados.size() < ids.size()) {
+            Set<Long> ausentes = new LinkedHashSet<>(ids);
+            custodiados.forEach(c -> ausentes.remove(c.getId()));
+            throw new RecursoNaoEncontradoException("Custodiados não encontrados com IDs: " + ausentes);
+        }
+
+        // Custodiados que já estão no destino não ocupam nova vaga
+        Map<Long, Integer> saidasPorUnidade = new TreeMap<>();
+        Map<Long, UnidadePenal> origens = new HashMap<>();
+        List<Custodiado> transferidos = new ArrayList<>(custodiados.size());
+        for (Custodiado custodiado : custodiados) {
+            Long origemId = custodiado.getUnidadePenal().getId();
+            if (!origemId.equals(destino.getId())) {
+                saidasPorUnidade.merge(origemId, 1, Integer::sum);
+                origens.putIfAbsent(origemId, custodiado.getUnidadePenal());
+                transferidos.add(custodiado);
+            }
+        }
+
+        int agendamentosCancelados = 0;
+        if (!transferidos.isEmpty()) {
+            vagasUnidades.transferir(saidasPorUnidade, destino, transferidos.size());
+            transferidos.forEach(c -> c.setUnidadePenal(destino));
+            custodiadoRepository.saveAll(transferidos);
+            agendamentosCancelados = cancelarAgendamentosForaDasRegras(
+                    transferidos.stream().map(Custodiado::getId).toList(), destino);
+
+            // Os agendamentos mantidos passam a ocupar as salas e a contar nas cotas do destino
+            LocalDate hoje = LocalDate.now();
+            origens.values().forEach(origem -> {
+                ocupacaoSalas.recalcular(origem, hoje);
+                cotasVisitantes.recalcular(origem, hoje);
+            });
+            ocupacaoSalas.recalcular(destino, hoje);
+            cotasVisitantes.recalcular(destino, hoje);
+
+            List<String> versoes = new ArrayList<>();
+            saidasPorUnidade.keySet().forEach(origemId -> versoes.add(RegistroVersoes.custodiadosDaUnidade(origemId)));
+            versoes.add(RegistroVersoes.custodiadosDaUnidade(destino.getId()));
+            versoes.add(RegistroVersoes.CADASTROS);
+            registroVersoes.registrarAlteracao(versoes.toArray(String[]::new));
+        }
+
+        log.info("{} custodiados transferidos para a unidade penal {}; {} agendamentos cancelados",
+                transferidos.size(), destino.getId(), agendamentosCancelados);
+        return new TransferenciaCustodiadosResponseDTO(
+                custodiados.stream().map(custodiadoMapper::paraDTO).toList(),
+                agendamentosCancelados);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.UNIDADES_PENAIS, allEntries = true)
+    public void excluirCustodiado(Long id) {
+        log.info("Excluindo custodiado com ID: {}", id);
+
+        Custodiado custodiado = custodiadoRepository.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Custodiado não encontrado com ID: " + id));
+
+        if (agendamentoRepository.existsByCustodiadoId(id) || solicitacaoVisitaRepository.existsByCustodiadoId(id)) {
+            log.warn("Tentativa de excluir custodiado com histórico de visitas. ID: {}", id);
+            throw new OperacaoInvalidaException(
+                    "Não é possível excluir este custodiado pois ele possui agendamentos ou solicitações de visita.");
+        }
+
+        Long unidadePenalId = custodiado.getUnidadePenal().getId();
+        custodiadoRepository.delete(custodiado);
+        vagasUnidades.liberar(unidadePenalId, 1);
+        registroVersoes.registrarAlteracao(
+                RegistroVersoes.custodiadosDaUnidade(unidadePenalId), RegistroVersoes.CADASTROS);
+
+        log.info("Custodiado excluído com sucesso. ID: {}", id);
     }
 
     @Override
@@ -114,7 +268,7 @@ public class CustodiadoServiceImpl implements CustodiadoService {
     public PageResponseDTO<CustodiadoResponseDTO> listarCustodiadosPaginados(Pageable pageable) {
         log.info("Listando custodiados com paginação");
         return new PageResponseDTO<>(custodiadoRepository.findAll(pageable)
-                .map(CustodiadoResponseDTO::new));
+                .map(custodiadoMapper::paraDTO));
     }
 
     @Override
@@ -122,7 +276,7 @@ public class CustodiadoServiceImpl implements CustodiadoService {
     public List<CustodiadoResponseDTO> listarCustodiados() {
         log.info("Listando todos os custodiados");
         return custodiadoRepository.findAll().stream()
-                .map(CustodiadoResponseDTO::new)
+                .map(custodiadoMapper::paraDTO)
                 .toList();
     }
 
@@ -132,7 +286,7 @@ public class CustodiadoServiceImpl implements CustodiadoService {
         log.info("Buscando custodiado por ID: {}", id);
         Custodiado custodiado = custodiadoRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Custodiado não encontrado com ID: " + id));
-        return new CustodiadoResponseDTO(custodiado);
+        return custodiadoMapper.paraDTO(custodiado);
     }
 
     @Override
@@ -141,15 +295,21 @@ public class CustodiadoServiceImpl implements CustodiadoService {
         log.info("Buscando custodiado por número de prontuário: {}", numeroProntuario);
         Custodiado custodiado = custodiadoRepository.findByNumeroProntuario(numeroProntuario)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Custodiado não encontrado com prontuário: " + numeroProntuario));
-        return new CustodiadoResponseDTO(custodiado);
+        return custodiadoMapper.paraDTO(custodiado);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponseDTO<CustodiadoResponseDTO> buscarPorNome(String nome, Pageable pageable) {
         log.info("Buscando custodiados por nome contendo: {}", nome);
-        return new PageResponseDTO<>(custodiadoRepository.findByNomeContainingIgnoreCase(nome, pageable)
-                .map(CustodiadoResponseDTO::new));
+        String termo = NormalizadorTexto.normalizar(nome);
+        Optional<List<Long>> pessoaIds = indiceNomes.buscarPessoas(termo);
+        Page<Custodiado> pagina = pessoaIds
+                .map(ids -> ids.isEmpty()
+                        ? Page.<Custodiado>empty(pageable)
+                        : custodiadoRepository.findByPessoaIdInAndNomeContaining(ids, termo, pageable))
+                .orElseGet(() -> custodiadoRepository.findByNomeContainingIgnoreCase(termo, pageable));
+        return new PageResponseDTO<>(pagina.map(custodiadoMapper::paraDTO));
     }
 
     @Override
@@ -162,14 +322,66 @@ public class CustodiadoServiceImpl implements CustodiadoService {
         }
 
         return new PageResponseDTO<>(custodiadoRepository.findByUnidadePenalId(unidadePenalId, pageable)
-                .map(CustodiadoResponseDTO::new));
+                .map(custodiadoMapper::paraDTO));
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponseDTO<CustodiadoResponseDTO> buscarPorVulgo(String vulgo, Pageable pageable) {
         log.info("Buscando custodiados por vulgo contendo: {}", vulgo);
-        return new PageResponseDTO<>(custodiadoRepository.findByVulgoContainingIgnoreCase(vulgo, pageable)
-                .map(CustodiadoResponseDTO::new));
+        Optional<List<Long>> custodiadoIds = indiceNomes.buscarVulgos(vulgo);
+        Page<Custodiado> pagina = custodiadoIds
+                .map(ids -> ids.isEmpty()
+                        ? Page.<Custodiado>empty(pageable)
+                        : custodiadoRepository.findByIdInAndVulgoContaining(ids, vulgo, pageable))
+                .orElseGet(() -> custodiadoRepository.findByVulgoContainingIgnoreCase(vulgo, pageable));
+        return new PageResponseDTO<>(pagina.map(custodiadoMapper::paraDTO));
+    }
+
+    /**
+     * Cancela os agendamentos futuros dos custodiados transferidos que não respeitam as
+     * regras de visita da unidade de destino. A verificação é feita no banco, em duas
+     * consultas independentes da quantidade de agendamentos: a dos dias afetados, usada
+     * para invalidar as listagens diárias, e o UPDATE que cancela todos de uma vez.
+     *
+     * @param custodiadoIds IDs dos custodiados transferidos
+     * @param destino Unidade penal de destino
+     * @return Quantidade de agendamentos cancelados
+     */
+    private int cancelarAgendamentosForaDasRegras(Collection<Long> custodiadoIds, UnidadePenal destino) {
+        if (!destino.possuiRegrasVisita()) {
+            return 0;
+        }
+
+        List<Long> statusAtivosIds = List.of(buscarStatus(STATUS_AGENDADO).getId(), buscarStatus(STATUS_CONFIRMADO).getId());
+        Set<DayOfWeek> dias = destino.getDiasVisita() == null || destino.getDiasVisita().isEmpty()
+                ? EnumSet.allOf(DayOfWeek.class)
+                : destino.getDiasVisita();
+        // O HQL numera os dias de 1 (domingo) a 7 (sábado)
+        List<Integer> diasPermitidos = dias.stream().map(dia -> dia.getValue() % 7 + 1).toList();
+        LocalTime inicio = Objects.requireNonNullElse(destino.getHorarioInicioVisita(), LocalTime.MIN);
+        LocalTime fim = Objects.requireNonNullElse(destino.getHorarioFimVisita(), LocalTime.MAX);
+        LocalDateTime agora = LocalDateTime.now();
+
+        List<LocalDate> diasAfetados = agendamentoRepository.findDiasForaDasRegrasDaUnidade(
+                custodiadoIds, statusAtivosIds, agora, diasPermitidos, inicio, fim);
+        if (diasAfetados.isEmpty()) {
+            return 0;
+        }
+
+        int cancelados = agendamentoRepository.cancelarForaDasRegrasDaUnidade(
+                buscarStatus(STATUS_CANCELADO), MOTIVO_FORA_DAS_REGRAS,
+                custodiadoIds, statusAtivosIds, agora, diasPermitidos, inicio, fim);
+        registroVersoes.registrarAlteracao(diasAfetados.stream()
+                .map(RegistroVersoes::agendamentosDoDia)
+                .toArray(String[]::new));
+        log.info("{} agendamentos cancelados por não respeitarem as regras de visita da unidade penal {}",
+                cancelados, destino.getId());
+        return cancelados;
+    }
+
+    private Status buscarStatus(String descricao) {
+        return statusRepository.findByDescricaoIgnoreCase(descricao)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Status " + descricao + " não encontrado"));
     }
 }
@@ -0,0 +1,152 @@
+package gov.df.seape.sistema.visitas.service.impl;
+
+import gov.df.seape.sistema.visitas.dto.CandidatoDuplicidadeDTO;
+import gov.df.seape.sistema.visitas.dto.RelatorioDuplicidadeDTO;
+import gov.df.seape.sistema.visitas.service.DeduplicacaoPessoaService;
+import gov.df.seape.sistema.visitas.util.SimilaridadeTexto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implementação da identificação de pessoas duplicadas.
+ *
+ * As pessoas são lidas uma única vez, ordenadas pelo índice de chave fonética e data de
+ * nascimento, e agrupadas em blocos com os mesmos valores. Apenas pessoas do mesmo bloco
+ * são comparadas entre si, de modo que o custo cresce com o número de pessoas e não com
+ * o número de pares possíveis. Os blocos são pontuados em paralelo.
+ */
+@Service
+@Slf4j
+public class DeduplicacaoPessoaServiceImpl implements DeduplicacaoPessoaService {
+
+    private static final String SQL_PESSOAS =
+            "SELECT id, nome, nome_busca, cpf, data_nascimento, chave_fonetica FROM pessoa "
+                    + "WHERE chave_fonetica IS NOT NULL AND chave_fonetica <> '' "
+                    + "ORDER BY chave_fonetica, data_nascimento, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double similaridadeMinima;
+    private final int tamanhoMaximoBloco;
+
+    public DeduplicacaoPessoaServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            @Value("${pessoas.duplicidade.similaridade-minima:0.9}") double similaridadeMinima,
+            @Value("${pessoas.duplicidade.tamanho-maximo-bloco:500}") int tamanhoMaximoBloco) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.similaridadeMinima = similaridadeMinima;
+        this.tamanhoMaximoBloco = tamanhoMaximoBloco;
+    }
+
+    private record PessoaResumo(Long id, String nome, String nomeBusca, String cpf, LocalDate dataNascimento) {
+    }
+
+    @Override
+    public RelatorioDuplicidadeDTO gerarRelatorio() {
+        long inicio = System.currentTimeMillis();
+        AgrupadorBlocos agrupador = new AgrupadorBlocos();
+        jdbcTemplate.query(SQL_PESSOAS, agrupador);
+        agrupador.fecharBloco();
+
+        long comparacoes = 0;
+        for (List<PessoaResumo> bloco : agrupador.blocos) {
+            comparacoes += (long) bloco.size() * (bloco.size() - 1) / 2;
+        }
+
+        List<CandidatoDuplicidadeDTO> candidatos = agrupador.blocos.parallelStream()
+                .flatMap(bloco -> compararBloco(bloco).stream())
+                .sorted(Comparator.comparingDouble(CandidatoDuplicidadeDTO::getSimilaridade).reversed()
+                        .thenComparing(CandidatoDuplicidadeDTO::getPessoaId))
+                .toList();
+
+        log.info("Relatório de duplicidade gerado em {} ms: {} pessoas, {} blocos, {} comparações, {} candidatos",
+                System.currentTimeMillis() - inicio, agrupador.pessoas, agrupador.blocos.size(),
+                comparacoes, candidatos.size());
+        return new RelatorioDuplicidadeDTO(LocalDateTime.now(), agrupador.pessoas, agrupador.blocos.size(),
+                agrupador.blocosIgnorados, comparacoes, candidatos);
+    }
+
+    /**
+     * Gera o relatório periodicamente quando a propriedade
+     * {@code pessoas.duplicidade.cron} é definida.
+     */
+    @Scheduled(cron = "${pessoas.duplicidade.cron:-}")
+    public void gerarRelatorioAgendado() {
+        RelatorioDuplicidadeDTO relatorio = gerarRelatorio();
+        for (CandidatoDuplicidadeDTO candidato : relatorio.getCandidatos()) {
+            log.info("Possível duplicidade: pessoa {} ({}) e pessoa {} ({}), similaridade {}",
+                    candidato.getPessoaId(), candidato.getNome(),
+                    candidato.getOutraPessoaId(), candidato.getOutroNome(), candidato.getSimilaridade());
+        }
+    }
+
+    private List<CandidatoDuplicidadeDTO> compararBloco(List<PessoaResumo> bloco) {
+        List<CandidatoDuplicidadeDTO> candidatos = new ArrayList<>();
+        for (int i = 0; i < bloco.size(); i++) {
+            PessoaResumo a = bloco.get(i);
+            for (int j = i + 1; j < bloco.size(); j++) {
+                PessoaResumo b = bloco.get(j);
+                double similaridade = SimilaridadeTexto.jaroWinkler(a.nomeBusca(), b.nomeBusca());
+                if (similaridade >= similaridadeMinima) {
+                    candidatos.add(new CandidatoDuplicidadeDTO(a.id(), a.nome(), a.cpf(),
+                            b.id(), b.nome(), b.cpf(), a.dataNascimento(),
+                            Math.round(similaridade * 1000) / 1000.0));
+                }
+            }
+        }
+        return candidatos;
+    }
+
+    /**
+     * Agrupa as linhas consecutivas com a mesma chave fonética e data de nascimento.
+     * Somente blocos com mais de uma pessoa são mantidos em memória.
+     */
+    private final class AgrupadorBlocos implements RowCallbackHandler {
+
+        private final List<List<PessoaResumo>> blocos = new ArrayList<>();
+        private List<PessoaResumo> atual = new ArrayList<>();
+        private String chaveAtual;
+        private LocalDate dataAtual;
+        private long pessoas;
+        private int blocosIgnorados;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String chave = rs.getString("chave_fonetica");
+            Date data = rs.getDate("data_nascimento");
+            LocalDate dataNascimento = data == null ? null : data.toLocalDate();
+            if (!chave.equals(chaveAtual) || !Objects.equals(dataNascimento, dataAtual)) {
+                fecharBloco();
+                chaveAtual = chave;
+                dataAtual = dataNascimento;
+            }
+            atual.add(new PessoaResumo(rs.getLong("id"), rs.getString("nome"), rs.getString("nome_busca"),
+                    rs.getString("cpf"), dataNascimento));
+            pessoas++;
+        }
+
+        void fecharBloco() {
+            if (atual.size() > tamanhoMaximoBloco) {
+                blocosIgnorados++;
+                log.warn("Bloco de duplicidade com chave '{}' e nascimento {} ignorado: {} pessoas",
+                        chaveAtual, dataAtual, atual.size());
+            } else if (atual.size() > 1) {
+                blocos.add(atual);
+            }
+            atual = new ArrayList<>();
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package gov.df.seape.sistema.visitas.service.impl;
 
+import gov.df.seape.sistema.visitas.config.CacheConfig;
 import gov.df.seape.sistema.visitas.dto.FuncionalidadeRequestDTO;
 import gov.df.seape.sistema.visitas.dto.FuncionalidadeResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.FuncionalidadeMapper;
 import gov.df.seape.sistema.visitas.model.Funcionalidade;
 import gov.df.seape.sistema.visitas.repository.FuncionalidadeRepository;
+import gov.df.seape.sistema.visitas.security.AvaliadorPermissoes;
 import gov.df.seape.sistema.visitas.service.FuncionalidadeService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,6 +36,9 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
     private static final String FUNC_NAO_ENCONTRADA = "Funcionalidade não encontrada com ID: ";
 
     private final FuncionalidadeRepository funcionalidadeRepository;
+    private final AvaliadorPermissoes avaliadorPermissoes;
+    private final RegistroVersoes registroVersoes;
+    private final FuncionalidadeMapper funcionalidadeMapper;
 
     // Lista de funcionalidades essenciais do sistema
     private static final List<String> FUNCIONALIDADES_SISTEMA = Arrays.asList(
@@ -53,7 +62,9 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.FUNCIONALIDADES, allEntries = true)
     public FuncionalidadeResponseDTO criarFuncionalidade(FuncionalidadeRequestDTO requestDTO) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Criando nova funcionalidade: {}", requestDTO.getDescricao());
 
         // Verificar se já existe funcionalidade com esta descrição
@@ -75,12 +86,14 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
         funcionalidade = funcionalidadeRepository.save(funcionalidade);
         log.info("Funcionalidade criada com sucesso. ID: {}", funcionalidade.getId());
 
-        return new FuncionalidadeResponseDTO(funcionalidade);
+        return funcionalidadeMapper.paraDTO(funcionalidade);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FUNCIONALIDADES, CacheConfig.PERFIS}, allEntries = true)
     public FuncionalidadeResponseDTO atualizarFuncionalidade(Long id, FuncionalidadeRequestDTO requestDTO) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Atualizando funcionalidade com ID: {}", id);
 
         Funcionalidade funcionalidade = funcionalidadeRepository.findById(id)
@@ -114,9 +127,10 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
         funcionalidade.setAuthority(requestDTO.getAuthority());
 
         funcionalidade = funcionalidadeRepository.save(funcionalidade);
+        avaliadorPermissoes.invalidarTudo();
         log.info("Funcionalidade atualizada com sucesso. ID: {}", funcionalidade.getId());
 
-        return new FuncionalidadeResponseDTO(funcionalidade);
+        return funcionalidadeMapper.paraDTO(funcionalidade);
     }
 
     @Override
@@ -125,18 +139,19 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
         log.info("Listando funcionalidades com paginação");
         Page<Funcionalidade> pagina = funcionalidadeRepository.findAll(pageable);
 
-        Page<FuncionalidadeResponseDTO> paginaDTO = pagina.map(FuncionalidadeResponseDTO::new);
+        Page<FuncionalidadeResponseDTO> paginaDTO = pagina.map(funcionalidadeMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.FUNCIONALIDADES, key = "'todas'")
     public List<FuncionalidadeResponseDTO> listarFuncionalidades() {
         log.info("Listando todas as funcionalidades");
         List<Funcionalidade> funcionalidades = funcionalidadeRepository.findAllOrderByDescricao();
 
         return funcionalidades.stream()
-                .map(FuncionalidadeResponseDTO::new)
+                .map(funcionalidadeMapper::paraDTO)
                 .toList();
     }
 
@@ -147,7 +162,7 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
         Funcionalidade funcionalidade = funcionalidadeRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException(FUNC_NAO_ENCONTRADA + id));
 
-        return new FuncionalidadeResponseDTO(funcionalidade);
+        return funcionalidadeMapper.paraDTO(funcionalidade);
     }
 
     @Override
@@ -156,7 +171,7 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
         log.info("Buscando funcionalidades por descrição contendo: {}", descricao);
         Page<Funcionalidade> pagina = funcionalidadeRepository.findByDescricaoContainingIgnoreCase(descricao, pageable);
 
-        Page<FuncionalidadeResponseDTO> paginaDTO = pagina.map(FuncionalidadeResponseDTO::new);
+        Page<FuncionalidadeResponseDTO> paginaDTO = pagina.map(funcionalidadeMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -168,7 +183,7 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
         // Em vez de usar Specification, utilize o método customizado no repositório:
         Page<Funcionalidade> pagina = funcionalidadeRepository.findByAuthorityContainingIgnoreCase(authority, pageable);
 
-        Page<FuncionalidadeResponseDTO> paginaDTO = pagina.map(FuncionalidadeResponseDTO::new);
+        Page<FuncionalidadeResponseDTO> paginaDTO = pagina.map(funcionalidadeMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -179,7 +194,7 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
         List<Funcionalidade> funcionalidades = funcionalidadeRepository.findByPerfilId(perfilId);
 
         return funcionalidades.stream()
-                .map(FuncionalidadeResponseDTO::new)
+                .map(funcionalidadeMapper::paraDTO)
                 .toList();
     }
 
@@ -190,7 +205,7 @@ public class FuncionalidadeServiceImpl implements FuncionalidadeService {
         List<Funcionalidade> funcionalidades = funcionalidadeRepository.findNotInPerfil(perfilId);
 
         return funcionalidades.stream()
-                .map(FuncionalidadeResponseDTO::new)
+                .map(funcionalidadeMapper::paraDTO)
                 .toList();
     }
 }
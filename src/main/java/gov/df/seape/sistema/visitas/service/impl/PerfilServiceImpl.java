@@ -1,16 +1,22 @@
 package gov.df.seape.sistema.visitas.service.impl;
 
+import gov.df.seape.sistema.visitas.config.CacheConfig;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PerfilRequestDTO;
 import gov.df.seape.sistema.visitas.dto.PerfilResponseDTO;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.PerfilMapper;
 import gov.df.seape.sistema.visitas.model.Funcionalidade;
 import gov.df.seape.sistema.visitas.model.Perfil;
 import gov.df.seape.sistema.visitas.repository.FuncionalidadeRepository;
 import gov.df.seape.sistema.visitas.repository.PerfilRepository;
+import gov.df.seape.sistema.visitas.security.AvaliadorPermissoes;
 import gov.df.seape.sistema.visitas.service.PerfilService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,6 +36,9 @@ public class PerfilServiceImpl implements PerfilService {
 
     private final PerfilRepository perfilRepository;
     private final FuncionalidadeRepository funcionalidadeRepository;
+    private final AvaliadorPermissoes avaliadorPermissoes;
+    private final RegistroVersoes registroVersoes;
+    private final PerfilMapper perfilMapper;
 
     /**
      * Criar um novo perfil.
@@ -39,7 +48,9 @@ public class PerfilServiceImpl implements PerfilService {
      */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PERFIS, allEntries = true)
     public PerfilResponseDTO criarPerfil(PerfilRequestDTO requestDTO) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Criando novo perfil: {}", requestDTO.getDescricao());
     
         Perfil perfil = new Perfil();
@@ -47,7 +58,7 @@ public class PerfilServiceImpl implements PerfilService {
         perfil = perfilRepository.save(perfil);
     
         log.info("Perfil criado com sucesso. ID: {}", perfil.getId());
-        return new PerfilResponseDTO(perfil);
+        return perfilMapper.paraDTO(perfil);
     }
 
     /**
@@ -59,7 +70,9 @@ public class PerfilServiceImpl implements PerfilService {
      */
     @Override
 @Transactional
+@CacheEvict(cacheNames = CacheConfig.PERFIS, allEntries = true)
 public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
+    registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
     log.info("Atualizando perfil com ID: {}", id);
 
     // Usar a constante PERFIL_NAO_ENCONTRADO em vez de string literal
@@ -70,7 +83,7 @@ public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
     perfil = perfilRepository.save(perfil);
 
     log.info("Perfil atualizado com sucesso. ID: {}", perfil.getId());
-    return convertToDTO(perfil);
+    return perfilMapper.paraDTO(perfil);
 } 
     /**
      * Buscar todos os perfis com paginação.
@@ -83,7 +96,7 @@ public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
     public PageResponseDTO<PerfilResponseDTO> listarPerfisPaginados(Pageable pageable) {
         log.info("Listando perfis com paginação");
         Page<Perfil> pagina = perfilRepository.findAll(pageable);
-        Page<PerfilResponseDTO> paginaDTO = pagina.map(this::convertToDTO);
+        Page<PerfilResponseDTO> paginaDTO = pagina.map(perfilMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -94,11 +107,12 @@ public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
      */
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PERFIS, key = "'todos'")
     public List<PerfilResponseDTO> listarPerfis() {
         log.info("Listando todos os perfis");
         List<Perfil> perfis = perfilRepository.findAllOrderByDescricao();
         return perfis.stream()
-                .map(this::convertToDTO)
+                .map(perfilMapper::paraDTO)
                 .toList();
     }
 
@@ -116,7 +130,7 @@ public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
         Perfil perfil = perfilRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException(PERFIL_NAO_ENCONTRADO + id));
 
-        return convertToDTO(perfil);
+        return perfilMapper.paraDTO(perfil);
     }
 
     /**
@@ -132,7 +146,7 @@ public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
         log.info("Buscando perfis por descrição contendo: {}", descricao);
 
         Page<Perfil> pagina = perfilRepository.findByDescricaoContainingIgnoreCase(descricao, pageable);
-        Page<PerfilResponseDTO> paginaDTO = pagina.map(this::convertToDTO);
+        Page<PerfilResponseDTO> paginaDTO = pagina.map(perfilMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -145,7 +159,9 @@ public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
      */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PERFIS, allEntries = true)
     public PerfilResponseDTO adicionarFuncionalidades(Long perfilId, List<Long> funcionalidadeIds) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Adicionando funcionalidades ao perfil com ID: {}", perfilId);
 
         Perfil perfil = perfilRepository.findById(perfilId)
@@ -157,9 +173,10 @@ public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
             perfil.adicionarFuncionalidade(funcionalidade);
         }
         perfil = perfilRepository.save(perfil);
+        avaliadorPermissoes.invalidarPerfil(perfil.getId());
 
         log.info("Funcionalidades adicionadas com sucesso ao perfil com ID: {}", perfil.getId());
-        return convertToDTO(perfil);
+        return perfilMapper.paraDTO(perfil);
     }
 
     /**
@@ -171,7 +188,9 @@ public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
      */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PERFIS, allEntries = true)
     public PerfilResponseDTO removerFuncionalidades(Long perfilId, List<Long> funcionalidadeIds) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Removendo funcionalidades do perfil com ID: {}", perfilId);
 
         Perfil perfil = perfilRepository.findById(perfilId)
@@ -180,23 +199,9 @@ public PerfilResponseDTO atualizarPerfil(Long id, PerfilRequestDTO requestDTO) {
         // Remove os vínculos que possuam os IDs de funcionalidades informados
         perfil.getVinculos().removeIf(vinculo -> funcionalidadeIds.contains(vinculo.getFuncionalidade().getId()));
         perfil = perfilRepository.save(perfil);
+        avaliadorPermissoes.invalidarPerfil(perfil.getId());
 
         log.info("Funcionalidades removidas com sucesso do perfil com ID: {}", perfil.getId());
-        return convertToDTO(perfil);
-    }
-
-    /**
-     * Método auxiliar para converter a entidade Perfil em PerfilResponseDTO.
-     * Como Perfil possui apenas a propriedade "descricao", mapeamos "nome" do DTO para "descricao".
-     * Os demais campos (CPF, dataNascimento, idade) são deixados em branco (null).
-     *
-     * @param perfil A entidade Perfil a ser convertida
-     * @return Objeto PerfilResponseDTO preenchido
-     */
-    private PerfilResponseDTO convertToDTO(Perfil perfil) {
-        PerfilResponseDTO dto = new PerfilResponseDTO();
-        dto.setId(perfil.getId());
-        dto.setDescricao(perfil.getDescricao()); 
-        return dto;
+        return perfilMapper.paraDTO(perfil);
     }
 }
@@ -1,16 +1,20 @@
 package gov.df.seape.sistema.visitas.service.impl;
 
+import gov.df.seape.sistema.visitas.busca.IndiceNomes;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PessoaRequestDTO;
 import gov.df.seape.sistema.visitas.dto.PessoaResponseDTO;
 import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.PessoaMapper;
 import gov.df.seape.sistema.visitas.model.Pessoa;
 import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
 import gov.df.seape.sistema.visitas.repository.PessoaRepository;
 import gov.df.seape.sistema.visitas.repository.UsuarioRepository;
 import gov.df.seape.sistema.visitas.repository.VisitanteRepository;
 import gov.df.seape.sistema.visitas.service.PessoaService;
+import gov.df.seape.sistema.visitas.util.NormalizadorTexto;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -18,7 +22,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
-import java.time.Period;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +34,9 @@ public class PessoaServiceImpl implements PessoaService {
     private final CustodiadoRepository custodiadoRepository;
     private final VisitanteRepository visitanteRepository;
     private final UsuarioRepository usuarioRepository;
+    private final IndiceNomes indiceNomes;
+    private final RegistroVersoes registroVersoes;
+    private final PessoaMapper pessoaMapper;
 
     @Override
     @Transactional
@@ -50,7 +56,7 @@ public class PessoaServiceImpl implements PessoaService {
         pessoa = pessoaRepository.save(pessoa);
         log.info("Pessoa criada com sucesso. ID: {}", pessoa.getId());
 
-        return convertToPessoaResponseDTO(pessoa);
+        return pessoaMapper.paraDTO(pessoa);
     }
 
     @Override
@@ -75,9 +81,10 @@ public class PessoaServiceImpl implements PessoaService {
         pessoa.setDataNascimento(pessoaRequestDTO.getDataNascimento());
 
         pessoa = pessoaRepository.save(pessoa);
+        registroVersoes.registrarAlteracao(RegistroVersoes.PESSOAS);
         log.info("Pessoa atualizada com sucesso. ID: {}", pessoa.getId());
 
-        return convertToPessoaResponseDTO(pessoa);
+        return pessoaMapper.paraDTO(pessoa);
     }
 
     @Override
@@ -85,7 +92,7 @@ public class PessoaServiceImpl implements PessoaService {
     public Optional<PessoaResponseDTO> buscarPessoaPorId(Long id) {
         log.info("Buscando pessoa por ID: {}", id);
         return pessoaRepository.findById(id)
-                .map(this::convertToPessoaResponseDTO);
+                .map(pessoaMapper::paraDTO);
     }
 
     @Override
@@ -93,7 +100,7 @@ public class PessoaServiceImpl implements PessoaService {
     public Optional<PessoaResponseDTO> buscarPessoaPorCpf(String cpf) {
         log.info("Buscando pessoa por CPF: {}", cpf);
         return pessoaRepository.findByCpf(cpf)
-                .map(this::convertToPessoaResponseDTO);
+                .map(pessoaMapper::paraDTO);
     }
 
     @Override
@@ -101,7 +108,7 @@ public class PessoaServiceImpl implements PessoaService {
     public List<PessoaResponseDTO> listarTodasPessoas() {
         log.info("Listando todas as pessoas");
         return pessoaRepository.findAll().stream()
-                .map(this::convertToPessoaResponseDTO)
+                .map(pessoaMapper::paraDTO)
                 .toList();
     }
 
@@ -110,7 +117,7 @@ public class PessoaServiceImpl implements PessoaService {
     public PageResponseDTO<PessoaResponseDTO> listarPessoasPaginado(Pageable pageable) {
         log.info("Listando pessoas com paginação");
         Page<Pessoa> pagina = pessoaRepository.findAll(pageable);
-        return new PageResponseDTO<>(pagina.map(this::convertToPessoaResponseDTO));
+        return new PageResponseDTO<>(pagina.map(pessoaMapper::paraDTO));
     }
 
     @Override
@@ -142,9 +149,15 @@ public class PessoaServiceImpl implements PessoaService {
     @Transactional(readOnly = true)
     public List<PessoaResponseDTO> buscarPessoaPorNome(String nome) {
         log.info("Buscando pessoas por nome: {}", nome);
-        // Supondo que o repositório possua um método que retorne List<Pessoa>
-        return pessoaRepository.findByNomeContainingIgnoreCase(nome).stream()
-                .map(this::convertToPessoaResponseDTO)
+        String termo = NormalizadorTexto.normalizar(nome);
+        Optional<List<Long>> pessoaIds = indiceNomes.buscarPessoas(termo);
+        List<Pessoa> pessoas = pessoaIds
+                .map(ids -> ids.isEmpty()
+                        ? List.<Pessoa>of()
+                        : pessoaRepository.findByIdInAndNomeContaining(ids, termo, Pageable.unpaged()).getContent())
+                .orElseGet(() -> pessoaRepository.findByNomeContainingIgnoreCase(termo));
+        return pessoas.stream()
+                .map(pessoaMapper::paraDTO)
                 .toList();
     }
 
@@ -154,7 +167,7 @@ public class PessoaServiceImpl implements PessoaService {
         log.info("Buscando pessoas por intervalo de data de nascimento entre {} e {}", dataInicio, dataFim);
         // Supondo que o repositório possua um método que retorne List<Pessoa>
         return pessoaRepository.findByDataNascimentoBetween(dataInicio, dataFim).stream()
-                .map(this::convertToPessoaResponseDTO)
+                .map(pessoaMapper::paraDTO)
                 .toList();
     }
 
@@ -162,23 +175,13 @@ public class PessoaServiceImpl implements PessoaService {
     @Transactional(readOnly = true)
     public PageResponseDTO<PessoaResponseDTO> buscarPessoasPorNome(String nome, Pageable pageable) {
         log.info("Buscando pessoas por nome com paginação: {}", nome);
-        Page<Pessoa> pagina = pessoaRepository.findByNomeContainingIgnoreCase(nome, pageable);
-        return new PageResponseDTO<>(pagina.map(this::convertToPessoaResponseDTO));
-    }
-
-    /**
-     * Converte a entidade Pessoa para PessoaResponseDTO.
-     */
-    private PessoaResponseDTO convertToPessoaResponseDTO(Pessoa pessoa) {
-        PessoaResponseDTO dto = new PessoaResponseDTO();
-        dto.setId(pessoa.getId());
-        dto.setNome(pessoa.getNome());
-        dto.setCpf(pessoa.getCpf());
-        dto.setDataNascimento(pessoa.getDataNascimento());
-        if (pessoa.getDataNascimento() != null) {
-            int idade = Period.between(pessoa.getDataNascimento(), LocalDate.now()).getYears();
-            dto.setIdade(idade);
-        }
-        return dto;
+        String termo = NormalizadorTexto.normalizar(nome);
+        Optional<List<Long>> pessoaIds = indiceNomes.buscarPessoas(termo);
+        Page<Pessoa> pagina = pessoaIds
+                .map(ids -> ids.isEmpty()
+                        ? Page.<Pessoa>empty(pageable)
+                        : pessoaRepository.findByIdInAndNomeContaining(ids, termo, pageable))
+                .orElseGet(() -> pessoaRepository.findByNomeContainingIgnoreCase(termo, pageable));
+        return new PageResponseDTO<>(pagina.map(pessoaMapper::paraDTO));
     }
 }
@@ -0,0 +1,57 @@
+package gov.df.seape.sistema.visitas.service.impl;
+
+import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
+import gov.df.seape.sistema.visitas.security.ListaRevogacaoTokens;
+import gov.df.seape.sistema.visitas.service.RevogacaoTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementação do serviço de revogação de tokens de acesso.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevogacaoTokenServiceImpl implements RevogacaoTokenService {
+
+    private static final String MSG_TOKEN_INVALIDO = "Token inválido, expirado ou já revogado.";
+    private static final String MSG_TOKEN_SEM_IDENTIFICADOR = "O token não possui identificador (jti) para revogação.";
+
+    private final JwtDecoder jwtDecoder;
+    private final OAuth2AuthorizationService authorizationService;
+    private final ListaRevogacaoTokens listaRevogacao;
+
+    @Override
+    @Transactional
+    public void revogarToken(String token) {
+        log.info("Revogando token de acesso");
+
+        Jwt jwt;
+        try {
+            jwt = jwtDecoder.decode(token);
+        } catch (JwtException e) {
+            log.warn("Tentativa de revogar token inválido: {}", e.getMessage());
+            throw new OperacaoInvalidaException(MSG_TOKEN_INVALIDO);
+        }
+
+        if (jwt.getId() == null || jwt.getExpiresAt() == null) {
+            throw new OperacaoInvalidaException(MSG_TOKEN_SEM_IDENTIFICADOR);
+        }
+
+        listaRevogacao.revogar(jwt.getId(), jwt.getExpiresAt());
+
+        OAuth2Authorization autorizacao = authorizationService.findByToken(token, OAuth2TokenType.ACCESS_TOKEN);
+        if (autorizacao != null) {
+            authorizationService.remove(autorizacao);
+        }
+        log.info("Token revogado com sucesso. Sujeito: {}", jwt.getSubject());
+    }
+}
@@ -0,0 +1,380 @@
+package gov.df.seape.sistema.visitas.service.impl;
+
+import gov.df.seape.sistema.visitas.dto.SolicitacaoVisitaRequestDTO;
+import gov.df.seape.sistema.visitas.dto.SolicitacaoVisitaResponseDTO;
+import gov.df.seape.sistema.visitas.exception.HorarioNaoPermitidoException;
+import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
+import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.SolicitacaoVisitaMapper;
+import gov.df.seape.sistema.visitas.model.Custodiado;
+import gov.df.seape.sistema.visitas.model.ModoAlocacao;
+import gov.df.seape.sistema.visitas.model.SituacaoSolicitacao;
+import gov.df.seape.sistema.visitas.model.SolicitacaoVisita;
+import gov.df.seape.sistema.visitas.model.Status;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.model.Visitante;
+import gov.df.seape.sistema.visitas.repository.AgendamentoLoteRepository;
+import gov.df.seape.sistema.visitas.repository.AgendamentoLoteRepository.NovoAgendamento;
+import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
+import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
+import gov.df.seape.sistema.visitas.repository.SolicitacaoVisitaRepository;
+import gov.df.seape.sistema.visitas.repository.StatusRepository;
+import gov.df.seape.sistema.visitas.repository.UnidadePenalRepository;
+import gov.df.seape.sistema.visitas.repository.VisitanteRepository;
+import gov.df.seape.sistema.visitas.service.SolicitacaoVisitaService;
+import gov.df.seape.sistema.visitas.util.ArvoreOcupacao;
+import gov.df.seape.sistema.visitas.util.CalendarioBloqueios;
+import gov.df.seape.sistema.visitas.util.CotasVisitantes;
+import gov.df.seape.sistema.visitas.util.FormatosData;
+import gov.df.seape.sistema.visitas.util.HorarioVisitaUtil;
+import gov.df.seape.sistema.visitas.util.OcupacaoSalas;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementação das solicitações de visita com alocação por sorteio.
+ *
+ * Nas unidades em {@link ModoAlocacao#SORTEIO} as famílias não disputam as vagas no
+ * momento em que a agenda abre: as solicitações de um dia são aceitas até
+ * {@code antecedenciaDias} antes dele e, encerrada a janela, são distribuídas de uma vez.
+ * A ordem de atendimento é um embaralhamento uniforme (Fisher-Yates) com semente
+ * gravada nas solicitações decididas, para que o resultado possa ser reproduzido em
+ * auditoria: as pendentes do dia, em ordem de ID, embaralhadas com essa semente. Cada
+ * solicitação, na ordem sorteada, passa pelas mesmas regras do agendamento direto
+ * (limite diário do custodiado, conflitos de horário do custodiado e do visitante,
+ * cota mensal do visitante) e pela capacidade das salas da unidade ({@link ArvoreOcupacao} do dia).
+ *
+ * O dia inteiro é resolvido com uma consulta dos agendamentos da unidade, uma dos
+ * visitantes envolvidos, um INSERT em lote dos agendamentos e um UPDATE por situação
+ * das solicitações. Cada dia de cada unidade é sorteado em transação própria: a trava
+ * da unidade dura só o sorteio daquele dia, e a falha de um dia não desfaz os demais,
+ * cujas solicitações continuam pendentes para a próxima execução.
+ */
+@Service
+@Slf4j
+public class SolicitacaoVisitaServiceImpl implements SolicitacaoVisitaService {
+
+    private static final String MSG_CUSTODIADO_NAO_ENCONTRADO = "Custodiado não encontrado com ID: ";
+    private static final String MSG_VISITANTE_NAO_ENCONTRADO = "Visitante não encontrado com ID: ";
+    private static final String MSG_HORARIO_NAO_PERMITIDO = "Horário não permitido para visitas. As visitas são permitidas apenas quartas e quintas, das 9h às 15h.";
+    private static final String MSG_HORARIO_NAO_PERMITIDO_UNIDADE = "Horário não permitido para visitas na unidade penal %s.";
+    private static final String MSG_UNIDADE_BLOQUEADA = "A unidade penal %s está bloqueada para visitas nesta data.";
+    private static final String MSG_LIMITE_VISITANTES = "Este custodiado já atingiu o limite de 2 visitantes para este dia.";
+    private static final String MSG_CONFLITO_CUSTODIADO = "Já existe um agendamento para este custodiado próximo a este horário.";
+    private static final String MSG_CONFLITO_VISITANTE = "O visitante já possui outro agendamento próximo a este horário.";
+
+    private static final String STATUS_AGENDADO = "AGENDADO";
+    private static final String STATUS_CANCELADO = "CANCELADO";
+    private static final int LIMITE_VISITAS_POR_DIA = 2;
+
+    private final SolicitacaoVisitaRepository solicitacaoVisitaRepository;
+    private final AgendamentoVisitaRepository agendamentoRepository;
+    private final AgendamentoLoteRepository agendamentoLoteRepository;
+    private final CustodiadoRepository custodiadoRepository;
+    private final VisitanteRepository visitanteRepository;
+    private final UnidadePenalRepository unidadePenalRepository;
+    private final StatusRepository statusRepository;
+    private final HorarioVisitaUtil horarioVisitaUtil;
+    private final CalendarioBloqueios calendarioBloqueios;
+    private final OcupacaoSalas ocupacaoSalas;
+    private final CotasVisitantes cotasVisitantes;
+    private final RegistroVersoes registroVersoes;
+    private final SolicitacaoVisitaMapper solicitacaoVisitaMapper;
+    private final TransactionTemplate transacaoPorDia;
+    private final int antecedenciaDias;
+    private final Random geradorSementes = new SecureRandom();
+
+    public SolicitacaoVisitaServiceImpl(
+            SolicitacaoVisitaRepository solicitacaoVisitaRepository,
+            AgendamentoVisitaRepository agendamentoRepository,
+            AgendamentoLoteRepository agendamentoLoteRepository,
+            CustodiadoRepository custodiadoRepository,
+            VisitanteRepository visitanteRepository,
+            UnidadePenalRepository unidadePenalRepository,
+            StatusRepository statusRepository,
+            HorarioVisitaUtil horarioVisitaUtil,
+            CalendarioBloqueios calendarioBloqueios,
+            OcupacaoSalas ocupacaoSalas,
+            CotasVisitantes cotasVisitantes,
+            RegistroVersoes registroVersoes,
+            SolicitacaoVisitaMapper solicitacaoVisitaMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${agendamentos.sorteio.antecedencia-dias:2}") int antecedenciaDias) {
+        this.solicitacaoVisitaRepository = solicitacaoVisitaRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.agendamentoLoteRepository = agendamentoLoteRepository;
+        this.custodiadoRepository = custodiadoRepository;
+        this.visitanteRepository = visitanteRepository;
+        this.unidadePenalRepository = unidadePenalRepository;
+        this.statusRepository = statusRepository;
+        this.horarioVisitaUtil = horarioVisitaUtil;
+        this.calendarioBloqueios = calendarioBloqueios;
+        this.ocupacaoSalas = ocupacaoSalas;
+        this.cotasVisitantes = cotasVisitantes;
+        this.registroVersoes = registroVersoes;
+        this.solicitacaoVisitaMapper = solicitacaoVisitaMapper;
+        this.transacaoPorDia = new TransactionTemplate(transactionManager);
+        this.transacaoPorDia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.antecedenciaDias = antecedenciaDias;
+    }
+
+    /** Solicitação pendente lida em projeção, sem carregar as entidades. */
+    private record Pendente(Long id, Long custodiadoId, Long visitanteId, LocalDateTime dataHora, String observacoes) {
+    }
+
+    @Override
+    @Transactional
+    public SolicitacaoVisitaResponseDTO criarSolicitacao(SolicitacaoVisitaRequestDTO requestDTO) {
+        log.info("Registrando solicitação de visita para o custodiado ID: {}", requestDTO.getCustodiadoId());
+
+        Custodiado custodiado = custodiadoRepository.findById(requestDTO.getCustodiadoId())
+                .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_CUSTODIADO_NAO_ENCONTRADO + requestDTO.getCustodiadoId()));
+        Visitante visitante = visitanteRepository.findById(requestDTO.getVisitanteId())
+                .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_VISITANTE_NAO_ENCONTRADO + requestDTO.getVisitanteId()));
+
+        UnidadePenal unidadePenal = custodiado.getUnidadePenal();
+        if (unidadePenal.getModoAlocacao() != ModoAlocacao.SORTEIO) {
+            throw new OperacaoInvalidaException("A unidade penal " + unidadePenal.getNome()
+                    + " atende por ordem de chegada. Utilize o agendamento direto.");
+        }
+
+        LocalDateTime dataHora = requestDTO.getDataHoraSolicitada();
+        if (!horarioVisitaUtil.isHorarioPermitido(dataHora)) {
+            throw new HorarioNaoPermitidoException(MSG_HORARIO_NAO_PERMITIDO);
+        }
+        String recusa = recusaPelaUnidade(unidadePenal, dataHora,
+                calendarioBloqueios.estaBloqueada(unidadePenal.getId(), dataHora));
+        if (recusa != null) {
+            throw new HorarioNaoPermitidoException(recusa);
+        }
+        if (!dataHora.toLocalDate().isAfter(ultimoDiaEncerrado())) {
+            throw new OperacaoInvalidaException("As solicitações para " + FormatosData.DATA_HORA.format(dataHora)
+                    + " já foram encerradas. Solicite com ao menos " + (antecedenciaDias + 1) + " dias de antecedência.");
+        }
+        if (solicitacaoVisitaRepository.existsByCustodiadoIdAndVisitanteIdAndDataHoraSolicitadaAndSituacao(
+                custodiado.getId(), visitante.getId(), dataHora, SituacaoSolicitacao.PENDENTE)) {
+            throw new OperacaoInvalidaException("Já existe uma solicitação pendente para este visitante neste horário.");
+        }
+
+        SolicitacaoVisita solicitacao = new SolicitacaoVisita();
+        solicitacao.setCustodiado(custodiado);
+        solicitacao.setVisitante(visitante);
+        solicitacao.setDataHoraSolicitada(dataHora);
+        solicitacao.setObservacoes(requestDTO.getObservacoes());
+        solicitacao = solicitacaoVisitaRepository.save(solicitacao);
+
+        log.info("Solicitação de visita registrada. ID: {}", solicitacao.getId());
+        return solicitacaoVisitaMapper.paraDTO(solicitacao);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SolicitacaoVisitaResponseDTO buscarSolicitacaoPorId(Long id) {
+        return solicitacaoVisitaRepository.findById(id)
+                .map(solicitacaoVisitaMapper::paraDTO)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Solicitação de visita não encontrada com ID: " + id));
+    }
+
+    @Override
+    @Scheduled(cron = "${agendamentos.sorteio.cron:0 0 1 * * *}")
+    public int alocarPendentes() {
+        LocalDateTime limite = ultimoDiaEncerrado().plusDays(1).atStartOfDay();
+        List<Object[]> dias = solicitacaoVisitaRepository.findDiasComSolicitacoes(SituacaoSolicitacao.PENDENTE, limite);
+        if (dias.isEmpty()) {
+            return 0;
+        }
+
+        Long statusAgendadoId = buscarStatus(STATUS_AGENDADO).getId();
+        Long statusCanceladoId = buscarStatus(STATUS_CANCELADO).getId();
+        int criados = 0;
+        for (Object[] dia : dias) {
+            Long unidadePenalId = (Long) dia[0];
+            LocalDate data = (LocalDate) dia[1];
+            try {
+                criados += transacaoPorDia.execute(status ->
+                        alocarDia(unidadePenalId, data, statusAgendadoId, statusCanceladoId));
+            } catch (RuntimeException e) {
+                log.error("Falha no sorteio da unidade penal {} em {}; as solicitações continuam pendentes",
+                        unidadePenalId, data, e);
+            }
+        }
+        return criados;
+    }
+
+    /**
+     * Sorteia as vagas de um dia em uma unidade penal.
+     *
+     * @return Quantidade de agendamentos criados
+     */
+    private int alocarDia(Long unidadePenalId, LocalDate data, Long statusAgendadoId, Long statusCanceladoId) {
+        UnidadePenal unidadePenal = unidadePenalRepository.findById(unidadePenalId)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Unidade penal não encontrada com ID: " + unidadePenalId));
+
+        List<Pendente> pendentes = new ArrayList<>();
+        for (Object[] linha : solicitacaoVisitaRepository.findDoDiaPorUnidade(unidadePenalId,
+                SituacaoSolicitacao.PENDENTE, data.atStartOfDay(), data.atTime(23, 59, 59))) {
+            pendentes.add(new Pendente((Long) linha[0], (Long) linha[1], (Long) linha[2],
+                    (LocalDateTime) linha[3], (String) linha[4]));
+        }
+
+        // Trava a unidade até o commit e confirma no banco os bloqueios que o calendário
+        // em memória ainda não recebeu
+        Set<LocalDateTime> bloqueadas = calendarioBloqueios.confirmarBloqueios(unidadePenalId,
+                pendentes.stream().map(Pendente::dataHora).toList());
+
+        long semente = geradorSementes.nextLong();
+        Collections.shuffle(pendentes, new Random(semente));
+
+        // Situação do dia montada em memória; a margem de uma hora cobre os conflitos
+        LocalDateTime inicio = data.atStartOfDay().minusHours(1);
+        LocalDateTime fim = data.atTime(23, 59, 59).plusHours(1);
+        Map<Long, Integer> visitasPorCustodiado = new HashMap<>();
+        Map<Long, List<LocalDateTime>> ativosPorCustodiado = new HashMap<>();
+        ArvoreOcupacao salasDoDia = new ArvoreOcupacao();
+        for (Object[] linha : agendamentoRepository.findDataHoraEStatusDaUnidadeNoPeriodo(unidadePenalId, inicio, fim)) {
+            Long custodiadoId = (Long) linha[0];
+            LocalDateTime dataHora = (LocalDateTime) linha[1];
+            if (dataHora.toLocalDate().equals(data)) {
+                visitasPorCustodiado.merge(custodiadoId, 1, Integer::sum);
+            }
+            if (!statusCanceladoId.equals(linha[2])) {
+                ativosPorCustodiado.computeIfAbsent(custodiadoId, id -> new ArrayList<>()).add(dataHora);
+                if (dataHora.toLocalDate().equals(data)) {
+                    salasDoDia.adicionar(dataHora.toLocalTime(), unidadePenal.getDuracaoVisitaMinutos(), 1);
+                }
+            }
+        }
+        Set<Long> visitanteIds = pendentes.stream().map(Pendente::visitanteId).collect(Collectors.toSet());
+        Map<Long, List<LocalDateTime>> agendamentosPorVisitante = new HashMap<>();
+        for (Object[] linha : agendamentoRepository.findDataHoraDosVisitantesNoPeriodo(visitanteIds, inicio, fim)) {
+            agendamentosPorVisitante.computeIfAbsent((Long) linha[0], id -> new ArrayList<>()).add((LocalDateTime) linha[1]);
+        }
+        Map<Long, Integer> visitasNoMes = new HashMap<>(cotasVisitantes.visitasNoMes(unidadePenal, data, visitanteIds));
+        Map<Long, Integer> novasVisitasNoMes = new HashMap<>();
+
+        List<NovoAgendamento> novos = new ArrayList<>();
+        List<Long> atendidas = new ArrayList<>();
+        Map<String, List<Long>> recusadasPorMotivo = new LinkedHashMap<>();
+        for (Pendente pendente : pendentes) {
+            List<LocalDateTime> ativosCustodiado = ativosPorCustodiado.computeIfAbsent(pendente.custodiadoId(), id -> new ArrayList<>());
+            List<LocalDateTime> agendamentosVisitante = agendamentosPorVisitante.computeIfAbsent(pendente.visitanteId(), id -> new ArrayList<>());
+
+            String recusa = recusaPelaUnidade(unidadePenal, pendente.dataHora(),
+                    bloqueadas.contains(pendente.dataHora()));
+            if (recusa == null) {
+                recusa = recusaNoSorteio(unidadePenal, pendente, visitasPorCustodiado,
+                        ativosCustodiado, agendamentosVisitante, salasDoDia);
+            }
+            if (recusa == null && unidadePenal.getCotaMensalVisitante() != null
+                    && visitasNoMes.getOrDefault(pendente.visitanteId(), 0) >= unidadePenal.getCotaMensalVisitante()) {
+                recusa = CotasVisitantes.mensagemCotaEsgotada(unidadePenal);
+            }
+            if (recusa != null) {
+                recusadasPorMotivo.computeIfAbsent(recusa, m -> new ArrayList<>()).add(pendente.id());
+                continue;
+            }
+
+            novos.add(new NovoAgendamento(pendente.custodiadoId(), pendente.visitanteId(),
+                    pendente.dataHora(), pendente.observacoes()));
+            atendidas.add(pendente.id());
+            visitasPorCustodiado.merge(pendente.custodiadoId(), 1, Integer::sum);
+            ativosCustodiado.add(pendente.dataHora());
+            agendamentosVisitante.add(pendente.dataHora());
+            salasDoDia.adicionar(pendente.dataHora().toLocalTime(), unidadePenal.getDuracaoVisitaMinutos(), 1);
+            visitasNoMes.merge(pendente.visitanteId(), 1, Integer::sum);
+            novasVisitasNoMes.merge(pendente.visitanteId(), 1, Integer::sum);
+        }
+
+        agendamentoLoteRepository.inserir(novos, statusAgendadoId);
+        if (!novos.isEmpty()) {
+            ocupacaoSalas.recalcular(unidadePenal, data);
+            cotasVisitantes.registrar(unidadePenal, data, novasVisitasNoMes);
+        }
+        if (!atendidas.isEmpty()) {
+            solicitacaoVisitaRepository.atualizarSituacao(atendidas, SituacaoSolicitacao.ATENDIDA, null, semente);
+        }
+        recusadasPorMotivo.forEach((motivo, ids) ->
+                solicitacaoVisitaRepository.atualizarSituacao(ids, SituacaoSolicitacao.RECUSADA, motivo, semente));
+        registroVersoes.registrarAlteracao(RegistroVersoes.agendamentosDoDia(data));
+
+        log.info("Sorteio da unidade penal {} em {} (semente {}): {} solicitações, {} atendidas",
+                unidadePenalId, data, semente, pendentes.size(), atendidas.size());
+        return atendidas.size();
+    }
+
+    /**
+     * Aplica a uma solicitação sorteada as regras do agendamento direto e a capacidade
+     * das salas.
+     *
+     * @return Motivo da recusa, ou null se a solicitação pode ser atendida
+     */
+    private String recusaNoSorteio(UnidadePenal unidadePenal, Pendente pendente,
+                                   Map<Long, Integer> visitasPorCustodiado,
+                                   List<LocalDateTime> ativosCustodiado,
+                                   List<LocalDateTime> agendamentosVisitante,
+                                   ArvoreOcupacao salasDoDia) {
+        if (visitasPorCustodiado.getOrDefault(pendente.custodiadoId(), 0) >= LIMITE_VISITAS_POR_DIA) {
+            return MSG_LIMITE_VISITANTES;
+        }
+        if (existeAgendamentoProximo(ativosCustodiado, pendente.dataHora())) {
+            return MSG_CONFLITO_CUSTODIADO;
+        }
+        if (existeAgendamentoProximo(agendamentosVisitante, pendente.dataHora())) {
+            return MSG_CONFLITO_VISITANTE;
+        }
+        if (unidadePenal.getSalasVisita() != null
+                && salasDoDia.maximo(pendente.dataHora().toLocalTime(), unidadePenal.getDuracaoVisitaMinutos())
+                        >= unidadePenal.getSalasVisita()) {
+            return OcupacaoSalas.MSG_SALAS_OCUPADAS;
+        }
+        return null;
+    }
+
+    private String recusaPelaUnidade(UnidadePenal unidadePenal, LocalDateTime dataHora, boolean bloqueada) {
+        if (!unidadePenal.permiteVisitaEm(dataHora)) {
+            return String.format(MSG_HORARIO_NAO_PERMITIDO_UNIDADE, unidadePenal.getNome());
+        }
+        if (bloqueada) {
+            return String.format(MSG_UNIDADE_BLOQUEADA, unidadePenal.getNome());
+        }
+        return null;
+    }
+
+    private boolean existeAgendamentoProximo(List<LocalDateTime> agendamentos, LocalDateTime dataHora) {
+        LocalDateTime inicio = dataHora.minusHours(1);
+        LocalDateTime fim = dataHora.plusHours(1);
+        return agendamentos.stream().anyMatch(a -> !a.isBefore(inicio) && !a.isAfter(fim));
+    }
+
+    /**
+     * Último dia cuja janela de solicitações já foi encerrada.
+     */
+    private LocalDate ultimoDiaEncerrado() {
+        return LocalDate.now().plusDays(antecedenciaDias);
+    }
+
+    private Status buscarStatus(String descricao) {
+        return statusRepository.findByDescricaoIgnoreCase(descricao)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Status " + descricao + " não encontrado"));
+    }
+}
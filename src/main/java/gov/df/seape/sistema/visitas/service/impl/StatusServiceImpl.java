@@ -1,16 +1,21 @@
 package gov.df.seape.sistema.visitas.service.impl;
 
+import gov.df.seape.sistema.visitas.config.CacheConfig;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.StatusRequestDTO;
 import gov.df.seape.sistema.visitas.dto.StatusResponseDTO;
 import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.StatusMapper;
 import gov.df.seape.sistema.visitas.model.Status;
 import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
 import gov.df.seape.sistema.visitas.repository.StatusRepository;
 import gov.df.seape.sistema.visitas.service.StatusService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +34,8 @@ public class StatusServiceImpl implements StatusService {
 
     private final StatusRepository statusRepository;
     private final AgendamentoVisitaRepository agendamentoVisitaRepository;
+    private final RegistroVersoes registroVersoes;
+    private final StatusMapper statusMapper;
     
     // Lista de status padrão do sistema que não devem ser modificados ou excluídos
     private static final List<String> STATUS_SISTEMA = Arrays.asList(
@@ -54,19 +61,11 @@ public class StatusServiceImpl implements StatusService {
         return status;
     }
 
-    /**
-     * Converte entidade Status para StatusResponseDTO
-     */
-    private StatusResponseDTO convertToResponseDTO(Status entity) {
-        StatusResponseDTO dto = new StatusResponseDTO();
-        dto.setId(entity.getId());
-        dto.setDescricao(entity.getDescricao());
-        return dto;
-    }
-
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.STATUS, allEntries = true)
     public StatusResponseDTO criarStatus(StatusRequestDTO statusRequestDTO) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Criando novo status: {}", statusRequestDTO.getDescricao());
 
         // Verificar se já existe um status com esta descrição
@@ -82,12 +81,14 @@ public class StatusServiceImpl implements StatusService {
         status = statusRepository.save(status);
         log.info("Status criado com sucesso. ID: {}", status.getId());
 
-        return convertToResponseDTO(status);
+        return statusMapper.paraDTO(status);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.STATUS, allEntries = true)
     public StatusResponseDTO atualizarStatus(Long id, StatusRequestDTO statusRequestDTO) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Atualizando status com ID: {}", id);
 
         Status statusExistente = statusRepository.findById(id)
@@ -119,23 +120,24 @@ public class StatusServiceImpl implements StatusService {
         statusExistente = statusRepository.save(statusExistente);
         log.info("Status atualizado com sucesso. ID: {}", statusExistente.getId());
 
-        return convertToResponseDTO(statusExistente);
+        return statusMapper.paraDTO(statusExistente);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<StatusResponseDTO> buscarStatusPorId(Long id) {
         log.info("Buscando status por ID: {}", id);
-        return statusRepository.findById(id).map(this::convertToResponseDTO);
+        return statusRepository.findById(id).map(statusMapper::paraDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.STATUS, key = "'todos'")
     public List<StatusResponseDTO> listarTodosStatus() {
         log.info("Listando todos os status");
         // Substituir Collectors.toList() por Stream.toList()
         return statusRepository.findAllOrderByDescricao().stream()
-                .map(this::convertToResponseDTO)
+                .map(statusMapper::paraDTO)
                 .toList(); // Disponível em Java 16+
     }
 
@@ -146,13 +148,15 @@ public class StatusServiceImpl implements StatusService {
 
         // Retorno imediato em vez de usar variável intermediária
         return new PageResponseDTO<>(
-                statusRepository.findAll(pageable).map(this::convertToResponseDTO)
+                statusRepository.findAll(pageable).map(statusMapper::paraDTO)
         );
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.STATUS, allEntries = true)
     public void excluirStatus(Long id) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Excluindo status com ID: {}", id);
 
         Status status = statusRepository.findById(id)
@@ -180,13 +184,14 @@ public class StatusServiceImpl implements StatusService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.STATUS, key = "'descricao:' + #descricao.toLowerCase()")
     public List<StatusResponseDTO> buscarStatusPorDescricao(String descricao) {
         log.info("Buscando status por descrição contendo: {}", descricao);
         
         // Também substituindo .collect(Collectors.toList()) por .toList()
         return statusRepository.findAllOrderByDescricao().stream()
                 .filter(status -> status.getDescricao().toLowerCase().contains(descricao.toLowerCase()))
-                .map(this::convertToResponseDTO)
+                .map(statusMapper::paraDTO)
                 .toList();
     }
 
@@ -195,6 +200,6 @@ public class StatusServiceImpl implements StatusService {
     public Optional<StatusResponseDTO> buscarPorDescricaoExata(String descricao) {
         log.info("Buscando status por descrição exata: {}", descricao);
         return statusRepository.findByDescricaoIgnoreCase(descricao)
-                .map(this::convertToResponseDTO);
+                .map(statusMapper::paraDTO);
     }
 }
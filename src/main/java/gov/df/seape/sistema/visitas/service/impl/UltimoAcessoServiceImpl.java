@@ -0,0 +1,108 @@
+package gov.df.seape.sistema.visitas.service.impl;
+
+import gov.df.seape.sistema.visitas.service.UltimoAcessoService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementação do registro de último acesso com escrita em lote.
+ *
+ * Cada autenticação bem-sucedida apenas atualiza um mapa em memória (email → data mais
+ * recente), de modo que vários acessos do mesmo usuário resultam em uma única escrita.
+ * Periodicamente, e no encerramento da aplicação, os acessos pendentes são gravados em
+ * um único UPDATE em lote. As consultas por último acesso refletem os acessos com
+ * atraso máximo de um intervalo de descarga.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UltimoAcessoServiceImpl implements UltimoAcessoService {
+
+    /**
+     * A condição sobre o valor atual impede que uma descarga atrasada sobrescreva
+     * um acesso mais recente já gravado.
+     */
+    private static final String SQL_ATUALIZAR_ULTIMO_ACESSO =
+            "UPDATE usuario SET ultimo_acesso = ? " +
+            "WHERE email = ? AND (ultimo_acesso IS NULL OR ultimo_acesso < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, LocalDateTime> acessosPendentes = new ConcurrentHashMap<>();
+
+    /**
+     * Registra o acesso a cada autenticação bem-sucedida (login ou token de acesso).
+     */
+    @EventListener
+    public void onAutenticacao(AuthenticationSuccessEvent evento) {
+        registrarAcesso(evento.getAuthentication().getName(), LocalDateTime.now());
+    }
+
+    @Override
+    public void registrarAcesso(String email, LocalDateTime dataAcesso) {
+        if (email == null || dataAcesso == null) {
+            return;
+        }
+        acessosPendentes.merge(email, dataAcesso, (atual, novo) -> novo.isAfter(atual) ? novo : atual);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${usuarios.ultimo-acesso.intervalo:PT1M}",
+               initialDelayString = "${usuarios.ultimo-acesso.intervalo:PT1M}")
+    public int descarregar() {
+        if (acessosPendentes.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> parametros = new ArrayList<>();
+        for (Map.Entry<String, LocalDateTime> acesso : acessosPendentes.entrySet()) {
+            String email = acesso.getKey();
+            LocalDateTime dataAcesso = acesso.getValue();
+            // Remove apenas se não houve acesso mais recente durante a descarga
+            if (acessosPendentes.remove(email, dataAcesso)) {
+                Timestamp data = Timestamp.valueOf(dataAcesso);
+                parametros.add(new Object[] {data, email, data});
+            }
+        }
+        if (parametros.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(SQL_ATUALIZAR_ULTIMO_ACESSO, parametros);
+        } catch (RuntimeException e) {
+            // Devolve os acessos ao mapa para a próxima tentativa
+            for (Object[] p : parametros) {
+                registrarAcesso((String) p[1], ((Timestamp) p[0]).toLocalDateTime());
+            }
+            log.error("Falha ao gravar último acesso de {} usuários: {}", parametros.size(), e.getMessage());
+            return 0;
+        }
+
+        log.debug("Último acesso gravado para {} usuários", parametros.size());
+        return parametros.size();
+    }
+
+    /**
+     * Grava os acessos pendentes antes do encerramento da aplicação.
+     */
+    @PreDestroy
+    public void encerrar() {
+        int gravados = descarregar();
+        if (gravados > 0) {
+            log.info("Último acesso de {} usuários gravado no encerramento", gravados);
+        }
+    }
+}
@@ -1,22 +1,43 @@
 package gov.df.seape.sistema.visitas.service.impl;
 
+import gov.df.seape.sistema.visitas.config.CacheConfig;
+import gov.df.seape.sistema.visitas.dto.BloqueioUnidadeRequestDTO;
+import gov.df.seape.sistema.visitas.dto.BloqueioUnidadeResponseDTO;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.UnidadePenalRequestDTO;
 import gov.df.seape.sistema.visitas.dto.UnidadePenalResponseDTO;
+import gov.df.seape.sistema.visitas.evento.UnidadeBloqueadaEvento;
 import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.UnidadePenalMapper;
+import gov.df.seape.sistema.visitas.model.BloqueioUnidade;
+import gov.df.seape.sistema.visitas.model.ModoAlocacao;
+import gov.df.seape.sistema.visitas.model.Status;
 import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
+import gov.df.seape.sistema.visitas.repository.BloqueioUnidadeRepository;
 import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
+import gov.df.seape.sistema.visitas.repository.StatusRepository;
 import gov.df.seape.sistema.visitas.repository.UnidadePenalRepository;
 import gov.df.seape.sistema.visitas.service.UnidadePenalService;
+import gov.df.seape.sistema.visitas.util.CotasVisitantes;
+import gov.df.seape.sistema.visitas.util.OcupacaoSalas;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -24,13 +45,27 @@ import java.util.List;
 public class UnidadePenalServiceImpl implements UnidadePenalService {
 
     private static final String MSG_UNIDADE_PENAL_NAO_ENCONTRADA = "Unidade penal não encontrada com ID: ";
+    private static final String STATUS_AGENDADO = "AGENDADO";
+    private static final String STATUS_CONFIRMADO = "CONFIRMADO";
+    private static final String STATUS_CANCELADO = "CANCELADO";
+    private static final int DURACAO_VISITA_PADRAO = 60;
 
     private final UnidadePenalRepository unidadePenalRepository;
     private final CustodiadoRepository custodiadoRepository;
+    private final AgendamentoVisitaRepository agendamentoRepository;
+    private final BloqueioUnidadeRepository bloqueioUnidadeRepository;
+    private final StatusRepository statusRepository;
+    private final RegistroVersoes registroVersoes;
+    private final OcupacaoSalas ocupacaoSalas;
+    private final CotasVisitantes cotasVisitantes;
+    private final UnidadePenalMapper unidadePenalMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.UNIDADES_PENAIS, allEntries = true)
     public UnidadePenalResponseDTO criarUnidadePenal(UnidadePenalRequestDTO requestDTO) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Criando nova unidade penal: {}", requestDTO.getNome());
 
         // Verificar se já existe unidade penal com este nome
@@ -42,16 +77,20 @@ public class UnidadePenalServiceImpl implements UnidadePenalService {
         UnidadePenal unidadePenal = new UnidadePenal();
         unidadePenal.setNome(requestDTO.getNome());
         unidadePenal.setDescricao(requestDTO.getDescricao());
+        unidadePenal.setCapacidade(requestDTO.getCapacidade());
+        aplicarRegrasVisita(unidadePenal, requestDTO);
 
         unidadePenal = unidadePenalRepository.save(unidadePenal);
         log.info("Unidade penal criada com sucesso. ID: {}", unidadePenal.getId());
 
-        return new UnidadePenalResponseDTO(unidadePenal);
+        return unidadePenalMapper.paraDTO(unidadePenal);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.UNIDADES_PENAIS, allEntries = true)
     public UnidadePenalResponseDTO atualizarUnidadePenal(Long id, UnidadePenalRequestDTO requestDTO) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Atualizando unidade penal com ID: {}", id);
 
         UnidadePenal unidadePenal = unidadePenalRepository.findById(id)
@@ -67,13 +106,77 @@ public class UnidadePenalServiceImpl implements UnidadePenalService {
                     }
                 });
 
+        if (requestDTO.getCapacidade() != null && requestDTO.getCapacidade() < unidadePenal.getOcupacao()) {
+            log.warn("Tentativa de reduzir a capacidade abaixo da ocupação. ID: {}, ocupação: {}",
+                    id, unidadePenal.getOcupacao());
+            throw new OperacaoInvalidaException("A capacidade não pode ser menor que a ocupação atual de "
+                    + unidadePenal.getOcupacao() + " custodiados.");
+        }
+
+        Integer salasAnteriores = unidadePenal.getSalasVisita();
+        int duracaoAnterior = unidadePenal.getDuracaoVisitaMinutos();
+        boolean limitavaVisitas = unidadePenal.getCotaMensalVisitante() != null;
+
         unidadePenal.setNome(requestDTO.getNome());
         unidadePenal.setDescricao(requestDTO.getDescricao());
+        unidadePenal.setCapacidade(requestDTO.getCapacidade());
+        aplicarRegrasVisita(unidadePenal, requestDTO);
 
         unidadePenal = unidadePenalRepository.save(unidadePenal);
+        // Os contadores por faixa dependem das salas e da duração das visitas
+        if (!Objects.equals(salasAnteriores, unidadePenal.getSalasVisita())
+                || duracaoAnterior != unidadePenal.getDuracaoVisitaMinutos()) {
+            ocupacaoSalas.recalcular(unidadePenal, LocalDate.now());
+        }
+        // Os contadores da cota só existem enquanto a unidade limita as visitas
+        if (limitavaVisitas != (unidadePenal.getCotaMensalVisitante() != null)) {
+            cotasVisitantes.recalcular(unidadePenal, LocalDate.now());
+        }
         log.info("Unidade penal atualizada com sucesso. ID: {}", unidadePenal.getId());
 
-        return new UnidadePenalResponseDTO(unidadePenal);
+        return unidadePenalMapper.paraDTO(unidadePenal);
+    }
+
+    @Override
+    @Transactional
+    public BloqueioUnidadeResponseDTO bloquearUnidadePenal(Long id, BloqueioUnidadeRequestDTO requestDTO) {
+        log.info("Bloqueando a unidade penal {} por {} dias", id, requestDTO.getDias());
+
+        // Trava a unidade até o commit: agendamentos na unidade esperam o bloqueio ou são
+        // gravados antes dele e alcançados pelo cancelamento (ver CalendarioBloqueios)
+        UnidadePenal unidadePenal = unidadePenalRepository.findByIdComTrava(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_UNIDADE_PENAL_NAO_ENCONTRADA + id));
+
+        LocalDateTime inicio = LocalDateTime.now();
+        BloqueioUnidade bloqueio = new BloqueioUnidade();
+        bloqueio.setUnidadePenal(unidadePenal);
+        bloqueio.setInicio(inicio);
+        bloqueio.setFim(inicio.plusDays(requestDTO.getDias()));
+        bloqueio.setMotivo(requestDTO.getMotivo());
+        bloqueio = bloqueioUnidadeRepository.save(bloqueio);
+
+        List<Long> statusAtivosIds = List.of(buscarStatus(STATUS_AGENDADO).getId(), buscarStatus(STATUS_CONFIRMADO).getId());
+        int cancelados = agendamentoRepository.cancelarPorBloqueio(buscarStatus(STATUS_CANCELADO),
+                requestDTO.getMotivo(), id, statusAtivosIds, bloqueio.getInicio(), bloqueio.getFim(), inicio);
+        if (cancelados > 0) {
+            ocupacaoSalas.recalcular(unidadePenal, inicio.toLocalDate());
+            cotasVisitantes.recalcular(unidadePenal, inicio.toLocalDate());
+        }
+
+        // Um evento para o bloqueio inteiro; o calendário em memória o recebe após o commit
+        eventPublisher.publishEvent(new UnidadeBloqueadaEvento(bloqueio.getId(), id,
+                bloqueio.getInicio(), bloqueio.getFim(), bloqueio.getMotivo(), cancelados));
+
+        List<String> versoes = new ArrayList<>();
+        LocalDate ultimoDia = bloqueio.getFim().toLocalDate();
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+            versoes.add(RegistroVersoes.agendamentosDoDia(dia));
+        }
+        registroVersoes.registrarAlteracao(versoes.toArray(String[]::new));
+
+        log.info("Unidade penal {} bloqueada até {}. {} agendamentos cancelados", id, bloqueio.getFim(), cancelados);
+        return new BloqueioUnidadeResponseDTO(bloqueio.getId(), id, bloqueio.getInicio(), bloqueio.getFim(),
+                bloqueio.getMotivo(), cancelados);
     }
 
     @Override
@@ -82,19 +185,20 @@ public class UnidadePenalServiceImpl implements UnidadePenalService {
         log.info("Listando unidades penais com paginação");
         Page<UnidadePenal> pagina = unidadePenalRepository.findAll(pageable);
 
-        Page<UnidadePenalResponseDTO> paginaDTO = pagina.map(UnidadePenalResponseDTO::new);
+        Page<UnidadePenalResponseDTO> paginaDTO = pagina.map(unidadePenalMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.UNIDADES_PENAIS, key = "'todas'")
     public List<UnidadePenalResponseDTO> listarUnidadesPenais() {
         log.info("Listando todas as unidades penais");
         List<UnidadePenal> unidadesPenais = unidadePenalRepository.findAllOrderByNome();
 
         // Substituindo Collectors.toUnmodifiableList() por .toList()
         return unidadesPenais.stream()
-                .map(UnidadePenalResponseDTO::new)
+                .map(unidadePenalMapper::paraDTO)
                 .toList();  // .toList() retorna uma lista imutável em Java 16+
     }
 
@@ -105,7 +209,7 @@ public class UnidadePenalServiceImpl implements UnidadePenalService {
         UnidadePenal unidadePenal = unidadePenalRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException(MSG_UNIDADE_PENAL_NAO_ENCONTRADA + id));
 
-        return new UnidadePenalResponseDTO(unidadePenal);
+        return unidadePenalMapper.paraDTO(unidadePenal);
     }
 
     @Override
@@ -114,7 +218,7 @@ public class UnidadePenalServiceImpl implements UnidadePenalService {
         log.info("Buscando unidades penais por nome contendo: {}", nome);
         Page<UnidadePenal> pagina = unidadePenalRepository.findByNomeContainingIgnoreCase(nome, pageable);
 
-        Page<UnidadePenalResponseDTO> paginaDTO = pagina.map(UnidadePenalResponseDTO::new);
+        Page<UnidadePenalResponseDTO> paginaDTO = pagina.map(unidadePenalMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -125,7 +229,9 @@ public class UnidadePenalServiceImpl implements UnidadePenalService {
      * @param id ID da unidade penal a ser excluída
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.UNIDADES_PENAIS, allEntries = true)
     public void excluirUnidadePenal(Long id) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Excluindo unidade penal com ID: {}", id);
 
         UnidadePenal unidadePenal = unidadePenalRepository.findById(id)
@@ -157,4 +263,28 @@ public class UnidadePenalServiceImpl implements UnidadePenalService {
         // Retorno imediato em vez de variável temporária
         return custodiadoRepository.countByUnidadePenal();
     }
+
+    private Status buscarStatus(String descricao) {
+        return statusRepository.findByDescricaoIgnoreCase(descricao)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Status " + descricao + " não encontrado"));
+    }
+
+    /**
+     * Copia as regras de visita e a forma de alocação da requisição, validando a faixa de horário.
+     */
+    private void aplicarRegrasVisita(UnidadePenal unidadePenal, UnidadePenalRequestDTO requestDTO) {
+        if (requestDTO.getHorarioInicioVisita() != null && requestDTO.getHorarioFimVisita() != null
+                && requestDTO.getHorarioInicioVisita().isAfter(requestDTO.getHorarioFimVisita())) {
+            throw new OperacaoInvalidaException("O horário de início das visitas deve ser anterior ao horário de fim.");
+        }
+        unidadePenal.setDiasVisita(requestDTO.getDiasVisita());
+        unidadePenal.setHorarioInicioVisita(requestDTO.getHorarioInicioVisita());
+        unidadePenal.setHorarioFimVisita(requestDTO.getHorarioFimVisita());
+        unidadePenal.setModoAlocacao(requestDTO.getModoAlocacao() != null
+                ? requestDTO.getModoAlocacao() : ModoAlocacao.ORDEM_CHEGADA);
+        unidadePenal.setSalasVisita(requestDTO.getSalasVisita());
+        unidadePenal.setDuracaoVisitaMinutos(requestDTO.getDuracaoVisitaMinutos() != null
+                ? requestDTO.getDuracaoVisitaMinutos() : DURACAO_VISITA_PADRAO);
+        unidadePenal.setCotaMensalVisitante(requestDTO.getCotaMensalVisitante());
+    }
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package gov.df.seape.sistema.visitas.service.impl;
 
+import gov.df.seape.sistema.visitas.busca.IndiceNomes;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.UsuarioRequestDTO;
 import gov.df.seape.sistema.visitas.dto.UsuarioResponseDTO;
 import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.UsuarioMapper;
 import gov.df.seape.sistema.visitas.model.Perfil;
 import gov.df.seape.sistema.visitas.model.Pessoa;
 import gov.df.seape.sistema.visitas.model.Usuario;
 import gov.df.seape.sistema.visitas.repository.PerfilRepository;
 import gov.df.seape.sistema.visitas.repository.PessoaRepository;
 import gov.df.seape.sistema.visitas.repository.UsuarioRepository;
+import gov.df.seape.sistema.visitas.security.AvaliadorPermissoes;
 import gov.df.seape.sistema.visitas.service.UsuarioService;
+import gov.df.seape.sistema.visitas.util.NormalizadorTexto;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -21,6 +26,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implementação do serviço de Usuários
@@ -37,6 +43,10 @@ public class UsuarioServiceImpl implements UsuarioService {
     private final PessoaRepository pessoaRepository;
     private final PerfilRepository perfilRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AvaliadorPermissoes avaliadorPermissoes;
+    private final IndiceNomes indiceNomes;
+    private final RegistroVersoes registroVersoes;
+    private final UsuarioMapper usuarioMapper;
 
     @Override
     @Transactional
@@ -79,9 +89,10 @@ public class UsuarioServiceImpl implements UsuarioService {
         usuario.setPessoa(pessoa);
 
         usuario = usuarioRepository.save(usuario);
+        avaliadorPermissoes.invalidarUsuario(usuario.getEmail());
         log.info("Usuário criado com sucesso. ID: {}", usuario.getId());
 
-        return new UsuarioResponseDTO(usuario);
+        return usuarioMapper.paraDTO(usuario);
     }
 
     @Override
@@ -131,8 +142,11 @@ public class UsuarioServiceImpl implements UsuarioService {
         pessoa.setCpf(requestDTO.getPessoa().getCpf());
         pessoa.setDataNascimento(requestDTO.getPessoa().getDataNascimento());
         pessoaRepository.save(pessoa);
+        registroVersoes.registrarAlteracao(RegistroVersoes.PESSOAS);
 
         // Atualizar usuário
+        avaliadorPermissoes.invalidarUsuario(usuario.getEmail());
+        avaliadorPermissoes.invalidarUsuario(requestDTO.getEmail());
         usuario.setEmail(requestDTO.getEmail());
         usuario.setPerfil(perfil);
 
@@ -145,7 +159,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         usuario = usuarioRepository.save(usuario);
         log.info("Usuário atualizado com sucesso. ID: {}", usuario.getId());
 
-        return new UsuarioResponseDTO(usuario);
+        return usuarioMapper.paraDTO(usuario);
     }
 
     @Override
@@ -154,7 +168,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         log.info("Listando usuários com paginação");
         Page<Usuario> pagina = usuarioRepository.findAll(pageable);
 
-        Page<UsuarioResponseDTO> paginaDTO = pagina.map(UsuarioResponseDTO::new);
+        Page<UsuarioResponseDTO> paginaDTO = pagina.map(usuarioMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -165,7 +179,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         List<Usuario> usuarios = usuarioRepository.findAll();
 
         return usuarios.stream()
-                .map(UsuarioResponseDTO::new)
+                .map(usuarioMapper::paraDTO)
                 .toList();
     }
 
@@ -176,7 +190,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException(USUARIO_NAO_ENCONTRADO + id));
 
-        return new UsuarioResponseDTO(usuario);
+        return usuarioMapper.paraDTO(usuario);
     }
 
     @Override
@@ -188,16 +202,22 @@ public class UsuarioServiceImpl implements UsuarioService {
                         "Usuário não encontrado com email: " + email
                 ));
 
-        return new UsuarioResponseDTO(usuario);
+        return usuarioMapper.paraDTO(usuario);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponseDTO<UsuarioResponseDTO> buscarPorNome(String nome, Pageable pageable) {
         log.info("Buscando usuários por nome contendo: {}", nome);
-        Page<Usuario> pagina = usuarioRepository.findByNomeContainingIgnoreCase(nome, pageable);
-
-        Page<UsuarioResponseDTO> paginaDTO = pagina.map(UsuarioResponseDTO::new);
+        String termo = NormalizadorTexto.normalizar(nome);
+        Optional<List<Long>> pessoaIds = indiceNomes.buscarPessoas(termo);
+        Page<Usuario> pagina = pessoaIds
+                .map(ids -> ids.isEmpty()
+                        ? Page.<Usuario>empty(pageable)
+                        : usuarioRepository.findByPessoaIdInAndNomeContaining(ids, termo, pageable))
+                .orElseGet(() -> usuarioRepository.findByNomeContainingIgnoreCase(termo, pageable));
+
+        Page<UsuarioResponseDTO> paginaDTO = pagina.map(usuarioMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -211,7 +231,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
 
         Page<Usuario> pagina = usuarioRepository.findByPerfilId(perfilId, pageable);
-        Page<UsuarioResponseDTO> paginaDTO = pagina.map(UsuarioResponseDTO::new);
+        Page<UsuarioResponseDTO> paginaDTO = pagina.map(usuarioMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -234,8 +254,9 @@ public class UsuarioServiceImpl implements UsuarioService {
             throw new OperacaoInvalidaException("Senha atual incorreta");
         }
 
-        // Verifica se a nova senha é igual à atual
-        if (passwordEncoder.matches(novaSenha, usuario.getSenha())) {
+        // A senha atual já foi conferida com o hash; basta compará-la à nova,
+        // sem um segundo cálculo de hash
+        if (novaSenha.equals(senhaAtual)) {
             throw new OperacaoInvalidaException("A nova senha não pode ser igual à senha atual");
         }
 
@@ -243,6 +264,6 @@ public class UsuarioServiceImpl implements UsuarioService {
         usuario = usuarioRepository.save(usuario);
         log.info("Senha alterada com sucesso. Usuário ID: {}", usuario.getId());
 
-        return new UsuarioResponseDTO(usuario);
+        return usuarioMapper.paraDTO(usuario);
     }
 }
@@ -1,19 +1,25 @@
 package gov.df.seape.sistema.visitas.service.impl;
 
+import gov.df.seape.sistema.visitas.config.CacheConfig;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.VincPerfilFuncionalidadeRequestDTO;
 import gov.df.seape.sistema.visitas.dto.VincPerfilFuncionalidadeResponseDTO;
 import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.FuncionalidadeMapper;
+import gov.df.seape.sistema.visitas.mapper.VincPerfilFuncionalidadeMapper;
 import gov.df.seape.sistema.visitas.model.Funcionalidade;
 import gov.df.seape.sistema.visitas.model.Perfil;
 import gov.df.seape.sistema.visitas.model.VincPerfilFuncionalidade;
 import gov.df.seape.sistema.visitas.repository.FuncionalidadeRepository;
 import gov.df.seape.sistema.visitas.repository.PerfilRepository;
 import gov.df.seape.sistema.visitas.repository.VincPerfilFuncionalidadeRepository;
+import gov.df.seape.sistema.visitas.security.AvaliadorPermissoes;
 import gov.df.seape.sistema.visitas.service.VincPerfilFuncionalidadeService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -35,6 +41,10 @@ public class VincPerfilFuncionalidadeServiceImpl implements VincPerfilFuncionali
     private final VincPerfilFuncionalidadeRepository vincPerfilFuncionalidadeRepository;
     private final PerfilRepository perfilRepository;
     private final FuncionalidadeRepository funcionalidadeRepository;
+    private final AvaliadorPermissoes avaliadorPermissoes;
+    private final RegistroVersoes registroVersoes;
+    private final FuncionalidadeMapper funcionalidadeMapper;
+    private final VincPerfilFuncionalidadeMapper vincPerfilFuncionalidadeMapper;
     
     // Lista de vínculos essenciais que não devem ser removidos
     private static final List<String> VINCULOS_ESSENCIAIS = Arrays.asList(
@@ -59,7 +69,9 @@ public class VincPerfilFuncionalidadeServiceImpl implements VincPerfilFuncionali
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PERFIS, allEntries = true)
     public VincPerfilFuncionalidadeResponseDTO criarVinculo(VincPerfilFuncionalidadeRequestDTO requestDTO) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Criando vínculo entre perfil ID: {} e funcionalidade ID: {}", 
                 requestDTO.getPerfilId(), requestDTO.getFuncionalidadeId());
         
@@ -86,14 +98,17 @@ public class VincPerfilFuncionalidadeServiceImpl implements VincPerfilFuncionali
         vinculo.setFuncionalidade(funcionalidade);
         
         vinculo = vincPerfilFuncionalidadeRepository.save(vinculo);
+        avaliadorPermissoes.invalidarPerfil(perfil.getId());
         log.info("Vínculo criado com sucesso. ID: {}", vinculo.getId());
         
-        return new VincPerfilFuncionalidadeResponseDTO(vinculo);
+        return vincPerfilFuncionalidadeMapper.paraDTO(vinculo);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PERFIS, allEntries = true)
     public void excluirVinculo(Long id) {
+        registroVersoes.registrarAlteracao(RegistroVersoes.CADASTROS);
         log.info("Excluindo vínculo com ID: {}", id);
         
         VincPerfilFuncionalidade vinculo = vincPerfilFuncionalidadeRepository.findById(id)
@@ -107,6 +122,7 @@ public class VincPerfilFuncionalidadeServiceImpl implements VincPerfilFuncionali
         }
         
         vincPerfilFuncionalidadeRepository.delete(vinculo);
+        avaliadorPermissoes.invalidarPerfil(vinculo.getPerfil().getId());
         log.info("Vínculo excluído com sucesso. ID: {}", id);
     }
 
@@ -116,7 +132,7 @@ public class VincPerfilFuncionalidadeServiceImpl implements VincPerfilFuncionali
         log.info("Listando vínculos com paginação");
         Page<VincPerfilFuncionalidade> pagina = vincPerfilFuncionalidadeRepository.findAll(pageable);
         
-        Page<VincPerfilFuncionalidadeResponseDTO> paginaDTO = pagina.map(VincPerfilFuncionalidadeResponseDTO::new);
+        Page<VincPerfilFuncionalidadeResponseDTO> paginaDTO = pagina.map(vincPerfilFuncionalidadeMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -127,7 +143,7 @@ public class VincPerfilFuncionalidadeServiceImpl implements VincPerfilFuncionali
         List<VincPerfilFuncionalidade> vinculos = vincPerfilFuncionalidadeRepository.findAllOrderByPerfilAndFuncionalidade();
         
         return vinculos.stream()
-                .map(VincPerfilFuncionalidadeResponseDTO::new)
+                .map(vincPerfilFuncionalidadeMapper::paraDTO)
                 .toList();
     }
 
@@ -138,7 +154,7 @@ public class VincPerfilFuncionalidadeServiceImpl implements VincPerfilFuncionali
         VincPerfilFuncionalidade vinculo = vincPerfilFuncionalidadeRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Vínculo não encontrado com ID: " + id));
         
-        return new VincPerfilFuncionalidadeResponseDTO(vinculo);
+        return vincPerfilFuncionalidadeMapper.paraDTO(vinculo);
     }
 
     @Override
@@ -152,7 +168,7 @@ public class VincPerfilFuncionalidadeServiceImpl implements VincPerfilFuncionali
         
         Page<VincPerfilFuncionalidade> pagina = vincPerfilFuncionalidadeRepository.findByPerfilId(perfilId, pageable);
         
-        Page<VincPerfilFuncionalidadeResponseDTO> paginaDTO = pagina.map(VincPerfilFuncionalidadeResponseDTO::new);
+        Page<VincPerfilFuncionalidadeResponseDTO> paginaDTO = pagina.map(vincPerfilFuncionalidadeMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -167,7 +183,7 @@ public class VincPerfilFuncionalidadeServiceImpl implements VincPerfilFuncionali
         
         Page<VincPerfilFuncionalidade> pagina = vincPerfilFuncionalidadeRepository.findByFuncionalidadeId(funcionalidadeId, pageable);
         
-        Page<VincPerfilFuncionalidadeResponseDTO> paginaDTO = pagina.map(VincPerfilFuncionalidadeResponseDTO::new);
+        Page<VincPerfilFuncionalidadeResponseDTO> paginaDTO = pagina.map(vincPerfilFuncionalidadeMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -1,16 +1,20 @@
 package gov.df.seape.sistema.visitas.service.impl;
 
+import gov.df.seape.sistema.visitas.busca.IndiceNomes;
 import gov.df.seape.sistema.visitas.dto.PageResponseDTO;
 import gov.df.seape.sistema.visitas.dto.VisitanteRequestDTO;
 import gov.df.seape.sistema.visitas.dto.VisitanteResponseDTO;
 import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
 import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.mapper.VisitanteMapper;
 import gov.df.seape.sistema.visitas.model.Pessoa;
 import gov.df.seape.sistema.visitas.model.Visitante;
 import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
 import gov.df.seape.sistema.visitas.repository.PessoaRepository;
 import gov.df.seape.sistema.visitas.repository.VisitanteRepository;
 import gov.df.seape.sistema.visitas.service.VisitanteService;
+import gov.df.seape.sistema.visitas.util.NormalizadorTexto;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -20,6 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implementação do serviço de Visitantes
@@ -33,6 +38,9 @@ public class VisitanteServiceImpl implements VisitanteService {
     private final PessoaRepository pessoaRepository;
     private final AgendamentoVisitaRepository agendamentoVisitaRepository;
     private final PasswordEncoder passwordEncoder;
+    private final IndiceNomes indiceNomes;
+    private final RegistroVersoes registroVersoes;
+    private final VisitanteMapper visitanteMapper;
 
     @Override
     @Transactional
@@ -64,7 +72,7 @@ public class VisitanteServiceImpl implements VisitanteService {
         visitante = visitanteRepository.save(visitante);
         log.info("Visitante criado com sucesso. ID: {}", visitante.getId());
         
-        VisitanteResponseDTO responseDTO = new VisitanteResponseDTO(visitante);
+        VisitanteResponseDTO responseDTO = visitanteMapper.paraDTO(visitante);
         responseDTO.setGrauParentesco(requestDTO.getGrauParentesco());
         return responseDTO;
     }
@@ -103,9 +111,10 @@ public VisitanteResponseDTO atualizarVisitante(Long id, VisitanteRequestDTO requ
         }
         
         visitante = visitanteRepository.save(visitante);
+        registroVersoes.registrarAlteracao(RegistroVersoes.PESSOAS);
         log.info("Visitante atualizado com sucesso. ID: {}", visitante.getId());
         
-        VisitanteResponseDTO responseDTO = new VisitanteResponseDTO(visitante);
+        VisitanteResponseDTO responseDTO = visitanteMapper.paraDTO(visitante);
         responseDTO.setGrauParentesco(requestDTO.getGrauParentesco());
         return responseDTO;
     }
@@ -117,7 +126,7 @@ public VisitanteResponseDTO atualizarVisitante(Long id, VisitanteRequestDTO requ
         Page<Visitante> pagina = visitanteRepository.findAll(pageable);
         
         // Remove variável temporária no map
-        Page<VisitanteResponseDTO> paginaDTO = pagina.map(VisitanteResponseDTO::new);
+        Page<VisitanteResponseDTO> paginaDTO = pagina.map(visitanteMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -129,7 +138,7 @@ public VisitanteResponseDTO atualizarVisitante(Long id, VisitanteRequestDTO requ
         
         // Substituir collect(Collectors.toList()) por .toList() (Java 16+)
         return visitantes.stream()
-                .map(VisitanteResponseDTO::new)
+                .map(visitanteMapper::paraDTO)
                 .toList();
     }
 
@@ -140,7 +149,7 @@ public VisitanteResponseDTO atualizarVisitante(Long id, VisitanteRequestDTO requ
         Visitante visitante = visitanteRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Visitante não encontrado com ID: " + id));
         
-        return new VisitanteResponseDTO(visitante);
+        return visitanteMapper.paraDTO(visitante);
     }
 
     @Override
@@ -150,16 +159,22 @@ public VisitanteResponseDTO atualizarVisitante(Long id, VisitanteRequestDTO requ
         Visitante visitante = visitanteRepository.findByCpf(cpf)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Visitante não encontrado com CPF: " + cpf));
         
-        return new VisitanteResponseDTO(visitante);
+        return visitanteMapper.paraDTO(visitante);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponseDTO<VisitanteResponseDTO> buscarPorNome(String nome, Pageable pageable) {
         log.info("Buscando visitantes por nome contendo: {}", nome);
-        Page<Visitante> pagina = visitanteRepository.findByNomeContainingIgnoreCase(nome, pageable);
-        
-        Page<VisitanteResponseDTO> paginaDTO = pagina.map(VisitanteResponseDTO::new);
+        String termo = NormalizadorTexto.normalizar(nome);
+        Optional<List<Long>> pessoaIds = indiceNomes.buscarPessoas(termo);
+        Page<Visitante> pagina = pessoaIds
+                .map(ids -> ids.isEmpty()
+                        ? Page.<Visitante>empty(pageable)
+                        : visitanteRepository.findByPessoaIdInAndNomeContaining(ids, termo, pageable))
+                .orElseGet(() -> visitanteRepository.findByNomeContainingIgnoreCase(termo, pageable));
+        
+        Page<VisitanteResponseDTO> paginaDTO = pagina.map(visitanteMapper::paraDTO);
         return new PageResponseDTO<>(paginaDTO);
     }
 
@@ -178,7 +193,7 @@ public VisitanteResponseDTO atualizarVisitante(Long id, VisitanteRequestDTO requ
         
         // Buscar visitantes pelos IDs encontrados
         Page<Visitante> pagina = visitanteRepository.findByIdIn(visitanteIds, pageable);
-        Page<VisitanteResponseDTO> paginaDTO = pagina.map(VisitanteResponseDTO::new);
+        Page<VisitanteResponseDTO> paginaDTO = pagina.map(visitanteMapper::paraDTO);
         
         return new PageResponseDTO<>(paginaDTO);
     }
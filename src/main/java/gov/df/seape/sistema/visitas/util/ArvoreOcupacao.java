@@ -0,0 +1,100 @@
+package gov.df.seape.sistema.visitas.util;
+
+import java.time.LocalTime;
+
+/**
+ * Ocupação das salas de visita de uma unidade ao longo de um dia, em faixas de
+ * {@value #MINUTOS_POR_FAIXA} minutos.
+ *
+ * Árvore de segmentos com soma em intervalo e máximo em intervalo: registrar uma
+ * visita e descobrir quantas visitas se sobrepõem no período de outra custam
+ * O(log n) no número de faixas. Uma visita ocupa todas as faixas que toca, do início
+ * arredondado para baixo ao fim arredondado para cima, e o período é cortado no fim
+ * do dia.
+ *
+ * Não é segura para alterações concorrentes: uma árvore compartilhada deve ser montada
+ * por completo antes de publicada e, a partir daí, apenas consultada.
+ */
+public class ArvoreOcupacao {
+
+    /** Granularidade das faixas; a mesma usada nos contadores de ocupação do banco. */
+    public static final int MINUTOS_POR_FAIXA = 15;
+
+    static final int FAIXAS_POR_DIA = 24 * 60 / MINUTOS_POR_FAIXA;
+
+    // Cada nó guarda o máximo da sua subárvore já somado ao acréscimo do próprio nó;
+    // o acréscimo vale para todas as faixas cobertas e não é propagado aos filhos
+    private final int[] maximo = new int[4 * FAIXAS_POR_DIA];
+    private final int[] acrescimo = new int[4 * FAIXAS_POR_DIA];
+
+    /**
+     * Soma {@code valor} às faixas ocupadas por uma visita.
+     *
+     * @param inicio Horário da visita
+     * @param duracaoMinutos Duração da visita
+     * @param valor Quantidade a somar (negativa para liberar)
+     */
+    public void adicionar(LocalTime inicio, int duracaoMinutos, int valor) {
+        adicionar(1, 0, FAIXAS_POR_DIA, primeiraFaixa(inicio), fimFaixas(inicio, duracaoMinutos), valor);
+    }
+
+    /**
+     * Maior quantidade de visitas simultâneas em alguma faixa do período de uma visita.
+     *
+     * @param inicio Horário da visita
+     * @param duracaoMinutos Duração da visita
+     * @return Maior ocupação encontrada no período
+     */
+    public int maximo(LocalTime inicio, int duracaoMinutos) {
+        return maximo(1, 0, FAIXAS_POR_DIA, primeiraFaixa(inicio), fimFaixas(inicio, duracaoMinutos));
+    }
+
+    /**
+     * Índice da primeira faixa ocupada por uma visita.
+     *
+     * @param inicio Horário da visita
+     * @return Índice da faixa, a partir de 0 (meia-noite)
+     */
+    public static int primeiraFaixa(LocalTime inicio) {
+        return (inicio.getHour() * 60 + inicio.getMinute()) / MINUTOS_POR_FAIXA;
+    }
+
+    /**
+     * Índice seguinte à última faixa ocupada por uma visita.
+     *
+     * @param inicio Horário da visita
+     * @param duracaoMinutos Duração da visita
+     * @return Índice exclusivo, no máximo o total de faixas do dia
+     */
+    public static int fimFaixas(LocalTime inicio, int duracaoMinutos) {
+        int fimMinutos = inicio.getHour() * 60 + inicio.getMinute() + Math.max(duracaoMinutos, 1);
+        return Math.min(FAIXAS_POR_DIA, (fimMinutos + MINUTOS_POR_FAIXA - 1) / MINUTOS_POR_FAIXA);
+    }
+
+    private void adicionar(int no, int esquerda, int direita, int de, int ate, int valor) {
+        if (ate <= esquerda || direita <= de) {
+            return;
+        }
+        if (de <= esquerda && direita <= ate) {
+            maximo[no] += valor;
+            acrescimo[no] += valor;
+            return;
+        }
+        int meio = (esquerda + direita) / 2;
+        adicionar(2 * no, esquerda, meio, de, ate, valor);
+        adicionar(2 * no + 1, meio, direita, de, ate, valor);
+        maximo[no] = Math.max(maximo[2 * no], maximo[2 * no + 1]) + acrescimo[no];
+    }
+
+    private int maximo(int no, int esquerda, int direita, int de, int ate) {
+        if (ate <= esquerda || direita <= de) {
+            return Integer.MIN_VALUE;
+        }
+        if (de <= esquerda && direita <= ate) {
+            return maximo[no];
+        }
+        int meio = (esquerda + direita) / 2;
+        int filhos = Math.max(maximo(2 * no, esquerda, meio, de, ate), maximo(2 * no + 1, meio, direita, de, ate));
+        return filhos == Integer.MIN_VALUE ? filhos : filhos + acrescimo[no];
+    }
+}
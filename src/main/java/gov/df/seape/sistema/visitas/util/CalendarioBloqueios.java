@@ -0,0 +1,130 @@
+package gov.df.seape.sistema.visitas.util;
+
+import gov.df.seape.sistema.visitas.evento.UnidadeBloqueadaEvento;
+import gov.df.seape.sistema.visitas.repository.BloqueioUnidadeRepository;
+import gov.df.seape.sistema.visitas.repository.UnidadePenalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calendário em memória dos bloqueios de unidades penais, consultado no agendamento
+ * para recusar visitas em unidades bloqueadas sem ir ao banco.
+ *
+ * É carregado na inicialização com os bloqueios vigentes e recebe cada novo bloqueio
+ * pelo {@link UnidadeBloqueadaEvento}, após o commit. Janelas encerradas são descartadas
+ * quando a unidade recebe um novo bloqueio.
+ *
+ * Como o calendário só conhece o bloqueio após o commit, quem grava agendamentos confirma
+ * a situação no banco com {@link #confirmarBloqueios} antes de gravar.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CalendarioBloqueios {
+
+    private final BloqueioUnidadeRepository bloqueioUnidadeRepository;
+    private final UnidadePenalRepository unidadePenalRepository;
+    private final Map<Long, List<Janela>> janelasPorUnidade = new ConcurrentHashMap<>();
+
+    private record Janela(LocalDateTime inicio, LocalDateTime fim) {
+    }
+
+    /**
+     * Carrega os bloqueios que ainda não terminaram.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        List<Object[]> vigentes = bloqueioUnidadeRepository.findJanelasVigentes(LocalDateTime.now());
+        for (Object[] linha : vigentes) {
+            adicionar((Long) linha[0], (LocalDateTime) linha[1], (LocalDateTime) linha[2]);
+        }
+        log.info("Calendário de bloqueios carregado: {} bloqueios vigentes", vigentes.size());
+    }
+
+    @TransactionalEventListener
+    public void aoBloquearUnidade(UnidadeBloqueadaEvento evento) {
+        adicionar(evento.unidadePenalId(), evento.inicio(), evento.fim());
+    }
+
+    /**
+     * Verifica se a unidade está bloqueada no instante informado.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param dataHora Data e hora da visita
+     * @return true se algum bloqueio da unidade cobre o instante
+     */
+    public boolean estaBloqueada(Long unidadePenalId, LocalDateTime dataHora) {
+        List<Janela> janelas = janelasPorUnidade.get(unidadePenalId);
+        if (janelas == null) {
+            return false;
+        }
+        for (Janela janela : janelas) {
+            if (!dataHora.isBefore(janela.inicio()) && !dataHora.isAfter(janela.fim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Confirma no banco, dentro da transação corrente, quais instantes estão cobertos por
+     * bloqueios da unidade.
+     *
+     * A linha da unidade penal fica travada até o commit, a mesma trava obtida pelo bloqueio
+     * antes de gravar e cancelar os agendamentos. Se o bloqueio chegou primeiro, ele já está
+     * gravado quando a consulta roda; se o agendamento chegou primeiro, o cancelamento em lote
+     * do bloqueio só roda depois do commit do agendamento e o encontra. Agendamentos na mesma
+     * unidade passam a ser gravados um de cada vez, da trava até o commit.
+     *
+     * A trava é obtida antes das salas e das cotas, na mesma ordem usada pelo bloqueio.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param datasHoras Datas e horas das visitas
+     * @return Instantes, dentre os informados, em que a unidade está bloqueada
+     */
+    public Set<LocalDateTime> confirmarBloqueios(Long unidadePenalId, Collection<LocalDateTime> datasHoras) {
+        unidadePenalRepository.findByIdComTrava(unidadePenalId);
+        if (datasHoras.isEmpty()) {
+            return Set.of();
+        }
+        LocalDateTime de = Collections.min(datasHoras);
+        LocalDateTime ate = Collections.max(datasHoras);
+        List<Object[]> janelas = bloqueioUnidadeRepository.findJanelasDaUnidadeNoPeriodo(unidadePenalId, de, ate);
+        Set<LocalDateTime> bloqueados = new HashSet<>();
+        for (LocalDateTime dataHora : datasHoras) {
+            for (Object[] janela : janelas) {
+                if (!dataHora.isBefore((LocalDateTime) janela[0]) && !dataHora.isAfter((LocalDateTime) janela[1])) {
+                    bloqueados.add(dataHora);
+                    break;
+                }
+            }
+        }
+        return bloqueados;
+    }
+
+    private void adicionar(Long unidadePenalId, LocalDateTime inicio, LocalDateTime fim) {
+        LocalDateTime agora = LocalDateTime.now();
+        janelasPorUnidade.compute(unidadePenalId, (id, atuais) -> {
+            List<Janela> janelas = new ArrayList<>();
+            if (atuais != null) {
+                atuais.stream().filter(j -> j.fim().isAfter(agora)).forEach(janelas::add);
+            }
+            janelas.add(new Janela(inicio, fim));
+            return List.copyOf(janelas);
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package gov.df.seape.sistema.visitas.util;
+
+import gov.df.seape.sistema.visitas.exception.AgendamentoConflitanteException;
+import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.repository.CotaVisitanteMensalRepository;
+import gov.df.seape.sistema.visitas.repository.StatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Cota mensal de visitas por visitante das unidades penais que definem
+ * {@link UnidadePenal#getCotaMensalVisitante()}.
+ *
+ * Em vez de contar os agendamentos do visitante no mês a cada novo agendamento, cada
+ * visita não cancelada é contada em {@code cota_visitante_mensal} no momento em que
+ * é criada e descontada quando é cancelada. A verificação é um UPDATE condicional em
+ * uma única linha, que também garante a cota com agendamentos concorrentes.
+ *
+ * Fluxos que alteram muitos agendamentos de uma vez (bloqueios, transferências,
+ * definição da cota) recalculam os contadores da unidade com
+ * {@link #recalcular(UnidadePenal, LocalDate)}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CotasVisitantes {
+
+    private static final String MSG_COTA_ESGOTADA =
+            "O visitante já atingiu a cota de %d visitas mensais na unidade penal %s.";
+    private static final String STATUS_CANCELADO = "CANCELADO";
+
+    private final CotaVisitanteMensalRepository cotaRepository;
+    private final StatusRepository statusRepository;
+
+    /**
+     * Conta a visita na cota do mês do visitante.
+     *
+     * @param visitanteId ID do visitante
+     * @param unidadePenal Unidade penal do custodiado
+     * @param dataHora Data e hora da visita
+     * @throws AgendamentoConflitanteException se a cota do mês estiver esgotada
+     */
+    public void consumir(Long visitanteId, UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        if (!tentarConsumir(visitanteId, unidadePenal, dataHora)) {
+            throw new AgendamentoConflitanteException(mensagemCotaEsgotada(unidadePenal));
+        }
+    }
+
+    /**
+     * Conta a visita na cota do mês do visitante, se ainda houver.
+     *
+     * @return true se a visita foi contada (ou a unidade não limita visitas)
+     */
+    public boolean tentarConsumir(Long visitanteId, UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        Integer cota = unidadePenal.getCotaMensalVisitante();
+        if (cota == null) {
+            return true;
+        }
+        boolean consumida = cotaRepository.consumir(visitanteId, unidadePenal.getId(), mes(dataHora.toLocalDate()), cota);
+        if (!consumida) {
+            log.debug("Cota mensal do visitante {} esgotada na unidade penal {}", visitanteId, unidadePenal.getId());
+        }
+        return consumida;
+    }
+
+    /**
+     * Devolve à cota do mês a visita cancelada.
+     */
+    public void devolver(Long visitanteId, UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        if (unidadePenal.getCotaMensalVisitante() != null) {
+            cotaRepository.devolver(visitanteId, unidadePenal.getId(), mes(dataHora.toLocalDate()));
+        }
+    }
+
+    /**
+     * Move a visita de cota quando muda o visitante, a unidade ou o mês.
+     *
+     * @throws AgendamentoConflitanteException se a nova cota estiver esgotada
+     */
+    public void transferir(Long visitanteAnteriorId, UnidadePenal unidadeAnterior, LocalDateTime dataHoraAnterior,
+                           Long visitanteId, UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        if (visitanteAnteriorId.equals(visitanteId) && unidadeAnterior.getId().equals(unidadePenal.getId())
+                && mes(dataHoraAnterior.toLocalDate()) == mes(dataHora.toLocalDate())) {
+            return;
+        }
+        devolver(visitanteAnteriorId, unidadeAnterior, dataHoraAnterior);
+        consumir(visitanteId, unidadePenal, dataHora);
+    }
+
+    /**
+     * Visitas já contadas no mês para um grupo de visitantes, para verificação em lote.
+     *
+     * @param unidadePenal Unidade penal
+     * @param dia Qualquer dia do mês
+     * @param visitanteIds IDs dos visitantes
+     * @return Visitas por ID do visitante; visitantes sem visitas no mês não aparecem
+     */
+    public Map<Long, Integer> visitasNoMes(UnidadePenal unidadePenal, LocalDate dia, Collection<Long> visitanteIds) {
+        if (unidadePenal.getCotaMensalVisitante() == null) {
+            return Map.of();
+        }
+        return cotaRepository.buscarVisitas(unidadePenal.getId(), mes(dia), visitanteIds);
+    }
+
+    /**
+     * Soma às cotas do mês as visitas já conferidas com {@link #visitasNoMes}.
+     */
+    public void registrar(UnidadePenal unidadePenal, LocalDate dia, Map<Long, Integer> visitasPorVisitante) {
+        if (unidadePenal.getCotaMensalVisitante() != null) {
+            cotaRepository.somar(unidadePenal.getId(), mes(dia), visitasPorVisitante);
+        }
+    }
+
+    /**
+     * Recalcula as cotas da unidade a partir do mês do dia informado.
+     *
+     * @param unidadePenal Unidade penal
+     * @param aPartirDe Dia a partir de cujo mês as cotas são recalculadas
+     */
+    public void recalcular(UnidadePenal unidadePenal, LocalDate aPartirDe) {
+        LocalDate inicioMes = aPartirDe.withDayOfMonth(1);
+        if (unidadePenal.getCotaMensalVisitante() == null) {
+            cotaRepository.excluir(unidadePenal.getId(), mes(inicioMes));
+            return;
+        }
+        Long statusCanceladoId = statusRepository.findByDescricaoIgnoreCase(STATUS_CANCELADO)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Status " + STATUS_CANCELADO + " não encontrado"))
+                .getId();
+        cotaRepository.recalcular(unidadePenal.getId(), mes(inicioMes), inicioMes.atStartOfDay(), statusCanceladoId);
+        log.info("Cotas mensais de visitantes da unidade penal {} recalculadas a partir de {}",
+                unidadePenal.getId(), inicioMes);
+    }
+
+    /**
+     * Mensagem de recusa por cota esgotada.
+     */
+    public static String mensagemCotaEsgotada(UnidadePenal unidadePenal) {
+        return String.format(MSG_COTA_ESGOTADA, unidadePenal.getCotaMensalVisitante(), unidadePenal.getNome());
+    }
+
+    private static int mes(LocalDate dia) {
+        return dia.getYear() * 100 + dia.getMonthValue();
+    }
+}
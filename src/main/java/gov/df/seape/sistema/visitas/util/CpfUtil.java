@@ -0,0 +1,134 @@
+package gov.df.seape.sistema.visitas.util;
+
+/**
+ * Classe utilitária para normalização e validação de CPFs.
+ *
+ * O CPF é armazenado apenas com dígitos e também como número ({@code Pessoa.cpfNumero}),
+ * que é a chave usada nas consultas. Pontos, traços e espaços de CPFs formatados
+ * ("111.222.333-44") são ignorados.
+ */
+public final class CpfUtil {
+
+    private static final int TAMANHO = 11;
+
+    private CpfUtil() {
+    }
+
+    /**
+     * Remove a formatação de um CPF.
+     *
+     * @param cpf CPF com ou sem pontos e traço
+     * @return Os 11 dígitos do CPF, ou null se o texto não contiver exatamente 11 dígitos
+     */
+    public static String normalizar(String cpf) {
+        long numero = converter(cpf);
+        return numero < 0 ? null : formatarDigitos(numero);
+    }
+
+    /**
+     * Converte o CPF para a chave numérica usada nas consultas.
+     *
+     * @param cpf CPF com ou sem pontos e traço
+     * @return CPF como número, ou null se o texto não contiver exatamente 11 dígitos
+     */
+    public static Long paraNumero(String cpf) {
+        long numero = converter(cpf);
+        return numero < 0 ? null : numero;
+    }
+
+    /**
+     * Formata a chave numérica como os 11 dígitos do CPF, com zeros à esquerda.
+     *
+     * @param numero CPF como número
+     * @return Os 11 dígitos do CPF
+     */
+    public static String formatarDigitos(long numero) {
+        char[] digitos = new char[TAMANHO];
+        for (int i = TAMANHO - 1; i >= 0; i--) {
+            digitos[i] = (char) ('0' + numero % 10);
+            numero /= 10;
+        }
+        return new String(digitos);
+    }
+
+    /**
+     * Valida os dígitos verificadores do CPF em uma única passagem, sem criar objetos.
+     * CPFs com todos os dígitos iguais são rejeitados.
+     *
+     * @param cpf CPF com ou sem pontos e traço
+     * @return true se o CPF for válido
+     */
+    public static boolean valido(String cpf) {
+        if (cpf == null) {
+            return false;
+        }
+        int quantidade = 0;
+        int soma1 = 0;
+        int soma2 = 0;
+        int primeiro = -1;
+        int verificador1 = 0;
+        int verificador2 = 0;
+        boolean todosIguais = true;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (separador(c)) {
+                continue;
+            }
+            if (c < '0' || c > '9' || quantidade == TAMANHO) {
+                return false;
+            }
+            int digito = c - '0';
+            if (primeiro < 0) {
+                primeiro = digito;
+            } else if (digito != primeiro) {
+                todosIguais = false;
+            }
+            if (quantidade < 9) {
+                soma1 += digito * (10 - quantidade);
+                soma2 += digito * (11 - quantidade);
+            } else if (quantidade == 9) {
+                verificador1 = digito;
+                soma2 += digito * 2;
+            } else {
+                verificador2 = digito;
+            }
+            quantidade++;
+        }
+        if (quantidade != TAMANHO || todosIguais) {
+            return false;
+        }
+        int resto1 = 11 - (soma1 % 11);
+        int resto2 = 11 - (soma2 % 11);
+        return verificador1 == (resto1 >= 10 ? 0 : resto1)
+                && verificador2 == (resto2 >= 10 ? 0 : resto2);
+    }
+
+    /**
+     * Lê os dígitos do CPF ignorando a formatação.
+     *
+     * @return O CPF como número, ou -1 se o texto não contiver exatamente 11 dígitos
+     */
+    private static long converter(String cpf) {
+        if (cpf == null) {
+            return -1;
+        }
+        long numero = 0;
+        int quantidade = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (separador(c)) {
+                continue;
+            }
+            if (c < '0' || c > '9' || quantidade == TAMANHO) {
+                return -1;
+            }
+            numero = numero * 10 + (c - '0');
+            quantidade++;
+        }
+        return quantidade == TAMANHO ? numero : -1;
+    }
+
+    private static boolean separador(char c) {
+        return c == '.' || c == '-' || c == ' ';
+    }
+}
@@ -0,0 +1,32 @@
+package gov.df.seape.sistema.visitas.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia para depois do commit da transação corrente as atualizações de estado em memória
+ * (índices de busca, caches, versões), para que não reflitam escritas desfeitas por rollback.
+ */
+public final class ExecucaoAposCommit {
+
+    private ExecucaoAposCommit() {
+    }
+
+    /**
+     * Executa a ação após o commit, ou imediatamente se não houver transação ativa.
+     *
+     * @param acao Ação a ser executada
+     */
+    public static void executar(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package gov.df.seape.sistema.visitas.util;
+
+import java.util.Set;
+
+/**
+ * Classe utilitária que gera uma chave fonética para nomes em português do Brasil.
+ *
+ * Inspirada no algoritmo BuscaBR: grafias com o mesmo som recebem o mesmo código
+ * ("ç", "ss", "sc" e "c" antes de e/i viram "s"; "ph" vira "f"; "y" vira "i";
+ * "lh" e "nh" viram "li" e "ni"; "h" mudo é descartado), as vogais após a primeira
+ * letra são removidas e letras repetidas são reduzidas a uma. Assim "Thiago Souza"
+ * e "Tiago Sousa" produzem a mesma chave. Preposições de nomes ("da", "dos", ...)
+ * são ignoradas.
+ */
+public final class FoneticaBR {
+
+    private static final Set<String> PARTICULAS = Set.of("da", "das", "de", "di", "do", "dos", "du", "e");
+
+    private FoneticaBR() {
+    }
+
+    /**
+     * Gera a chave fonética de um nome.
+     *
+     * @param nome Nome original
+     * @return Códigos fonéticos das palavras do nome separados por espaço, ou null se o nome for null
+     */
+    public static String codificar(String nome) {
+        if (nome == null) {
+            return null;
+        }
+        // "ç" tem som de "s"; precisa ser tratado antes da remoção dos acentos
+        String normalizado = NormalizadorTexto.normalizar(nome.replace('ç', 's').replace('Ç', 's'));
+        StringBuilder chave = new StringBuilder(normalizado.length());
+        for (String palavra : normalizado.split(" ")) {
+            if (palavra.isEmpty() || PARTICULAS.contains(palavra)) {
+                continue;
+            }
+            String codigo = codificarPalavra(palavra);
+            if (!codigo.isEmpty()) {
+                if (chave.length() > 0) {
+                    chave.append(' ');
+                }
+                chave.append(codigo);
+            }
+        }
+        return chave.toString();
+    }
+
+    private static String codificarPalavra(String palavra) {
+        StringBuilder sons = new StringBuilder(palavra.length());
+        int n = palavra.length();
+        for (int i = 0; i < n; i++) {
+            char c = palavra.charAt(i);
+            char proximo = i + 1 < n ? palavra.charAt(i + 1) : '\0';
+            switch (c) {
+                case 'a', 'e', 'i', 'o', 'u' -> sons.append(c);
+                case 'y' -> sons.append('i');
+                case 'h' -> {
+                    // "h" mudo; os dígrafos com "h" são tratados pela consoante anterior
+                }
+                case 'c' -> {
+                    if (proximo == 'h') {
+                        sons.append('x');
+                        i++;
+                    } else if (proximo == 'e' || proximo == 'i' || proximo == 'y') {
+                        sons.append('s');
+                    } else {
+                        sons.append('k');
+                    }
+                }
+                case 'k', 'q' -> {
+                    sons.append('k');
+                    if (proximo == 'u' && i + 2 < n && eOuI(palavra.charAt(i + 2))) {
+                        i++;
+                    }
+                }
+                case 'g' -> {
+                    if (eOuI(proximo)) {
+                        sons.append('j');
+                    } else {
+                        sons.append('g');
+                        if (proximo == 'u' && i + 2 < n && eOuI(palavra.charAt(i + 2))) {
+                            i++;
+                        }
+                    }
+                }
+                case 'p' -> {
+                    if (proximo == 'h') {
+                        sons.append('f');
+                        i++;
+                    } else {
+                        sons.append('p');
+                    }
+                }
+                case 's' -> {
+                    if (proximo == 'h') {
+                        sons.append('x');
+                        i++;
+                    } else if (proximo == 'c' && i + 2 < n && eOuI(palavra.charAt(i + 2))) {
+                        sons.append('s');
+                        i++;
+                    } else {
+                        sons.append('s');
+                    }
+                }
+                case 'z' -> sons.append('s');
+                case 'l', 'n' -> {
+                    if (proximo == 'h') {
+                        sons.append(c).append('i');
+                        i++;
+                    } else if (c == 'l' && i == n - 1) {
+                        sons.append('u');
+                    } else if (c == 'n' && i == n - 1) {
+                        sons.append('m');
+                    } else {
+                        sons.append(c);
+                    }
+                }
+                case 'w' -> sons.append('v');
+                default -> {
+                    if (c >= 'a' && c <= 'z') {
+                        sons.append(c);
+                    }
+                }
+            }
+        }
+        return reduzir(sons);
+    }
+
+    /**
+     * Mantém o primeiro som, remove as vogais seguintes e colapsa letras repetidas.
+     */
+    private static String reduzir(CharSequence sons) {
+        StringBuilder codigo = new StringBuilder(sons.length());
+        for (int i = 0; i < sons.length(); i++) {
+            char c = sons.charAt(i);
+            if (i > 0 && vogal(c)) {
+                continue;
+            }
+            if (codigo.length() == 0 || codigo.charAt(codigo.length() - 1) != c) {
+                codigo.append(c);
+            }
+        }
+        return codigo.toString();
+    }
+
+    private static boolean eOuI(char c) {
+        return c == 'e' || c == 'i' || c == 'y';
+    }
+
+    private static boolean vogal(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
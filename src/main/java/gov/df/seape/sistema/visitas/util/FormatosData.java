@@ -0,0 +1,18 @@
+package gov.df.seape.sistema.visitas.util;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formatos de data compartilhados pelas respostas da API.
+ *
+ * {@link DateTimeFormatter} é imutável e seguro entre threads, então cada padrão é
+ * criado uma única vez em vez de a cada objeto convertido.
+ */
+public final class FormatosData {
+
+    /** Data e hora no formato exibido nas telas, por exemplo "25/12/2024 14:30". */
+    public static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private FormatosData() {
+    }
+}
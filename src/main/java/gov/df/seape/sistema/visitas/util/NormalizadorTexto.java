@@ -0,0 +1,35 @@
+package gov.df.seape.sistema.visitas.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Classe utilitária para normalização de textos usados em buscas.
+ *
+ * Remove acentos e demais marcas diacríticas, converte para minúsculas e reduz
+ * sequências de espaços a um único espaço, de modo que "João  da Conceição"
+ * e "joao da conceicao" produzam a mesma chave.
+ */
+public final class NormalizadorTexto {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private NormalizadorTexto() {
+    }
+
+    /**
+     * Normaliza um texto para comparação em buscas.
+     *
+     * @param texto Texto original
+     * @return Texto sem acentos, em minúsculas e com espaços simplificados, ou null se o texto for null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
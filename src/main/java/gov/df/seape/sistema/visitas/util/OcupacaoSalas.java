@@ -0,0 +1,182 @@
+package gov.df.seape.sistema.visitas.util;
+
+import gov.df.seape.sistema.visitas.exception.AgendamentoConflitanteException;
+import gov.df.seape.sistema.visitas.exception.RecursoNaoEncontradoException;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
+import gov.df.seape.sistema.visitas.repository.OcupacaoSalaRepository;
+import gov.df.seape.sistema.visitas.repository.StatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Capacidade das salas de visita das unidades penais que definem
+ * {@link UnidadePenal#getSalasVisita()}: cada visita ocupa uma sala por
+ * {@link UnidadePenal#getDuracaoVisitaMinutos()} minutos e, em nenhuma faixa de horário,
+ * pode haver mais visitas simultâneas do que salas.
+ *
+ * A admissão consulta primeiro uma {@link ArvoreOcupacao} em memória por unidade e dia,
+ * em O(log n), e recusa sem ir ao banco os horários já lotados. A árvore é descartada
+ * quando a versão dos agendamentos do dia muda ({@link RegistroVersoes}) e remontada
+ * com uma consulta na próxima admissão. A garantia vem dos contadores por faixa no
+ * banco ({@link OcupacaoSalaRepository}), incrementados condicionalmente na mesma
+ * transação do agendamento.
+ *
+ * Fluxos que alteram muitos agendamentos de uma vez (bloqueios, transferências,
+ * sorteios, mudança de salas ou duração) recalculam os contadores da unidade com
+ * {@link #recalcular(UnidadePenal, LocalDate)}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OcupacaoSalas {
+
+    public static final String MSG_SALAS_OCUPADAS = "Não há sala de visita disponível neste horário.";
+    private static final String STATUS_CANCELADO = "CANCELADO";
+
+    private final AgendamentoVisitaRepository agendamentoRepository;
+    private final OcupacaoSalaRepository ocupacaoSalaRepository;
+    private final StatusRepository statusRepository;
+    private final RegistroVersoes registroVersoes;
+    private final Map<Chave, Entrada> arvores = new ConcurrentHashMap<>();
+
+    private record Chave(Long unidadePenalId, LocalDate dia) {
+    }
+
+    private record Entrada(long versao, ArvoreOcupacao arvore) {
+    }
+
+    /**
+     * Ocupa uma sala para a visita.
+     *
+     * @param unidadePenal Unidade penal do custodiado
+     * @param dataHora Data e hora da visita
+     * @throws AgendamentoConflitanteException se não houver sala livre no período
+     */
+    public void ocupar(UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        if (!tentarOcupar(unidadePenal, dataHora)) {
+            throw new AgendamentoConflitanteException(MSG_SALAS_OCUPADAS);
+        }
+    }
+
+    /**
+     * Ocupa uma sala para a visita, se houver.
+     *
+     * @param unidadePenal Unidade penal do custodiado
+     * @param dataHora Data e hora da visita
+     * @return true se a sala foi ocupada (ou a unidade não limita salas)
+     */
+    public boolean tentarOcupar(UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        Integer salas = unidadePenal.getSalasVisita();
+        if (salas == null) {
+            return true;
+        }
+        int ocupadas = arvore(unidadePenal, dataHora.toLocalDate())
+                .maximo(dataHora.toLocalTime(), unidadePenal.getDuracaoVisitaMinutos());
+        if (ocupadas >= salas) {
+            log.debug("Salas da unidade penal {} lotadas em {}", unidadePenal.getId(), dataHora);
+            return false;
+        }
+        return ocupacaoSalaRepository.ocupar(unidadePenal.getId(), faixas(unidadePenal, dataHora), salas);
+    }
+
+    /**
+     * Libera a sala ocupada por uma visita cancelada.
+     *
+     * @param unidadePenal Unidade penal do custodiado
+     * @param dataHora Data e hora da visita
+     */
+    public void liberar(UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        if (unidadePenal.getSalasVisita() != null) {
+            ocupacaoSalaRepository.liberar(unidadePenal.getId(), faixas(unidadePenal, dataHora));
+        }
+    }
+
+    /**
+     * Move a visita para outro horário ou unidade. A ocupação anterior é liberada antes
+     * da nova, e a verificação vai direto ao banco, já que a árvore do dia ainda conta
+     * a visita no horário anterior.
+     *
+     * @throws AgendamentoConflitanteException se não houver sala livre no novo período
+     */
+    public void realocar(UnidadePenal unidadeAnterior, LocalDateTime dataHoraAnterior,
+                         UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        liberar(unidadeAnterior, dataHoraAnterior);
+        Integer salas = unidadePenal.getSalasVisita();
+        if (salas != null && !ocupacaoSalaRepository.ocupar(unidadePenal.getId(), faixas(unidadePenal, dataHora), salas)) {
+            throw new AgendamentoConflitanteException(MSG_SALAS_OCUPADAS);
+        }
+    }
+
+    /**
+     * Recalcula os contadores da unidade a partir de um dia, com base nos agendamentos
+     * não cancelados, e descarta as árvores da unidade após o commit.
+     *
+     * @param unidadePenal Unidade penal
+     * @param aPartirDe Primeiro dia recalculado
+     */
+    public void recalcular(UnidadePenal unidadePenal, LocalDate aPartirDe) {
+        LocalDateTime inicio = aPartirDe.atStartOfDay();
+        Map<LocalDateTime, Integer> ocupacao = new TreeMap<>();
+        if (unidadePenal.getSalasVisita() != null) {
+            for (LocalDateTime dataHora : agendamentoRepository.findDataHoraAtivosDaUnidadeAPartirDe(
+                    unidadePenal.getId(), statusCanceladoId(), inicio)) {
+                faixas(unidadePenal, dataHora).forEach(faixa -> ocupacao.merge(faixa, 1, Integer::sum));
+            }
+        }
+        ocupacaoSalaRepository.substituir(unidadePenal.getId(), inicio, ocupacao);
+
+        Long unidadePenalId = unidadePenal.getId();
+        ExecucaoAposCommit.executar(() -> arvores.keySet().removeIf(chave -> chave.unidadePenalId().equals(unidadePenalId)));
+        log.info("Ocupação das salas da unidade penal {} recalculada a partir de {}: {} faixas ocupadas",
+                unidadePenalId, aPartirDe, ocupacao.size());
+    }
+
+    private ArvoreOcupacao arvore(UnidadePenal unidadePenal, LocalDate dia) {
+        Chave chave = new Chave(unidadePenal.getId(), dia);
+        // A versão é lida antes da consulta: uma escrita concorrente força nova carga
+        long versao = registroVersoes.versao(RegistroVersoes.agendamentosDoDia(dia));
+        Entrada entrada = arvores.get(chave);
+        if (entrada != null && entrada.versao() == versao) {
+            return entrada.arvore();
+        }
+
+        ArvoreOcupacao arvore = new ArvoreOcupacao();
+        Long statusCanceladoId = statusCanceladoId();
+        for (Object[] linha : agendamentoRepository.findDataHoraEStatusDaUnidadeNoPeriodo(
+                unidadePenal.getId(), dia.atStartOfDay(), dia.atTime(23, 59, 59))) {
+            if (!statusCanceladoId.equals(linha[2])) {
+                arvore.adicionar(((LocalDateTime) linha[1]).toLocalTime(), unidadePenal.getDuracaoVisitaMinutos(), 1);
+            }
+        }
+        LocalDate hoje = LocalDate.now();
+        arvores.keySet().removeIf(c -> c.dia().isBefore(hoje));
+        arvores.put(chave, new Entrada(versao, arvore));
+        return arvore;
+    }
+
+    private static List<LocalDateTime> faixas(UnidadePenal unidadePenal, LocalDateTime dataHora) {
+        LocalDateTime inicioDia = dataHora.toLocalDate().atStartOfDay();
+        int fim = ArvoreOcupacao.fimFaixas(dataHora.toLocalTime(), unidadePenal.getDuracaoVisitaMinutos());
+        List<LocalDateTime> faixas = new ArrayList<>();
+        for (int faixa = ArvoreOcupacao.primeiraFaixa(dataHora.toLocalTime()); faixa < fim; faixa++) {
+            faixas.add(inicioDia.plusMinutes((long) faixa * ArvoreOcupacao.MINUTOS_POR_FAIXA));
+        }
+        return faixas;
+    }
+
+    private Long statusCanceladoId() {
+        return statusRepository.findByDescricaoIgnoreCase(STATUS_CANCELADO)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Status " + STATUS_CANCELADO + " não encontrado"))
+                .getId();
+    }
+}
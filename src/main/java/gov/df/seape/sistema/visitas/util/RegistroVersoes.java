@@ -0,0 +1,96 @@
+package gov.df.seape.sistema.visitas.util;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de versão por agregado, usados como ETag das listagens consultadas
+ * periodicamente pelos terminais.
+ *
+ * Os serviços registram a alteração de cada agregado após o commit da escrita. Os
+ * controladores leem a versão <b>antes</b> de executar a consulta: se uma escrita
+ * ocorrer no meio, a resposta leva dados novos com a versão antiga e o próximo
+ * polling apenas recebe o corpo de novo, nunca o contrário.
+ *
+ * Os contadores ficam em memória e recomeçam a cada inicialização; por isso a ETag
+ * inclui o instante de inicialização, evitando que uma versão antiga volte a valer.
+ */
+@Component
+public class RegistroVersoes {
+
+    /** Dados de referência: status, unidades penais, perfis e funcionalidades. */
+    public static final String CADASTROS = "cadastros";
+
+    /** Dados de pessoas exibidos nas listagens (nomes, CPF). */
+    public static final String PESSOAS = "pessoas";
+
+    private final long inicio = System.currentTimeMillis();
+    private final Map<String, AtomicLong> versoes = new ConcurrentHashMap<>();
+
+    /**
+     * Chave dos agendamentos de um dia.
+     *
+     * @param dia Dia dos agendamentos
+     * @return Chave do agregado
+     */
+    public static String agendamentosDoDia(LocalDate dia) {
+        return "agendamentos:" + dia;
+    }
+
+    /**
+     * Chave dos custodiados de uma unidade penal.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @return Chave do agregado
+     */
+    public static String custodiadosDaUnidade(Long unidadePenalId) {
+        return "custodiados:unidade:" + unidadePenalId;
+    }
+
+    /**
+     * Incrementa a versão dos agregados após o commit da transação corrente,
+     * ou imediatamente se não houver transação ativa.
+     *
+     * @param chaves Chaves dos agregados alterados
+     */
+    public void registrarAlteracao(String... chaves) {
+        ExecucaoAposCommit.executar(() -> incrementar(chaves));
+    }
+
+    /**
+     * Monta a ETag forte que identifica o estado atual dos agregados informados.
+     *
+     * @param chaves Chaves dos agregados que compõem a resposta
+     * @return ETag entre aspas
+     */
+    public String etag(String... chaves) {
+        StringBuilder etag = new StringBuilder("\"").append(Long.toString(inicio, 36));
+        for (String chave : chaves) {
+            AtomicLong versao = versoes.get(chave);
+            etag.append('-').append(versao == null ? 0L : versao.get());
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Versão atual de um agregado, para caches em memória que precisam saber se ele
+     * mudou desde a carga.
+     *
+     * @param chave Chave do agregado
+     * @return Versão atual (0 se nunca alterado)
+     */
+    public long versao(String chave) {
+        AtomicLong versao = versoes.get(chave);
+        return versao == null ? 0L : versao.get();
+    }
+
+    private void incrementar(String... chaves) {
+        for (String chave : chaves) {
+            versoes.computeIfAbsent(chave, c -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package gov.df.seape.sistema.visitas.util;
+
+/**
+ * Classe utilitária para medir a similaridade entre textos curtos, como nomes.
+ */
+public final class SimilaridadeTexto {
+
+    private static final double PESO_PREFIXO = 0.1;
+    private static final int TAMANHO_MAXIMO_PREFIXO = 4;
+
+    private SimilaridadeTexto() {
+    }
+
+    /**
+     * Calcula a similaridade de Jaro-Winkler, que favorece textos com o mesmo início
+     * e tolera erros de digitação e letras trocadas de posição.
+     *
+     * @param a Primeiro texto
+     * @param b Segundo texto
+     * @return Valor entre 0 (nenhuma semelhança) e 1 (textos iguais)
+     */
+    public static double jaroWinkler(String a, String b) {
+        if (a == null || b == null) {
+            return 0.0;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        int tamanhoA = a.length();
+        int tamanhoB = b.length();
+        if (tamanhoA == 0 || tamanhoB == 0) {
+            return 0.0;
+        }
+
+        int janela = Math.max(0, Math.max(tamanhoA, tamanhoB) / 2 - 1);
+        boolean[] casadosA = new boolean[tamanhoA];
+        boolean[] casadosB = new boolean[tamanhoB];
+        int coincidencias = 0;
+        for (int i = 0; i < tamanhoA; i++) {
+            int inicio = Math.max(0, i - janela);
+            int fim = Math.min(i + janela + 1, tamanhoB);
+            for (int j = inicio; j < fim; j++) {
+                if (!casadosB[j] && a.charAt(i) == b.charAt(j)) {
+                    casadosA[i] = true;
+                    casadosB[j] = true;
+                    coincidencias++;
+                    break;
+                }
+            }
+        }
+        if (coincidencias == 0) {
+            return 0.0;
+        }
+
+        int transposicoes = 0;
+        int k = 0;
+        for (int i = 0; i < tamanhoA; i++) {
+            if (casadosA[i]) {
+                while (!casadosB[k]) {
+                    k++;
+                }
+                if (a.charAt(i) != b.charAt(k)) {
+                    transposicoes++;
+                }
+                k++;
+            }
+        }
+
+        double m = coincidencias;
+        double jaro = (m / tamanhoA + m / tamanhoB + (m - transposicoes / 2.0) / m) / 3.0;
+
+        int prefixo = 0;
+        int limite = Math.min(TAMANHO_MAXIMO_PREFIXO, Math.min(tamanhoA, tamanhoB));
+        while (prefixo < limite && a.charAt(prefixo) == b.charAt(prefixo)) {
+            prefixo++;
+        }
+        return jaro + prefixo * PESO_PREFIXO * (1.0 - jaro);
+    }
+}
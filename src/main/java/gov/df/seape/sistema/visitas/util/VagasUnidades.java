@@ -0,0 +1,176 @@
+package gov.df.seape.sistema.visitas.util;
+
+import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.repository.UnidadePenalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém o contador de ocupação das unidades penais coerente com os custodiados cadastrados.
+ *
+ * O contador é atualizado por UPDATEs condicionais a cada inclusão, transferência ou
+ * exclusão de custodiado. Cada UPDATE trava a linha da unidade até o commit; para que a
+ * trava não cubra o restante da operação (cancelamento de agendamentos, recálculo de
+ * salas e cotas), as vagas são movidas em uma transação própria, confirmada na hora.
+ * Se a transação que chamou for desfeita depois, a movimentação é revertida também em
+ * transação própria. Uma reversão que falhe deixa o contador divergente até a próxima
+ * reconciliação.
+ *
+ * Bancos criados antes da coluna ocupacao, ou alterados fora da aplicação, partem de um
+ * valor que não corresponde à contagem real; por isso a ocupação é reconciliada com a
+ * contagem de custodiados na inicialização.
+ */
+@Component
+@Slf4j
+public class VagasUnidades {
+
+    private final UnidadePenalRepository unidadePenalRepository;
+    private final TransactionTemplate transacaoPropria;
+
+    public VagasUnidades(UnidadePenalRepository unidadePenalRepository, PlatformTransactionManager transactionManager) {
+        this.unidadePenalRepository = unidadePenalRepository;
+        this.transacaoPropria = new TransactionTemplate(transactionManager);
+        this.transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Ocupa vagas na unidade penal, falhando se não houver capacidade para todas.
+     *
+     * @param unidadePenal Unidade penal
+     * @param quantidade Quantidade de vagas
+     * @throws OperacaoInvalidaException se a unidade não tiver capacidade
+     */
+    public void ocupar(UnidadePenal unidadePenal, int quantidade) {
+        transferir(Map.of(), unidadePenal, quantidade);
+    }
+
+    /**
+     * Libera vagas na unidade penal.
+     *
+     * @param unidadePenalId ID da unidade penal
+     * @param quantidade Quantidade de vagas
+     */
+    public void liberar(Long unidadePenalId, int quantidade) {
+        mover(Map.of(unidadePenalId, -quantidade), null);
+    }
+
+    /**
+     * Move as vagas das unidades de origem para a de destino. Se o destino não tiver
+     * capacidade, nenhuma vaga é movida.
+     *
+     * @param saidasPorUnidade Quantidade de custodiados que sai de cada unidade de origem
+     * @param destino Unidade penal de destino
+     * @param quantidade Total de custodiados que entram no destino
+     * @throws OperacaoInvalidaException se o destino não tiver capacidade
+     */
+    public void transferir(Map<Long, Integer> saidasPorUnidade, UnidadePenal destino, int quantidade) {
+        Map<Long, Integer> variacoes = new TreeMap<>();
+        saidasPorUnidade.forEach((unidadeId, saidas) -> variacoes.merge(unidadeId, -saidas, Integer::sum));
+        variacoes.merge(destino.getId(), quantidade, Integer::sum);
+        mover(variacoes, destino);
+    }
+
+    /**
+     * Recalcula, em um único UPDATE, a ocupação das unidades cujo contador diverge da
+     * quantidade de custodiados.
+     *
+     * @return Quantidade de unidades corrigidas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int reconciliar() {
+        int corrigidas = unidadePenalRepository.reconciliarOcupacao();
+        if (corrigidas > 0) {
+            log.warn("Ocupação recalculada a partir dos custodiados em {} unidade(s) penal(is)", corrigidas);
+        }
+        return corrigidas;
+    }
+
+    /**
+     * Aplica as variações de ocupação em transação própria. As linhas são atualizadas
+     * sempre na ordem dos IDs, para que movimentações cruzadas simultâneas não entrem em
+     * deadlock.
+     */
+    private void mover(Map<Long, Integer> variacoes, UnidadePenal destino) {
+        Map<Long, Integer> aplicadas = transacaoPropria.execute(status -> {
+            Map<Long, Integer> feitas = new TreeMap<>();
+            for (Map.Entry<Long, Integer> variacao : new TreeMap<>(variacoes).entrySet()) {
+                Long unidadeId = variacao.getKey();
+                int quantidade = variacao.getValue();
+                if (quantidade > 0) {
+                    if (unidadePenalRepository.ocuparVagas(unidadeId, quantidade) == 0) {
+                        log.warn("Unidade penal sem vagas suficientes. ID: {}, capacidade: {}, solicitadas: {}",
+                                unidadeId, destino.getCapacidade(), quantidade);
+                        throw new OperacaoInvalidaException("A unidade penal " + destino.getNome()
+                                + " não tem capacidade para receber " + quantidade + " custodiado(s).");
+                    }
+                    feitas.put(unidadeId, quantidade);
+                } else if (quantidade < 0) {
+                    if (liberarVagas(unidadeId, -quantidade)) {
+                        feitas.put(unidadeId, quantidade);
+                    }
+                }
+            }
+            return feitas;
+        });
+        reverterSeDesfeita(aplicadas);
+    }
+
+    /**
+     * Registra a reversão das variações para o caso de rollback da transação corrente.
+     * Sem transação ativa, não há o que reverter.
+     */
+    private void reverterSeDesfeita(Map<Long, Integer> aplicadas) {
+        if (aplicadas.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    reverter(aplicadas);
+                }
+            }
+        });
+    }
+
+    private void reverter(Map<Long, Integer> aplicadas) {
+        try {
+            transacaoPropria.executeWithoutResult(status -> aplicadas.forEach((unidadeId, quantidade) -> {
+                if (quantidade > 0) {
+                    liberarVagas(unidadeId, quantidade);
+                } else {
+                    unidadePenalRepository.restaurarVagas(unidadeId, -quantidade);
+                }
+            }));
+            log.info("Movimentação de vagas revertida após rollback: {}", aplicadas);
+        } catch (RuntimeException e) {
+            log.error("Falha ao reverter a movimentação de vagas {}; o contador será corrigido na próxima reconciliação",
+                    aplicadas, e);
+        }
+    }
+
+    /**
+     * Libera vagas na unidade penal. Um UPDATE sem efeito indica que o contador já estava
+     * abaixo da quantidade real de custodiados: a divergência é registrada e corrigida na
+     * próxima reconciliação.
+     */
+    private boolean liberarVagas(Long unidadePenalId, int quantidade) {
+        if (unidadePenalRepository.liberarVagas(unidadePenalId, quantidade) == 0) {
+            log.warn("Ocupação da unidade penal {} menor que as {} vaga(s) liberada(s); contador divergente",
+                    unidadePenalId, quantidade);
+            return false;
+        }
+        return true;
+    }
+}
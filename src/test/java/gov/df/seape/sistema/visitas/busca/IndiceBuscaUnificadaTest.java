@@ -0,0 +1,130 @@
+package gov.df.seape.sistema.visitas.busca;
+
+import gov.df.seape.sistema.visitas.busca.IndiceBuscaUnificada.Correspondencia;
+import gov.df.seape.sistema.visitas.busca.IndiceBuscaUnificada.Pagina;
+import gov.df.seape.sistema.visitas.busca.IndiceBuscaUnificada.Resultado;
+import gov.df.seape.sistema.visitas.busca.IndiceBuscaUnificada.Tipo;
+import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
+import gov.df.seape.sistema.visitas.repository.VisitanteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceBuscaUnificadaTest {
+
+    @Mock
+    private CustodiadoRepository custodiadoRepository;
+
+    @Mock
+    private VisitanteRepository visitanteRepository;
+
+    private IndiceBuscaUnificada indice;
+
+    @BeforeEach
+    void setUp() {
+        // Sem transação ativa, as atualizações do índice são aplicadas na hora
+        indice = new IndiceBuscaUnificada(custodiadoRepository, visitanteRepository, 5000);
+        indice.carregar();
+
+        indice.indexarCustodiado(1L, 11L, "Ana Paula", "111.444.777-35", "Silva", "P-100");
+        indice.indexarVisitante(2L, 12L, "João da Silva", "529.982.247-25");
+        indice.indexarVisitante(3L, 13L, "Marcos Dasilva", "390.533.447-05");
+        indice.indexarCustodiado(4L, 14L, "Silvana Souza", "862.883.667-57", null, "P-1000");
+    }
+
+    @Test
+    void resultadosDevemSeguirAOrdemDeCorrespondenciaENome() {
+        Pagina pagina = indice.buscar("silva", null, 10);
+
+        assertEquals(List.of("CUSTODIADO:1", "VISITANTE:2", "CUSTODIADO:4", "VISITANTE:3"), chaves(pagina));
+        assertEquals(List.of(Correspondencia.PREFIXO, Correspondencia.PREFIXO, Correspondencia.PREFIXO,
+                Correspondencia.SUBSTRING), pagina.itens().stream().map(Resultado::correspondencia).toList());
+        assertNull(pagina.proximoCursor());
+    }
+
+    @Test
+    void documentoExatoDeveVirAntesDoPrefixo() {
+        Pagina porProntuario = indice.buscar("P-100", null, 10);
+        assertEquals(List.of("CUSTODIADO:1", "CUSTODIADO:4"), chaves(porProntuario));
+        assertEquals(Correspondencia.EXATA, porProntuario.itens().get(0).correspondencia());
+        assertEquals(Correspondencia.PREFIXO, porProntuario.itens().get(1).correspondencia());
+
+        Pagina porCpf = indice.buscar("111.444.777-35", null, 10);
+        assertEquals(List.of("CUSTODIADO:1"), chaves(porCpf));
+        assertEquals(Correspondencia.EXATA, porCpf.itens().get(0).correspondencia());
+    }
+
+    @Test
+    void cursorDeveCodificarAPosicaoDoUltimoItemEmBase64() {
+        Pagina primeira = indice.buscar("silva", null, 2);
+
+        String posicao = new String(Base64.getUrlDecoder().decode(primeira.proximoCursor()), StandardCharsets.UTF_8);
+        assertEquals("PREFIXO;VISITANTE;2;joao da silva", posicao);
+
+        Pagina segunda = indice.buscar("silva", primeira.proximoCursor(), 2);
+        assertEquals(List.of("CUSTODIADO:4", "VISITANTE:3"), chaves(segunda));
+        assertNull(segunda.proximoCursor());
+    }
+
+    @Test
+    void paginacaoDeveSerEstavelQuandoOIndiceMudaEntreAsPaginas() {
+        Pagina primeira = indice.buscar("silva", null, 2);
+        assertEquals(List.of("CUSTODIADO:1", "VISITANTE:2"), chaves(primeira));
+
+        // Um registro anterior ao cursor não é repetido; um posterior entra na página seguinte
+        indice.indexarVisitante(5L, 15L, "Bruno Silva", null);
+        indice.indexarVisitante(6L, 16L, "Pedro Silva", null);
+        indice.remover(Tipo.CUSTODIADO, 4L);
+
+        Pagina segunda = indice.buscar("silva", primeira.proximoCursor(), 2);
+        assertEquals(List.of("VISITANTE:6", "VISITANTE:3"), chaves(segunda));
+        assertNull(segunda.proximoCursor());
+    }
+
+    @Test
+    void paginasPequenasDevemPercorrerTodosOsResultadosNaMesmaOrdem() {
+        for (long id = 100; id < 130; id++) {
+            indice.indexarVisitante(id, id + 1000, "Visitante Silva " + (char) ('a' + (id * 7) % 26), null);
+        }
+        List<String> todos = chaves(indice.buscar("silva", null, 100));
+
+        List<String> percorridos = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina pagina = indice.buscar("silva", cursor, 3);
+            assertTrue(pagina.itens().size() <= 3);
+            percorridos.addAll(chaves(pagina));
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+
+        assertEquals(34, todos.size());
+        assertEquals(todos, percorridos);
+    }
+
+    @Test
+    void cursorMalformadoDeveSerRecusado() {
+        String semCampos = Base64.getUrlEncoder().encodeToString("PREFIXO;VISITANTE".getBytes(StandardCharsets.UTF_8));
+        String correspondenciaDesconhecida = Base64.getUrlEncoder()
+                .encodeToString("PARCIAL;VISITANTE;2;joao".getBytes(StandardCharsets.UTF_8));
+        String idInvalido = Base64.getUrlEncoder()
+                .encodeToString("PREFIXO;VISITANTE;dois;joao".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("não é base64!", semCampos, correspondenciaDesconhecida, idInvalido)) {
+            assertThrows(IllegalArgumentException.class, () -> indice.buscar("silva", cursor, 2), cursor);
+        }
+    }
+
+    private static List<String> chaves(Pagina pagina) {
+        return pagina.itens().stream().map(r -> r.tipo() + ":" + r.id()).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package gov.df.seape.sistema.visitas.busca;
+
+import gov.df.seape.sistema.visitas.busca.IndiceSugestoes.Sugestao;
+import gov.df.seape.sistema.visitas.busca.IndiceSugestoes.Tipo;
+import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
+import gov.df.seape.sistema.visitas.repository.PessoaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceSugestoesTest {
+
+    @Mock
+    private PessoaRepository pessoaRepository;
+
+    @Mock
+    private CustodiadoRepository custodiadoRepository;
+
+    private IndiceNomes indiceNomes;
+    private IndiceSugestoes indice;
+
+    @BeforeEach
+    void setUp() {
+        // Sem transação ativa, as atualizações dos índices são aplicadas na hora
+        indiceNomes = new IndiceNomes(pessoaRepository, custodiadoRepository, 2000, 20000, 5000);
+        indiceNomes.carregar();
+        indice = new IndiceSugestoes(pessoaRepository, custodiadoRepository, indiceNomes, 5000);
+        indice.carregar();
+    }
+
+    @Test
+    void prefixosDevemVirAntesDosNomesSemelhantesOrdenadosPorTrigramasEmComum() {
+        indexarPessoa(1L, "Carlos Souza", "11144477735");
+        indexarPessoa(2L, "Paulo Souto", "52998224725");
+        indexarPessoa(3L, "Ana Ouzza", "39053344705");
+        indexarPessoa(4L, "Maria Souzza", "86288366757");
+
+        assertEquals(List.of(4L, 3L, 1L), ids(indice.sugerir("souzza", 10)));
+        assertEquals(List.of(4L, 3L), ids(indice.sugerir("souzza", 2)));
+    }
+
+    @Test
+    void prefixoDeQualquerPalavraDoNomeDeveSerSugerido() {
+        indexarPessoa(1L, "João da Silva", "11144477735");
+        indexarPessoa(2L, "Silvana Rocha", "52998224725");
+
+        List<Sugestao> sugestoes = indice.sugerir("SILV", 10);
+
+        assertEquals(List.of(1L, 2L), ids(sugestoes));
+        assertEquals("João da Silva", sugestoes.get(0).rotulo());
+    }
+
+    @Test
+    void documentoDeveSerComparadoApenasPelosDigitosESemSemelhanca() {
+        indexarPessoa(1L, "Carlos Souza", "11144477735");
+        indexarPessoa(2L, "Paulo Souto", "52998224725");
+        indice.indexarCustodiado(10L, "1112024");
+
+        List<Sugestao> sugestoes = indice.sugerir("111.444", 10);
+
+        assertEquals(List.of(new Sugestao(Tipo.PESSOA, 1L, "Carlos Souza")), sugestoes);
+        assertEquals(List.of(new Sugestao(Tipo.CUSTODIADO, 10L, "1112024")), indice.sugerir("111-2", 10));
+    }
+
+    @Test
+    void alteracaoERemocaoDevemAtualizarAsSugestoes() {
+        indexarPessoa(1L, "Pedro Alves", "11144477735");
+        indexarPessoa(1L, "Pedro Santos", "11144477735");
+
+        assertTrue(indice.sugerir("alves", 10).isEmpty());
+        assertEquals(List.of(1L), ids(indice.sugerir("santos", 10)));
+
+        indice.remover(Tipo.PESSOA, 1L);
+        indiceNomes.removerPessoa(1L);
+        assertTrue(indice.sugerir("pedro", 10).isEmpty());
+    }
+
+    private void indexarPessoa(Long id, String nome, String cpf) {
+        indiceNomes.indexarPessoa(id, nome);
+        indice.indexarPessoa(id, nome, cpf);
+    }
+
+    private static List<Long> ids(List<Sugestao> sugestoes) {
+        return sugestoes.stream().map(Sugestao::id).toList();
+    }
+}
@@ -0,0 +1,59 @@
+package gov.df.seape.sistema.visitas.busca;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceTrigramasTest {
+
+    @Test
+    void buscaDeveRetornarApenasTextosQueContemOTermo() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "João da Silva");
+        indice.indexar(2L, "Maria Silveira");
+        indice.indexar(3L, "Carlos Souza");
+
+        assertEquals(List.of(1L, 2L), indice.buscar("SILV", 10));
+        assertEquals(List.of(1L), indice.buscar("a silva", 10));
+        assertEquals(List.of(), indice.buscar("xyz", 10));
+    }
+
+    @Test
+    void buscaDeveIgnorarAcentosEEspacosRepetidos() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "Maria da Conceição");
+
+        assertEquals(List.of(1L), indice.buscar("conceicao", 10));
+        assertEquals(List.of(1L), indice.buscar("MARIA  DA", 10));
+    }
+
+    @Test
+    void trigramasEmOrdemDiferenteNaoDevemGerarFalsoPositivo() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "abcxbcd");
+
+        assertEquals(List.of(), indice.buscar("abcd", 10));
+    }
+
+    @Test
+    void reindexacaoERemocaoDevemAtualizarOIndice() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "Pedro Alves");
+        indice.indexar(1L, "Pedro Santos");
+
+        assertEquals(List.of(), indice.buscar("alves", 10));
+        assertEquals(List.of(1L), indice.buscar("santos", 10));
+
+        indice.remover(1L);
+        assertEquals(List.of(), indice.buscar("pedro", 10));
+        assertEquals(0, indice.tamanho());
+    }
+
+    @Test
+    void termosCurtosNaoDevemSerPesquisaveis() {
+        assertFalse(IndiceTrigramas.pesquisavel("ab"));
+        assertTrue(IndiceTrigramas.pesquisavel("abc"));
+    }
+}
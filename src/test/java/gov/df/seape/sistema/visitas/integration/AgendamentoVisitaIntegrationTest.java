@@ -12,9 +12,13 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
 
 import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -32,17 +36,18 @@ class AgendamentoVisitaIntegrationTest {
     private ObjectMapper objectMapper;
     
     @Test
-    @WithMockUser(roles = "USER")
+    @WithMockUser(username = "user@seape.df.gov.br", roles = "USER")
     void criarAgendamentoIntegrationTest() throws Exception {
         // Cria o DTO de requisição
         AgendamentoVisitaRequestDTO request = new AgendamentoVisitaRequestDTO();
         request.setCustodiadoId(1L);
         request.setVisitanteId(2L);
-        request.setDataHoraAgendamento(LocalDateTime.now().plusDays(1));
+        request.setDataHoraAgendamento(proximaVisita(DayOfWeek.WEDNESDAY, 0));
         request.setObservacoes("Agendamento de integração");
         
         // Realiza a chamada POST
         mockMvc.perform(post("/api/agendamentos")
+                .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isCreated())
@@ -51,16 +56,17 @@ class AgendamentoVisitaIntegrationTest {
     }
     
     @Test
-    @WithMockUser(roles = "USER")
+    @WithMockUser(username = "user@seape.df.gov.br", roles = "USER")
     void atualizarAgendamentoIntegrationTest() throws Exception {
         // Cria um agendamento primeiro
         AgendamentoVisitaRequestDTO request = new AgendamentoVisitaRequestDTO();
         request.setCustodiadoId(1L);
         request.setVisitanteId(2L);
-        request.setDataHoraAgendamento(LocalDateTime.now().plusDays(1));
+        request.setDataHoraAgendamento(proximaVisita(DayOfWeek.THURSDAY, 0));
         request.setObservacoes("Agendamento para atualização");
         
         String postResponse = mockMvc.perform(post("/api/agendamentos")
+                .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isCreated())
@@ -70,10 +76,11 @@ class AgendamentoVisitaIntegrationTest {
         Long agendamentoId = response.getId();
         
         // Atualiza o agendamento (por exemplo, altera a data/hora e observações)
-        request.setDataHoraAgendamento(LocalDateTime.now().plusDays(2));
+        request.setDataHoraAgendamento(proximaVisita(DayOfWeek.WEDNESDAY, 1));
         request.setObservacoes("Agendamento atualizado");
         
         mockMvc.perform(put("/api/agendamentos/" + agendamentoId)
+                .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isOk())
@@ -81,16 +88,17 @@ class AgendamentoVisitaIntegrationTest {
     }
     
     @Test
-    @WithMockUser(roles = "USER")
+    @WithMockUser(username = "user@seape.df.gov.br", roles = "USER")
     void cancelarAgendamentoIntegrationTest() throws Exception {
         // Cria um agendamento para cancelamento
         AgendamentoVisitaRequestDTO request = new AgendamentoVisitaRequestDTO();
         request.setCustodiadoId(1L);
         request.setVisitanteId(2L);
-        request.setDataHoraAgendamento(LocalDateTime.now().plusDays(1));
+        request.setDataHoraAgendamento(proximaVisita(DayOfWeek.THURSDAY, 1));
         request.setObservacoes("Agendamento para cancelamento");
         
         String postResponse = mockMvc.perform(post("/api/agendamentos")
+                .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isCreated())
@@ -100,7 +108,15 @@ class AgendamentoVisitaIntegrationTest {
         Long agendamentoId = response.getId();
         
         // Executa o cancelamento
-        mockMvc.perform(delete("/api/agendamentos/" + agendamentoId))
+        mockMvc.perform(delete("/api/agendamentos/" + agendamentoId).with(csrf()))
             .andExpect(status().isNoContent());
     }
+
+    /**
+     * Data em dia e horário de visita permitidos, independente do dia da execução.
+     * Cada teste usa um dia distinto para não conflitar com os agendamentos dos demais.
+     */
+    private static LocalDateTime proximaVisita(DayOfWeek dia, int semanasAdiante) {
+        return LocalDate.now().with(TemporalAdjusters.next(dia)).plusWeeks(semanasAdiante).atTime(12, 0);
+    }
 }
@@ -0,0 +1,124 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import gov.df.seape.sistema.visitas.model.AgendamentoVisita;
+import gov.df.seape.sistema.visitas.model.Custodiado;
+import gov.df.seape.sistema.visitas.model.Pessoa;
+import gov.df.seape.sistema.visitas.model.Status;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.model.Visitante;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Os dados são gravados em transações confirmadas: a estratégia READ_WRITE só
+ * armazena no cache entidades cuja inserção já foi confirmada.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AgendamentoVisitaCacheTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AgendamentoVisitaRepository agendamentoVisitaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+    private SessionFactory sessionFactory;
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        estatisticas = sessionFactory.getStatistics();
+        transacao.executeWithoutResult(status -> persistirAgendamentos());
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transacao.executeWithoutResult(status -> {
+            for (String entidade : new String[] {"AgendamentoVisita", "Visitante", "Custodiado", "Pessoa", "UnidadePenal", "Status"}) {
+                entityManager.getEntityManager().createQuery("DELETE FROM " + entidade).executeUpdate();
+            }
+        });
+    }
+
+    private void persistirAgendamentos() {
+
+        Status agendado = entityManager.persist(new Status("AGENDADO"));
+        Status confirmado = entityManager.persist(new Status("CONFIRMADO"));
+
+        UnidadePenal unidade = new UnidadePenal();
+        unidade.setNome("Unidade de Teste");
+        unidade.setCapacidade(100);
+        entityManager.persist(unidade);
+
+        Pessoa pessoaCustodiado = entityManager.persist(
+                new Pessoa("Custodiado Teste", "52998224725", LocalDate.of(1990, 1, 1)));
+        Custodiado custodiado = entityManager.persist(
+                new Custodiado(pessoaCustodiado, "PRONT-CACHE-1", null, unidade));
+
+        Pessoa pessoaVisitante = entityManager.persist(
+                new Pessoa("Visitante Teste", "11144477735", LocalDate.of(1985, 6, 15)));
+        Visitante visitante = new Visitante();
+        visitante.setPessoa(pessoaVisitante);
+        entityManager.persist(visitante);
+
+        for (int i = 1; i <= 10; i++) {
+            AgendamentoVisita agendamento = new AgendamentoVisita();
+            agendamento.setCustodiado(custodiado);
+            agendamento.setVisitante(visitante);
+            agendamento.setDataHoraAgendamento(LocalDateTime.now().plusDays(i));
+            agendamento.setStatus(i % 2 == 0 ? agendado : confirmado);
+            entityManager.persist(agendamento);
+        }
+    }
+
+    @Test
+    void paginaDeAgendamentosDeveReutilizarStatusDoCacheDeSegundoNivel() {
+        long comandosSemCache = contarComandosAoCarregarPagina();
+        long comandosComCache = contarComandosAoCarregarPagina();
+
+        assertTrue(comandosComCache < comandosSemCache,
+                "Esperado menos comandos SQL com o cache aquecido: "
+                        + comandosSemCache + " -> " + comandosComCache);
+        assertTrue(estatisticas.getSecondLevelCacheHitCount() > 0);
+    }
+
+    private long contarComandosAoCarregarPagina() {
+        estatisticas.clear();
+
+        transacao.executeWithoutResult(status -> {
+            Page<AgendamentoVisita> pagina = agendamentoVisitaRepository.findAll(PageRequest.of(0, 20));
+            pagina.forEach(a -> assertNotNull(a.getStatus().getDescricao()));
+        });
+
+        return estatisticas.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,122 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import gov.df.seape.sistema.visitas.model.BloqueioUnidade;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.util.CalendarioBloqueios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Os dados são gravados em transações confirmadas, para que a trava da unidade seja
+ * disputada por conexões diferentes.
+ */
+@DataJpaTest
+@Import(CalendarioBloqueios.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BloqueioUnidadeRepositoryTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 10, 0, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UnidadePenalRepository unidadePenalRepository;
+
+    @Autowired
+    private CalendarioBloqueios calendarioBloqueios;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+    private Long unidadeId;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        unidadeId = transacao.execute(status -> {
+            UnidadePenal unidade = new UnidadePenal();
+            unidade.setNome("Unidade Bloqueada");
+            entityManager.persist(unidade);
+
+            BloqueioUnidade bloqueio = new BloqueioUnidade();
+            bloqueio.setUnidadePenal(unidade);
+            bloqueio.setInicio(INICIO);
+            bloqueio.setFim(INICIO.plusDays(3));
+            bloqueio.setMotivo("Revista geral");
+            entityManager.persist(bloqueio);
+            return unidade.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transacao.executeWithoutResult(status -> {
+            for (String entidade : new String[] {"BloqueioUnidade", "UnidadePenal"}) {
+                entityManager.getEntityManager().createQuery("DELETE FROM " + entidade).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void confirmarBloqueiosDeveConsultarOBancoAindaQueOCalendarioNaoConhecaOBloqueio() {
+        LocalDateTime dentro = INICIO.plusDays(1).withHour(10);
+        LocalDateTime depois = INICIO.plusDays(4).withHour(10);
+
+        assertFalse(calendarioBloqueios.estaBloqueada(unidadeId, dentro));
+        Set<LocalDateTime> bloqueadas = transacao.execute(status ->
+                calendarioBloqueios.confirmarBloqueios(unidadeId, List.of(dentro, depois)));
+
+        assertEquals(Set.of(dentro), bloqueadas);
+    }
+
+    @Test
+    void bloqueioDeveEsperarOCommitDoAgendamentoQueTravouAUnidade() throws Exception {
+        CountDownLatch unidadeTravada = new CountDownLatch(1);
+        CountDownLatch liberarAgendamento = new CountDownLatch(1);
+        CompletableFuture<Void> agendamento = CompletableFuture.runAsync(() ->
+                transacao.executeWithoutResult(status -> {
+                    calendarioBloqueios.confirmarBloqueios(unidadeId, List.of(INICIO.plusDays(10)));
+                    unidadeTravada.countDown();
+                    aguardar(liberarAgendamento);
+                }));
+        assertTrue(unidadeTravada.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> bloqueio = CompletableFuture.runAsync(() ->
+                transacao.executeWithoutResult(status -> unidadePenalRepository.findByIdComTrava(unidadeId)));
+        Thread.sleep(300);
+        assertFalse(bloqueio.isDone(), "O bloqueio não deve obter a trava antes do commit do agendamento");
+
+        liberarAgendamento.countDown();
+        agendamento.get(5, TimeUnit.SECONDS);
+        bloqueio.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import gov.df.seape.sistema.visitas.exception.AgendamentoConflitanteException;
+import gov.df.seape.sistema.visitas.model.Pessoa;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.model.Visitante;
+import gov.df.seape.sistema.visitas.util.CotasVisitantes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({CotaVisitanteMensalRepository.class, CotasVisitantes.class})
+class CotaVisitanteMensalRepositoryTest {
+
+    private static final int MARCO_2030 = 203003;
+    private static final LocalDateTime VISITA_EM_MARCO = LocalDateTime.of(2030, 3, 13, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CotaVisitanteMensalRepository cotaRepository;
+
+    @Autowired
+    private CotasVisitantes cotasVisitantes;
+
+    private UnidadePenal unidade;
+    private Visitante visitante;
+
+    @BeforeEach
+    void setUp() {
+        unidade = new UnidadePenal();
+        unidade.setNome("Unidade com Cota");
+        unidade.setCotaMensalVisitante(2);
+        entityManager.persist(unidade);
+
+        visitante = new Visitante();
+        visitante.setPessoa(entityManager.persist(
+                new Pessoa("Visitante Cota", "11144477735", LocalDate.of(1985, 6, 15))));
+        entityManager.persist(visitante);
+        entityManager.flush();
+    }
+
+    @Test
+    void consumirDeveRecusarQuandoCotaDoMesEstiverEsgotada() {
+        assertTrue(cotaRepository.consumir(visitante.getId(), unidade.getId(), MARCO_2030, 2));
+        assertTrue(cotaRepository.consumir(visitante.getId(), unidade.getId(), MARCO_2030, 2));
+
+        assertFalse(cotaRepository.consumir(visitante.getId(), unidade.getId(), MARCO_2030, 2));
+        assertEquals(Map.of(visitante.getId(), 2),
+                cotaRepository.buscarVisitas(unidade.getId(), MARCO_2030, List.of(visitante.getId())));
+    }
+
+    @Test
+    void consumirDeveContarCadaMesSeparadamente() {
+        cotaRepository.consumir(visitante.getId(), unidade.getId(), MARCO_2030, 1);
+
+        assertFalse(cotaRepository.consumir(visitante.getId(), unidade.getId(), MARCO_2030, 1));
+        assertTrue(cotaRepository.consumir(visitante.getId(), unidade.getId(), MARCO_2030 + 1, 1));
+    }
+
+    @Test
+    void cotaEsgotadaDeveRecusarAgendamentoAteQueUmaVisitaSejaDevolvida() {
+        cotasVisitantes.consumir(visitante.getId(), unidade, VISITA_EM_MARCO);
+        cotasVisitantes.consumir(visitante.getId(), unidade, VISITA_EM_MARCO.plusDays(7));
+
+        AgendamentoConflitanteException excecao = assertThrows(AgendamentoConflitanteException.class,
+                () -> cotasVisitantes.consumir(visitante.getId(), unidade, VISITA_EM_MARCO.plusDays(14)));
+        assertEquals(CotasVisitantes.mensagemCotaEsgotada(unidade), excecao.getMessage());
+
+        cotasVisitantes.devolver(visitante.getId(), unidade, VISITA_EM_MARCO);
+        assertDoesNotThrow(() -> cotasVisitantes.consumir(visitante.getId(), unidade, VISITA_EM_MARCO.plusDays(14)));
+    }
+
+    @Test
+    void unidadeSemCotaNaoDeveLimitarVisitas() {
+        unidade.setCotaMensalVisitante(null);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cotasVisitantes.tentarConsumir(visitante.getId(), unidade, VISITA_EM_MARCO));
+        }
+        assertTrue(cotaRepository.buscarVisitas(unidade.getId(), MARCO_2030, List.of(visitante.getId())).isEmpty());
+    }
+}
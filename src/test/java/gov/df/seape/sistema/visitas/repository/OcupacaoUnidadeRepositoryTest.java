@@ -0,0 +1,118 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.util.VagasUnidades;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Os dados são gravados em transações confirmadas, para que as vagas movidas em transação
+ * própria sejam vistas por outras conexões.
+ */
+@DataJpaTest
+@Import(VagasUnidades.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OcupacaoUnidadeRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UnidadePenalRepository unidadePenalRepository;
+
+    @Autowired
+    private VagasUnidades vagasUnidades;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+    private UnidadePenal origem;
+    private UnidadePenal destino;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        origem = criarUnidade("Unidade de Origem", null, 2);
+        destino = criarUnidade("Unidade de Destino", 2, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transacao.executeWithoutResult(status ->
+                entityManager.getEntityManager().createQuery("DELETE FROM UnidadePenal").executeUpdate());
+    }
+
+    @Test
+    void transferenciaNaoDeveManterAUnidadeTravadaAteOCommit() throws Exception {
+        transacao.executeWithoutResult(status -> {
+            vagasUnidades.transferir(Map.of(origem.getId(), 1), destino, 1);
+
+            CompletableFuture<Integer> outraInclusao = CompletableFuture.supplyAsync(() ->
+                    unidadePenalRepository.ocuparVagas(destino.getId(), 1));
+            assertEquals(1, aguardar(outraInclusao));
+        });
+
+        assertEquals(1, ocupacao(origem));
+        assertEquals(2, ocupacao(destino));
+    }
+
+    @Test
+    void rollbackDeveReverterAsVagasMovidas() {
+        assertThrows(IllegalStateException.class, () -> transacao.executeWithoutResult(status -> {
+            vagasUnidades.transferir(Map.of(origem.getId(), 1), destino, 1);
+            assertEquals(1, ocupacao(destino));
+            throw new IllegalStateException("falha após mover as vagas");
+        }));
+
+        assertEquals(2, ocupacao(origem));
+        assertEquals(0, ocupacao(destino));
+    }
+
+    @Test
+    void destinoSemCapacidadeNaoDeveMoverNenhumaVaga() {
+        assertThrows(OperacaoInvalidaException.class, () -> transacao.executeWithoutResult(status ->
+                vagasUnidades.transferir(Map.of(origem.getId(), 2), destino, 3)));
+
+        assertEquals(2, ocupacao(origem));
+        assertEquals(0, ocupacao(destino));
+    }
+
+    private UnidadePenal criarUnidade(String nome, Integer capacidade, int ocupacao) {
+        return transacao.execute(status -> {
+            UnidadePenal unidade = new UnidadePenal();
+            unidade.setNome(nome);
+            unidade.setCapacidade(capacidade);
+            unidade.setOcupacao(ocupacao);
+            return entityManager.persist(unidade);
+        });
+    }
+
+    private int ocupacao(UnidadePenal unidade) {
+        return transacao.execute(status -> unidadePenalRepository.findById(unidade.getId()).orElseThrow().getOcupacao());
+    }
+
+    private static int aguardar(CompletableFuture<Integer> futuro) {
+        try {
+            return futuro.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
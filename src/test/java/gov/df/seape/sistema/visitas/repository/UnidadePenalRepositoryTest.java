@@ -0,0 +1,54 @@
+package gov.df.seape.sistema.visitas.repository;
+
+import gov.df.seape.sistema.visitas.model.Custodiado;
+import gov.df.seape.sistema.visitas.model.Pessoa;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UnidadePenalRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UnidadePenalRepository unidadePenalRepository;
+
+    @Test
+    void reconciliarOcupacaoDeveCorrigirApenasAsUnidadesDivergentes() {
+        UnidadePenal semContador = criarUnidade("Unidade Anterior ao Contador", 0);
+        UnidadePenal correta = criarUnidade("Unidade Correta", 1);
+        UnidadePenal vazia = criarUnidade("Unidade Vazia", 3);
+        criarCustodiado(semContador, "P-1", "11144477735");
+        criarCustodiado(semContador, "P-2", "52998224725");
+        criarCustodiado(correta, "P-3", "39053344705");
+        entityManager.flush();
+
+        assertEquals(2, unidadePenalRepository.reconciliarOcupacao());
+
+        entityManager.clear();
+        assertEquals(2, entityManager.find(UnidadePenal.class, semContador.getId()).getOcupacao());
+        assertEquals(1, entityManager.find(UnidadePenal.class, correta.getId()).getOcupacao());
+        assertEquals(0, entityManager.find(UnidadePenal.class, vazia.getId()).getOcupacao());
+        assertEquals(0, unidadePenalRepository.reconciliarOcupacao());
+    }
+
+    private UnidadePenal criarUnidade(String nome, int ocupacao) {
+        UnidadePenal unidade = new UnidadePenal();
+        unidade.setNome(nome);
+        unidade.setOcupacao(ocupacao);
+        return entityManager.persist(unidade);
+    }
+
+    private void criarCustodiado(UnidadePenal unidade, String prontuario, String cpf) {
+        Pessoa pessoa = entityManager.persist(new Pessoa("Custodiado " + prontuario, cpf, LocalDate.of(1990, 1, 1)));
+        entityManager.persist(new Custodiado(pessoa, prontuario, null, unidade));
+    }
+}
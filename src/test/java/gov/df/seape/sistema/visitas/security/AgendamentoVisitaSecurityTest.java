@@ -1,22 +1,33 @@
 package gov.df.seape.sistema.visitas.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.df.seape.sistema.visitas.controller.AgendamentoVisitaController;
 import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaRequestDTO;
+import gov.df.seape.sistema.visitas.service.AgendamentoVisitaService;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest // Carrega apenas os controllers (limitado aos endpoints)
+@WebMvcTest(AgendamentoVisitaController.class) // Carrega apenas o controller de agendamentos
 class AgendamentoVisitaSecurityTest {
 
     @Autowired
     private MockMvc mockMvc;
+
+    @MockBean
+    private AgendamentoVisitaService agendamentoVisitaService;
+
+    @MockBean
+    private RegistroVersoes registroVersoes;
     
     @Autowired
     private ObjectMapper objectMapper;
@@ -31,6 +42,7 @@ class AgendamentoVisitaSecurityTest {
         
         // Sem autenticação, espera 401 (Unauthorized)
         mockMvc.perform(post("/api/agendamentos")
+                .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isUnauthorized());
@@ -47,6 +59,7 @@ class AgendamentoVisitaSecurityTest {
         
         // Com autenticação, espera que o endpoint retorne sucesso (por exemplo, 201 Created)
         mockMvc.perform(post("/api/agendamentos")
+                .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isCreated());
@@ -63,6 +76,7 @@ class AgendamentoVisitaSecurityTest {
         request.setObservacoes("Teste segurança com ADMIN");
         
         mockMvc.perform(post("/api/agendamentos")
+                .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isCreated());
@@ -0,0 +1,53 @@
+package gov.df.seape.sistema.visitas.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArvorePermissoesTest {
+
+    @Test
+    void authorityLiteralDevePermitirApenasAuthorityIdentica() {
+        ArvorePermissoes arvore = ArvorePermissoes.compilar(List.of("api.agendamentos.read"));
+
+        assertTrue(arvore.permite("api.agendamentos.read"));
+        assertFalse(arvore.permite("api.agendamentos.create"));
+        assertFalse(arvore.permite("api.agendamentos"));
+    }
+
+    @Test
+    void curingaFinalDevePermitirSegmentosRestantes() {
+        ArvorePermissoes arvore = ArvorePermissoes.compilar(List.of("api.custodiados.*"));
+
+        assertTrue(arvore.permite("api.custodiados.read"));
+        assertTrue(arvore.permite("api.custodiados.transferencias.create"));
+        assertFalse(arvore.permite("api.custodiados"));
+        assertFalse(arvore.permite("api.visitantes.read"));
+    }
+
+    @Test
+    void curingaIntermediarioDevePermitirExatamenteUmSegmento() {
+        ArvorePermissoes arvore = ArvorePermissoes.compilar(List.of("api.*.read"));
+
+        assertTrue(arvore.permite("api.visitantes.read"));
+        assertFalse(arvore.permite("api.visitantes.create"));
+        assertFalse(arvore.permite("api.visitantes.extra.read"));
+    }
+
+    @Test
+    void comparacaoDeveIgnorarMaiusculas() {
+        ArvorePermissoes arvore = ArvorePermissoes.compilar(List.of("API.Usuarios.*"));
+
+        assertTrue(arvore.permite("api.usuarios.update"));
+    }
+
+    @Test
+    void arvoreVaziaNaoDevePermitirNada() {
+        ArvorePermissoes arvore = ArvorePermissoes.compilar(List.of());
+
+        assertFalse(arvore.permite("api.agendamentos.read"));
+        assertFalse(arvore.permite(null));
+    }
+}
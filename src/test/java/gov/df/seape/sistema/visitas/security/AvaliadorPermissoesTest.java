@@ -0,0 +1,93 @@
+package gov.df.seape.sistema.visitas.security;
+
+import gov.df.seape.sistema.visitas.repository.UsuarioRepository;
+import gov.df.seape.sistema.visitas.repository.VincPerfilFuncionalidadeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvaliadorPermissoesTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private VincPerfilFuncionalidadeRepository vincPerfilFuncionalidadeRepository;
+
+    @InjectMocks
+    private AvaliadorPermissoes permissoes;
+
+    @Test
+    void tokenClientCredentialsDeveUsarEscopos() {
+        when(usuarioRepository.findPerfilIdByEmail("api-client")).thenReturn(Optional.empty());
+        JwtAuthenticationToken token = tokenApenasComEscopos("api-client", "SCOPE_api.read");
+
+        assertTrue(permissoes.possui(token, "api.agendamentos.read"));
+        assertTrue(permissoes.possui(token, "api.pessoas.duplicidades.read"));
+        assertFalse(permissoes.possui(token, "api.agendamentos.create"));
+        assertFalse(permissoes.possui(token, "api.usuarios.read"));
+        verifyNoInteractions(vincPerfilFuncionalidadeRepository);
+    }
+
+    @Test
+    void escopoDeEscritaDeveConcederOperacoesDaApi() {
+        when(usuarioRepository.findPerfilIdByEmail("api-client")).thenReturn(Optional.empty());
+        JwtAuthenticationToken token = tokenApenasComEscopos("api-client", "SCOPE_api.read", "SCOPE_api.write");
+
+        assertTrue(permissoes.possui(token, "api.agendamentos.create"));
+        assertTrue(permissoes.possui(token, "api.custodiados.transfer"));
+    }
+
+    @Test
+    void escopoDeEscritaNaoDeveConcederAdministracaoDeUsuarios() {
+        when(usuarioRepository.findPerfilIdByEmail("api-client")).thenReturn(Optional.empty());
+        JwtAuthenticationToken token = tokenApenasComEscopos("api-client", "SCOPE_api.read", "SCOPE_api.write");
+
+        assertFalse(permissoes.possui(token, "api.usuarios.create"));
+        assertFalse(permissoes.possui(token, "api.usuarios.update"));
+        assertFalse(permissoes.possui(token, "api.usuarios.revoke"));
+        assertFalse(permissoes.possui(token, "api.unidades-penais.bloqueio"));
+    }
+
+    @Test
+    void escopoDesconhecidoNaoDeveConcederPermissoes() {
+        when(usuarioRepository.findPerfilIdByEmail("api-client")).thenReturn(Optional.empty());
+        JwtAuthenticationToken token = tokenApenasComEscopos("api-client", "SCOPE_openid");
+
+        assertFalse(permissoes.possui(token, "api.agendamentos.read"));
+    }
+
+    @Test
+    void usuarioCadastradoDeveUsarPerfilDoCadastro() {
+        when(usuarioRepository.findPerfilIdByEmail("admin@seape.df.gov.br")).thenReturn(Optional.of(1L));
+        when(vincPerfilFuncionalidadeRepository.findAuthoritiesByPerfilId(1L)).thenReturn(List.of("api.*"));
+        UsernamePasswordAuthenticationToken autenticacao = new UsernamePasswordAuthenticationToken(
+                "admin@seape.df.gov.br", null, AuthorityUtils.createAuthorityList("SCOPE_api.read"));
+
+        assertTrue(permissoes.possui(autenticacao, "api.agendamentos.cancel"));
+    }
+
+    private JwtAuthenticationToken tokenApenasComEscopos(String cliente, String... escopos) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(cliente)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+        return new JwtAuthenticationToken(jwt, AuthorityUtils.createAuthorityList(escopos));
+    }
+}
@@ -2,23 +2,37 @@ package gov.df.seape.sistema.visitas.service;
 
 import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaRequestDTO;
 import gov.df.seape.sistema.visitas.dto.AgendamentoVisitaResponseDTO;
+import gov.df.seape.sistema.visitas.dto.SerieAgendamentoRequestDTO;
+import gov.df.seape.sistema.visitas.dto.SerieAgendamentoResponseDTO;
 import gov.df.seape.sistema.visitas.exception.AgendamentoConflitanteException;
 import gov.df.seape.sistema.visitas.exception.HorarioNaoPermitidoException;
+import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
+import gov.df.seape.sistema.visitas.mapper.AgendamentoVisitaMapper;
 import gov.df.seape.sistema.visitas.model.AgendamentoVisita;
 import gov.df.seape.sistema.visitas.model.Custodiado;
+import gov.df.seape.sistema.visitas.model.ModoAlocacao;
 import gov.df.seape.sistema.visitas.model.Status;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
 import gov.df.seape.sistema.visitas.model.Visitante;
+import gov.df.seape.sistema.visitas.repository.AgendamentoLoteRepository;
 import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
 import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
 import gov.df.seape.sistema.visitas.repository.StatusRepository;
 import gov.df.seape.sistema.visitas.repository.VisitanteRepository;
 import gov.df.seape.sistema.visitas.service.impl.AgendamentoVisitaServiceImpl;
+import gov.df.seape.sistema.visitas.util.CalendarioBloqueios;
+import gov.df.seape.sistema.visitas.util.CotasVisitantes;
+import gov.df.seape.sistema.visitas.util.FormatosData;
 import gov.df.seape.sistema.visitas.util.HorarioVisitaUtil;
+import gov.df.seape.sistema.visitas.util.OcupacaoSalas;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
@@ -27,6 +41,7 @@ import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -50,6 +65,24 @@ class AgendamentoVisitaServiceTest {
     
     @Mock
     private HorarioVisitaUtil horarioVisitaUtil;
+
+    @Mock
+    private CalendarioBloqueios calendarioBloqueios;
+
+    @Mock
+    private RegistroVersoes registroVersoes;
+
+    @Mock
+    private AgendamentoLoteRepository agendamentoLoteRepository;
+
+    @Mock
+    private OcupacaoSalas ocupacaoSalas;
+
+    @Mock
+    private CotasVisitantes cotasVisitantes;
+
+    @Spy
+    private AgendamentoVisitaMapper agendamentoVisitaMapper = Mappers.getMapper(AgendamentoVisitaMapper.class);
     
     @InjectMocks
     private AgendamentoVisitaServiceImpl agendamentoService;
@@ -59,6 +92,7 @@ class AgendamentoVisitaServiceTest {
     private Custodiado custodiado;
     private Visitante visitante;
     private Status statusAgendado;
+    private Status statusCancelado;
     private AgendamentoVisita agendamentoSalvo;
     private LocalDateTime dataHoraFutura;
     
@@ -77,6 +111,7 @@ class AgendamentoVisitaServiceTest {
         // Cria um custodiado simulado
         custodiado = new Custodiado();
         custodiado.setId(1L);
+        custodiado.setUnidadePenal(new UnidadePenal());
         
         // Cria um visitante simulado
         visitante = new Visitante();
@@ -87,6 +122,11 @@ class AgendamentoVisitaServiceTest {
         statusAgendado.setId(10L);
         statusAgendado.setDescricao("AGENDADO");
         
+        // Cria o status "CANCELADO", usado para ignorar agendamentos cancelados nos conflitos
+        statusCancelado = new Status();
+        statusCancelado.setId(20L);
+        statusCancelado.setDescricao("CANCELADO");
+        
         // Cria o agendamento que será retornado no salvamento
         agendamentoSalvo = new AgendamentoVisita();
         agendamentoSalvo.setId(100L);
@@ -105,6 +145,7 @@ class AgendamentoVisitaServiceTest {
         when(custodiadoRepository.findById(request.getCustodiadoId())).thenReturn(Optional.of(custodiado));
         when(visitanteRepository.findById(request.getVisitanteId())).thenReturn(Optional.of(visitante));
         when(statusRepository.findByDescricaoIgnoreCase("AGENDADO")).thenReturn(Optional.of(statusAgendado));
+        when(statusRepository.findByDescricaoIgnoreCase("CANCELADO")).thenReturn(Optional.of(statusCancelado));
         
         // Simula que não há agendamentos no mesmo dia
         when(agendamentoRepository.countByCustodiadoIdAndDataHoraAgendamentoBetween(
@@ -135,6 +176,7 @@ class AgendamentoVisitaServiceTest {
         assertNotNull(response);
         assertEquals(100L, response.getId());
         assertEquals("AGENDADO", response.getDescricaoStatus());
+        assertEquals(FormatosData.DATA_HORA.format(dataHoraFutura), response.getDataHoraFormatada());
     }
     
     @Test
@@ -151,6 +193,20 @@ class AgendamentoVisitaServiceTest {
         verify(agendamentoRepository, never()).save(any(AgendamentoVisita.class));
     }
     
+    @Test
+    void criarAgendamentoForaDasRegrasDaUnidade() {
+        // A janela geral permite o horário, mas a unidade só recebe visitas à tarde
+        custodiado.getUnidadePenal().setHorarioInicioVisita(LocalTime.of(14, 0));
+        when(horarioVisitaUtil.isHorarioPermitido(dataHoraFutura)).thenReturn(true);
+        when(custodiadoRepository.findById(request.getCustodiadoId())).thenReturn(Optional.of(custodiado));
+
+        assertThrows(HorarioNaoPermitidoException.class, () -> {
+            agendamentoService.criarAgendamento(request);
+        });
+
+        verify(agendamentoRepository, never()).save(any(AgendamentoVisita.class));
+    }
+
     @Test
     void criarAgendamentoConflito() {
         // Simula horário permitido e entidades encontradas
@@ -158,6 +214,7 @@ class AgendamentoVisitaServiceTest {
         when(custodiadoRepository.findById(request.getCustodiadoId())).thenReturn(Optional.of(custodiado));
         when(visitanteRepository.findById(request.getVisitanteId())).thenReturn(Optional.of(visitante));
         when(statusRepository.findByDescricaoIgnoreCase("AGENDADO")).thenReturn(Optional.of(statusAgendado));
+        when(statusRepository.findByDescricaoIgnoreCase("CANCELADO")).thenReturn(Optional.of(statusCancelado));
         when(agendamentoRepository.countByCustodiadoIdAndDataHoraAgendamentoBetween(
                 eq(custodiado.getId()),
                 any(),
@@ -180,6 +237,81 @@ class AgendamentoVisitaServiceTest {
         verify(agendamentoRepository, never()).save(any(AgendamentoVisita.class));
     }
     
+    @Test
+    void criarAgendamentoRecusaBloqueioGravadoAposACargaDoCalendario() {
+        // O calendário em memória ainda não recebeu o bloqueio, mas o banco já o tem
+        custodiado.getUnidadePenal().setId(5L);
+        custodiado.getUnidadePenal().setNome("Unidade Bloqueada");
+        Status statusCancelado = new Status();
+        statusCancelado.setId(20L);
+        statusCancelado.setDescricao("CANCELADO");
+        when(horarioVisitaUtil.isHorarioPermitido(dataHoraFutura)).thenReturn(true);
+        when(custodiadoRepository.findById(request.getCustodiadoId())).thenReturn(Optional.of(custodiado));
+        when(visitanteRepository.findById(request.getVisitanteId())).thenReturn(Optional.of(visitante));
+        when(statusRepository.findByDescricaoIgnoreCase("AGENDADO")).thenReturn(Optional.of(statusAgendado));
+        when(statusRepository.findByDescricaoIgnoreCase("CANCELADO")).thenReturn(Optional.of(statusCancelado));
+        when(agendamentoRepository.findAgendamentosConflitantes(eq(1L), any(), any(), anyLong())).thenReturn(List.of());
+        when(calendarioBloqueios.confirmarBloqueios(5L, List.of(dataHoraFutura))).thenReturn(Set.of(dataHoraFutura));
+
+        HorarioNaoPermitidoException excecao = assertThrows(HorarioNaoPermitidoException.class,
+                () -> agendamentoService.criarAgendamento(request));
+
+        assertTrue(excecao.getMessage().contains("Unidade Bloqueada"));
+        verifyNoInteractions(ocupacaoSalas, cotasVisitantes);
+        verify(agendamentoRepository, never()).save(any(AgendamentoVisita.class));
+    }
+
+    @Test
+    void criarSerieRecusaOcorrenciaComConflitoDoVisitante() {
+        LocalDateTime segundaVisita = dataHoraFutura.plusWeeks(1);
+        SerieAgendamentoRequestDTO serie = new SerieAgendamentoRequestDTO(1L, 2L, dataHoraFutura, 2, null);
+        Status statusCancelado = new Status();
+        statusCancelado.setId(20L);
+        statusCancelado.setDescricao("CANCELADO");
+
+        when(custodiadoRepository.findById(1L)).thenReturn(Optional.of(custodiado));
+        when(visitanteRepository.findById(2L)).thenReturn(Optional.of(visitante));
+        when(statusRepository.findByDescricaoIgnoreCase("AGENDADO")).thenReturn(Optional.of(statusAgendado));
+        when(statusRepository.findByDescricaoIgnoreCase("CANCELADO")).thenReturn(Optional.of(statusCancelado));
+        when(horarioVisitaUtil.isHorarioPermitido(any())).thenReturn(true);
+        when(cotasVisitantes.tentarConsumir(2L, custodiado.getUnidadePenal(), dataHoraFutura)).thenReturn(true);
+        when(ocupacaoSalas.tentarOcupar(custodiado.getUnidadePenal(), dataHoraFutura)).thenReturn(true);
+
+        // O visitante já tem visita marcada no horário da segunda ocorrência
+        when(agendamentoRepository.findDataHoraDoVisitanteNoPeriodo(eq(2L), any(), any()))
+                .thenReturn(List.of(segundaVisita));
+        when(agendamentoRepository.findIdsDaSerie(eq(1L), eq(2L), eq(10L), any()))
+                .thenReturn(List.<Object[]>of(new Object[] {100L, dataHoraFutura}));
+
+        SerieAgendamentoResponseDTO resultado = agendamentoService.criarSerie(serie);
+
+        assertEquals(1, resultado.getTotalCriados());
+        assertEquals(1, resultado.getTotalRecusados());
+        assertEquals(100L, resultado.getOcorrencias().get(0).getAgendamentoId());
+        assertFalse(resultado.getOcorrencias().get(1).isCriado());
+        assertNotNull(resultado.getOcorrencias().get(1).getMotivoRecusa());
+
+        // Apenas a ocorrência válida vai para o lote, e a série toda usa duas consultas de período
+        verify(agendamentoLoteRepository).inserir(argThat(lote -> lote.size() == 1), eq(10L));
+        verify(agendamentoRepository).findDataHoraEStatusDoCustodiadoNoPeriodo(eq(1L), any(), any());
+        verify(agendamentoRepository, never()).save(any(AgendamentoVisita.class));
+    }
+
+    @Test
+    void atualizarAgendamentoEmUnidadeComSorteioDeveSerRecusado() {
+        // As vagas dessa unidade só são distribuídas pelo sorteio das solicitações
+        custodiado.getUnidadePenal().setModoAlocacao(ModoAlocacao.SORTEIO);
+        when(agendamentoRepository.findById(100L)).thenReturn(Optional.of(agendamentoSalvo));
+        when(horarioVisitaUtil.isHorarioPermitido(dataHoraFutura.plusHours(1))).thenReturn(true);
+        request.setDataHoraAgendamento(dataHoraFutura.plusHours(1));
+
+        assertThrows(OperacaoInvalidaException.class, () -> {
+            agendamentoService.atualizarAgendamento(100L, request);
+        });
+
+        verify(agendamentoRepository, never()).save(any(AgendamentoVisita.class));
+    }
+
     @Test
     void cancelarAgendamentoSucesso() {
         // Simula que o agendamento existe e está em estado "AGENDADO"
@@ -190,14 +322,13 @@ class AgendamentoVisitaServiceTest {
         statusCancelado.setDescricao("CANCELADO");
         when(statusRepository.findByDescricaoIgnoreCase("CANCELADO")).thenReturn(Optional.of(statusCancelado));
         
-        // Ao cancelar, simula a atualização do agendamento com o novo status
-        agendamentoSalvo.setStatus(statusCancelado);
         when(agendamentoRepository.save(any(AgendamentoVisita.class))).thenReturn(agendamentoSalvo);
         
         // Executa o cancelamento
         agendamentoService.cancelarAgendamento(100L);
         
-        // Verifica se o status foi atualizado
+        // Verifica se o status foi atualizado e gravado
         assertEquals("CANCELADO", agendamentoSalvo.getStatus().getDescricao());
+        verify(agendamentoRepository).save(agendamentoSalvo);
     }
 }
@@ -0,0 +1,161 @@
+package gov.df.seape.sistema.visitas.service;
+
+import gov.df.seape.sistema.visitas.busca.IndiceNomes;
+import gov.df.seape.sistema.visitas.dto.CustodiadoRequestDTO;
+import gov.df.seape.sistema.visitas.exception.OperacaoInvalidaException;
+import gov.df.seape.sistema.visitas.mapper.CustodiadoMapper;
+import gov.df.seape.sistema.visitas.model.Custodiado;
+import gov.df.seape.sistema.visitas.model.Pessoa;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
+import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
+import gov.df.seape.sistema.visitas.repository.PessoaRepository;
+import gov.df.seape.sistema.visitas.repository.SolicitacaoVisitaRepository;
+import gov.df.seape.sistema.visitas.repository.StatusRepository;
+import gov.df.seape.sistema.visitas.repository.UnidadePenalRepository;
+import gov.df.seape.sistema.visitas.service.impl.CustodiadoServiceImpl;
+import gov.df.seape.sistema.visitas.util.CotasVisitantes;
+import gov.df.seape.sistema.visitas.util.OcupacaoSalas;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
+import gov.df.seape.sistema.visitas.util.VagasUnidades;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustodiadoServiceTest {
+
+    @Mock
+    private CustodiadoRepository custodiadoRepository;
+
+    @Mock
+    private PessoaRepository pessoaRepository;
+
+    @Mock
+    private UnidadePenalRepository unidadePenalRepository;
+
+    @Mock
+    private AgendamentoVisitaRepository agendamentoRepository;
+
+    @Mock
+    private SolicitacaoVisitaRepository solicitacaoVisitaRepository;
+
+    @Mock
+    private StatusRepository statusRepository;
+
+    @Mock
+    private IndiceNomes indiceNomes;
+
+    @Mock
+    private RegistroVersoes registroVersoes;
+
+    @Mock
+    private OcupacaoSalas ocupacaoSalas;
+
+    @Mock
+    private CotasVisitantes cotasVisitantes;
+
+    @Mock
+    private VagasUnidades vagasUnidades;
+
+    @Spy
+    private CustodiadoMapper custodiadoMapper = Mappers.getMapper(CustodiadoMapper.class);
+
+    @InjectMocks
+    private CustodiadoServiceImpl custodiadoService;
+
+    private UnidadePenal origem;
+    private UnidadePenal destino;
+    private Custodiado custodiado;
+    private CustodiadoRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        origem = criarUnidade(1L, "Unidade de Origem");
+        destino = criarUnidade(2L, "Unidade de Destino");
+
+        Pessoa pessoa = new Pessoa("Custodiado Teste", "52998224725", LocalDate.of(1990, 1, 1));
+        pessoa.setId(10L);
+        custodiado = new Custodiado(pessoa, "PRONT-1", null, origem);
+        custodiado.setId(100L);
+
+        request = new CustodiadoRequestDTO();
+        request.setNome("Custodiado Teste");
+        request.setCpf("52998224725");
+        request.setDataNascimento(LocalDate.of(1990, 1, 1));
+        request.setNumeroProntuario("PRONT-1");
+
+        when(custodiadoRepository.findById(100L)).thenReturn(Optional.of(custodiado));
+        // Usados apenas pelos testes de atualização
+        lenient().when(custodiadoRepository.findByNumeroProntuario("PRONT-1")).thenReturn(Optional.of(custodiado));
+        lenient().when(pessoaRepository.findByCpf(anyString())).thenReturn(Optional.of(pessoa));
+        lenient().when(custodiadoRepository.save(any(Custodiado.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void atualizarCustodiadoComMudancaDeUnidadeDeveRecalcularSalasECotasDaOrigemEDoDestino() {
+        request.setUnidadePenalId(2L);
+        when(unidadePenalRepository.findById(2L)).thenReturn(Optional.of(destino));
+
+        custodiadoService.atualizarCustodiado(100L, request);
+
+        assertSame(destino, custodiado.getUnidadePenal());
+        verify(vagasUnidades).transferir(Map.of(1L, 1), destino, 1);
+        verify(ocupacaoSalas).recalcular(origem, LocalDate.now());
+        verify(ocupacaoSalas).recalcular(destino, LocalDate.now());
+        verify(cotasVisitantes).recalcular(origem, LocalDate.now());
+        verify(cotasVisitantes).recalcular(destino, LocalDate.now());
+    }
+
+    @Test
+    void atualizarCustodiadoSemMudancaDeUnidadeNaoDeveRecalcularSalasNemCotas() {
+        request.setUnidadePenalId(1L);
+        when(unidadePenalRepository.findById(1L)).thenReturn(Optional.of(origem));
+
+        custodiadoService.atualizarCustodiado(100L, request);
+
+        verifyNoInteractions(vagasUnidades);
+        verifyNoInteractions(ocupacaoSalas, cotasVisitantes);
+    }
+
+    @Test
+    void excluirCustodiadoDeveLiberarAVagaDaUnidade() {
+        custodiadoService.excluirCustodiado(100L);
+
+        verify(custodiadoRepository).delete(custodiado);
+        verify(vagasUnidades).liberar(1L, 1);
+        verify(registroVersoes).registrarAlteracao(
+                RegistroVersoes.custodiadosDaUnidade(1L), RegistroVersoes.CADASTROS);
+    }
+
+    @Test
+    void excluirCustodiadoComAgendamentosDeveSerRecusado() {
+        when(agendamentoRepository.existsByCustodiadoId(100L)).thenReturn(true);
+
+        assertThrows(OperacaoInvalidaException.class, () -> custodiadoService.excluirCustodiado(100L));
+
+        verify(custodiadoRepository, never()).delete(any(Custodiado.class));
+        verifyNoInteractions(vagasUnidades);
+    }
+
+    private static UnidadePenal criarUnidade(Long id, String nome) {
+        UnidadePenal unidade = new UnidadePenal();
+        unidade.setId(id);
+        unidade.setNome(nome);
+        return unidade;
+    }
+}
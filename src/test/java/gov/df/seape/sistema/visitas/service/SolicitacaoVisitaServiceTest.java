@@ -0,0 +1,195 @@
+package gov.df.seape.sistema.visitas.service;
+
+import gov.df.seape.sistema.visitas.mapper.SolicitacaoVisitaMapper;
+import gov.df.seape.sistema.visitas.model.SituacaoSolicitacao;
+import gov.df.seape.sistema.visitas.model.Status;
+import gov.df.seape.sistema.visitas.model.UnidadePenal;
+import gov.df.seape.sistema.visitas.repository.AgendamentoLoteRepository;
+import gov.df.seape.sistema.visitas.repository.AgendamentoLoteRepository.NovoAgendamento;
+import gov.df.seape.sistema.visitas.repository.AgendamentoVisitaRepository;
+import gov.df.seape.sistema.visitas.repository.CustodiadoRepository;
+import gov.df.seape.sistema.visitas.repository.SolicitacaoVisitaRepository;
+import gov.df.seape.sistema.visitas.repository.StatusRepository;
+import gov.df.seape.sistema.visitas.repository.UnidadePenalRepository;
+import gov.df.seape.sistema.visitas.repository.VisitanteRepository;
+import gov.df.seape.sistema.visitas.service.impl.SolicitacaoVisitaServiceImpl;
+import gov.df.seape.sistema.visitas.util.CalendarioBloqueios;
+import gov.df.seape.sistema.visitas.util.CotasVisitantes;
+import gov.df.seape.sistema.visitas.util.HorarioVisitaUtil;
+import gov.df.seape.sistema.visitas.util.OcupacaoSalas;
+import gov.df.seape.sistema.visitas.util.RegistroVersoes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SolicitacaoVisitaServiceTest {
+
+    @Mock
+    private SolicitacaoVisitaRepository solicitacaoVisitaRepository;
+
+    @Mock
+    private AgendamentoVisitaRepository agendamentoRepository;
+
+    @Mock
+    private AgendamentoLoteRepository agendamentoLoteRepository;
+
+    @Mock
+    private CustodiadoRepository custodiadoRepository;
+
+    @Mock
+    private VisitanteRepository visitanteRepository;
+
+    @Mock
+    private UnidadePenalRepository unidadePenalRepository;
+
+    @Mock
+    private StatusRepository statusRepository;
+
+    @Mock
+    private HorarioVisitaUtil horarioVisitaUtil;
+
+    @Mock
+    private CalendarioBloqueios calendarioBloqueios;
+
+    @Mock
+    private OcupacaoSalas ocupacaoSalas;
+
+    @Mock
+    private CotasVisitantes cotasVisitantes;
+
+    @Mock
+    private RegistroVersoes registroVersoes;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SolicitacaoVisitaServiceImpl solicitacaoService;
+    private UnidadePenal unidade;
+    private LocalDate dia;
+
+    @BeforeEach
+    void setUp() {
+        solicitacaoService = new SolicitacaoVisitaServiceImpl(solicitacaoVisitaRepository, agendamentoRepository,
+                agendamentoLoteRepository, custodiadoRepository, visitanteRepository, unidadePenalRepository,
+                statusRepository, horarioVisitaUtil, calendarioBloqueios, ocupacaoSalas, cotasVisitantes,
+                registroVersoes, Mappers.getMapper(SolicitacaoVisitaMapper.class), transactionManager, 2);
+
+        unidade = new UnidadePenal();
+        unidade.setId(1L);
+        unidade.setNome("Unidade com Sorteio");
+        dia = LocalDate.now().plusDays(1);
+
+        when(statusRepository.findByDescricaoIgnoreCase("AGENDADO")).thenReturn(Optional.of(criarStatus(10L, "AGENDADO")));
+        when(statusRepository.findByDescricaoIgnoreCase("CANCELADO")).thenReturn(Optional.of(criarStatus(20L, "CANCELADO")));
+        lenient().when(unidadePenalRepository.findById(1L)).thenReturn(Optional.of(unidade));
+    }
+
+    @Test
+    void sementeGravadaDeveReproduzirAOrdemDoSorteio() {
+        // Uma única sala: só a primeira solicitação sorteada é atendida
+        unidade.setSalasVisita(1);
+        LocalDateTime horario = dia.atTime(10, 0);
+        List<Object[]> pendentes = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            pendentes.add(new Object[] {id, 100 + id, 200 + id, horario, null});
+        }
+        diasComSolicitacoes(dia);
+        when(solicitacaoVisitaRepository.findDoDiaPorUnidade(eq(1L), eq(SituacaoSolicitacao.PENDENTE), any(), any()))
+                .thenReturn(pendentes);
+
+        assertEquals(1, solicitacaoService.alocarPendentes());
+
+        ArgumentCaptor<Long> semente = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Collection<Long>> atendidas = captor();
+        verify(solicitacaoVisitaRepository).atualizarSituacao(
+                atendidas.capture(), eq(SituacaoSolicitacao.ATENDIDA), isNull(), semente.capture());
+
+        List<Long> ordem = new ArrayList<>(List.of(1L, 2L, 3L, 4L, 5L));
+        Collections.shuffle(ordem, new Random(semente.getValue()));
+        assertEquals(List.of(ordem.get(0)), List.copyOf(atendidas.getValue()));
+
+        ArgumentCaptor<Collection<Long>> recusadas = captor();
+        verify(solicitacaoVisitaRepository).atualizarSituacao(
+                recusadas.capture(), eq(SituacaoSolicitacao.RECUSADA), eq(OcupacaoSalas.MSG_SALAS_OCUPADAS), eq(semente.getValue()));
+        assertEquals(ordem.subList(1, 5), List.copyOf(recusadas.getValue()));
+    }
+
+    @Test
+    void custodiadoNoLimiteDiarioDeveTerASolicitacaoRecusada() {
+        LocalDateTime horario = dia.atTime(10, 0);
+        diasComSolicitacoes(dia);
+        when(solicitacaoVisitaRepository.findDoDiaPorUnidade(eq(1L), eq(SituacaoSolicitacao.PENDENTE), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[] {1L, 101L, 201L, horario, null}));
+        // Duas visitas já agendadas no dia, longe do horário solicitado
+        when(agendamentoRepository.findDataHoraEStatusDaUnidadeNoPeriodo(eq(1L), any(), any())).thenReturn(List.of(
+                new Object[] {101L, dia.atTime(14, 0), 10L},
+                new Object[] {101L, dia.atTime(16, 0), 10L}));
+
+        assertEquals(0, solicitacaoService.alocarPendentes());
+
+        verify(solicitacaoVisitaRepository).atualizarSituacao(eq(List.of(1L)), eq(SituacaoSolicitacao.RECUSADA),
+                contains("limite de 2 visitantes"), anyLong());
+        verify(solicitacaoVisitaRepository, never()).atualizarSituacao(any(), eq(SituacaoSolicitacao.ATENDIDA), any(), any());
+    }
+
+    @Test
+    void falhaEmUmDiaNaoDeveImpedirOSorteioDosDemais() {
+        LocalDate outroDia = dia.plusDays(1);
+        diasComSolicitacoes(dia, outroDia);
+        when(solicitacaoVisitaRepository.findDoDiaPorUnidade(1L, SituacaoSolicitacao.PENDENTE,
+                dia.atStartOfDay(), dia.atTime(23, 59, 59)))
+                .thenThrow(new IllegalStateException("falha ao ler as solicitações"));
+        when(solicitacaoVisitaRepository.findDoDiaPorUnidade(1L, SituacaoSolicitacao.PENDENTE,
+                outroDia.atStartOfDay(), outroDia.atTime(23, 59, 59)))
+                .thenReturn(List.<Object[]>of(new Object[] {7L, 101L, 201L, outroDia.atTime(10, 0), null}));
+
+        assertEquals(1, solicitacaoService.alocarPendentes());
+
+        // Cada dia em sua própria transação: a do primeiro é desfeita, a do segundo confirmada
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+        ArgumentCaptor<List<NovoAgendamento>> novos = captor();
+        verify(agendamentoLoteRepository).inserir(novos.capture(), eq(10L));
+        assertEquals(List.of(new NovoAgendamento(101L, 201L, outroDia.atTime(10, 0), null)), novos.getValue());
+    }
+
+    private void diasComSolicitacoes(LocalDate... dias) {
+        List<Object[]> linhas = new ArrayList<>();
+        for (LocalDate d : dias) {
+            linhas.add(new Object[] {1L, d});
+        }
+        when(solicitacaoVisitaRepository.findDiasComSolicitacoes(eq(SituacaoSolicitacao.PENDENTE), any())).thenReturn(linhas);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ArgumentCaptor<T> captor() {
+        return (ArgumentCaptor<T>) ArgumentCaptor.forClass(Object.class);
+    }
+
+    private static Status criarStatus(Long id, String descricao) {
+        Status status = new Status();
+        status.setId(id);
+        status.setDescricao(descricao);
+        return status;
+    }
+}
@@ -0,0 +1,51 @@
+package gov.df.seape.sistema.visitas.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArvoreOcupacaoTest {
+
+    @Test
+    void maximoDeveContarApenasVisitasSobrepostas() {
+        ArvoreOcupacao arvore = new ArvoreOcupacao();
+        arvore.adicionar(LocalTime.of(9, 0), 60, 1);
+        arvore.adicionar(LocalTime.of(9, 30), 60, 1);
+        arvore.adicionar(LocalTime.of(11, 0), 60, 1);
+
+        assertEquals(2, arvore.maximo(LocalTime.of(9, 0), 60));
+        assertEquals(1, arvore.maximo(LocalTime.of(10, 15), 30));
+        assertEquals(0, arvore.maximo(LocalTime.of(13, 0), 60));
+    }
+
+    @Test
+    void visitasQueApenasSeEncostamNaoSeSobrepoem() {
+        ArvoreOcupacao arvore = new ArvoreOcupacao();
+        arvore.adicionar(LocalTime.of(9, 0), 60, 1);
+
+        assertEquals(0, arvore.maximo(LocalTime.of(10, 0), 60));
+        assertEquals(1, arvore.maximo(LocalTime.of(8, 30), 45));
+    }
+
+    @Test
+    void liberarDeveDesfazerOcupacao() {
+        ArvoreOcupacao arvore = new ArvoreOcupacao();
+        arvore.adicionar(LocalTime.of(14, 0), 90, 1);
+        arvore.adicionar(LocalTime.of(14, 0), 90, 1);
+        arvore.adicionar(LocalTime.of(14, 0), 90, -1);
+
+        assertEquals(1, arvore.maximo(LocalTime.of(15, 0), 15));
+    }
+
+    @Test
+    void visitaNoFimDoDiaDeveSerCortadaNaMeiaNoite() {
+        ArvoreOcupacao arvore = new ArvoreOcupacao();
+        arvore.adicionar(LocalTime.of(23, 30), 120, 1);
+
+        assertEquals(1, arvore.maximo(LocalTime.of(23, 45), 60));
+        assertEquals(0, arvore.maximo(LocalTime.of(0, 0), 60));
+        assertEquals(ArvoreOcupacao.FAIXAS_POR_DIA, ArvoreOcupacao.fimFaixas(LocalTime.of(23, 30), 120));
+    }
+}
@@ -0,0 +1,29 @@
+package gov.df.seape.sistema.visitas.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CpfUtilTest {
+
+    @Test
+    void deveValidarDigitosVerificadores() {
+        assertTrue(CpfUtil.valido("52998224725"));
+        assertTrue(CpfUtil.valido("529.982.247-25"));
+        assertFalse(CpfUtil.valido("52998224724"));
+        assertFalse(CpfUtil.valido("11111111111"));
+        assertFalse(CpfUtil.valido("5299822472"));
+        assertFalse(CpfUtil.valido("529982247251"));
+        assertFalse(CpfUtil.valido("5299822472a"));
+        assertFalse(CpfUtil.valido(null));
+    }
+
+    @Test
+    void deveNormalizarEConverterPreservandoZerosAEsquerda() {
+        assertEquals("01234567890", CpfUtil.normalizar("012.345.678-90"));
+        assertEquals(1234567890L, CpfUtil.paraNumero("012.345.678-90"));
+        assertEquals("01234567890", CpfUtil.formatarDigitos(1234567890L));
+        assertNull(CpfUtil.normalizar("123"));
+        assertNull(CpfUtil.paraNumero(null));
+    }
+}
@@ -0,0 +1,27 @@
+package gov.df.seape.sistema.visitas.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoneticaBRTest {
+
+    @Test
+    void grafiasComOMesmoSomDevemGerarAMesmaChave() {
+        assertEquals(FoneticaBR.codificar("Thiago Souza"), FoneticaBR.codificar("Tiago Sousa"));
+        assertEquals(FoneticaBR.codificar("Raphael"), FoneticaBR.codificar("Rafael"));
+        assertEquals(FoneticaBR.codificar("Conceição"), FoneticaBR.codificar("Conseissao"));
+        assertEquals(FoneticaBR.codificar("Queiroz"), FoneticaBR.codificar("Keiros"));
+    }
+
+    @Test
+    void particulasDevemSerIgnoradas() {
+        assertEquals(FoneticaBR.codificar("João da Silva"), FoneticaBR.codificar("Joao Silva"));
+    }
+
+    @Test
+    void nomesDiferentesDevemGerarChavesDiferentes() {
+        assertNotEquals(FoneticaBR.codificar("Maria Silva"), FoneticaBR.codificar("Marcos Silva"));
+        assertNull(FoneticaBR.codificar(null));
+    }
+}